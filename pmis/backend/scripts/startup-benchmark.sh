@@ -0,0 +1,45 @@
+#!/bin/sh
+# Starts each variant several times and reports the median time from launch to the first HTTP response on PATH,
+# and the resident set size at that moment. Linux only (reads /proc).
+#
+#   startup-benchmark.sh PATH NAME=COMMAND...
+#
+# RUNS (default 3) and PORT (default 18080) can be set in the environment.
+set -eu
+
+path=$1
+shift
+runs=${RUNS:-3}
+port=${PORT:-18080}
+
+median() {
+    sort -n | awk '{ values[NR] = $1 } END { print values[int((NR + 1) / 2)] }'
+}
+
+printf '%-10s %22s %10s\n' variant 'first request (ms)' 'RSS (MB)'
+for variant in "$@"; do
+    name=${variant%%=*}
+    command=${variant#*=}
+    times=''
+    rss=''
+    i=0
+    while [ "$i" -lt "$runs" ]; do
+        start=$(date +%s%N)
+        sh -c "exec $command --server.port=$port --management.server.port=0" > "/tmp/startup-benchmark-$name.log" 2>&1 &
+        pid=$!
+        until curl -s -o /dev/null "http://localhost:$port$path"; do
+            if ! kill -0 "$pid" 2> /dev/null; then
+                echo "$name exited before serving a request, see /tmp/startup-benchmark-$name.log" >&2
+                exit 1
+            fi
+            sleep 0.02
+        done
+        end=$(date +%s%N)
+        times="$times $(( (end - start) / 1000000 ))"
+        rss="$rss $(awk '/VmRSS/ { print int($2 / 1024) }' "/proc/$pid/status")"
+        kill "$pid"
+        wait "$pid" 2> /dev/null || true
+        i=$((i + 1))
+    done
+    printf '%-10s %22s %10s\n' "$name" "$(echo $times | tr ' ' '\n' | median)" "$(echo $rss | tr ' ' '\n' | median)"
+done
@@ -2,8 +2,10 @@ package com.retroboard;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class RetroBoardApplication {
     public static void main(String[] args) {
         SpringApplication.run(RetroBoardApplication.class, args);
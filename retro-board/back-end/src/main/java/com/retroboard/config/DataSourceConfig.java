@@ -0,0 +1,85 @@
+package com.retroboard.config;
+
+import com.retroboard.service.MetricsService;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import javax.sql.DataSource;
+import java.util.Map;
+
+// Only active when a replica is configured; otherwise Spring Boot's single auto-configured DataSource is used
+@Configuration
+@ConditionalOnProperty(prefix = "retroboard.datasource.replica", name = "url")
+public class DataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("retroboard.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(
+            @Value("${retroboard.datasource.replica.url}") String url,
+            @Value("${retroboard.datasource.replica.username:${spring.datasource.username}}") String username,
+            @Value("${retroboard.datasource.replica.password:${spring.datasource.password}}") String password) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+            .type(HikariDataSource.class)
+            .url(url)
+            .username(username)
+            .password(password)
+            .build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(
+            @Qualifier("replicaDataSource") DataSource replicaDataSource,
+            @Value("${retroboard.datasource.replica.max-lag-ms:2000}") long maxLagMs,
+            @Value("${retroboard.datasource.replica.lag-check-interval-ms:1000}") long checkIntervalMs,
+            MetricsService metricsService) {
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(new JdbcTemplate(replicaDataSource), maxLagMs, checkIntervalMs);
+        metricsService.gauge(MetricsService.REPLICA_LAG, "Replication lag measured on the replica in milliseconds (-1 when unreachable)",
+            monitor, ReplicaLagMonitor::getLagMs);
+        return monitor;
+    }
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(
+            @Value("${retroboard.datasource.replica.sticky-window-ms:5000}") long stickyWindowMs) {
+        return new ReadYourWritesTracker(stickyWindowMs);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                 @Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                 ReplicaLagMonitor replicaLagMonitor,
+                                 ReadYourWritesTracker readYourWritesTracker,
+                                 MetricsService metricsService) {
+        ReplicaRoutingDataSource routingDataSource =
+            new ReplicaRoutingDataSource(replicaLagMonitor, readYourWritesTracker, metricsService);
+        routingDataSource.setTargetDataSources(Map.of(
+            ReplicaRoutingDataSource.Target.PRIMARY, primaryDataSource,
+            ReplicaRoutingDataSource.Target.REPLICA, replicaDataSource));
+        routingDataSource.setDefaultTargetDataSource(primaryDataSource);
+        routingDataSource.afterPropertiesSet();
+        
+        // Defer the routing decision until the first statement, when the transaction's read-only flag is known
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+}
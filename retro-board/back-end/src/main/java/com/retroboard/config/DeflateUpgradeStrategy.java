@@ -0,0 +1,75 @@
+package com.retroboard.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.socket.WebSocketExtension;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.server.HandshakeFailureException;
+import org.springframework.web.socket.server.RequestUpgradeStrategy;
+import java.security.Principal;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+
+// Tomcat negotiates permessage-deflate on its own whenever the client offers it, reading the offer straight
+// from the servlet request. When compression is turned off, the offer is hidden from it instead.
+public class DeflateUpgradeStrategy implements RequestUpgradeStrategy {
+
+    private static final String EXTENSIONS_HEADER = "Sec-WebSocket-Extensions";
+
+    private final RequestUpgradeStrategy delegate;
+    private final boolean deflateEnabled;
+
+    public DeflateUpgradeStrategy(RequestUpgradeStrategy delegate, boolean deflateEnabled) {
+        this.delegate = delegate;
+        this.deflateEnabled = deflateEnabled;
+    }
+
+    @Override
+    public String[] getSupportedVersions() {
+        return delegate.getSupportedVersions();
+    }
+
+    @Override
+    public List<WebSocketExtension> getSupportedExtensions(ServerHttpRequest request) {
+        return deflateEnabled ? delegate.getSupportedExtensions(request) : List.of();
+    }
+
+    @Override
+    public void upgrade(ServerHttpRequest request, ServerHttpResponse response, String selectedProtocol,
+                        List<WebSocketExtension> selectedExtensions, Principal user,
+                        WebSocketHandler wsHandler, Map<String, Object> attributes) throws HandshakeFailureException {
+        if (!deflateEnabled && request instanceof ServletServerHttpRequest servletRequest) {
+            request = new ServletServerHttpRequest(new WithoutExtensions(servletRequest.getServletRequest()));
+        }
+        delegate.upgrade(request, response, selectedProtocol, selectedExtensions, user, wsHandler, attributes);
+    }
+
+    private static class WithoutExtensions extends HttpServletRequestWrapper {
+
+        WithoutExtensions(HttpServletRequest request) {
+            super(request);
+        }
+
+        @Override
+        public String getHeader(String name) {
+            return EXTENSIONS_HEADER.equalsIgnoreCase(name) ? null : super.getHeader(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            return EXTENSIONS_HEADER.equalsIgnoreCase(name) ? Collections.emptyEnumeration() : super.getHeaders(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaderNames() {
+            return Collections.enumeration(Collections.list(super.getHeaderNames()).stream()
+                .filter(name -> !EXTENSIONS_HEADER.equalsIgnoreCase(name))
+                .toList());
+        }
+    }
+}
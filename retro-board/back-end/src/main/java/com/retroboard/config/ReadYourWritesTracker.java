@@ -0,0 +1,45 @@
+package com.retroboard.config;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Remembers when each user last wrote, so their reads stay on the primary until the replica has caught up.
+// Stickiness is local to this node; a user bounced to another node right after a write may read stale data
+// for at most the replica lag.
+public class ReadYourWritesTracker {
+
+    private final long stickyWindowMs;
+
+    private final Map<String, Long> lastWriteByUser = new ConcurrentHashMap<>();
+
+    public ReadYourWritesTracker(long stickyWindowMs) {
+        this.stickyWindowMs = stickyWindowMs;
+    }
+
+    public void recordWrite(String username) {
+        lastWriteByUser.put(username, System.currentTimeMillis());
+    }
+
+    public boolean isSticky(String username) {
+        Long lastWrite = lastWriteByUser.get(username);
+        if (lastWrite == null) {
+            return false;
+        }
+        if (System.currentTimeMillis() - lastWrite >= stickyWindowMs) {
+            lastWriteByUser.remove(username, lastWrite);
+            return false;
+        }
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${retroboard.datasource.replica.sticky-window-ms:5000}")
+    public void purgeExpired() {
+        long cutoff = System.currentTimeMillis() - stickyWindowMs;
+        lastWriteByUser.values().removeIf(lastWrite -> lastWrite < cutoff);
+    }
+
+    public int size() {
+        return lastWriteByUser.size();
+    }
+}
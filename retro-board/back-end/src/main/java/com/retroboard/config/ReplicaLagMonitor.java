@@ -0,0 +1,57 @@
+package com.retroboard.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+// Periodically measures replication lag on the replica. Reads fall back to the primary while the
+// lag is above the limit or the replica has not answered a probe recently.
+public class ReplicaLagMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    // Zero when the replica has replayed everything it received (or is not a streaming replica at all),
+    // otherwise the age of the last replayed transaction
+    static final String LAG_QUERY =
+        "SELECT COALESCE(CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+        "ELSE EXTRACT(EPOCH FROM (now() - pg_last_xact_replay_timestamp())) * 1000 END, 0)";
+
+    private final JdbcTemplate replicaJdbcTemplate;
+    private final long maxLagMs;
+    private final long checkIntervalMs;
+
+    private volatile long lagMs = -1;
+    private volatile long lastSuccessfulCheck = 0;
+
+    public ReplicaLagMonitor(JdbcTemplate replicaJdbcTemplate, long maxLagMs, long checkIntervalMs) {
+        this.replicaJdbcTemplate = replicaJdbcTemplate;
+        this.maxLagMs = maxLagMs;
+        this.checkIntervalMs = checkIntervalMs;
+    }
+
+    @Scheduled(fixedDelayString = "${retroboard.datasource.replica.lag-check-interval-ms:1000}")
+    public void checkLag() {
+        try {
+            Double lag = replicaJdbcTemplate.queryForObject(LAG_QUERY, Double.class);
+            lagMs = lag == null ? 0 : lag.longValue();
+            lastSuccessfulCheck = System.currentTimeMillis();
+            if (lagMs > maxLagMs) {
+                logger.warn("Replica lag {} ms exceeds {} ms, routing reads to primary", lagMs, maxLagMs);
+            }
+        } catch (RuntimeException e) {
+            lagMs = -1;
+            logger.warn("Replica lag check failed, routing reads to primary: {}", e.getMessage());
+        }
+    }
+
+    public boolean isReplicaUsable() {
+        // A probe older than three intervals means the monitor (or the replica) is stuck
+        boolean fresh = System.currentTimeMillis() - lastSuccessfulCheck <= checkIntervalMs * 3;
+        return fresh && lagMs >= 0 && lagMs <= maxLagMs;
+    }
+
+    public long getLagMs() {
+        return lagMs;
+    }
+}
@@ -0,0 +1,63 @@
+package com.retroboard.config;
+
+import com.retroboard.service.MetricsService;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Sends @Transactional(readOnly = true) work to the replica and everything else to the primary.
+// Must sit behind a LazyConnectionDataSourceProxy so the lookup happens on the first statement,
+// after the transaction's read-only flag has been bound.
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Target { PRIMARY, REPLICA }
+
+    private final ReplicaLagMonitor lagMonitor;
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final MetricsService metricsService;
+
+    public ReplicaRoutingDataSource(ReplicaLagMonitor lagMonitor, ReadYourWritesTracker readYourWritesTracker,
+                                    MetricsService metricsService) {
+        this.lagMonitor = lagMonitor;
+        this.readYourWritesTracker = readYourWritesTracker;
+        this.metricsService = metricsService;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String username = currentUsername();
+        
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+                return route(Target.PRIMARY, "no_transaction");
+            }
+            // Keep this user's reads on the primary for a while so they see their own write
+            if (username != null) {
+                readYourWritesTracker.recordWrite(username);
+            }
+            return route(Target.PRIMARY, "write");
+        }
+        
+        if (username != null && readYourWritesTracker.isSticky(username)) {
+            return route(Target.PRIMARY, "sticky");
+        }
+        if (!lagMonitor.isReplicaUsable()) {
+            return route(Target.PRIMARY, "lag");
+        }
+        return route(Target.REPLICA, "read");
+    }
+
+    private Target route(Target target, String reason) {
+        metricsService.recordDataSourceRoute(target.name().toLowerCase(), reason);
+        return target;
+    }
+
+    private String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
@@ -1,23 +1,98 @@
 package com.retroboard.config;
 
+import com.retroboard.filter.StompAuthenticationInterceptor;
+import com.retroboard.service.SlowConsumerService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketSession;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.server.standard.ServletServerContainerFactoryBean;
+import org.springframework.web.socket.server.standard.StandardWebSocketUpgradeStrategy;
+import org.springframework.web.socket.server.support.DefaultHandshakeHandler;
 
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    @Autowired
+    private StompAuthenticationInterceptor stompAuthenticationInterceptor;
+
+    @Autowired
+    private SlowConsumerService slowConsumerService;
+
+    @Value("${retroboard.websocket.deflate.enabled:true}")
+    private boolean deflateEnabled;
+
+    @Value("${retroboard.websocket.message-size-limit:65536}")
+    private int messageSizeLimit;
+
+    @Value("${retroboard.websocket.send-buffer-size-limit:524288}")
+    private int sendBufferSizeLimit;
+
+    @Value("${retroboard.websocket.send-time-limit-ms:10000}")
+    private int sendTimeLimitMs;
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        config.enableSimpleBroker("/topic");
+        config.enableSimpleBroker("/topic", "/queue");
         config.setApplicationDestinationPrefixes("/app");
+        config.setUserDestinationPrefix("/user");
+        // Collaborative edit ops must reach subscribers in the order they were applied
+        config.setPreservePublishOrder(true);
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(stompAuthenticationInterceptor);
     }
 
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
         registry.addEndpoint("/ws").setAllowedOriginPatterns("*").withSockJS();
+        // Plain WebSocket without SockJS framing; SockJS only carries text, so binary (CBOR/Smile) subscriptions need this one
+        // Compressed with permessage-deflate when the client offers it
+        registry.addEndpoint("/ws-native")
+            .setHandshakeHandler(new DefaultHandshakeHandler(
+                new DeflateUpgradeStrategy(new StandardWebSocketUpgradeStrategy(), deflateEnabled)))
+            .setAllowedOriginPatterns("*");
+    }
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setMessageSizeLimit(messageSizeLimit);
+        // A subscriber that falls this far behind on a busy board is disconnected instead of buffering without bound
+        registration.setSendBufferSizeLimit(sendBufferSizeLimit);
+        registration.setSendTimeLimit(sendTimeLimitMs);
+        // Sessions get their own outbound queue and writer; the limits above are enforced there
+        registration.addDecoratorFactory(handler -> new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                super.afterConnectionEstablished(slowConsumerService.decorate(session));
+            }
+
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                slowConsumerService.closed(session.getId());
+                super.afterConnectionClosed(session, closeStatus);
+            }
+        });
+    }
+
+    @Bean
+    public ServletServerContainerFactoryBean createWebSocketContainer() {
+        // Tomcat closes frames over 8KB with 1009 by default, which large edit ops and card descriptions exceed
+        ServletServerContainerFactoryBean container = new ServletServerContainerFactoryBean();
+        container.setMaxTextMessageBufferSize(messageSizeLimit);
+        container.setMaxBinaryMessageBufferSize(messageSizeLimit);
+        return container;
     }
 }
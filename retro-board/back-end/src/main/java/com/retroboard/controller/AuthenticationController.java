@@ -3,9 +3,11 @@ package com.retroboard.controller;
 import com.retroboard.dto.LoginRequest;
 import com.retroboard.dto.RegisterRequest;
 import com.retroboard.dto.TokenResponse;
+import com.retroboard.exception.ServiceOverloadedException;
 import com.retroboard.service.AuthenticationService;
 import com.retroboard.util.JwtUtil;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -25,6 +27,10 @@ public class AuthenticationController {
         try {
             TokenResponse tokenResponse = authenticationService.login(loginRequest);
             return ResponseEntity.ok(tokenResponse);
+        } catch (ServiceOverloadedException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body("{\"message\": \"" + e.getMessage() + "\"}");
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("{\"message\": \"Invalid username or password\"}");
         }
@@ -2,12 +2,16 @@ package com.retroboard.controller;
 
 import com.retroboard.entity.BoardColumn;
 import com.retroboard.service.BoardColumnService;
+import com.retroboard.service.BoardService;
+import com.retroboard.dto.ColumnResponse;
 import com.retroboard.dto.CreateColumnRequest;
 import com.retroboard.dto.UpdateColumnRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import java.util.List;
 
 @RestController
@@ -17,11 +21,14 @@ public class BoardColumnController {
     @Autowired
     private BoardColumnService columnService;
     
+    @Autowired
+    private BoardService boardService;
+    
     // Create a new column
     @PostMapping
-    public ResponseEntity<BoardColumn> createColumn(@RequestBody CreateColumnRequest request) {
+    public ResponseEntity<ColumnResponse> createColumn(@RequestBody CreateColumnRequest request) {
         BoardColumn column = columnService.createColumn(request);
-        return new ResponseEntity<>(column, HttpStatus.CREATED);
+        return new ResponseEntity<>(columnService.convertColumnToResponse(column), HttpStatus.CREATED);
     }
     
     // Delete a column
@@ -33,22 +40,31 @@ public class BoardColumnController {
     
     // Query all columns for a board
     @GetMapping("/board/{boardId}")
-    public ResponseEntity<List<BoardColumn>> getAllColumns(@PathVariable Long boardId) {
-        List<BoardColumn> columns = columnService.getAllColumns(boardId);
-        return new ResponseEntity<>(columns, HttpStatus.OK);
+    public ResponseEntity<List<ColumnResponse>> getAllColumns(@PathVariable Long boardId, WebRequest webRequest) {
+        // Answer revalidations from the board revision without loading the columns
+        String etag = boardService.getBoardETag(boardId);
+        if (etag != null && webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        
+        List<ColumnResponse> columns = columnService.getAllColumns(boardId);
+        return ResponseEntity.ok()
+            .cacheControl(CacheControl.noCache().cachePrivate())
+            .eTag(etag)
+            .body(columns);
     }
     
     // Update a column
     @PutMapping("/{id}")
-    public ResponseEntity<BoardColumn> updateColumn(@PathVariable Long id, @RequestBody UpdateColumnRequest request) {
+    public ResponseEntity<ColumnResponse> updateColumn(@PathVariable Long id, @RequestBody UpdateColumnRequest request) {
         BoardColumn updatedColumn = columnService.updateColumn(id, request);
-        return new ResponseEntity<>(updatedColumn, HttpStatus.OK);
+        return new ResponseEntity<>(columnService.convertColumnToResponse(updatedColumn), HttpStatus.OK);
     }
     
     // Get a column by id
     @GetMapping("/{id}")
-    public ResponseEntity<BoardColumn> getColumnById(@PathVariable Long id) {
+    public ResponseEntity<ColumnResponse> getColumnById(@PathVariable Long id) {
         BoardColumn column = columnService.getColumnById(id);
-        return new ResponseEntity<>(column, HttpStatus.OK);
+        return new ResponseEntity<>(columnService.convertColumnToResponse(column), HttpStatus.OK);
     }
 }
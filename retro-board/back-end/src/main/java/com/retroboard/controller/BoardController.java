@@ -2,12 +2,25 @@ package com.retroboard.controller;
 
 import com.retroboard.entity.Board;
 import com.retroboard.service.BoardService;
+import com.retroboard.service.BoardTimerService;
+import com.retroboard.service.BoardViewService;
+import com.retroboard.service.CardGroupingService;
+import com.retroboard.service.CardService;
+import com.retroboard.dto.BoardPhaseResponse;
+import com.retroboard.dto.BoardResponse;
+import com.retroboard.dto.BoardSummaryPage;
+import com.retroboard.dto.BoardViewResponse;
+import com.retroboard.dto.CardGroupResponse;
+import com.retroboard.dto.CardResponse;
 import com.retroboard.dto.CreateBoardRequest;
+import com.retroboard.dto.StartPhaseRequest;
 import com.retroboard.dto.UpdateBoardRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import java.util.List;
 
 @RestController
@@ -17,11 +30,23 @@ public class BoardController {
     @Autowired
     private BoardService boardService;
     
+    @Autowired
+    private BoardTimerService boardTimerService;
+    
+    @Autowired
+    private CardGroupingService cardGroupingService;
+    
+    @Autowired
+    private CardService cardService;
+    
+    @Autowired
+    private BoardViewService boardViewService;
+    
     // Create a new board
     @PostMapping
-    public ResponseEntity<Board> createBoard(@RequestBody CreateBoardRequest request) {
+    public ResponseEntity<BoardResponse> createBoard(@RequestBody CreateBoardRequest request) {
         Board board = boardService.createBoard(request);
-        return new ResponseEntity<>(board, HttpStatus.CREATED);
+        return new ResponseEntity<>(boardService.convertBoardToResponse(board), HttpStatus.CREATED);
     }
     
     // Delete a board
@@ -33,22 +58,76 @@ public class BoardController {
     
     // Query all boards for a team
     @GetMapping("/team/{teamId}")
-    public ResponseEntity<List<Board>> getAllBoards(@PathVariable Long teamId) {
-        List<Board> boards = boardService.getAllBoards(teamId);
+    public ResponseEntity<List<BoardResponse>> getAllBoards(@PathVariable Long teamId) {
+        List<BoardResponse> boards = boardService.getAllBoards(teamId);
         return new ResponseEntity<>(boards, HttpStatus.OK);
     }
     
+    // Query a page of a team's boards with their counts, most recently active first
+    @GetMapping("/team/{teamId}/summaries")
+    public ResponseEntity<BoardSummaryPage> getBoardSummaries(@PathVariable Long teamId,
+                                                              @RequestParam(required = false) String cursor,
+                                                              @RequestParam(defaultValue = "20") int limit) {
+        BoardSummaryPage page = boardService.getBoardSummaries(teamId, cursor, limit);
+        return new ResponseEntity<>(page, HttpStatus.OK);
+    }
+    
     // Update a board
     @PutMapping("/{id}")
-    public ResponseEntity<Board> updateBoard(@PathVariable Long id, @RequestBody UpdateBoardRequest request) {
+    public ResponseEntity<BoardResponse> updateBoard(@PathVariable Long id, @RequestBody UpdateBoardRequest request) {
         Board updatedBoard = boardService.updateBoard(id, request);
-        return new ResponseEntity<>(updatedBoard, HttpStatus.OK);
+        return new ResponseEntity<>(boardService.convertBoardToResponse(updatedBoard), HttpStatus.OK);
+    }
+    
+    // Start a retro phase, optionally timeboxed; the server ends it and broadcasts phase_changed
+    @PutMapping("/{id}/phase")
+    public ResponseEntity<BoardPhaseResponse> startPhase(@PathVariable Long id, @RequestBody StartPhaseRequest request) {
+        return ResponseEntity.ok(boardTimerService.startPhase(id, request));
+    }
+    
+    // Hide new cards from everyone but their author until the cards are revealed
+    @PostMapping("/{id}/hide-cards")
+    public ResponseEntity<Void> hideCards(@PathVariable Long id) {
+        cardService.hideCards(id);
+        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+    }
+    
+    // Reveal every hidden card at once; subscribers get them in a single cards_revealed event
+    @PostMapping("/{id}/reveal-cards")
+    public ResponseEntity<List<CardResponse>> revealCards(@PathVariable Long id) {
+        return ResponseEntity.ok(cardService.revealCards(id));
+    }
+    
+    // Suggest groups of near-duplicate cards, per column, to merge
+    @GetMapping("/{id}/card-groups")
+    public ResponseEntity<List<CardGroupResponse>> suggestCardGroups(@PathVariable Long id,
+                                                                     @RequestParam(required = false) Double threshold) {
+        return ResponseEntity.ok(cardGroupingService.suggestGroups(id, threshold));
+    }
+    
+    // Get a board with its columns and cards in one request; concurrent loads of the same board share one query
+    @GetMapping("/{id}/view")
+    public ResponseEntity<BoardViewResponse> getBoardView(@PathVariable Long id) {
+        return ResponseEntity.ok()
+            .cacheControl(CacheControl.noCache().cachePrivate())
+            .body(boardViewService.getBoardView(id));
     }
     
     // Get a board by id
     @GetMapping("/{id}")
-    public ResponseEntity<Board> getBoardById(@PathVariable Long id) {
+    public ResponseEntity<BoardResponse> getBoardById(@PathVariable Long id, WebRequest webRequest) {
+        // Answer revalidations from the board revision without loading the board
+        String etag = boardService.getBoardETag(id);
+        if (etag != null && webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        
         Board board = boardService.getBoardById(id);
-        return new ResponseEntity<>(board, HttpStatus.OK);
+        BoardResponse response = boardService.convertBoardToResponse(board);
+        response.setRemainingVotes(boardService.getRemainingVotes(board));
+        return ResponseEntity.ok()
+            .cacheControl(CacheControl.noCache().cachePrivate())
+            .eTag(etag)
+            .body(response);
     }
 }
@@ -1,27 +1,53 @@
 package com.retroboard.controller;
 
 import com.retroboard.entity.Card;
+import com.retroboard.service.BoardActorService;
+import com.retroboard.service.BoardService;
+import com.retroboard.service.CardCollaborationService;
+import com.retroboard.service.CardGroupingService;
 import com.retroboard.service.CardService;
+import com.retroboard.dto.CardReactionResponse;
+import com.retroboard.dto.CardResponse;
+import com.retroboard.dto.CardTextSnapshot;
 import com.retroboard.dto.CreateCardRequest;
+import com.retroboard.dto.MergeCardsRequest;
 import com.retroboard.dto.UpdateCardRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import java.security.Principal;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/cards")
 public class CardController {
     
+    private static final int MAX_UPDATE_ATTEMPTS = 3;
+    
     @Autowired
     private CardService cardService;
     
+    @Autowired
+    private CardCollaborationService collaborationService;
+    
+    @Autowired
+    private BoardService boardService;
+    
+    @Autowired
+    private BoardActorService boardActorService;
+    
+    @Autowired
+    private CardGroupingService cardGroupingService;
+    
     // Create a new card
     @PostMapping
-    public ResponseEntity<Card> createCard(@RequestBody CreateCardRequest request) {
+    public ResponseEntity<CardResponse> createCard(@RequestBody CreateCardRequest request) {
         Card card = cardService.createCard(request);
-        return new ResponseEntity<>(card, HttpStatus.CREATED);
+        return new ResponseEntity<>(cardService.convertCardToResponse(card), HttpStatus.CREATED);
     }
     
     // Delete a card
@@ -33,29 +59,76 @@ public class CardController {
     
     // Query all cards for a column
     @GetMapping("/column/{columnId}")
-    public ResponseEntity<List<Card>> getAllCards(@PathVariable Long columnId) {
-        List<Card> cards = cardService.getAllCards(columnId);
-        return new ResponseEntity<>(cards, HttpStatus.OK);
+    public ResponseEntity<List<CardResponse>> getAllCards(@PathVariable Long columnId, WebRequest webRequest) {
+        // Answer revalidations from the board revision without loading the cards
+        String etag = boardService.getBoardETagForColumn(columnId);
+        if (etag != null && webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        
+        List<CardResponse> cards = cardService.getAllCards(columnId);
+        return ResponseEntity.ok()
+            .cacheControl(CacheControl.noCache().cachePrivate())
+            .eTag(etag)
+            .body(cards);
     }
     
     // Update a card
     @PutMapping("/{id}")
-    public ResponseEntity<Card> updateCard(@PathVariable Long id, @RequestBody UpdateCardRequest request) {
-        Card updatedCard = cardService.updateCard(id, request);
-        return new ResponseEntity<>(updatedCard, HttpStatus.OK);
+    public ResponseEntity<CardResponse> updateCard(@PathVariable Long id, @RequestBody UpdateCardRequest request) {
+        // A commit that lands between load and flush fails the transaction; retrying re-merges onto the new state
+        for (int attempt = 1; ; attempt++) {
+            try {
+                Card updatedCard = cardService.updateCard(id, request);
+                return new ResponseEntity<>(cardService.convertCardToResponse(updatedCard), HttpStatus.OK);
+            } catch (ObjectOptimisticLockingFailureException e) {
+                if (attempt >= MAX_UPDATE_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
     }
     
     // Get a card by id
     @GetMapping("/{id}")
-    public ResponseEntity<Card> getCardById(@PathVariable Long id) {
+    public ResponseEntity<CardResponse> getCardById(@PathVariable Long id) {
         Card card = cardService.getCardById(id);
-        return new ResponseEntity<>(card, HttpStatus.OK);
+        return new ResponseEntity<>(cardService.convertCardToResponse(card), HttpStatus.OK);
+    }
+    
+    // Join collaborative editing of a card's description
+    @GetMapping("/{id}/text")
+    public ResponseEntity<CardTextSnapshot> getCardText(@PathVariable Long id, Principal principal) {
+        CardTextSnapshot snapshot = collaborationService.getSnapshot(id, principal == null ? null : principal.getName());
+        return new ResponseEntity<>(snapshot, HttpStatus.OK);
     }
     
     // Vote for a card
     @PostMapping("/{id}/vote")
-    public ResponseEntity<Card> voteCard(@PathVariable Long id) {
+    public ResponseEntity<CardResponse> voteCard(@PathVariable Long id) {
+        // In live board mode the vote is applied in memory and persisted shortly after
+        if (boardActorService.isEnabled()) {
+            return new ResponseEntity<>(boardActorService.voteCard(id), HttpStatus.OK);
+        }
         Card card = cardService.voteCard(id);
-        return new ResponseEntity<>(card, HttpStatus.OK);
+        return new ResponseEntity<>(cardService.convertCardToResponse(card), HttpStatus.OK);
+    }
+    
+    // Merge near-duplicate cards into this one, combining their votes
+    @PostMapping("/{id}/merge")
+    public ResponseEntity<CardResponse> mergeCards(@PathVariable Long id, @RequestBody MergeCardsRequest request) {
+        // In live board mode the board's votes still held in memory are persisted first and new ones wait for the
+        // merge, so it moves all of them
+        if (boardActorService.isEnabled()) {
+            return new ResponseEntity<>(boardActorService.holdVotes(id, () -> cardGroupingService.mergeCards(id, request)), HttpStatus.OK);
+        }
+        return new ResponseEntity<>(cardGroupingService.mergeCards(id, request), HttpStatus.OK);
+    }
+    
+    // Add or remove the current user's reaction on a card
+    @PostMapping("/{id}/reactions/{emoji}")
+    public ResponseEntity<CardReactionResponse> reactToCard(@PathVariable Long id, @PathVariable String emoji) {
+        CardReactionResponse response = cardService.reactToCard(id, emoji);
+        return new ResponseEntity<>(response, HttpStatus.OK);
     }
 }
@@ -0,0 +1,70 @@
+package com.retroboard.controller;
+
+import com.retroboard.dto.CardEditMessage;
+import com.retroboard.dto.CardEditRejection;
+import com.retroboard.dto.CardTextSnapshot;
+import com.retroboard.exception.VersionConflictException;
+import com.retroboard.service.CardCollaborationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.handler.annotation.DestinationVariable;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.messaging.handler.annotation.MessageExceptionHandler;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.simp.annotation.SendToUser;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Controller;
+import java.security.Principal;
+
+// STOMP entry point for collaborative description edits: clients send to /app/cards/{cardId}/edit,
+// accepted ops are broadcast on /topic/board/{boardId} and rejections go to /user/queue/card-edits
+@Controller
+public class CardEditController {
+    
+    private static final Logger logger = LoggerFactory.getLogger(CardEditController.class);
+    
+    @Autowired
+    private CardCollaborationService collaborationService;
+    
+    @MessageMapping("/cards/{cardId}/edit")
+    public void edit(@DestinationVariable Long cardId, CardEditMessage message, Principal principal) {
+        if (!(principal instanceof Authentication authentication)) {
+            throw new RuntimeException("User not authenticated");
+        }
+        
+        // Services check access through the security context, which is not populated on STOMP threads
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+        try {
+            collaborationService.applyEdit(cardId, message, authentication.getName());
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+    
+    // Stale or mismatched op: hand the sender the current document so it can rebase
+    @MessageExceptionHandler
+    @SendToUser(destinations = "/queue/card-edits", broadcast = false)
+    public CardEditRejection handleVersionConflict(VersionConflictException ex,
+                                                   @Header("simpDestination") String destination) {
+        return new CardEditRejection(parseCardId(destination), ex.getMessage(), (CardTextSnapshot) ex.getCurrent());
+    }
+    
+    @MessageExceptionHandler
+    @SendToUser(destinations = "/queue/card-edits", broadcast = false)
+    public CardEditRejection handleException(RuntimeException ex, @Header("simpDestination") String destination) {
+        logger.debug("Rejected card edit on {}: {}", destination, ex.getMessage());
+        return new CardEditRejection(parseCardId(destination), ex.getMessage(), null);
+    }
+    
+    private Long parseCardId(String destination) {
+        // /app/cards/{cardId}/edit
+        String[] parts = destination.split("/");
+        try {
+            return Long.valueOf(parts[parts.length - 2]);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+}
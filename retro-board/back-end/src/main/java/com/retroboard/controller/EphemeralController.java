@@ -0,0 +1,40 @@
+package com.retroboard.controller;
+
+import com.retroboard.dto.EphemeralMessage;
+import com.retroboard.service.EphemeralChannelService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.handler.annotation.DestinationVariable;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.messaging.handler.annotation.MessageExceptionHandler;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Controller;
+import java.security.Principal;
+
+// STOMP entry point for drag previews and typing indicators: clients send to /app/boards/{boardId}/ephemeral
+// and receive throttled batches on /topic/board/{boardId}/ephemeral. Nothing sent here is stored.
+@Controller
+public class EphemeralController {
+
+    private static final Logger logger = LoggerFactory.getLogger(EphemeralController.class);
+
+    @Autowired
+    private EphemeralChannelService ephemeralChannelService;
+
+    @MessageMapping("/boards/{boardId}/ephemeral")
+    public void send(@DestinationVariable Long boardId, EphemeralMessage message,
+                     @Header("simpSessionId") String sessionId, Principal principal) {
+        if (!(principal instanceof Authentication authentication)) {
+            throw new RuntimeException("User not authenticated");
+        }
+        ephemeralChannelService.submit(sessionId, authentication, boardId, message);
+    }
+
+    // Updates are fire-and-forget and the client repeats its state anyway, so rejections get no reply
+    @MessageExceptionHandler
+    public void handleException(RuntimeException ex, @Header("simpDestination") String destination) {
+        logger.debug("Rejected ephemeral update on {}: {}", destination, ex.getMessage());
+    }
+}
@@ -2,8 +2,12 @@ package com.retroboard.controller;
 
 import com.retroboard.entity.Team;
 import com.retroboard.entity.TeamMember;
+import com.retroboard.service.BoardEventLogService;
 import com.retroboard.service.TeamService;
+import com.retroboard.service.TeamThemeService;
+import com.retroboard.dto.BoardEventPage;
 import com.retroboard.dto.CreateTeamRequest;
+import com.retroboard.dto.TeamThemesResponse;
 import com.retroboard.dto.UpdateTeamRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -18,6 +22,12 @@ public class TeamController {
     @Autowired
     private TeamService teamService;
     
+    @Autowired
+    private BoardEventLogService boardEventLogService;
+    
+    @Autowired
+    private TeamThemeService teamThemeService;
+    
     // Create a new team
     @PostMapping
     public ResponseEntity<Team> createTeam(@RequestBody CreateTeamRequest request) {
@@ -59,4 +69,23 @@ public class TeamController {
         List<TeamMember> members = teamService.getTeamMembers(id);
         return new ResponseEntity<>(members, HttpStatus.OK);
     }
+    
+    // Query a page of the activity across a team's boards, newest first
+    @GetMapping("/{id}/activity")
+    public ResponseEntity<BoardEventPage> getTeamActivity(@PathVariable Long id,
+                                                          @RequestParam(required = false) String cursor,
+                                                          @RequestParam(defaultValue = "50") int limit,
+                                                          @RequestParam(required = false) List<String> type) {
+        BoardEventPage page = boardEventLogService.getTeamActivity(id, cursor, limit, type);
+        return new ResponseEntity<>(page, HttpStatus.OK);
+    }
+    
+    // Recurring and trending terms of the cards on the team's last boards
+    @GetMapping("/{id}/themes")
+    public ResponseEntity<TeamThemesResponse> getTeamThemes(@PathVariable Long id,
+                                                            @RequestParam(defaultValue = "10") int boards,
+                                                            @RequestParam(defaultValue = "20") int limit) {
+        TeamThemesResponse themes = teamThemeService.getTeamThemes(id, boards, limit);
+        return new ResponseEntity<>(themes, HttpStatus.OK);
+    }
 }
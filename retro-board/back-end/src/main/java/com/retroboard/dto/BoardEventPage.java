@@ -0,0 +1,16 @@
+package com.retroboard.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BoardEventPage {
+    private List<BoardEventResponse> events;
+    
+    // Pass as "cursor" to get older events; null on the last page
+    private String nextCursor;
+}
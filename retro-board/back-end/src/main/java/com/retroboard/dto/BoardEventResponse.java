@@ -0,0 +1,24 @@
+package com.retroboard.dto;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BoardEventResponse {
+    private Long id;
+    private Long boardId;
+    private String boardName; // null once the board is deleted
+    private String type;
+    private String actor;
+    
+    // Compact v2 payload, stored as JSON and passed through as is
+    @JsonRawValue
+    private String payload;
+    
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,19 @@
+package com.retroboard.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+// Compact board event published on /topic/board/{id}/v2[.cbor|.smile]; bump v when a payload shape changes
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BoardEventV2 {
+    public static final int VERSION = 2;
+    
+    private int v;
+    private String type;
+    private Long boardId;
+    private long ts;
+    private Object data; // one of the *Payload types, or CardTextOperation for card_text_op
+}
@@ -0,0 +1,16 @@
+package com.retroboard.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BoardPhaseResponse {
+    private Long boardId;
+    private String phase;
+    private LocalDateTime endsAt;
+    private Long remainingMs; // clients count down from this rather than from their own clock
+}
@@ -0,0 +1,37 @@
+package com.retroboard.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BoardResponse {
+    private Long id;
+    private String name;
+    private String description;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private TeamSimpleResponse team;
+    private Integer voteBudget;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer remainingVotes;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private BoardPhaseResponse phase;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Boolean hideCards;
+    
+    // Flat constructor used by JPQL constructor projections
+    public BoardResponse(Long id, String name, String description, LocalDateTime createdAt,
+                         LocalDateTime updatedAt, Long teamId, String teamName, Integer voteBudget) {
+        this(id, name, description, createdAt, updatedAt, new TeamSimpleResponse(teamId, teamName), voteBudget, null, null, null);
+    }
+    
+    public BoardResponse(Long id, String name, String description, LocalDateTime createdAt,
+                         LocalDateTime updatedAt, Long teamId, String teamName) {
+        this(id, name, description, createdAt, updatedAt, teamId, teamName, null);
+    }
+}
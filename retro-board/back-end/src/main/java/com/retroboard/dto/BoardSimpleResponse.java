@@ -0,0 +1,13 @@
+package com.retroboard.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BoardSimpleResponse {
+    private Long id;
+    private String name;
+}
@@ -0,0 +1,16 @@
+package com.retroboard.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BoardSummaryPage {
+    private List<BoardSummaryResponse> boards;
+    
+    // Pass as "cursor" to get the next page; null on the last page
+    private String nextCursor;
+}
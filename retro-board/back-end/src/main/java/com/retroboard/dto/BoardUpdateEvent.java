@@ -8,7 +8,7 @@ import lombok.AllArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 public class BoardUpdateEvent {
-    private String type; // "card_created", "card_updated", "card_deleted", "card_voted", "column_created", "column_updated", "column_deleted"
+    private String type; // "card_created", "card_updated", "card_deleted", "card_voted", "card_reacted", "column_created", "column_updated", "column_deleted", "card_text_op"
     private Long boardId;
     private Object data;
     private Long timestamp;
@@ -0,0 +1,16 @@
+package com.retroboard.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.util.List;
+
+// A whole board in one response: the board, its columns in order and its cards ordered by column and position
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BoardViewResponse {
+    private BoardResponse board;
+    private List<ColumnResponse> columns;
+    private List<CardResponse> cards;
+}
@@ -0,0 +1,12 @@
+package com.retroboard.dto;
+
+import lombok.Data;
+import java.util.List;
+
+@Data
+public class CardEditMessage {
+    private Long epoch;
+    private Long revision; // server revision the ops were based on
+    private List<Object> ops; // ot.js format: retain n, delete -n, insert "text"
+    private String clientId; // echoed back so the sender can recognise its own op as the ack
+}
@@ -0,0 +1,14 @@
+package com.retroboard.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CardEditRejection {
+    private Long cardId;
+    private String message;
+    private CardTextSnapshot snapshot; // present when the client only needs to resync
+}
@@ -0,0 +1,17 @@
+package com.retroboard.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CardGroupResponse {
+    private Long columnId;
+    private String columnName;
+    private Double similarity; // estimated text similarity of the cards to the first one, averaged
+    private Integer totalVotes;
+    private List<CardResponse> cards; // most voted first, the suggested merge target
+}
@@ -0,0 +1,18 @@
+package com.retroboard.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+// card_created, card_updated
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CardPayload {
+    private Long id;
+    private Long columnId;
+    private Integer position;
+    private String description;
+    private Integer votes;
+    private Long version;
+}
@@ -0,0 +1,16 @@
+package com.retroboard.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CardReactionResponse {
+    private Long cardId;
+    private String emoji;
+    private Boolean reacted; // whether the current user has this reaction after the toggle
+    private Map<String, Integer> reactions;
+}
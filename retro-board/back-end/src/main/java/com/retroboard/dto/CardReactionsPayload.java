@@ -0,0 +1,15 @@
+package com.retroboard.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.util.Map;
+
+// card_reacted
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CardReactionsPayload {
+    private Long id;
+    private Map<String, Integer> reactions;
+}
@@ -5,6 +5,7 @@ import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import java.time.LocalDateTime;
+import java.util.Map;
 
 @Data
 @NoArgsConstructor
@@ -19,4 +20,29 @@ public class CardResponse {
     @JsonInclude(JsonInclude.Include.NON_NULL)
     private Boolean votedByCurrentUser;
     private ColumnSimpleResponse column;
+    private Long version;
+    private Map<String, Integer> reactions;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer remainingVotes;
+    // Only set, to true, on the author's own cards while they are hidden from everyone else
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Boolean hidden;
+    
+    // Flat constructor used by JPQL constructor projections
+    public CardResponse(Long id, String description, Integer position, LocalDateTime createdAt, LocalDateTime updatedAt,
+                        Integer votes, Long version, Long columnId, String columnName, Map<String, Integer> reactions,
+                        Boolean hidden) {
+        this(id, description, position, createdAt, updatedAt, votes, null, new ColumnSimpleResponse(columnId, columnName),
+             version, reactions == null ? Map.of() : reactions, null, Boolean.TRUE.equals(hidden) ? true : null);
+    }
+    
+    public CardResponse(Long id, String description, Integer position, LocalDateTime createdAt, LocalDateTime updatedAt,
+                        Integer votes, Long version, Long columnId, String columnName, Map<String, Integer> reactions) {
+        this(id, description, position, createdAt, updatedAt, votes, version, columnId, columnName, reactions, null);
+    }
+    
+    public CardResponse(Long id, String description, Integer position, LocalDateTime createdAt,
+                        LocalDateTime updatedAt, Integer votes, Long version, Long columnId, String columnName) {
+        this(id, description, position, createdAt, updatedAt, votes, version, columnId, columnName, null);
+    }
 }
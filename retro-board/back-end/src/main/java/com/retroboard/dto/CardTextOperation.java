@@ -0,0 +1,17 @@
+package com.retroboard.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CardTextOperation {
+    private Long cardId;
+    private Long epoch;
+    private Long revision; // revision produced by applying these ops
+    private List<Object> ops;
+    private String clientId;
+}
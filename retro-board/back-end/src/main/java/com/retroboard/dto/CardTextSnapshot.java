@@ -0,0 +1,15 @@
+package com.retroboard.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CardTextSnapshot {
+    private Long cardId;
+    private Long epoch; // changes whenever the server reloads or resets the document; ops from another epoch are rejected
+    private Long revision;
+    private String text;
+}
@@ -0,0 +1,14 @@
+package com.retroboard.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+// card_voted
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CardVotesPayload {
+    private Long id;
+    private Integer votes;
+}
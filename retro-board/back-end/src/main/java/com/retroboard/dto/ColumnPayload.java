@@ -0,0 +1,16 @@
+package com.retroboard.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+// column_created, column_updated
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ColumnPayload {
+    private Long id;
+    private String name;
+    private Integer position;
+    private Long version;
+}
@@ -0,0 +1,25 @@
+package com.retroboard.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ColumnResponse {
+    private Long id;
+    private String name;
+    private Integer position;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private BoardSimpleResponse board;
+    private Long version;
+    
+    // Flat constructor used by JPQL constructor projections
+    public ColumnResponse(Long id, String name, Integer position, LocalDateTime createdAt,
+                          LocalDateTime updatedAt, Long version, Long boardId, String boardName) {
+        this(id, name, position, createdAt, updatedAt, new BoardSimpleResponse(boardId, boardName), version);
+    }
+}
@@ -7,4 +7,5 @@ public class CreateBoardRequest {
     private String name;
     private String description;
     private Long teamId;
+    private Integer voteBudget; // votes per participant, omit for unlimited
 }
@@ -0,0 +1,13 @@
+package com.retroboard.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+// card_deleted, column_deleted
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeletedPayload {
+    private Long id;
+}
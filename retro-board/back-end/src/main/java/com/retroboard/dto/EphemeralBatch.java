@@ -0,0 +1,15 @@
+package com.retroboard.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EphemeralBatch {
+    private Long boardId;
+    private String user;
+    private List<EphemeralEvent> events; // latest state per kind and card since the sender's previous batch
+}
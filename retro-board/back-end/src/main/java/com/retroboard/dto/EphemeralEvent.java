@@ -0,0 +1,16 @@
+package com.retroboard.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EphemeralEvent {
+    private String kind;
+    private Long cardId;
+    private Map<String, Object> state;
+    private Long timestamp;
+}
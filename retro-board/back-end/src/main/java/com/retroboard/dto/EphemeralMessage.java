@@ -0,0 +1,11 @@
+package com.retroboard.dto;
+
+import lombok.Data;
+import java.util.Map;
+
+@Data
+public class EphemeralMessage {
+    private String kind; // "drag" or "typing"
+    private Long cardId; // card being dragged or typed on, if any
+    private Map<String, Object> state; // client-defined, e.g. {"x": 120, "y": 48} or {"typing": true}
+}
@@ -0,0 +1,9 @@
+package com.retroboard.dto;
+
+import lombok.Data;
+import java.util.List;
+
+@Data
+public class MergeCardsRequest {
+    private List<Long> cardIds; // cards merged into the target card and then deleted
+}
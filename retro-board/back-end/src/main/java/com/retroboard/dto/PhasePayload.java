@@ -0,0 +1,14 @@
+package com.retroboard.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+// phase_changed
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PhasePayload {
+    private String phase;
+    private Long remainingMs;
+}
@@ -0,0 +1,9 @@
+package com.retroboard.dto;
+
+import lombok.Data;
+
+@Data
+public class StartPhaseRequest {
+    private String phase; // "write", "vote" or "discuss"; null ends the retro
+    private Integer durationSeconds; // null or 0 runs the phase without a timer
+}
@@ -0,0 +1,16 @@
+package com.retroboard.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TeamThemesResponse {
+    private Integer boardCount; // boards the report covers, the team's newest first
+    private Integer recentBoardCount;
+    private List<TermTrendResponse> recurring; // terms on the most boards
+    private List<TermTrendResponse> trending; // terms growing most on the newest boards
+}
@@ -0,0 +1,16 @@
+package com.retroboard.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TermTrendResponse {
+    private String term; // a word or a pair of words, lower-cased
+    private Integer boards; // boards of the report that have a card using it
+    private Integer cards;
+    private Integer recentCards; // cards using it on the newest third of the boards
+    private Double trend; // cards per board on the newest third minus cards per board before
+}
@@ -6,4 +6,5 @@ import lombok.Data;
 public class UpdateBoardRequest {
     private String name;
     private String description;
+    private Integer voteBudget; // 0 removes the budget
 }
@@ -7,4 +7,6 @@ public class UpdateCardRequest {
     private String description;
     private Long columnId;
     private Integer position;
+    // Card version the client last saw; null skips the concurrency check
+    private Long expectedVersion;
 }
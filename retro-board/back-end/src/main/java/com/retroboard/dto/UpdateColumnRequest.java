@@ -6,4 +6,6 @@ import lombok.Data;
 public class UpdateColumnRequest {
     private String name;
     private Integer position;
+    // Column version the client last saw; null skips the concurrency check
+    private Long expectedVersion;
 }
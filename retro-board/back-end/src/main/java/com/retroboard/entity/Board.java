@@ -22,16 +22,40 @@ public class Board {
     @Column(columnDefinition = "TEXT")
     private String description;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "team_id", nullable = false)
     private Team team;
     
+    // Votes each participant can cast on this board; null means unlimited
+    @Column(name = "vote_budget")
+    private Integer voteBudget;
+    
+    // Running retro phase ("write", "vote" or "discuss") and when its timer runs out; null when not timed
+    @Column(length = 20)
+    private String phase;
+    
+    @Column(name = "phase_ends_at")
+    private LocalDateTime phaseEndsAt;
+    
+    // New cards are only shown to their author until the cards are revealed; only changed by bulk updates
+    @Column(name = "hide_cards", nullable = false, updatable = false)
+    private Boolean hideCards = false;
+    
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
     
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
     
+    // Maintained by database triggers (V11): bumped on any change to the board, its columns or its cards
+    @Column(insertable = false, updatable = false, columnDefinition = "BIGINT DEFAULT 0 NOT NULL")
+    private Long revision;
+    
+    // Maintained by database triggers (V12): set whenever the revision moves
+    @Column(name = "last_activity_at", insertable = false, updatable = false,
+            columnDefinition = "TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL")
+    private LocalDateTime lastActivityAt;
+    
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
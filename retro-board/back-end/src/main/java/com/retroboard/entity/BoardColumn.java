@@ -20,7 +20,7 @@ public class BoardColumn {
     @Column(nullable = false, length = 255)
     private String name;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "board_id", nullable = false)
     @JsonIgnoreProperties({"columns", "team", "createdAt", "updatedAt", "description"})
     private Board board;
@@ -34,6 +34,10 @@ public class BoardColumn {
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
     
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+    
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
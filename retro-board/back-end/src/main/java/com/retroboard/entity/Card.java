@@ -4,7 +4,10 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 import jakarta.persistence.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 import java.time.LocalDateTime;
+import java.util.Map;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
 
@@ -24,7 +27,7 @@ public class Card {
     @Column(columnDefinition = "TEXT")
     private String description;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "column_id", nullable = false)
     @JsonIgnoreProperties({"board", "createdAt", "updatedAt", "position"})
     private BoardColumn column;
@@ -32,19 +35,50 @@ public class Card {
     @Column(name = "position", nullable = false)
     private Integer position;
     
+    // Author, recorded for cards written while the board hides cards
+    @Column(name = "user_id", updatable = false)
+    private Long userId;
+    
+    // Only visible to its author until the board's cards are revealed; only cleared by the reveal statement
+    @Column(name = "hidden", nullable = false, updatable = false)
+    private Boolean hidden = false;
+    
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
     
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
     
-    @Column(name = "votes", nullable = false)
+    // Only changed by bulk updates, so saving a card never writes back a stale count
+    @Column(name = "votes", nullable = false, updatable = false)
     private Integer votes = 0;
     
+    // Reaction counts by emoji; like votes, only changed by the atomic toggle statement
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "reactions", insertable = false, updatable = false)
+    private Map<String, Integer> reactions;
+    
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+    
+    // Card version at which the description was last changed
+    @Column(name = "description_version", nullable = false)
+    private Long descriptionVersion = 0L;
+    
+    // Card version at which the column or position was last changed
+    @Column(name = "placement_version", nullable = false)
+    private Long placementVersion = 0L;
+    
     @Transient
     @JsonInclude(JsonInclude.Include.NON_NULL)
     private Boolean votedByCurrentUser;
     
+    // Votes the current user has left on the board, set on vote responses when the board has a budget
+    @Transient
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer remainingVotes;
+    
     @PrePersist
     protected void onCreate() {
         if (title == null) {
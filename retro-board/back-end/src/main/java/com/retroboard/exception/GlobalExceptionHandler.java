@@ -1,7 +1,9 @@
 package com.retroboard.exception;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.context.request.WebRequest;
@@ -28,6 +30,49 @@ public class GlobalExceptionHandler {
         );
     }
 
+    // Handle rate limited requests
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<?> handleRateLimitExceededException(RateLimitExceededException ex, WebRequest request) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+            .body(new ErrorResponse(ex.getMessage()));
+    }
+
+    // Handle work turned away by a full worker pool
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<?> handleServiceOverloadedException(ServiceOverloadedException ex, WebRequest request) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+            .body(new ErrorResponse(ex.getMessage()));
+    }
+
+    // Handle concurrent edits that overlap; the body carries the current state so the client can rebase
+    @ExceptionHandler(VersionConflictException.class)
+    public ResponseEntity<?> handleVersionConflictException(VersionConflictException ex, WebRequest request) {
+        return new ResponseEntity<>(
+            new ConflictResponse(ex.getMessage(), ex.getCurrent()),
+            HttpStatus.CONFLICT
+        );
+    }
+
+    // Handle a vote over the board's vote budget
+    @ExceptionHandler(VoteBudgetExceededException.class)
+    public ResponseEntity<?> handleVoteBudgetExceededException(VoteBudgetExceededException ex, WebRequest request) {
+        return new ResponseEntity<>(
+            new ErrorResponse(ex.getMessage()),
+            HttpStatus.CONFLICT
+        );
+    }
+
+    // Handle a concurrent commit that slipped in between load and flush
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<?> handleOptimisticLockingFailureException(ObjectOptimisticLockingFailureException ex, WebRequest request) {
+        return new ResponseEntity<>(
+            new ErrorResponse("Modified concurrently, please reload"),
+            HttpStatus.CONFLICT
+        );
+    }
+
     // Error response class
     public static class ErrorResponse {
         private String message;
@@ -44,4 +89,22 @@ public class GlobalExceptionHandler {
             this.message = message;
         }
     }
+
+    // Conflict response class
+    public static class ConflictResponse extends ErrorResponse {
+        private Object current;
+
+        public ConflictResponse(String message, Object current) {
+            super(message);
+            this.current = current;
+        }
+
+        public Object getCurrent() {
+            return current;
+        }
+
+        public void setCurrent(Object current) {
+            this.current = current;
+        }
+    }
 }
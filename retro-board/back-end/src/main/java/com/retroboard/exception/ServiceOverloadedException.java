@@ -0,0 +1,16 @@
+package com.retroboard.exception;
+
+// Thrown when a bounded worker pool cannot take more work; answered with 503 and a Retry-After hint
+public class ServiceOverloadedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public ServiceOverloadedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
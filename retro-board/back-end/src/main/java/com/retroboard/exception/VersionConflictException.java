@@ -0,0 +1,16 @@
+package com.retroboard.exception;
+
+// Thrown when an update was based on a stale version and overlaps a change made since; carries the current state
+public class VersionConflictException extends RuntimeException {
+
+    private final Object current;
+
+    public VersionConflictException(String message, Object current) {
+        super(message);
+        this.current = current;
+    }
+
+    public Object getCurrent() {
+        return current;
+    }
+}
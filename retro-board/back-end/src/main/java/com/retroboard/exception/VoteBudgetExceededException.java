@@ -0,0 +1,15 @@
+package com.retroboard.exception;
+
+public class VoteBudgetExceededException extends RuntimeException {
+
+    private final int voteBudget;
+
+    public VoteBudgetExceededException(int voteBudget) {
+        super("All " + voteBudget + " votes on this board are used, remove a vote first");
+        this.voteBudget = voteBudget;
+    }
+
+    public int getVoteBudget() {
+        return voteBudget;
+    }
+}
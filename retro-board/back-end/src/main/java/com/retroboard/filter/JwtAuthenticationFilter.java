@@ -2,7 +2,9 @@ package com.retroboard.filter;
 
 import com.retroboard.entity.User;
 import com.retroboard.repository.UserRepository;
+import com.retroboard.service.MetricsService;
 import com.retroboard.util.JwtUtil;
+import com.retroboard.util.TokenValidationCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -37,6 +39,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private TokenValidationCache tokenValidationCache;
+    
+    @Autowired
+    private MetricsService metricsService;
+    
     private String hashToken(String token) {
         try {
             MessageDigest md = MessageDigest.getInstance("SHA-256");
@@ -47,7 +55,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
     }
     
-    private boolean validateTokenForUser(String token, String username) {
+    private boolean validateTokenForUser(String token, String tokenHash, String username) {
         // Validate token format
         if (!jwtUtil.validateToken(token)) {
             return false;
@@ -58,7 +66,6 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             .orElseThrow(() -> new RuntimeException("User not found"));
         
         // Check if token matches the active token hash
-        String tokenHash = hashToken(token);
         return tokenHash.equals(user.getActiveTokenHash());
     }
     
@@ -69,19 +76,37 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         String authorizationHeader = request.getHeader("Authorization");
         String username = null;
         String jwtToken = null;
+        String tokenHash = null;
         
         // Extract token from Authorization header
         if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
             jwtToken = authorizationHeader.substring(7);
+            tokenHash = hashToken(jwtToken);
+            
+            // With the cache enabled, recently validated tokens skip the signature check and the user lookups
+            if (tokenValidationCache.isEnabled()) {
+                UserDetails cachedUser = tokenValidationCache.get(tokenHash);
+                if (cachedUser != null) {
+                    metricsService.recordTokenValidation("cache_hit");
+                    setAuthentication(cachedUser, request);
+                    filterChain.doFilter(request, response);
+                    return;
+                }
+                metricsService.recordTokenValidation("cache_miss");
+            } else {
+                metricsService.recordTokenValidation("uncached");
+            }
+            
             try {
                 // First get username from token
                 username = jwtUtil.getUsernameFromToken(jwtToken);
                 logger.debug("Extracted username from token: {}", username);
                 
                 // Then validate the token and check if it's the active token for this user
-                if (!validateTokenForUser(jwtToken, username)) {
+                if (!validateTokenForUser(jwtToken, tokenHash, username)) {
                     // Invalid token or not the active token, clear authentication
                     logger.debug("Token validation failed or not the active token");
+                    metricsService.recordTokenValidation("rejected");
                     SecurityContextHolder.clearContext();
                     username = null;
                 } else {
@@ -90,6 +115,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             } catch (Exception e) {
                 // Invalid token
                 logger.debug("Invalid token: {}", e.getMessage());
+                metricsService.recordTokenValidation("rejected");
                 // Clear any existing authentication
                 SecurityContextHolder.clearContext();
                 username = null;
@@ -106,10 +132,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 UserDetails userDetails = userDetailsService.loadUserByUsername(username);
                 logger.debug("Loaded user details for: {}", username);
                 
-                UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(
-                    userDetails, null, userDetails.getAuthorities());
-                authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authenticationToken);
+                setAuthentication(userDetails, request);
+                tokenValidationCache.put(tokenHash, userDetails, jwtUtil.getExpirationFromToken(jwtToken).getTime());
                 logger.debug("Set authentication for: {}", username);
             } catch (UsernameNotFoundException e) {
                 // User not found, clear authentication
@@ -120,4 +144,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         
         filterChain.doFilter(request, response);
     }
+    
+    private void setAuthentication(UserDetails userDetails, HttpServletRequest request) {
+        UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(
+            userDetails, null, userDetails.getAuthorities());
+        authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(authenticationToken);
+    }
 }
@@ -0,0 +1,99 @@
+package com.retroboard.filter;
+
+import com.retroboard.entity.User;
+import com.retroboard.repository.UserRepository;
+import com.retroboard.util.JwtUtil;
+import com.retroboard.util.TokenValidationCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.stereotype.Component;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+// Authenticates STOMP sessions from an "Authorization: Bearer <jwt>" header on CONNECT, using the same
+// checks as JwtAuthenticationFilter. Connections without a valid token stay anonymous: they can still
+// subscribe to board topics but cannot send edits.
+@Component
+public class StompAuthenticationInterceptor implements ChannelInterceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(StompAuthenticationInterceptor.class);
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private UserDetailsService userDetailsService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TokenValidationCache tokenValidationCache;
+
+    private String hashToken(String token) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            byte[] hash = md.digest(token.getBytes());
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("Error hashing token", e);
+        }
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || !StompCommand.CONNECT.equals(accessor.getCommand())) {
+            return message;
+        }
+
+        String authorizationHeader = accessor.getFirstNativeHeader("Authorization");
+        if (authorizationHeader == null || !authorizationHeader.startsWith("Bearer ")) {
+            logger.debug("STOMP CONNECT without token, session stays anonymous");
+            return message;
+        }
+
+        UserDetails userDetails = authenticate(authorizationHeader.substring(7));
+        if (userDetails != null) {
+            accessor.setUser(new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities()));
+        }
+        return message;
+    }
+
+    private UserDetails authenticate(String token) {
+        String tokenHash = hashToken(token);
+        UserDetails cachedUser = tokenValidationCache.get(tokenHash);
+        if (cachedUser != null) {
+            return cachedUser;
+        }
+
+        try {
+            if (!jwtUtil.validateToken(token)) {
+                return null;
+            }
+            String username = jwtUtil.getUsernameFromToken(token);
+            User user = userRepository.findByUsername(username).orElse(null);
+            // Only the user's active token is accepted, as in the HTTP filter
+            if (user == null || !tokenHash.equals(user.getActiveTokenHash())) {
+                return null;
+            }
+            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            tokenValidationCache.put(tokenHash, userDetails, jwtUtil.getExpirationFromToken(token).getTime());
+            return userDetails;
+        } catch (Exception e) {
+            logger.debug("Invalid STOMP token: {}", e.getMessage());
+            return null;
+        }
+    }
+}
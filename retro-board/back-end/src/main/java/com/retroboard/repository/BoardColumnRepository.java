@@ -2,9 +2,16 @@ package com.retroboard.repository;
 
 import com.retroboard.entity.BoardColumn;
 import com.retroboard.entity.Board;
+import com.retroboard.dto.ColumnResponse;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import java.util.List;
 
 public interface BoardColumnRepository extends JpaRepository<BoardColumn, Long> {
     List<BoardColumn> findByBoardOrderByPositionAsc(Board board);
+    
+    @Query("SELECT new com.retroboard.dto.ColumnResponse(col.id, col.name, col.position, col.createdAt, col.updatedAt, col.version, b.id, b.name) " +
+           "FROM BoardColumn col JOIN col.board b WHERE b.id = :boardId ORDER BY col.position ASC")
+    List<ColumnResponse> findResponsesByBoardId(@Param("boardId") Long boardId);
 }
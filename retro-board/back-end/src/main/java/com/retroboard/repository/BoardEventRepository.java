@@ -0,0 +1,68 @@
+package com.retroboard.repository;
+
+import com.retroboard.dto.BoardEventResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// The board_events log has no entity: rows are only appended in batches, read as feed pages and trimmed
+@Repository
+public class BoardEventRepository {
+    
+    public record NewBoardEvent(Long boardId, String type, String actor, String payload, LocalDateTime createdAt) {}
+    
+    // The team is taken from the board at insert time; events of boards deleted before the flush are dropped
+    private static final String INSERT_EVENT = "INSERT INTO board_events (team_id, board_id, type, actor, payload, created_at) " +
+        "SELECT team_id, id, ?, ?, CAST(? AS JSONB), ? FROM boards WHERE id = ?";
+    
+    // Oldest rows first, so each chunk stops at the first row that is recent enough
+    private static final String DELETE_EXPIRED = "DELETE FROM board_events WHERE id IN " +
+        "(SELECT id FROM board_events WHERE created_at < ? ORDER BY id LIMIT ?)";
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    public void insertBatch(List<NewBoardEvent> events) {
+        List<Object[]> args = new ArrayList<>(events.size());
+        for (NewBoardEvent event : events) {
+            args.add(new Object[] { event.type(), event.actor(), event.payload(),
+                Timestamp.valueOf(event.createdAt()), event.boardId() });
+        }
+        jdbcTemplate.batchUpdate(INSERT_EVENT, args);
+    }
+    
+    // Events of a team older than beforeId, newest first, optionally restricted to some types
+    public List<BoardEventResponse> findByTeamId(Long teamId, long beforeId, List<String> types, int limit) {
+        StringBuilder sql = new StringBuilder("SELECT e.id, e.board_id, b.name, e.type, e.actor, e.payload, e.created_at " +
+            "FROM board_events e LEFT JOIN boards b ON b.id = e.board_id WHERE e.team_id = ? AND e.id < ?");
+        List<Object> args = new ArrayList<>();
+        args.add(teamId);
+        args.add(beforeId);
+        if (!types.isEmpty()) {
+            sql.append(" AND e.type IN (").append(String.join(", ", Collections.nCopies(types.size(), "?"))).append(")");
+            args.addAll(types);
+        }
+        sql.append(" ORDER BY e.id DESC LIMIT ?");
+        args.add(limit);
+        
+        return jdbcTemplate.query(sql.toString(), (rs, rowNum) -> new BoardEventResponse(
+            rs.getLong("id"),
+            rs.getLong("board_id"),
+            rs.getString("name"),
+            rs.getString("type"),
+            rs.getString("actor"),
+            rs.getString("payload"),
+            rs.getTimestamp("created_at").toLocalDateTime()
+        ), args.toArray());
+    }
+    
+    // Delete up to chunkSize events created before the cutoff; returns how many were deleted
+    public int deleteExpired(LocalDateTime cutoff, int chunkSize) {
+        return jdbcTemplate.update(DELETE_EXPIRED, Timestamp.valueOf(cutoff), chunkSize);
+    }
+}
@@ -2,9 +2,84 @@ package com.retroboard.repository;
 
 import com.retroboard.entity.Board;
 import com.retroboard.entity.Team;
+import com.retroboard.dto.BoardResponse;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 public interface BoardRepository extends JpaRepository<Board, Long> {
     List<Board> findByTeam(Team team);
+    
+    @Query("SELECT new com.retroboard.dto.BoardResponse(b.id, b.name, b.description, b.createdAt, b.updatedAt, t.id, t.name, b.voteBudget) " +
+           "FROM Board b JOIN b.team t WHERE t.id = :teamId ORDER BY b.id ASC")
+    List<BoardResponse> findResponsesByTeamId(@Param("teamId") Long teamId);
+    
+    // Revision of a board the user owns or is a member of the team of; empty when missing or not accessible
+    @Query("SELECT b.revision FROM Board b JOIN b.team t WHERE b.id = :boardId AND (t.owner.username = :username " +
+           "OR EXISTS (SELECT tm FROM TeamMember tm WHERE tm.team = t AND tm.user.username = :username))")
+    Optional<Long> findRevisionByIdForUser(@Param("boardId") Long boardId, @Param("username") String username);
+    
+    // Same as findRevisionByIdForUser, for the board that owns a column
+    @Query("SELECT b.revision FROM BoardColumn c JOIN c.board b JOIN b.team t WHERE c.id = :columnId AND (t.owner.username = :username " +
+           "OR EXISTS (SELECT tm FROM TeamMember tm WHERE tm.team = t AND tm.user.username = :username))")
+    Optional<Long> findRevisionByColumnIdForUser(@Param("columnId") Long columnId, @Param("username") String username);
+    
+    // Boards whose phase timer is running, to re-arm the timers after a restart
+    @Query("SELECT b FROM Board b WHERE b.phaseEndsAt IS NOT NULL")
+    List<Board> findWithRunningPhaseTimer();
+    
+    // Move a board whose timer ran out to the next phase. Only matches while the deadline is unchanged,
+    // so a phase restarted meanwhile, or an expiry already handled by another instance, is left alone.
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Board b SET b.phase = :nextPhase, b.phaseEndsAt = NULL WHERE b.id = :boardId AND b.phaseEndsAt = :deadline")
+    int advanceExpiredPhase(@Param("boardId") Long boardId, @Param("deadline") LocalDateTime deadline,
+                            @Param("nextPhase") String nextPhase);
+    
+    // Latest committed hide_cards of a board, read under the row lock that the card revision trigger (V11) takes
+    // anyway. A card created while a reveal commits waits for it and is then created visible, never left hidden.
+    @Query(value = "SELECT hide_cards FROM boards WHERE id = :boardId FOR NO KEY UPDATE", nativeQuery = true)
+    boolean lockHideCards(@Param("boardId") Long boardId);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Board b SET b.hideCards = :hideCards WHERE b.id = :boardId")
+    int updateHideCards(@Param("boardId") Long boardId, @Param("hideCards") boolean hideCards);
+    
+    // One page of a team's boards with their counts, most recently active first. Boards after the
+    // (lastActivityAt, id) cursor are picked from the index before the counts are aggregated,
+    // so the cost depends on the page and not on how many boards the team has. Hidden cards are not
+    // counted until they are revealed.
+    @Query(value = "SELECT b.id AS \"id\", b.name AS \"name\", b.description AS \"description\", " +
+           "b.created_at AS \"createdAt\", b.last_activity_at AS \"lastActivityAt\", " +
+           "COUNT(DISTINCT c.id) AS \"columnCount\", COUNT(k.id) AS \"cardCount\", " +
+           "COALESCE(SUM(k.votes), 0) AS \"totalVotes\" " +
+           "FROM (SELECT id, name, description, created_at, last_activity_at FROM boards " +
+           "      WHERE team_id = :teamId AND (last_activity_at < :beforeActivity " +
+           "      OR (last_activity_at = :beforeActivity AND id < :beforeId)) " +
+           "      ORDER BY last_activity_at DESC, id DESC LIMIT :limit) b " +
+           "LEFT JOIN columns c ON c.board_id = b.id " +
+           "LEFT JOIN cards k ON k.column_id = c.id AND NOT k.hidden " +
+           "GROUP BY b.id, b.name, b.description, b.created_at, b.last_activity_at " +
+           "ORDER BY b.last_activity_at DESC, b.id DESC",
+           nativeQuery = true)
+    List<BoardSummaryView> findSummariesByTeamId(@Param("teamId") Long teamId,
+                                                 @Param("beforeActivity") LocalDateTime beforeActivity,
+                                                 @Param("beforeId") Long beforeId,
+                                                 @Param("limit") int limit);
+    
+    interface BoardSummaryView {
+        Long getId();
+        String getName();
+        String getDescription();
+        LocalDateTime getCreatedAt();
+        LocalDateTime getLastActivityAt();
+        Long getColumnCount();
+        Long getCardCount();
+        Long getTotalVotes();
+    }
 }
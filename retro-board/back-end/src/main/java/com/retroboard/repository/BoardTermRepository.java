@@ -0,0 +1,113 @@
+package com.retroboard.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Per-board term counts behind the team themes. Like board_events there is no entity: rows are adjusted by
+// deltas as cards change and read back aggregated over a team's recent boards.
+@Repository
+public class BoardTermRepository {
+    
+    public record TeamBoard(Long id, boolean indexed) {}
+    
+    public record TermCount(String term, int boards, int cards, int recentCards) {}
+    
+    // Boards that are not indexed yet are left alone; they are indexed in full when a report needs them
+    private static final String APPLY_DELTA = "INSERT INTO board_terms (board_id, term, cards) " +
+        "SELECT ?, ?, ? WHERE EXISTS (SELECT 1 FROM board_term_index WHERE board_id = ?) " +
+        "ON CONFLICT (board_id, term) DO UPDATE SET cards = board_terms.cards + EXCLUDED.cards";
+    
+    // The row lock the V11 revision trigger takes on every card change, taken up front
+    private static final String LOCK_BOARD = "SELECT id FROM boards WHERE id = ? FOR NO KEY UPDATE";
+    
+    private static final String DELETE_UNUSED = "DELETE FROM board_terms WHERE board_id = ? AND cards <= 0";
+    
+    private static final String FIND_RECENT_BOARDS = "SELECT b.id, i.board_id IS NOT NULL AS indexed FROM boards b " +
+        "LEFT JOIN board_term_index i ON i.board_id = b.id WHERE b.team_id = ? ORDER BY b.created_at DESC, b.id DESC LIMIT ?";
+    
+    private static final String FIND_CARD_TEXTS = "SELECT c.description FROM cards c " +
+        "JOIN columns col ON col.id = c.column_id WHERE col.board_id = ?";
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    // Adds card count deltas to a board's terms. Terms are written in sorted order so two transactions
+    // changing cards of the same board lock the shared rows in the same order and cannot deadlock.
+    // The board is locked first, so a delta either lands after a full index of the board or is part of its scan.
+    public void applyDeltas(Long boardId, Map<String, Integer> deltas) {
+        List<Object[]> args = new ArrayList<>();
+        boolean removed = false;
+        for (Map.Entry<String, Integer> delta : new TreeMap<>(deltas).entrySet()) {
+            if (delta.getValue() != 0) {
+                args.add(new Object[] { boardId, delta.getKey(), delta.getValue(), boardId });
+                removed |= delta.getValue() < 0;
+            }
+        }
+        if (args.isEmpty()) {
+            return;
+        }
+        lockBoard(boardId);
+        jdbcTemplate.batchUpdate(APPLY_DELTA, args);
+        if (removed) {
+            jdbcTemplate.update(DELETE_UNUSED, boardId);
+        }
+    }
+    
+    // A board's terms no longer match its cards; they are rebuilt the next time a report needs them
+    public void invalidate(Long boardId) {
+        jdbcTemplate.update("DELETE FROM board_term_index WHERE board_id = ?", boardId);
+    }
+    
+    // The team's newest boards, newest first, and whether their terms are indexed
+    public List<TeamBoard> findRecentBoards(Long teamId, int limit) {
+        return jdbcTemplate.query(FIND_RECENT_BOARDS,
+            (rs, rowNum) -> new TeamBoard(rs.getLong("id"), rs.getBoolean("indexed")), teamId, limit);
+    }
+    
+    // Held until commit; card changes of the board wait for it, as they already do for each other
+    public void lockBoard(Long boardId) {
+        jdbcTemplate.queryForList(LOCK_BOARD, Long.class, boardId);
+    }
+    
+    public List<String> findCardTexts(Long boardId) {
+        return jdbcTemplate.queryForList(FIND_CARD_TEXTS, String.class, boardId);
+    }
+    
+    // Replaces all terms of a board and marks it indexed
+    public void replaceTerms(Long boardId, Map<String, Integer> cardsByTerm) {
+        jdbcTemplate.update("DELETE FROM board_terms WHERE board_id = ?", boardId);
+        List<Object[]> args = new ArrayList<>(cardsByTerm.size());
+        for (Map.Entry<String, Integer> term : new TreeMap<>(cardsByTerm).entrySet()) {
+            args.add(new Object[] { boardId, term.getKey(), term.getValue() });
+        }
+        if (!args.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO board_terms (board_id, term, cards) VALUES (?, ?, ?)", args);
+        }
+        jdbcTemplate.update("INSERT INTO board_term_index (board_id) VALUES (?) ON CONFLICT (board_id) DO NOTHING", boardId);
+    }
+    
+    // Terms of the given boards with the number of boards and cards using them, and their cards on the recent boards
+    public List<TermCount> countTerms(Collection<Long> boardIds, Collection<Long> recentBoardIds) {
+        if (boardIds.isEmpty() || recentBoardIds.isEmpty()) {
+            return List.of();
+        }
+        String sql = "SELECT term, COUNT(*) AS boards, SUM(cards) AS cards, " +
+            "SUM(CASE WHEN board_id IN (" + placeholders(recentBoardIds.size()) + ") THEN cards ELSE 0 END) AS recent_cards " +
+            "FROM board_terms WHERE board_id IN (" + placeholders(boardIds.size()) + ") GROUP BY term";
+        List<Object> args = new ArrayList<>(recentBoardIds);
+        args.addAll(boardIds);
+        return jdbcTemplate.query(sql, (rs, rowNum) -> new TermCount(rs.getString("term"), rs.getInt("boards"),
+            rs.getInt("cards"), rs.getInt("recent_cards")), args.toArray());
+    }
+    
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+}
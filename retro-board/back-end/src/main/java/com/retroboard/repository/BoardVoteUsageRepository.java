@@ -0,0 +1,36 @@
+package com.retroboard.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import java.util.HashMap;
+import java.util.Map;
+
+// Reads board_vote_usage, which database triggers keep in step with card_votes (V15)
+@Repository
+public class BoardVoteUsageRepository {
+    
+    public record BoardVoteUsage(Integer voteBudget, Map<Long, Integer> votesByUser) {}
+    
+    private static final String FIND_BOARD_USAGE = "SELECT b.vote_budget, u.user_id, u.votes_used FROM boards b " +
+        "LEFT JOIN board_vote_usage u ON u.board_id = b.id WHERE b.id = ?";
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    // A board's budget and the votes of everyone who voted on it, in one query; null when the board is gone
+    public BoardVoteUsage findByBoardId(Long boardId) {
+        Map<Long, Integer> votesByUser = new HashMap<>();
+        Integer[] budget = new Integer[1];
+        boolean[] found = new boolean[1];
+        jdbcTemplate.query(FIND_BOARD_USAGE, rs -> {
+            found[0] = true;
+            budget[0] = (Integer) rs.getObject("vote_budget");
+            long userId = rs.getLong("user_id");
+            if (!rs.wasNull()) {
+                votesByUser.put(userId, rs.getInt("votes_used"));
+            }
+        }, boardId);
+        return found[0] ? new BoardVoteUsage(budget[0], votesByUser) : null;
+    }
+}
@@ -2,9 +2,41 @@ package com.retroboard.repository;
 
 import com.retroboard.entity.Card;
 import com.retroboard.entity.BoardColumn;
+import com.retroboard.dto.CardResponse;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import java.util.List;
+import java.util.Optional;
 
-public interface CardRepository extends JpaRepository<Card, Long> {
+public interface CardRepository extends JpaRepository<Card, Long>, CardRepositoryCustom {
     List<Card> findByColumnOrderByPositionAsc(BoardColumn column);
+    
+    // Cards of a column as seen by a user: hidden cards are only listed for their author
+    @Query("SELECT new com.retroboard.dto.CardResponse(c.id, c.description, c.position, c.createdAt, c.updatedAt, c.votes, c.version, col.id, col.name, c.reactions, c.hidden) " +
+           "FROM Card c JOIN c.column col WHERE col.id = :columnId AND (c.hidden = false OR c.userId = :userId) ORDER BY c.position ASC")
+    List<CardResponse> findResponsesByColumnId(@Param("columnId") Long columnId, @Param("userId") Long userId);
+    
+    // Revealed cards of a board only
+    @Query("SELECT new com.retroboard.dto.CardResponse(c.id, c.description, c.position, c.createdAt, c.updatedAt, c.votes, c.version, col.id, col.name, c.reactions) " +
+           "FROM Card c JOIN c.column col WHERE col.board.id = :boardId AND c.hidden = false ORDER BY col.position ASC, c.position ASC")
+    List<CardResponse> findResponsesByBoardId(@Param("boardId") Long boardId);
+    
+    // A user's own hidden cards on a board, from the partial index on hidden cards
+    @Query("SELECT new com.retroboard.dto.CardResponse(c.id, c.description, c.position, c.createdAt, c.updatedAt, c.votes, c.version, col.id, col.name, c.reactions, c.hidden) " +
+           "FROM Card c JOIN c.column col WHERE col.board.id = :boardId AND c.hidden = true AND c.userId = :userId ORDER BY col.position ASC, c.position ASC")
+    List<CardResponse> findHiddenResponsesByBoardIdAndUserId(@Param("boardId") Long boardId, @Param("userId") Long userId);
+    
+    // Votes are counted in place so concurrent voters neither lose updates nor trip the card's optimistic lock
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Card c SET c.votes = CASE WHEN c.votes + :delta < 0 THEN 0 ELSE c.votes + :delta END WHERE c.id = :cardId")
+    int incrementVotes(@Param("cardId") Long cardId, @Param("delta") int delta);
+    
+    @Query("SELECT c.id FROM Card c WHERE c.column.id = :columnId")
+    List<Long> findIdsByColumnId(@Param("columnId") Long columnId);
+    
+    // Loads the card with its column so the board id is available outside a transaction
+    @Query("SELECT c FROM Card c JOIN FETCH c.column WHERE c.id = :cardId")
+    Optional<Card> findWithColumnById(@Param("cardId") Long cardId);
 }
@@ -0,0 +1,24 @@
+package com.retroboard.repository;
+
+import com.retroboard.dto.CardResponse;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+public interface CardRepositoryCustom {
+    
+    // Outcome of a reaction toggle: whether the user now has the reaction, and the card's counts after the toggle
+    record ReactionToggle(boolean reacted, Map<String, Integer> reactions) {
+    }
+    
+    // Adds or removes one user's reaction and adjusts the card's count in a single statement; null when the card is gone
+    ReactionToggle toggleReaction(Long cardId, Long userId, String emoji);
+    
+    // Persists a collaborative editing snapshot as a description change, so stale PUTs still conflict. Only written
+    // while the description is still at descriptionVersion; returns the new one, or null when the card is gone or
+    // its description was replaced meanwhile.
+    Long updateDescriptionSnapshot(Long cardId, String description, long descriptionVersion, LocalDateTime updatedAt);
+    
+    // Reveals every hidden card of a board in one statement and returns them in display order
+    List<CardResponse> revealHiddenCards(Long boardId);
+}
@@ -0,0 +1,89 @@
+package com.retroboard.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.retroboard.dto.CardResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+// Reaction toggles in one statement: the marker row decides the direction and the counter is adjusted in place,
+// so concurrent reactions on a hot card serialize on its row lock instead of racing a read-modify-write.
+// Reveals likewise un-hide a board's cards and return what subscribers need in the same statement.
+public class CardRepositoryImpl implements CardRepositoryCustom {
+    
+    // The new count is computed in the SET clause from the locked row, never from the statement's snapshot,
+    // so a toggle that waited for another one's row lock adds to that one's result
+    private static final String TOGGLE_REACTION =
+        "WITH removed AS (" +
+        "  DELETE FROM card_reactions WHERE card_id = ? AND user_id = ? AND emoji = ? RETURNING 1" +
+        "), added AS (" +
+        "  INSERT INTO card_reactions (card_id, user_id, emoji) SELECT ?, ?, ? " +
+        "  WHERE NOT EXISTS (SELECT 1 FROM removed) ON CONFLICT DO NOTHING RETURNING 1" +
+        "), delta AS (" +
+        "  SELECT (SELECT COUNT(*) FROM added) - (SELECT COUNT(*) FROM removed) AS d" +
+        ") " +
+        "UPDATE cards SET reactions = CASE " +
+        "  WHEN COALESCE((cards.reactions ->> CAST(? AS TEXT))::int, 0) + delta.d <= 0 THEN cards.reactions - CAST(? AS TEXT) " +
+        "  ELSE jsonb_set(cards.reactions, ARRAY[CAST(? AS TEXT)], " +
+        "    to_jsonb(COALESCE((cards.reactions ->> CAST(? AS TEXT))::int, 0) + delta.d)) END " +
+        "FROM delta WHERE cards.id = ? " +
+        "RETURNING CAST(cards.reactions AS TEXT) AS reactions, (SELECT COUNT(*) FROM added) > 0 AS reacted";
+    
+    // Only the board's hidden cards are visited (idx_cards_hidden_column_id); RETURNING carries the column for the event
+    private static final String REVEAL_HIDDEN_CARDS =
+        "WITH revealed AS (" +
+        "  UPDATE cards k SET hidden = FALSE FROM columns c " +
+        "  WHERE k.column_id = c.id AND c.board_id = ? AND k.hidden " +
+        "  RETURNING k.id, k.description, k.position, k.created_at, k.updated_at, k.votes, k.version, " +
+        "    CAST(k.reactions AS TEXT) AS reactions, c.id AS column_id, c.name AS column_name, c.position AS column_position" +
+        ") " +
+        "SELECT * FROM revealed ORDER BY column_position, position, id";
+    
+    private static final String UPDATE_DESCRIPTION_SNAPSHOT =
+        "UPDATE cards SET description = ?, description_version = version + 1, version = version + 1, updated_at = ? " +
+        "WHERE id = ? AND description_version = ? RETURNING description_version";
+    
+    private static final TypeReference<Map<String, Integer>> COUNTS = new TypeReference<>() {};
+    
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Override
+    public ReactionToggle toggleReaction(Long cardId, Long userId, String emoji) {
+        List<ReactionToggle> result = jdbcTemplate.query(TOGGLE_REACTION,
+            (rs, rowNum) -> new ReactionToggle(rs.getBoolean("reacted"), readCounts(rs)), cardId, userId, emoji, cardId, userId, emoji, emoji, emoji, emoji, emoji, cardId);
+        return result.isEmpty() ? null : result.get(0);
+    }
+    
+    @Override
+    public Long updateDescriptionSnapshot(Long cardId, String description, long descriptionVersion, LocalDateTime updatedAt) {
+        List<Long> result = jdbcTemplate.queryForList(UPDATE_DESCRIPTION_SNAPSHOT, Long.class,
+            description, Timestamp.valueOf(updatedAt), cardId, descriptionVersion);
+        return result.isEmpty() ? null : result.get(0);
+    }
+    
+    @Override
+    public List<CardResponse> revealHiddenCards(Long boardId) {
+        return jdbcTemplate.query(REVEAL_HIDDEN_CARDS, (rs, rowNum) -> new CardResponse(rs.getLong("id"),
+            rs.getString("description"), rs.getInt("position"), rs.getObject("created_at", LocalDateTime.class),
+            rs.getObject("updated_at", LocalDateTime.class), rs.getInt("votes"), rs.getLong("version"),
+            rs.getLong("column_id"), rs.getString("column_name"), readCounts(rs)), boardId);
+    }
+    
+    private Map<String, Integer> readCounts(ResultSet rs) throws SQLException {
+        try {
+            return objectMapper.readValue(rs.getString("reactions"), COUNTS);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Error reading card reactions", e);
+        }
+    }
+}
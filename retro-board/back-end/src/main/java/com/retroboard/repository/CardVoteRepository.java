@@ -6,14 +6,19 @@ import com.retroboard.entity.Card;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import java.util.Collection;
 import java.util.Optional;
 import java.util.Set;
 
-public interface CardVoteRepository extends JpaRepository<CardVote, Long> {
+public interface CardVoteRepository extends JpaRepository<CardVote, Long>, CardVoteRepositoryCustom {
     Optional<CardVote> findByUserAndCard(User user, Card card);
     boolean existsByUserAndCard(User user, Card card);
     void deleteByUserAndCard(User user, Card card);
     
-    @Query("SELECT cv.card.id FROM CardVote cv WHERE cv.user = :user")
-    Set<Long> findCardIdsByUser(@Param("user") User user);
+    // Which of the given cards the user voted on; an index range scan on uc_user_card (user_id, card_id)
+    @Query("SELECT cv.card.id FROM CardVote cv WHERE cv.user.id = :userId AND cv.card.id IN :cardIds")
+    Set<Long> findVotedCardIds(@Param("userId") Long userId, @Param("cardIds") Collection<Long> cardIds);
+    
+    @Query("SELECT cv.user.id FROM CardVote cv WHERE cv.card.id = :cardId")
+    Set<Long> findUserIdsByCardId(@Param("cardId") Long cardId);
 }
@@ -0,0 +1,23 @@
+package com.retroboard.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public interface CardVoteRepositoryCustom {
+    
+    // Final vote state of one user on one card
+    record VoteChange(Long cardId, Long userId, boolean voted) {
+    }
+    
+    // Writes vote rows and absolute card vote counts in one transaction; returns the ids of cards that no longer exist
+    Set<Long> applyVoteBatch(List<VoteChange> changes, Map<Long, Integer> votesByCard);
+    
+    // Writes one vote and recounts its card from card_votes in one transaction; false when the card no longer exists
+    boolean applyVote(VoteChange change);
+    
+    // Moves each voter's vote from the source cards onto the target unless they already voted on it; returns the
+    // target's new vote count. Votes left behind go with the source cards when they are deleted.
+    int mergeVotes(Long targetCardId, Collection<Long> sourceCardIds);
+}
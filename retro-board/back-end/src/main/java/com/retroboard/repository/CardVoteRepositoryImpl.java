@@ -0,0 +1,116 @@
+package com.retroboard.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+// Batched writes for the board actors' write-behind flush; plain JDBC so inserts and deletes are sent as batches
+public class CardVoteRepositoryImpl implements CardVoteRepositoryCustom {
+    
+    private static final int COUNT_CHUNK_SIZE = 1000;
+    
+    private static final String LOCK_CARDS = "SELECT id FROM cards WHERE id IN (%s) ORDER BY id FOR NO KEY UPDATE";
+    
+    private static final String DELETE_VOTE = "DELETE FROM card_votes WHERE card_id = ? AND user_id = ?";
+    
+    // Votes on cards deleted since they were cast are dropped
+    private static final String INSERT_VOTE = "INSERT INTO card_votes (card_id, user_id, created_at) " +
+        "SELECT ?, ?, ? WHERE EXISTS (SELECT 1 FROM cards WHERE id = ?) ON CONFLICT (user_id, card_id) DO NOTHING";
+    
+    // One vote per voter is moved, and only for voters who have not voted on the target yet
+    private static final String MOVE_VOTES = "UPDATE card_votes SET card_id = ? WHERE id IN (" +
+        "SELECT DISTINCT ON (user_id) id FROM card_votes WHERE card_id IN (%s) " +
+        "AND user_id NOT IN (SELECT user_id FROM card_votes WHERE card_id = ?) ORDER BY user_id, id)";
+    
+    private static final String COUNT_VOTES = "UPDATE cards SET votes = (SELECT COUNT(*) FROM card_votes WHERE card_id = ?) " +
+        "WHERE id = ? RETURNING votes";
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Override
+    @Transactional
+    public Set<Long> applyVoteBatch(List<VoteChange> changes, Map<Long, Integer> votesByCard) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> deletes = new ArrayList<>();
+        List<Object[]> inserts = new ArrayList<>();
+        Set<Long> touched = new TreeSet<>(votesByCard.keySet());
+        for (VoteChange change : changes) {
+            touched.add(change.cardId());
+            if (change.voted()) {
+                inserts.add(new Object[] { change.cardId(), change.userId(), now, change.cardId() });
+            } else {
+                deletes.add(new Object[] { change.cardId(), change.userId() });
+            }
+        }
+        
+        // The V15 triggers lock board_vote_usage rows as votes are written, while a card delete locks the card first
+        // and the usage rows after. Taking the card rows first, in id order, keeps the flush from deadlocking with
+        // card deletes and other card writes. A deadlock is still possible with writes that lock several cards in
+        // another order, such as a column delete, or with a flush of the same board on another node. It fails the
+        // batch like any error that is not an integrity violation: the votes are retried one per transaction, and
+        // those that still fail stay pending for the next flush.
+        List<Long> lockIds = new ArrayList<>(touched);
+        for (int from = 0; from < lockIds.size(); from += COUNT_CHUNK_SIZE) {
+            List<Long> chunk = lockIds.subList(from, Math.min(from + COUNT_CHUNK_SIZE, lockIds.size()));
+            jdbcTemplate.queryForList(String.format(LOCK_CARDS, String.join(", ", Collections.nCopies(chunk.size(), "?"))),
+                Long.class, chunk.toArray());
+        }
+        if (!deletes.isEmpty()) {
+            jdbcTemplate.batchUpdate(DELETE_VOTE, deletes);
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_VOTE, inserts);
+        }
+        
+        Set<Long> missing = new HashSet<>(votesByCard.keySet());
+        List<Long> cardIds = new ArrayList<>(votesByCard.keySet());
+        for (int from = 0; from < cardIds.size(); from += COUNT_CHUNK_SIZE) {
+            List<Long> chunk = cardIds.subList(from, Math.min(from + COUNT_CHUNK_SIZE, cardIds.size()));
+            StringBuilder sql = new StringBuilder("UPDATE cards SET votes = v.votes FROM (VALUES ");
+            List<Object> args = new ArrayList<>();
+            for (int i = 0; i < chunk.size(); i++) {
+                sql.append(i == 0 ? "" : ", ").append("(CAST(? AS BIGINT), CAST(? AS INTEGER))");
+                args.add(chunk.get(i));
+                args.add(votesByCard.get(chunk.get(i)));
+            }
+            sql.append(") AS v(id, votes) WHERE cards.id = v.id RETURNING cards.id");
+            missing.removeAll(jdbcTemplate.queryForList(sql.toString(), Long.class, args.toArray()));
+        }
+        return missing;
+    }
+    
+    @Override
+    @Transactional
+    public boolean applyVote(VoteChange change) {
+        if (change.voted()) {
+            jdbcTemplate.update(INSERT_VOTE, change.cardId(), change.userId(), Timestamp.valueOf(LocalDateTime.now()), change.cardId());
+        } else {
+            jdbcTemplate.update(DELETE_VOTE, change.cardId(), change.userId());
+        }
+        return !jdbcTemplate.queryForList(COUNT_VOTES, Integer.class, change.cardId(), change.cardId()).isEmpty();
+    }
+    
+    @Override
+    @Transactional
+    public int mergeVotes(Long targetCardId, Collection<Long> sourceCardIds) {
+        List<Object> args = new ArrayList<>();
+        args.add(targetCardId);
+        args.addAll(sourceCardIds);
+        args.add(targetCardId);
+        String placeholders = String.join(", ", Collections.nCopies(sourceCardIds.size(), "?"));
+        jdbcTemplate.update(String.format(MOVE_VOTES, placeholders), args.toArray());
+        Integer votes = jdbcTemplate.queryForObject(COUNT_VOTES, Integer.class, targetCardId, targetCardId);
+        return votes == null ? 0 : votes;
+    }
+}
@@ -9,7 +9,7 @@ import java.util.List;
 public interface TeamRepository extends JpaRepository<Team, Long> {
     List<Team> findByOwner(User owner);
     
-    @Query("SELECT t FROM Team t WHERE t.owner = :user OR EXISTS (SELECT tm FROM TeamMember tm WHERE tm.team = t AND tm.user = :user)")
+    @Query("SELECT t FROM Team t JOIN FETCH t.owner WHERE t.owner = :user OR EXISTS (SELECT tm FROM TeamMember tm WHERE tm.team = t AND tm.user = :user)")
     List<Team> findByOwnerOrMember(User user);
     
     @Query("SELECT COUNT(t) > 0 FROM Team t WHERE t.id = :teamId AND (t.owner = :user OR EXISTS (SELECT tm FROM TeamMember tm WHERE tm.team = t AND tm.user = :user))")
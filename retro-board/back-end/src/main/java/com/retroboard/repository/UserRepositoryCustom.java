@@ -0,0 +1,9 @@
+package com.retroboard.repository;
+
+import java.util.Map;
+
+public interface UserRepositoryCustom {
+    
+    // Stores the active token hash of several users in one batch, in one transaction
+    void updateActiveTokenHashes(Map<Long, String> tokenHashesByUserId);
+}
@@ -0,0 +1,27 @@
+package com.retroboard.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Batched token hash writes for logins; plain JDBC so the updates are sent as one batch
+public class UserRepositoryImpl implements UserRepositoryCustom {
+    
+    private static final String UPDATE_TOKEN_HASH = "UPDATE users SET active_token_hash = ? WHERE id = ?";
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Override
+    @Transactional
+    public void updateActiveTokenHashes(Map<Long, String> tokenHashesByUserId) {
+        // Rows are locked in id order, so two batches on different nodes cannot deadlock
+        List<Object[]> args = new ArrayList<>(tokenHashesByUserId.size());
+        new TreeMap<>(tokenHashesByUserId).forEach((userId, tokenHash) -> args.add(new Object[] { tokenHash, userId }));
+        jdbcTemplate.batchUpdate(UPDATE_TOKEN_HASH, args);
+    }
+}
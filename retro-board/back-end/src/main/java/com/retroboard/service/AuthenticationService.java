@@ -6,6 +6,7 @@ import com.retroboard.dto.TokenResponse;
 import com.retroboard.entity.User;
 import com.retroboard.repository.UserRepository;
 import com.retroboard.util.JwtUtil;
+import com.retroboard.util.TokenValidationCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -31,6 +32,15 @@ public class AuthenticationService {
     @Autowired
     private JwtUtil jwtUtil;
     
+    @Autowired
+    private TokenValidationCache tokenValidationCache;
+    
+    @Autowired
+    private PasswordVerificationService passwordVerificationService;
+    
+    @Autowired
+    private TokenHashWriter tokenHashWriter;
+    
     public String hashToken(String token) {
         try {
             MessageDigest md = MessageDigest.getInstance("SHA-256");
@@ -42,13 +52,13 @@ public class AuthenticationService {
     }
     
     public TokenResponse login(LoginRequest loginRequest) throws AuthenticationException {
-        // Authenticate user
-        authenticationManager.authenticate(
+        // Authenticate user on the bounded verification pool; throws ServiceOverloadedException when it is full
+        passwordVerificationService.verify(() -> authenticationManager.authenticate(
             new UsernamePasswordAuthenticationToken(
                 loginRequest.getUsername(),
                 loginRequest.getPassword()
             )
-        );
+        ));
         
         // Get user from database to get ID
         User user = userRepository.findByUsername(loginRequest.getUsername())
@@ -57,10 +67,13 @@ public class AuthenticationService {
         // Generate JWT token
         String token = jwtUtil.generateToken(loginRequest.getUsername());
         
-        // Hash the token and store it in the user record
+        // Hash the token and store it in the user record, batched with other logins
         String tokenHash = hashToken(token);
         user.setActiveTokenHash(tokenHash);
-        userRepository.save(user);
+        tokenHashWriter.write(user.getId(), tokenHash);
+        
+        // The previous token is no longer active
+        tokenValidationCache.invalidateUser(user.getUsername());
         
         return new TokenResponse(token, user.getUsername(), user.getId());
     }
@@ -118,5 +131,6 @@ public class AuthenticationService {
         // Clear active token hash
         user.setActiveTokenHash(null);
         userRepository.save(user);
+        tokenValidationCache.invalidateUser(username);
     }
 }
@@ -0,0 +1,719 @@
+package com.retroboard.service;
+
+import com.retroboard.dto.CardResponse;
+import com.retroboard.entity.Card;
+import com.retroboard.repository.CardRepository;
+import com.retroboard.repository.CardVoteRepository;
+import com.retroboard.repository.CardVoteRepositoryCustom.VoteChange;
+import com.retroboard.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+// Optional live mode for vote bursts. Each active board is owned by an actor: a mailbox drained by one pool
+// thread at a time, so the board's vote state is only touched by one thread and needs no locks. Votes are
+// applied and broadcast in memory and persisted by a batched write-behind flush. Card and column edits stay
+// transactional and tell the actor to reload what they changed. Durability is described in README.md.
+@Service
+public class BoardActorService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BoardActorService.class);
+
+    // Messages handled per turn before the actor yields its pool thread to other boards
+    private static final int MAX_MESSAGES_PER_TURN = 64;
+
+    @Value("${retroboard.board-actors.enabled:false}")
+    private boolean enabled;
+
+    @Value("${retroboard.board-actors.threads:4}")
+    private int threads;
+
+    @Value("${retroboard.board-actors.idle-eviction-ms:300000}")
+    private long idleEvictionMs;
+
+    @Value("${retroboard.board-actors.max-pending-votes:10000}")
+    private int maxPendingVotes;
+
+    @Value("${retroboard.board-actors.ask-timeout-ms:5000}")
+    private long askTimeoutMs;
+
+    @Value("${retroboard.board-actors.max-flush-attempts:20}")
+    private int maxFlushAttempts;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private CardVoteRepository cardVoteRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BoardService boardService;
+
+    @Autowired
+    private WebSocketService webSocketService;
+
+    @Autowired
+    private MetricsService metricsService;
+
+    @Autowired
+    private RateLimitService rateLimitService;
+
+    @Autowired
+    private VoteBudgetService voteBudgetService;
+
+    private final Map<Long, BoardActor> actors = new ConcurrentHashMap<>();
+
+    // Board of each card seen by an actor, so votes are routed without a database lookup
+    private final Map<Long, Long> cardBoards = new ConcurrentHashMap<>();
+
+    private final AtomicInteger pendingVotes = new AtomicInteger();
+
+    // Bumped on every team membership change, so access checks from before it are not cached
+    private final AtomicLong accessGeneration = new AtomicLong();
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    void init() {
+        if (!enabled) {
+            return;
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "board-actor-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        metricsService.gauge(MetricsService.BOARD_ACTORS, "Boards whose votes are held by an in-memory actor",
+            actors, Map::size);
+        metricsService.gauge(MetricsService.BOARD_ACTOR_PENDING_VOTES, "Vote changes applied in memory but not yet persisted",
+            pendingVotes, AtomicInteger::get);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Toggle the current user's vote in the board's actor; broadcast now, persisted by the next flush
+    public CardResponse voteCard(Long cardId) {
+        String username = currentUsername();
+        if (username == null) {
+            throw new RuntimeException("User not authenticated");
+        }
+
+        Long boardId = cardBoards.get(cardId);
+        CardResponse loaded = null;
+        if (boardId == null) {
+            Card card = cardRepository.findWithColumnById(cardId)
+                .orElseThrow(() -> new RuntimeException("Card not found"));
+            // Cards are revealed for good, so only cards that were never cached can still be hidden
+            CardService.checkRevealed(card);
+            boardId = card.getColumn().getBoard().getId();
+            loaded = toResponse(card);
+            cardBoards.put(cardId, boardId);
+        }
+
+        // Throttle before the access checks and writes
+        rateLimitService.checkCardMutation(boardId, "card_vote");
+
+        CardResponse snapshot = loaded;
+        while (true) {
+            BoardActor actor = actors.computeIfAbsent(boardId, BoardActor::new);
+            Long userId = authorize(actor, username);
+            try {
+                return await(actor.ask(() -> actor.toggleVote(cardId, userId, snapshot)));
+            } catch (ActorEvictedException e) {
+                // Evicted after everything was flushed; a new actor starts from the database
+            }
+        }
+    }
+
+    // Replace the vote count of a card response with the live count, for events built from the database
+    public void overlayVotes(Long boardId, CardResponse response) {
+        overlayVotes(boardId, List.of(response));
+    }
+
+    // Same for a list of the board's cards, with one ask for all of them
+    public void overlayVotes(Long boardId, List<CardResponse> responses) {
+        BoardActor actor = enabled && !responses.isEmpty() ? actors.get(boardId) : null;
+        if (actor == null) {
+            return;
+        }
+        try {
+            Map<Long, Integer> votes = await(actor.ask(actor::voteCounts));
+            for (CardResponse response : responses) {
+                Integer count = votes.get(response.getId());
+                if (count != null) {
+                    response.setVotes(count);
+                }
+            }
+        } catch (RuntimeException e) {
+            // An evicted actor had nothing pending, so the database counts are current
+            logger.debug("Could not overlay live votes on board {}: {}", boardId, e.getMessage());
+        }
+    }
+
+    // Team members or owners changed; every user's board access is checked again on their next vote
+    public void teamAccessChangedAfterCommit() {
+        if (!enabled) {
+            return;
+        }
+        Runnable forget = () -> {
+            accessGeneration.incrementAndGet();
+            actors.values().forEach(actor -> actor.authorizedUsers.clear());
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    forget.run();
+                }
+            });
+        } else {
+            forget.run();
+        }
+    }
+
+    // A card's description, column, position or reactions changed; the actor reloads it on the next vote
+    public void cardChangedAfterCommit(Long boardId, Long cardId) {
+        tellAfterCommit(boardId, actor -> actor.dropSnapshot(cardId));
+    }
+
+    public void cardDeletedAfterCommit(Long boardId, Long cardId) {
+        cardsDeletedAfterCommit(boardId, Set.of(cardId));
+    }
+
+    // The cards' votes left the board with them, so their voters get that budget back
+    public void cardsDeletedAfterCommit(Long boardId, Set<Long> cardIds) {
+        tellAfterCommit(boardId, actor -> actor.removeCards(cardIds, true));
+    }
+
+    // Merged cards are reloaded from the database, where their votes were moved. Merges run with the board's votes
+    // held (see holdVotes), so nothing is pending and the budget counts can be loaded again too.
+    public void cardsMergedAfterCommit(Long boardId, Set<Long> cardIds) {
+        tellAfterCommit(boardId, actor -> {
+            actor.removeCards(cardIds, false);
+            if (actor.pending.isEmpty()) {
+                voteBudgetService.reload(boardId);
+            }
+        });
+    }
+
+    // Run a write that needs all of the card's board votes in the database, such as a merge. The board's pending votes
+    // are persisted first, and new votes on the board are refused until the write has committed.
+    public <T> T holdVotes(Long cardId, Supplier<T> write) {
+        Long boardId = cardBoards.get(cardId);
+        if (boardId == null) {
+            Optional<Card> card = cardRepository.findWithColumnById(cardId);
+            if (card.isEmpty()) {
+                return write.get();
+            }
+            boardId = card.get().getColumn().getBoard().getId();
+        }
+
+        BoardActor actor = hold(boardId);
+        try {
+            return write.get();
+        } finally {
+            // After the write's own after-commit messages, so merged cards are dropped before votes resume
+            actor.tell(actor::release);
+        }
+    }
+
+    private BoardActor hold(Long boardId) {
+        while (true) {
+            BoardActor actor = actors.computeIfAbsent(boardId, BoardActor::new);
+            // Waits for a scheduled flush of the board that is already under way, so the write sees its votes
+            synchronized (actor) {
+                VoteBatch batch;
+                try {
+                    batch = await(actor.ask(actor::hold));
+                } catch (ActorEvictedException e) {
+                    // Evicted after everything was flushed; a new actor starts from the database
+                    continue;
+                }
+                if (batch != null) {
+                    FlushResult result = persist(actor, batch);
+                    await(actor.ask(() -> {
+                        actor.settle(result);
+                        return null;
+                    }));
+                    if (!result.failed().isEmpty()) {
+                        actor.tell(actor::release);
+                        throw new RuntimeException("Votes on this board could not be saved, try again shortly");
+                    }
+                }
+                return actor;
+            }
+        }
+    }
+
+    // A column was renamed or deleted; card snapshots carry the column, so all of them are reloaded
+    public void columnsChangedAfterCommit(Long boardId) {
+        tellAfterCommit(boardId, BoardActor::dropSnapshots);
+    }
+
+    // Persist pending votes, one transaction per board, then evict boards that have been idle long enough.
+    // Synchronized so the shutdown flush never overlaps a scheduled one and batches commit in order.
+    @Scheduled(fixedDelayString = "${retroboard.board-actors.flush-interval-ms:250}")
+    public synchronized void flushPendingVotes() {
+        for (BoardActor actor : actors.values()) {
+            // A write holding the board's votes persists them itself
+            synchronized (actor) {
+                VoteBatch batch;
+                try {
+                    batch = await(actor.ask(actor::drainPending));
+                } catch (RuntimeException e) {
+                    continue;
+                }
+
+                if (batch != null) {
+                    FlushResult result = persist(actor, batch);
+                    actor.tell(() -> actor.settle(result));
+                }
+                // Runs after settle, so votes put back for a retry keep the board from being evicted
+                actor.tell(actor::evictIfIdle);
+            }
+        }
+    }
+
+    private FlushResult persist(BoardActor actor, VoteBatch batch) {
+        try {
+            Set<Long> missing = cardVoteRepository.applyVoteBatch(batch.changes(), batch.votesByCard());
+            return new FlushResult(batch.changes(), List.of(), List.of(), missing);
+        } catch (RuntimeException e) {
+            logger.warn("Could not persist {} votes of board {} in one batch: {}", batch.changes().size(), actor.boardId, e.getMessage());
+            return applyOneByOne(actor, batch);
+        }
+    }
+
+    // A single row the database refuses (a vote over the budget, a vote on a card deleted meanwhile) fails the whole
+    // batch, so the batch is retried one vote per transaction to find it. Any other failure, such as an unavailable
+    // database or a deadlock, is transient, and what is left is kept for the next flush.
+    private FlushResult applyOneByOne(BoardActor actor, VoteBatch batch) {
+        List<VoteChange> applied = new ArrayList<>();
+        List<VoteChange> rejected = new ArrayList<>();
+        List<VoteChange> failed = new ArrayList<>();
+        Set<Long> missing = new HashSet<>();
+        for (VoteChange change : batch.changes()) {
+            if (!failed.isEmpty()) {
+                failed.add(change);
+                continue;
+            }
+            try {
+                if (cardVoteRepository.applyVote(change)) {
+                    applied.add(change);
+                } else {
+                    missing.add(change.cardId());
+                }
+            } catch (DataIntegrityViolationException e) {
+                logger.warn("Dropping vote of user {} on card {} of board {}: {}", change.userId(), change.cardId(),
+                    actor.boardId, e.getMostSpecificCause().getMessage());
+                rejected.add(change);
+            } catch (RuntimeException e) {
+                failed.add(change);
+            }
+        }
+        return new FlushResult(applied, rejected, failed, missing);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flushPendingVotes();
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    public int getActorCount() {
+        return actors.size();
+    }
+
+    public int getPendingVoteCount() {
+        return pendingVotes.get();
+    }
+
+    // Board access costs a few queries, so it is checked once per user per actor until team membership changes
+    private Long authorize(BoardActor actor, String username) {
+        Long userId = actor.authorizedUsers.get(username);
+        if (userId == null) {
+            long generation = accessGeneration.get();
+            boardService.getBoardById(actor.boardId);
+            userId = userRepository.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User not found: " + username))
+                .getId();
+            // A check that raced a membership change is not kept
+            if (accessGeneration.get() == generation) {
+                actor.authorizedUsers.put(username, userId);
+            }
+        }
+        return userId;
+    }
+
+    private void tellAfterCommit(Long boardId, Consumer<BoardActor> message) {
+        if (!enabled || !actors.containsKey(boardId)) {
+            return;
+        }
+        Runnable tell = () -> {
+            BoardActor actor = actors.get(boardId);
+            if (actor != null) {
+                actor.tell(() -> message.accept(actor));
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    tell.run();
+                }
+            });
+        } else {
+            tell.run();
+        }
+    }
+
+    private <T> T await(CompletableFuture<T> reply) {
+        try {
+            return reply.get(askTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new RuntimeException("Board actor failed", e.getCause());
+        } catch (TimeoutException e) {
+            throw new RuntimeException("Board is busy, try again");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for the board");
+        }
+    }
+
+    private CardResponse toResponse(Card card) {
+        return new CardResponse(card.getId(), card.getDescription(), card.getPosition(), card.getCreatedAt(),
+            card.getUpdatedAt(), card.getVotes(), card.getVersion(), card.getColumn().getId(), card.getColumn().getName(),
+            card.getReactions());
+    }
+
+    private String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated() || "anonymousUser".equals(authentication.getPrincipal())) {
+            return null;
+        }
+        return authentication.getName();
+    }
+
+    private static class ActorEvictedException extends RuntimeException {
+        ActorEvictedException() {
+            super("Board actor was evicted", null, false, false);
+        }
+    }
+
+    private record VoteKey(Long cardId, Long userId) {
+    }
+
+    private record VoteBatch(List<VoteChange> changes, Map<Long, Integer> votesByCard) {
+    }
+
+    private record FlushResult(List<VoteChange> applied, List<VoteChange> rejected, List<VoteChange> failed,
+                               Set<Long> missing) {
+    }
+
+    private static class CardState {
+        private CardResponse snapshot;
+        private final Set<Long> voters;
+
+        CardState(CardResponse snapshot, Set<Long> voters) {
+            this.snapshot = snapshot;
+            this.voters = voters;
+        }
+
+        CardResponse response() {
+            return new CardResponse(snapshot.getId(), snapshot.getDescription(), snapshot.getPosition(),
+                snapshot.getCreatedAt(), snapshot.getUpdatedAt(), voters.size(), snapshot.getVersion(),
+                snapshot.getColumn().getId(), snapshot.getColumn().getName(), snapshot.getReactions());
+        }
+    }
+
+    private class BoardActor {
+        private final Long boardId;
+        private final Map<String, Long> authorizedUsers = new ConcurrentHashMap<>();
+        private final Queue<Runnable> mailbox = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        // Only touched by the thread currently draining the mailbox
+        private final Map<Long, CardState> cards = new HashMap<>();
+        private final Map<VoteKey, Boolean> pending = new LinkedHashMap<>();
+        private final Map<VoteKey, Integer> failedFlushes = new HashMap<>();
+        private long lastActivity = System.currentTimeMillis();
+        private boolean evicted;
+        // Set while a write such as a merge needs the board's votes to stay as they are in the database
+        private boolean held;
+
+        BoardActor(Long boardId) {
+            this.boardId = boardId;
+        }
+
+        <T> CompletableFuture<T> ask(Supplier<T> message) {
+            CompletableFuture<T> reply = new CompletableFuture<>();
+            mailbox.add(() -> {
+                if (evicted) {
+                    reply.completeExceptionally(new ActorEvictedException());
+                    return;
+                }
+                try {
+                    reply.complete(message.get());
+                } catch (RuntimeException e) {
+                    reply.completeExceptionally(e);
+                }
+            });
+            schedule();
+            return reply;
+        }
+
+        void tell(Runnable message) {
+            ask(() -> {
+                message.run();
+                return null;
+            });
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                executor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            for (int i = 0; i < MAX_MESSAGES_PER_TURN; i++) {
+                Runnable message = mailbox.poll();
+                if (message == null) {
+                    break;
+                }
+                message.run();
+            }
+            scheduled.set(false);
+            // Covers messages added after the last poll, and turns cut short by the message limit
+            if (!mailbox.isEmpty()) {
+                schedule();
+            }
+        }
+
+        CardResponse toggleVote(Long cardId, Long userId, CardResponse loaded) {
+            if (held) {
+                throw new RuntimeException("Cards on this board are being merged, try again shortly");
+            }
+            CardState card = getCard(cardId, loaded);
+            VoteKey key = new VoteKey(cardId, userId);
+            if (!pending.containsKey(key) && pending.size() >= maxPendingVotes) {
+                throw new RuntimeException("Too many unsaved votes on this board, try again shortly");
+            }
+
+            // The budget is charged before the vote is applied, so a refused vote changes nothing
+            boolean voted = !card.voters.contains(userId);
+            if (voted) {
+                voteBudgetService.reserveVote(boardId, userId);
+                card.voters.add(userId);
+            } else {
+                voteBudgetService.releaseVote(boardId, userId);
+                card.voters.remove(userId);
+            }
+            if (pending.put(key, voted) == null) {
+                pendingVotes.incrementAndGet();
+            }
+            lastActivity = System.currentTimeMillis();
+            metricsService.recordVote(voted);
+
+            CardResponse response = card.response();
+            response.setVotedByCurrentUser(voted);
+            webSocketService.broadcastBoardUpdate("card_voted", boardId, response);
+            // The remaining votes are the voter's own, so they go on a copy that is not broadcast
+            CardResponse reply = card.response();
+            reply.setVotedByCurrentUser(voted);
+            reply.setRemainingVotes(voteBudgetService.getRemainingVotes(boardId, userId));
+            return reply;
+        }
+
+        // Live counts of the cards the actor holds; the others have nothing unflushed
+        Map<Long, Integer> voteCounts() {
+            Map<Long, Integer> counts = new HashMap<>();
+            cards.forEach((cardId, card) -> counts.put(cardId, card.voters.size()));
+            return counts;
+        }
+
+        private CardState getCard(Long cardId, CardResponse loaded) {
+            CardState card = cards.get(cardId);
+            if (card == null) {
+                CardResponse snapshot = loaded != null ? loaded : loadSnapshot(cardId);
+                // Voters come from card_votes, which is what survives a crash; cards.votes is derived from it
+                card = new CardState(snapshot, new HashSet<>(cardVoteRepository.findUserIdsByCardId(cardId)));
+                cards.put(cardId, card);
+            } else if (card.snapshot == null) {
+                card.snapshot = loaded != null ? loaded : loadSnapshot(cardId);
+            }
+            return card;
+        }
+
+        private CardResponse loadSnapshot(Long cardId) {
+            Card card = cardRepository.findWithColumnById(cardId)
+                .filter(found -> boardId.equals(found.getColumn().getBoard().getId()))
+                .orElseThrow(() -> {
+                    cardBoards.remove(cardId, boardId);
+                    return new RuntimeException("Card not found");
+                });
+            return toResponse(card);
+        }
+
+        void dropSnapshot(Long cardId) {
+            CardState card = cards.get(cardId);
+            if (card != null) {
+                card.snapshot = null;
+            }
+        }
+
+        void dropSnapshots() {
+            cards.values().forEach(card -> card.snapshot = null);
+        }
+
+        // With releaseVotes the voters get their votes back: the budget counts them in memory until the board goes
+        // idle, and the database has already given back the flushed ones (V15 triggers)
+        void removeCards(Set<Long> cardIds, boolean releaseVotes) {
+            for (Long cardId : cardIds) {
+                CardState card = cards.remove(cardId);
+                cardBoards.remove(cardId, boardId);
+                if (card != null && releaseVotes) {
+                    card.voters.forEach(userId -> voteBudgetService.releaseVote(boardId, userId));
+                }
+            }
+            int before = pending.size();
+            pending.keySet().removeIf(key -> cardIds.contains(key.cardId()));
+            failedFlushes.keySet().removeIf(key -> cardIds.contains(key.cardId()));
+            pendingVotes.addAndGet(pending.size() - before);
+        }
+
+        VoteBatch drainPending() {
+            if (pending.isEmpty()) {
+                return null;
+            }
+            List<VoteChange> changes = new ArrayList<>();
+            Map<Long, Integer> votesByCard = new HashMap<>();
+            pending.forEach((key, voted) -> {
+                changes.add(new VoteChange(key.cardId(), key.userId(), voted));
+                CardState card = cards.get(key.cardId());
+                if (card != null) {
+                    votesByCard.put(key.cardId(), card.voters.size());
+                }
+            });
+            pendingVotes.addAndGet(-pending.size());
+            pending.clear();
+            return new VoteBatch(changes, votesByCard);
+        }
+
+        // Pending votes are handed over to be persisted, and no new ones are taken until release
+        VoteBatch hold() {
+            held = true;
+            lastActivity = System.currentTimeMillis();
+            return drainPending();
+        }
+
+        void release() {
+            held = false;
+            lastActivity = System.currentTimeMillis();
+        }
+
+        // Failed changes are put back for the next flush, up to max-flush-attempts; refused ones are taken back
+        void settle(FlushResult result) {
+            removeCards(result.missing(), true);
+            for (VoteChange change : result.applied()) {
+                failedFlushes.remove(new VoteKey(change.cardId(), change.userId()));
+            }
+            for (VoteChange change : result.rejected()) {
+                failedFlushes.remove(new VoteKey(change.cardId(), change.userId()));
+                undo(change, "rejected");
+            }
+            for (VoteChange change : result.failed()) {
+                VoteKey key = new VoteKey(change.cardId(), change.userId());
+                if (failedFlushes.merge(key, 1, Integer::sum) < maxFlushAttempts) {
+                    restore(change);
+                } else {
+                    failedFlushes.remove(key);
+                    logger.warn("Dropping vote of user {} on card {} of board {} after {} failed flushes",
+                        change.userId(), change.cardId(), boardId, maxFlushAttempts);
+                    undo(change, "retries_exhausted");
+                }
+            }
+        }
+
+        // Put back a change that failed to persist; a change made since the drain is newer and wins
+        private void restore(VoteChange change) {
+            if (!cards.containsKey(change.cardId())) {
+                return;
+            }
+            if (pending.putIfAbsent(new VoteKey(change.cardId(), change.userId()), change.voted()) == null) {
+                pendingVotes.incrementAndGet();
+            }
+        }
+
+        // Take back a change that will not be persisted, budget included, and tell clients the card's real count.
+        // A change made since the drain replaces it anyway.
+        private void undo(VoteChange change, String reason) {
+            metricsService.recordVoteDropped(reason);
+            CardState card = cards.get(change.cardId());
+            if (card == null || pending.containsKey(new VoteKey(change.cardId(), change.userId()))) {
+                return;
+            }
+            if (change.voted()) {
+                if (card.voters.remove(change.userId())) {
+                    voteBudgetService.releaseVote(boardId, change.userId());
+                }
+            } else {
+                card.voters.add(change.userId());
+            }
+            if (card.snapshot != null) {
+                webSocketService.broadcastBoardUpdate("card_voted", boardId, card.response());
+            }
+        }
+
+        void evictIfIdle() {
+            if (!held && pending.isEmpty() && System.currentTimeMillis() - lastActivity >= idleEvictionMs) {
+                evicted = true;
+                actors.remove(boardId, this);
+                cards.keySet().forEach(cardId -> cardBoards.remove(cardId, boardId));
+            }
+        }
+    }
+}
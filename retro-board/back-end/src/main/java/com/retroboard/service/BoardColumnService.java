@@ -4,12 +4,17 @@ import com.retroboard.entity.BoardColumn;
 import com.retroboard.entity.Board;
 import com.retroboard.repository.BoardColumnRepository;
 import com.retroboard.repository.BoardRepository;
+import com.retroboard.repository.CardRepository;
+import com.retroboard.dto.BoardSimpleResponse;
+import com.retroboard.dto.ColumnResponse;
 import com.retroboard.dto.CreateColumnRequest;
 import com.retroboard.dto.UpdateColumnRequest;
+import com.retroboard.exception.VersionConflictException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
+import java.util.Set;
 
 @Service
 public class BoardColumnService {
@@ -20,12 +25,24 @@ public class BoardColumnService {
     @Autowired
     private BoardRepository boardRepository;
     
+    @Autowired
+    private CardRepository cardRepository;
+    
     @Autowired
     private BoardService boardService;
     
     @Autowired
     private WebSocketService webSocketService;
     
+    @Autowired
+    private BoardActorService boardActorService;
+    
+    @Autowired
+    private VoteBudgetService voteBudgetService;
+    
+    @Autowired
+    private TeamThemeService teamThemeService;
+    
     @Transactional
     public BoardColumn createColumn(CreateColumnRequest request) {
         // Get the board
@@ -44,7 +61,7 @@ public class BoardColumnService {
         BoardColumn savedColumn = columnRepository.save(column);
         
         // Broadcast event
-        webSocketService.broadcastBoardUpdate("column_created", board.getId(), savedColumn);
+        webSocketService.broadcastBoardUpdate("column_created", board.getId(), convertColumnToResponse(savedColumn));
         
         return savedColumn;
     }
@@ -61,22 +78,31 @@ public class BoardColumnService {
         // Get board ID
         Long boardId = column.getBoard().getId();
         
+        // In live board mode the actor holds votes on the column's cards, which go with it
+        Set<Long> cardIds = boardActorService.isEnabled() ? Set.copyOf(cardRepository.findIdsByColumnId(columnId)) : Set.of();
+        
         // Delete the column
         columnRepository.delete(column);
+        boardActorService.columnsChangedAfterCommit(boardId);
+        if (!cardIds.isEmpty()) {
+            boardActorService.cardsDeletedAfterCommit(boardId, cardIds);
+        }
+        // Votes on the column's cards were given back to their voters
+        voteBudgetService.usageChangedAfterCommit(boardId);
+        // The column's cards went with it, so the board's term counts are rebuilt when next needed
+        teamThemeService.boardCardsChanged(boardId);
         
         // Broadcast event
         webSocketService.broadcastBoardUpdate("column_deleted", boardId, columnId);
     }
     
-    public List<BoardColumn> getAllColumns(Long boardId) {
+    @Transactional(readOnly = true)
+    public List<ColumnResponse> getAllColumns(Long boardId) {
         // Check board access (via BoardService)
         boardService.getBoardById(boardId);
         
-        // Get the board
-        Board board = boardRepository.findById(boardId)
-            .orElseThrow(() -> new RuntimeException("Board not found"));
-        
-        return columnRepository.findByBoardOrderByPositionAsc(board);
+        // Select only the returned columns instead of loading the column/board graph
+        return columnRepository.findResponsesByBoardId(boardId);
     }
     
     @Transactional
@@ -91,6 +117,11 @@ public class BoardColumnService {
         // Get board ID
         Long boardId = column.getBoard().getId();
         
+        // Columns have no independent field groups, so any newer version is a conflict
+        if (request.getExpectedVersion() != null && !request.getExpectedVersion().equals(column.getVersion())) {
+            throw new VersionConflictException("Column was modified by someone else", convertColumnToResponse(column));
+        }
+        
         // Update column fields if provided
         if (request.getName() != null) {
             column.setName(request.getName());
@@ -99,14 +130,17 @@ public class BoardColumnService {
             column.setPosition(request.getPosition());
         }
         
-        BoardColumn updatedColumn = columnRepository.save(column);
+        // Flush here so a concurrent commit fails this update before anything is broadcast
+        BoardColumn updatedColumn = columnRepository.saveAndFlush(column);
+        boardActorService.columnsChangedAfterCommit(boardId);
         
         // Broadcast event
-        webSocketService.broadcastBoardUpdate("column_updated", boardId, updatedColumn);
+        webSocketService.broadcastBoardUpdate("column_updated", boardId, convertColumnToResponse(updatedColumn));
         
         return updatedColumn;
     }
     
+    @Transactional(readOnly = true)
     public BoardColumn getColumnById(Long columnId) {
         // Get the column
         BoardColumn column = columnRepository.findById(columnId)
@@ -117,4 +151,16 @@ public class BoardColumnService {
         
         return column;
     }
+    
+    public ColumnResponse convertColumnToResponse(BoardColumn column) {
+        ColumnResponse response = new ColumnResponse();
+        response.setId(column.getId());
+        response.setName(column.getName());
+        response.setPosition(column.getPosition());
+        response.setCreatedAt(column.getCreatedAt());
+        response.setUpdatedAt(column.getUpdatedAt());
+        response.setBoard(new BoardSimpleResponse(column.getBoard().getId(), column.getBoard().getName()));
+        response.setVersion(column.getVersion());
+        return response;
+    }
 }
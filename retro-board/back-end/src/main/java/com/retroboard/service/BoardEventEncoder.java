@@ -0,0 +1,86 @@
+package com.retroboard.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.retroboard.dto.BoardPhaseResponse;
+import com.retroboard.dto.CardPayload;
+import com.retroboard.dto.CardResponse;
+import com.retroboard.dto.CardVotesPayload;
+import com.retroboard.dto.ColumnPayload;
+import com.retroboard.dto.ColumnResponse;
+import com.retroboard.dto.DeletedPayload;
+import com.retroboard.dto.PhasePayload;
+import org.springframework.stereotype.Service;
+import java.util.List;
+
+// Builds the compact v2 payloads and encodes them as JSON, CBOR or Smile
+@Service
+public class BoardEventEncoder {
+
+    public enum Encoding {
+        JSON("", "json"),
+        CBOR(".cbor", "cbor"),
+        SMILE(".smile", "smile");
+
+        private final String destinationSuffix;
+        private final String headerValue;
+
+        Encoding(String destinationSuffix, String headerValue) {
+            this.destinationSuffix = destinationSuffix;
+            this.headerValue = headerValue;
+        }
+
+        public String getDestinationSuffix() {
+            return destinationSuffix;
+        }
+
+        public String getHeaderValue() {
+            return headerValue;
+        }
+    }
+
+    private final ObjectMapper jsonMapper = new ObjectMapper();
+    private final ObjectMapper cborMapper = new CBORMapper();
+    private final ObjectMapper smileMapper = new SmileMapper();
+
+    // Reduce the data passed to broadcastBoardUpdate to what subscribers need for this event type
+    public Object toPayload(String eventType, Object data) {
+        if (data instanceof CardResponse card) {
+            if ("card_voted".equals(eventType)) {
+                return new CardVotesPayload(card.getId(), card.getVotes());
+            }
+            Long columnId = card.getColumn() == null ? null : card.getColumn().getId();
+            return new CardPayload(card.getId(), columnId, card.getPosition(), card.getDescription(),
+                card.getVotes(), card.getVersion());
+        }
+        if (data instanceof ColumnResponse column) {
+            return new ColumnPayload(column.getId(), column.getName(), column.getPosition(), column.getVersion());
+        }
+        if (data instanceof BoardPhaseResponse phase) {
+            return new PhasePayload(phase.getPhase(), phase.getRemainingMs());
+        }
+        if (data instanceof Long id) {
+            return new DeletedPayload(id);
+        }
+        if (data instanceof List<?> items) {
+            // Batched events such as cards_revealed carry one payload per item
+            return items.stream().map(item -> toPayload(eventType, item)).toList();
+        }
+        // Already compact, e.g. CardTextOperation
+        return data;
+    }
+
+    public byte[] encode(Object event, Encoding encoding) {
+        try {
+            return switch (encoding) {
+                case JSON -> jsonMapper.writeValueAsBytes(event);
+                case CBOR -> cborMapper.writeValueAsBytes(event);
+                case SMILE -> smileMapper.writeValueAsBytes(event);
+            };
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Error encoding board event", e);
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.retroboard.service;
+
+import com.retroboard.dto.BoardEventPage;
+import com.retroboard.dto.BoardEventResponse;
+import com.retroboard.dto.BoardUpdateEvent;
+import com.retroboard.entity.User;
+import com.retroboard.repository.BoardEventRepository;
+import com.retroboard.repository.BoardEventRepository.NewBoardEvent;
+import com.retroboard.repository.TeamRepository;
+import com.retroboard.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Team activity feed. Every board event that is broadcast is also queued here and appended to
+// board_events in batches by a scheduled flush, so recording adds no database work to mutations.
+// The log is best effort: events are dropped when the queue is full or a batch cannot be written.
+@Service
+public class BoardEventLogService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(BoardEventLogService.class);
+    
+    // Keystroke-level text ops are left out of the log; the card_updated that follows a PUT is kept
+    public static final Set<String> LOGGED_TYPES = Set.of("card_created", "card_updated", "card_deleted", "card_voted",
+        "card_reacted", "cards_revealed", "column_created", "column_updated", "column_deleted");
+    
+    private static final int MAX_PAGE_SIZE = 100;
+    
+    @Value("${retroboard.activity.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${retroboard.activity.max-queued:10000}")
+    private int maxQueued;
+    
+    @Value("${retroboard.activity.batch-size:500}")
+    private int batchSize;
+    
+    @Value("${retroboard.activity.retention-days:90}")
+    private int retentionDays;
+    
+    @Value("${retroboard.activity.retention-chunk-size:5000}")
+    private int retentionChunkSize;
+    
+    @Autowired
+    private BoardEventRepository boardEventRepository;
+    
+    @Autowired
+    private BoardEventEncoder boardEventEncoder;
+    
+    @Autowired
+    private TeamRepository teamRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private MetricsService metricsService;
+    
+    private final Queue<QueuedEvent> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    
+    private record QueuedEvent(Long boardId, String type, String actor, Object payload, long timestamp) {}
+    
+    @PostConstruct
+    void init() {
+        metricsService.gauge(MetricsService.BOARD_EVENTS_QUEUED, "Board events waiting to be written to the activity log",
+            queued, AtomicInteger::get);
+    }
+    
+    // Queue a broadcast event for the log; called on the mutation path, so it never touches the database
+    public void record(BoardUpdateEvent event) {
+        if (!enabled || !LOGGED_TYPES.contains(event.getType())) {
+            return;
+        }
+        if (queued.incrementAndGet() > maxQueued) {
+            queued.decrementAndGet();
+            metricsService.recordBoardEventsDropped("queue_full", 1);
+            return;
+        }
+        queue.add(new QueuedEvent(event.getBoardId(), event.getType(), getCurrentUsername(),
+            boardEventEncoder.toPayload(event.getType(), event.getData()), event.getTimestamp()));
+    }
+    
+    @Scheduled(fixedDelayString = "${retroboard.activity.flush-interval-ms:1000}")
+    public synchronized void flushEvents() {
+        while (true) {
+            List<NewBoardEvent> batch = new ArrayList<>();
+            QueuedEvent event;
+            while (batch.size() < batchSize && (event = queue.poll()) != null) {
+                queued.decrementAndGet();
+                String payload = new String(boardEventEncoder.encode(event.payload(), BoardEventEncoder.Encoding.JSON),
+                    StandardCharsets.UTF_8);
+                batch.add(new NewBoardEvent(event.boardId(), event.type(), event.actor(), payload,
+                    LocalDateTime.ofInstant(Instant.ofEpochMilli(event.timestamp()), ZoneId.systemDefault())));
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            
+            try {
+                boardEventRepository.insertBatch(batch);
+            } catch (RuntimeException e) {
+                logger.warn("Could not write {} board events to the activity log: {}", batch.size(), e.getMessage());
+                metricsService.recordBoardEventsDropped("write_failed", batch.size());
+                return;
+            }
+        }
+    }
+    
+    // Trim events past the retention period in chunks, each its own statement, so no long transaction holds locks
+    @Scheduled(fixedDelayString = "${retroboard.activity.retention-interval-ms:3600000}", initialDelay = 60000)
+    public void trimExpiredEvents() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+        try {
+            int deleted;
+            int total = 0;
+            do {
+                deleted = boardEventRepository.deleteExpired(cutoff, retentionChunkSize);
+                total += deleted;
+            } while (deleted == retentionChunkSize);
+            if (total > 0) {
+                logger.info("Trimmed {} board events older than {}", total, cutoff);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Could not trim the activity log: {}", e.getMessage());
+        }
+    }
+    
+    @PreDestroy
+    void flushOnShutdown() {
+        flushEvents();
+    }
+    
+    // A page of the team's activity, newest first. The cursor is the nextCursor of the previous page,
+    // or null for the first page; types restricts the page to some event types when not empty.
+    public BoardEventPage getTeamActivity(Long teamId, String cursor, int limit, List<String> types) {
+        // Check team access
+        checkTeamAccess(teamId);
+        
+        List<String> filter = types == null ? List.of() : types;
+        for (String type : filter) {
+            if (!LOGGED_TYPES.contains(type)) {
+                throw new RuntimeException("Unknown event type: " + type);
+            }
+        }
+        
+        long beforeId = Long.MAX_VALUE;
+        if (cursor != null && !cursor.isEmpty()) {
+            try {
+                beforeId = Long.parseLong(cursor);
+            } catch (NumberFormatException e) {
+                throw new RuntimeException("Invalid cursor");
+            }
+        }
+        
+        // One extra row tells whether there is a next page
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        List<BoardEventResponse> events = boardEventRepository.findByTeamId(teamId, beforeId, filter, pageSize + 1);
+        
+        String nextCursor = null;
+        if (events.size() > pageSize) {
+            events = events.subList(0, pageSize);
+            nextCursor = String.valueOf(events.get(pageSize - 1).getId());
+        }
+        return new BoardEventPage(events, nextCursor);
+    }
+    
+    public int getQueuedCount() {
+        return queued.get();
+    }
+    
+    // Username of the user making the change, or null when there is none (e.g. on a board actor thread)
+    private String getCurrentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated() || "anonymousUser".equals(authentication.getPrincipal())) {
+            return null;
+        }
+        
+        Object principal = authentication.getPrincipal();
+        if (principal instanceof UserDetails) {
+            return ((UserDetails) principal).getUsername();
+        }
+        return principal.toString();
+    }
+    
+    // Check if user has access to the team (owner or member)
+    private void checkTeamAccess(Long teamId) {
+        String username = getCurrentUsername();
+        if (username == null) {
+            throw new RuntimeException("User not authenticated");
+        }
+        User currentUser = userRepository.findByUsername(username)
+            .orElseThrow(() -> new RuntimeException("User not found: " + username));
+        if (!teamRepository.existsByTeamIdAndOwnerOrMember(teamId, currentUser)) {
+            throw new RuntimeException("Access denied: You don't have permission to access this team");
+        }
+    }
+}
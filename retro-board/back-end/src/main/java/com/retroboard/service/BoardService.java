@@ -8,7 +8,12 @@ import com.retroboard.repository.BoardColumnRepository;
 import com.retroboard.repository.BoardRepository;
 import com.retroboard.repository.TeamRepository;
 import com.retroboard.repository.UserRepository;
+import com.retroboard.dto.BoardPhaseResponse;
+import com.retroboard.dto.BoardResponse;
+import com.retroboard.dto.BoardSummaryPage;
+import com.retroboard.dto.BoardSummaryResponse;
 import com.retroboard.dto.CreateBoardRequest;
+import com.retroboard.dto.TeamSimpleResponse;
 import com.retroboard.dto.UpdateBoardRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -18,13 +23,22 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.stream.Collectors;
 
 @Service
 public class BoardService {
     
     private static final Logger logger = LoggerFactory.getLogger(BoardService.class);
     
+    private static final int MAX_SUMMARY_PAGE_SIZE = 100;
+    
+    // Cursor of the first page: sorts after every real (last activity, id) pair
+    private static final LocalDateTime FIRST_PAGE_ACTIVITY = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+    
     @Autowired
     private BoardRepository boardRepository;
     
@@ -37,21 +51,30 @@ public class BoardService {
     @Autowired
     private UserRepository userRepository;
     
-    // Get current authenticated user
-    private User getCurrentUser() {
+    @Autowired
+    private VoteBudgetService voteBudgetService;
+    
+    // Get current authenticated username, or null when not authenticated
+    private String getCurrentUsername() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         
         // Check if user is authenticated
         if (authentication == null || !authentication.isAuthenticated() || "anonymousUser".equals(authentication.getPrincipal())) {
-            throw new RuntimeException("User not authenticated");
+            return null;
         }
         
         Object principal = authentication.getPrincipal();
-        String username;
         if (principal instanceof UserDetails) {
-            username = ((UserDetails) principal).getUsername();
-        } else {
-            username = principal.toString();
+            return ((UserDetails) principal).getUsername();
+        }
+        return principal.toString();
+    }
+    
+    // Get current authenticated user
+    private User getCurrentUser() {
+        String username = getCurrentUsername();
+        if (username == null) {
+            throw new RuntimeException("User not authenticated");
         }
         
         logger.debug("Trying to find user with username: {}", username);
@@ -82,6 +105,7 @@ public class BoardService {
         board.setName(request.getName());
         board.setDescription(request.getDescription());
         board.setTeam(team);
+        board.setVoteBudget(toVoteBudget(request.getVoteBudget()));
         
         // Save the board to get its ID
         board = boardRepository.save(board);
@@ -105,15 +129,49 @@ public class BoardService {
         boardRepository.delete(board);
     }
     
-    public List<Board> getAllBoards(Long teamId) {
+    @Transactional(readOnly = true)
+    public List<BoardResponse> getAllBoards(Long teamId) {
         // Check team access
         checkTeamAccess(teamId);
         
-        // Get the team
-        Team team = teamRepository.findById(teamId)
-            .orElseThrow(() -> new RuntimeException("Team not found"));
+        // Select only the returned columns instead of loading the board/team graph
+        return boardRepository.findResponsesByTeamId(teamId);
+    }
+    
+    // A page of the team's boards with card, vote and column counts, most recently active first.
+    // The cursor is the nextCursor of the previous page, or null for the first page.
+    @Transactional(readOnly = true)
+    public BoardSummaryPage getBoardSummaries(Long teamId, String cursor, int limit) {
+        // Check team access
+        checkTeamAccess(teamId);
+        
+        int pageSize = Math.max(1, Math.min(limit, MAX_SUMMARY_PAGE_SIZE));
+        LocalDateTime beforeActivity = FIRST_PAGE_ACTIVITY;
+        Long beforeId = Long.MAX_VALUE;
+        if (cursor != null && !cursor.isEmpty()) {
+            try {
+                int separator = cursor.lastIndexOf('_');
+                beforeActivity = LocalDateTime.parse(cursor.substring(0, separator));
+                beforeId = Long.parseLong(cursor.substring(separator + 1));
+            } catch (DateTimeParseException | IndexOutOfBoundsException | NumberFormatException e) {
+                throw new RuntimeException("Invalid cursor");
+            }
+        }
         
-        return boardRepository.findByTeam(team);
+        // One extra row tells whether there is a next page
+        List<BoardSummaryResponse> boards = boardRepository.findSummariesByTeamId(teamId, beforeActivity, beforeId, pageSize + 1)
+            .stream()
+            .map(view -> new BoardSummaryResponse(view.getId(), view.getName(), view.getDescription(), view.getCreatedAt(),
+                view.getLastActivityAt(), view.getColumnCount(), view.getCardCount(), view.getTotalVotes()))
+            .collect(Collectors.toList());
+        
+        String nextCursor = null;
+        if (boards.size() > pageSize) {
+            boards = boards.subList(0, pageSize);
+            BoardSummaryResponse last = boards.get(pageSize - 1);
+            nextCursor = last.getLastActivityAt() + "_" + last.getId();
+        }
+        return new BoardSummaryPage(boards, nextCursor);
     }
     
     @Transactional
@@ -132,10 +190,15 @@ public class BoardService {
         if (request.getDescription() != null) {
             board.setDescription(request.getDescription());
         }
+        if (request.getVoteBudget() != null) {
+            board.setVoteBudget(toVoteBudget(request.getVoteBudget()));
+            voteBudgetService.budgetChangedAfterCommit(boardId, board.getVoteBudget());
+        }
         
         return boardRepository.save(board);
     }
     
+    @Transactional(readOnly = true)
     public Board getBoardById(Long boardId) {
         // Get the board
         Board board = boardRepository.findById(boardId)
@@ -147,6 +210,73 @@ public class BoardService {
         return board;
     }
     
+    // Votes the current user has left on the board, or null when the board has no budget
+    public Integer getRemainingVotes(Board board) {
+        if (board.getVoteBudget() == null) {
+            return null;
+        }
+        return voteBudgetService.getRemainingVotes(board.getId(), getCurrentUser().getId());
+    }
+    
+    // A budget of 0 or less means no budget
+    private Integer toVoteBudget(Integer voteBudget) {
+        return voteBudget == null || voteBudget <= 0 ? null : voteBudget;
+    }
+    
+    // ETag of a board and of its column and card lists, from a single lookup of the board revision.
+    // Card lists carry per-user vote flags, so the user is part of the tag. Returns null when the
+    // board is missing or not accessible; callers then take the normal path, which reports the error.
+    @Transactional(readOnly = true)
+    public String getBoardETag(Long boardId) {
+        String username = getCurrentUsername();
+        if (username == null) {
+            return null;
+        }
+        return boardRepository.findRevisionByIdForUser(boardId, username)
+            .map(revision -> toETag(revision, username))
+            .orElse(null);
+    }
+    
+    // ETag of the board that owns a column, see getBoardETag
+    @Transactional(readOnly = true)
+    public String getBoardETagForColumn(Long columnId) {
+        String username = getCurrentUsername();
+        if (username == null) {
+            return null;
+        }
+        return boardRepository.findRevisionByColumnIdForUser(columnId, username)
+            .map(revision -> toETag(revision, username))
+            .orElse(null);
+    }
+    
+    private String toETag(Long revision, String username) {
+        return "\"" + revision + "-" + Integer.toHexString(username.hashCode()) + "\"";
+    }
+    
+    public BoardResponse convertBoardToResponse(Board board) {
+        BoardResponse response = new BoardResponse();
+        response.setId(board.getId());
+        response.setName(board.getName());
+        response.setDescription(board.getDescription());
+        response.setCreatedAt(board.getCreatedAt());
+        response.setUpdatedAt(board.getUpdatedAt());
+        response.setTeam(new TeamSimpleResponse(board.getTeam().getId(), board.getTeam().getName()));
+        response.setVoteBudget(board.getVoteBudget());
+        response.setPhase(convertPhaseToResponse(board));
+        response.setHideCards(board.getHideCards());
+        return response;
+    }
+    
+    // The board's running phase, or null when no phase is running
+    public BoardPhaseResponse convertPhaseToResponse(Board board) {
+        if (board.getPhase() == null) {
+            return null;
+        }
+        Long remainingMs = board.getPhaseEndsAt() == null ? null
+            : Math.max(0, Duration.between(LocalDateTime.now(), board.getPhaseEndsAt()).toMillis());
+        return new BoardPhaseResponse(board.getId(), board.getPhase(), board.getPhaseEndsAt(), remainingMs);
+    }
+    
     // Create default columns for a new board
     private void createDefaultColumns(Board board) {
         logger.debug("Creating default columns for board: {}", board.getName());
@@ -0,0 +1,137 @@
+package com.retroboard.service;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Tracks STOMP sessions and their subscriptions so broadcasts and metrics know who is listening
+@Service
+public class BoardSubscriptionTracker {
+
+    private static final Pattern BOARD_DESTINATION = Pattern.compile("^/topic/board/(\\d+)(/.*)?$");
+
+    @Autowired
+    private MetricsService metricsService;
+
+    // sessionId -> (subscriptionId -> destination)
+    private final Map<String, Map<String, String>> sessions = new ConcurrentHashMap<>();
+
+    private final Map<String, AtomicInteger> subscriptionsByDestination = new ConcurrentHashMap<>();
+
+    private final Map<Long, AtomicInteger> subscriptionsByBoard = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void registerGauges() {
+        metricsService.gauge(MetricsService.STOMP_SESSIONS, "Connected STOMP sessions",
+            sessions, Map::size);
+        metricsService.gauge(MetricsService.STOMP_SUBSCRIPTIONS, "Active STOMP subscriptions",
+            this, BoardSubscriptionTracker::getTotalSubscriptionCount);
+    }
+
+    @EventListener
+    public void onConnected(SessionConnectedEvent event) {
+        String sessionId = StompHeaderAccessor.wrap(event.getMessage()).getSessionId();
+        if (sessionId != null) {
+            sessions.putIfAbsent(sessionId, new ConcurrentHashMap<>());
+        }
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        String sessionId = accessor.getSessionId();
+        String subscriptionId = accessor.getSubscriptionId();
+        String destination = accessor.getDestination();
+        if (sessionId == null || subscriptionId == null || destination == null) {
+            return;
+        }
+
+        Map<String, String> subscriptions = sessions.computeIfAbsent(sessionId, id -> new ConcurrentHashMap<>());
+        if (subscriptions.put(subscriptionId, destination) == null) {
+            increment(destination);
+        }
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        Map<String, String> subscriptions = sessions.get(accessor.getSessionId());
+        if (subscriptions == null || accessor.getSubscriptionId() == null) {
+            return;
+        }
+
+        String destination = subscriptions.remove(accessor.getSubscriptionId());
+        if (destination != null) {
+            decrement(destination);
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        Map<String, String> subscriptions = sessions.remove(event.getSessionId());
+        if (subscriptions != null) {
+            subscriptions.values().forEach(this::decrement);
+        }
+    }
+
+    public int getSubscriptionCount(String destination) {
+        AtomicInteger count = subscriptionsByDestination.get(destination);
+        return count == null ? 0 : count.get();
+    }
+
+    public int getBoardSubscriptionCount(Long boardId) {
+        AtomicInteger count = subscriptionsByBoard.get(boardId);
+        return count == null ? 0 : count.get();
+    }
+
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    public int getTotalSubscriptionCount() {
+        return subscriptionsByDestination.values().stream().mapToInt(AtomicInteger::get).sum();
+    }
+
+    private void increment(String destination) {
+        subscriptionsByDestination.computeIfAbsent(destination, d -> new AtomicInteger()).incrementAndGet();
+        Long boardId = parseBoardId(destination);
+        if (boardId != null) {
+            subscriptionsByBoard.computeIfAbsent(boardId, id -> new AtomicInteger()).incrementAndGet();
+            publishBoardGauge();
+        }
+    }
+
+    private void decrement(String destination) {
+        subscriptionsByDestination.computeIfPresent(destination,
+            (d, count) -> count.decrementAndGet() <= 0 ? null : count);
+        Long boardId = parseBoardId(destination);
+        if (boardId != null) {
+            subscriptionsByBoard.computeIfPresent(boardId,
+                (id, count) -> count.decrementAndGet() <= 0 ? null : count);
+            publishBoardGauge();
+        }
+    }
+
+    private void publishBoardGauge() {
+        Map<Long, Integer> snapshot = new HashMap<>();
+        subscriptionsByBoard.forEach((boardId, count) -> snapshot.put(boardId, count.get()));
+        metricsService.updateBoardSubscriptions(snapshot);
+    }
+
+    static Long parseBoardId(String destination) {
+        Matcher matcher = BOARD_DESTINATION.matcher(destination);
+        return matcher.matches() ? Long.valueOf(matcher.group(1)) : null;
+    }
+}
@@ -0,0 +1,191 @@
+package com.retroboard.service;
+
+import com.retroboard.dto.BoardPhaseResponse;
+import com.retroboard.dto.StartPhaseRequest;
+import com.retroboard.entity.Board;
+import com.retroboard.repository.BoardRepository;
+import com.retroboard.util.HashedWheelTimer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+// Server-owned retro phases. Facilitators start a timeboxed phase; its deadline is stored on the board and armed
+// on a single hashed wheel timer shared by all boards. When it runs out the board moves to the next phase and
+// everyone gets a phase_changed event, so browsers only display the countdown. Deadlines are re-armed at startup.
+@Service
+public class BoardTimerService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(BoardTimerService.class);
+    
+    // Phases in the order a timed-out phase moves through them; the retro ends after the last one
+    public static final List<String> PHASES = List.of("write", "vote", "discuss");
+    
+    private static final int MAX_DURATION_SECONDS = 24 * 60 * 60;
+    
+    @Value("${retroboard.board-timers.tick-ms:100}")
+    private long tickMs;
+    
+    @Value("${retroboard.board-timers.wheel-size:512}")
+    private int wheelSize;
+    
+    @Value("${retroboard.board-timers.retry-delay-ms:5000}")
+    private long retryDelayMs;
+    
+    @Autowired
+    private BoardRepository boardRepository;
+    
+    @Autowired
+    private BoardService boardService;
+    
+    @Autowired
+    private WebSocketService webSocketService;
+    
+    @Autowired
+    private MetricsService metricsService;
+    
+    private record ArmedTimer(LocalDateTime deadline, HashedWheelTimer.Timeout timeout) {}
+    
+    private final Map<Long, ArmedTimer> timers = new ConcurrentHashMap<>();
+    
+    private ExecutorService expiryExecutor;
+    private HashedWheelTimer wheel;
+    
+    @PostConstruct
+    void init() {
+        // Expiries touch the database, so they run off the wheel thread
+        expiryExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "board-timer-expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        wheel = new HashedWheelTimer("board-timer", tickMs, TimeUnit.MILLISECONDS, wheelSize, expiryExecutor);
+        metricsService.gauge(MetricsService.BOARD_TIMERS, "Board phase timers waiting to run out",
+            wheel, HashedWheelTimer::getPendingCount);
+    }
+    
+    @PreDestroy
+    void shutdown() {
+        wheel.stop();
+        expiryExecutor.shutdownNow();
+    }
+    
+    // Arm the timers that were running when the previous instance stopped; deadlines already passed fire right away
+    @EventListener(ApplicationReadyEvent.class)
+    public void rearmTimers() {
+        List<Board> boards = boardRepository.findWithRunningPhaseTimer();
+        for (Board board : boards) {
+            arm(board.getId(), board.getPhase(), board.getPhaseEndsAt());
+        }
+        logger.info("Re-armed {} board phase timers", boards.size());
+    }
+    
+    // Start a phase on the board, optionally timeboxed; replaces the running phase and its timer
+    @Transactional
+    public BoardPhaseResponse startPhase(Long boardId, StartPhaseRequest request) {
+        String phase = request.getPhase();
+        int durationSeconds = request.getDurationSeconds() == null ? 0 : request.getDurationSeconds();
+        if (phase != null && !PHASES.contains(phase)) {
+            throw new RuntimeException("Invalid phase: " + phase);
+        }
+        if (durationSeconds < 0 || durationSeconds > MAX_DURATION_SECONDS) {
+            throw new RuntimeException("Phase duration must be between 0 and " + MAX_DURATION_SECONDS + " seconds");
+        }
+        if (phase == null && durationSeconds > 0) {
+            throw new RuntimeException("A timer needs a phase");
+        }
+        
+        // Checks team access
+        Board board = boardService.getBoardById(boardId);
+        board.setPhase(phase);
+        // Millisecond precision survives the round trip through the database, so the expiry can match it exactly
+        board.setPhaseEndsAt(durationSeconds > 0
+            ? LocalDateTime.now().plusSeconds(durationSeconds).truncatedTo(ChronoUnit.MILLIS) : null);
+        Board savedBoard = boardRepository.save(board);
+        
+        BoardPhaseResponse response = phase != null ? boardService.convertPhaseToResponse(savedBoard)
+            : new BoardPhaseResponse(boardId, null, null, null);
+        afterCommit(() -> {
+            arm(boardId, savedBoard.getPhase(), savedBoard.getPhaseEndsAt());
+            webSocketService.broadcastBoardUpdate("phase_changed", boardId, response);
+        });
+        return response;
+    }
+    
+    public int getTimerCount() {
+        return timers.size();
+    }
+    
+    // Schedule the board's expiry, replacing any timer it had; a null deadline only cancels
+    private void arm(Long boardId, String phase, LocalDateTime deadline) {
+        ArmedTimer previous;
+        if (deadline == null) {
+            previous = timers.remove(boardId);
+        } else {
+            long delayMs = Duration.between(LocalDateTime.now(), deadline).toMillis();
+            previous = timers.put(boardId, new ArmedTimer(deadline, schedule(boardId, phase, deadline, delayMs)));
+        }
+        if (previous != null) {
+            previous.timeout().cancel();
+        }
+    }
+    
+    private HashedWheelTimer.Timeout schedule(Long boardId, String phase, LocalDateTime deadline, long delayMs) {
+        return wheel.schedule(() -> expire(boardId, phase, deadline), delayMs, TimeUnit.MILLISECONDS);
+    }
+    
+    private void expire(Long boardId, String phase, LocalDateTime deadline) {
+        String nextPhase = nextPhase(phase);
+        int updated;
+        try {
+            updated = boardRepository.advanceExpiredPhase(boardId, deadline, nextPhase);
+        } catch (RuntimeException e) {
+            logger.warn("Could not end phase {} of board {}, retrying: {}", phase, boardId, e.getMessage());
+            timers.computeIfPresent(boardId, (id, armed) -> armed.deadline().equals(deadline)
+                ? new ArmedTimer(deadline, schedule(boardId, phase, deadline, retryDelayMs)) : armed);
+            return;
+        }
+        timers.computeIfPresent(boardId, (id, armed) -> armed.deadline().equals(deadline) ? null : armed);
+        
+        // Zero rows: the phase was restarted, the board deleted, or another instance got there first
+        if (updated > 0) {
+            webSocketService.broadcastBoardUpdate("phase_changed", boardId,
+                new BoardPhaseResponse(boardId, nextPhase, null, null));
+        }
+    }
+    
+    private String nextPhase(String phase) {
+        int index = PHASES.indexOf(phase);
+        return index >= 0 && index + 1 < PHASES.size() ? PHASES.get(index + 1) : null;
+    }
+    
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
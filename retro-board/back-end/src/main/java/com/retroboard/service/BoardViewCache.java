@@ -0,0 +1,105 @@
+package com.retroboard.service;
+
+import com.retroboard.dto.BoardViewResponse;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+// Assembled board views per board, labelled with the board revision read together with their content. Concurrent misses
+// for the same board share one load (single flight). Entries are dropped whenever the board is broadcast
+// as changed, and a view older than the revision a request has just read is never returned.
+// Kept free of repository and service dependencies so WebSocketService can invalidate without a cycle.
+@Service
+public class BoardViewCache {
+
+    @Value("${retroboard.board-views.max-size:1000}")
+    private int maxSize;
+
+    @Autowired
+    private MetricsService metricsService;
+
+    private final Map<Long, Entry> views = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void registerGauges() {
+        metricsService.gauge(MetricsService.BOARD_VIEWS_CACHED, "Assembled board views held in memory",
+            views, Map::size);
+    }
+
+    // A view and the board revision read in the same transaction as its content
+    public record LoadedView(long revision, BoardViewResponse view) {}
+
+    // The view of a board at the given revision or newer. A request that loads the view, and those waiting for
+    // that load, get whatever the load read; a replica behind the primary may return an older revision, and the
+    // view is cached under that older revision so later requests load again instead of getting it.
+    public BoardViewResponse get(Long boardId, long revision, Function<Long, LoadedView> loader) {
+        while (true) {
+            Entry entry = views.get(boardId);
+            if (entry != null && entry.revision >= revision) {
+                if (entry.view.isDone() && !entry.view.isCompletedExceptionally()) {
+                    metricsService.recordBoardView("hit");
+                    return entry.view.join().view();
+                }
+                metricsService.recordBoardView("coalesced");
+                return await(entry).view();
+            }
+
+            Entry loading = new Entry(revision, new CompletableFuture<>());
+            boolean installed = entry == null
+                ? views.putIfAbsent(boardId, loading) == null
+                : views.replace(boardId, entry, loading);
+            if (!installed) {
+                // Another request got in first; its entry may already be recent enough
+                continue;
+            }
+            metricsService.recordBoardView("miss");
+            evictIfFull();
+            try {
+                LoadedView loaded = loader.apply(boardId);
+                views.replace(boardId, loading, new Entry(loaded.revision(), loading.view));
+                loading.view.complete(loaded);
+                return loaded.view();
+            } catch (RuntimeException e) {
+                // Waiting requests get the same error; the next request loads again
+                views.remove(boardId, loading);
+                loading.view.completeExceptionally(e);
+                throw e;
+            }
+        }
+    }
+
+    public void invalidate(Long boardId) {
+        views.remove(boardId);
+    }
+
+    public int size() {
+        return views.size();
+    }
+
+    // Full: drop every loaded view and keep the loads still in flight
+    private void evictIfFull() {
+        if (views.size() > maxSize) {
+            views.values().removeIf(entry -> entry.view.isDone());
+        }
+    }
+
+    private LoadedView await(Entry entry) {
+        try {
+            return entry.view.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private record Entry(long revision, CompletableFuture<LoadedView> view) {
+    }
+}
@@ -0,0 +1,180 @@
+package com.retroboard.service;
+
+import com.retroboard.dto.BoardPhaseResponse;
+import com.retroboard.dto.BoardResponse;
+import com.retroboard.dto.BoardViewResponse;
+import com.retroboard.dto.CardResponse;
+import com.retroboard.dto.ColumnResponse;
+import com.retroboard.entity.Board;
+import com.retroboard.entity.User;
+import com.retroboard.repository.BoardColumnRepository;
+import com.retroboard.repository.BoardRepository;
+import com.retroboard.repository.CardRepository;
+import com.retroboard.repository.CardVoteRepository;
+import com.retroboard.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Whole-board reads for clients opening a board. The board, its columns and its revealed cards are assembled once
+// per board revision and shared through BoardViewCache, so dozens of people opening a freshly shared link cost one
+// load. What differs per user (vote flags, remaining votes, live vote counts and the user's own hidden cards)
+// is laid over a copy of the shared view on every request.
+@Service
+public class BoardViewService {
+
+    @Autowired
+    private BoardRepository boardRepository;
+
+    @Autowired
+    private BoardColumnRepository columnRepository;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private CardVoteRepository cardVoteRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BoardService boardService;
+
+    @Autowired
+    private BoardActorService boardActorService;
+
+    @Autowired
+    private VoteBudgetService voteBudgetService;
+
+    @Autowired
+    private BoardViewCache boardViewCache;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate loadTransaction;
+
+    @PostConstruct
+    void init() {
+        // Requests waiting for another request's load must not hold a connection, so only the load is transactional
+        loadTransaction = new TransactionTemplate(transactionManager);
+        loadTransaction.setReadOnly(true);
+    }
+
+    public BoardViewResponse getBoardView(Long boardId) {
+        String username = getCurrentUsername();
+
+        // Access check and cache key from one indexed lookup
+        Long revision = boardRepository.findRevisionByIdForUser(boardId, username).orElse(null);
+        if (revision == null) {
+            // Fail with the same "Board not found" or "Access denied" as the other board endpoints
+            boardService.getBoardById(boardId);
+            throw new RuntimeException("Board not found");
+        }
+
+        BoardViewResponse view = boardViewCache.get(boardId, revision, id -> loadView(id, username));
+        User user = userRepository.findByUsername(username)
+            .orElseThrow(() -> new RuntimeException("User not found: " + username));
+        return personalize(view, user);
+    }
+
+    // The load may go to the replica while the caller's revision came from the primary, so the view is labelled
+    // with the revision read first in its own transaction. Everything read after it is at least as new.
+    private BoardViewCache.LoadedView loadView(Long boardId, String username) {
+        return loadTransaction.execute(status -> {
+            long loadedRevision = boardRepository.findRevisionByIdForUser(boardId, username)
+                .orElseThrow(() -> new RuntimeException("Board not found"));
+            Board board = boardRepository.findById(boardId)
+                .orElseThrow(() -> new RuntimeException("Board not found"));
+            BoardViewResponse view = new BoardViewResponse(boardService.convertBoardToResponse(board),
+                List.copyOf(columnRepository.findResponsesByBoardId(boardId)),
+                List.copyOf(cardRepository.findResponsesByBoardId(boardId)));
+            return new BoardViewCache.LoadedView(loadedRevision, view);
+        });
+    }
+
+    // The shared view is never modified: the board and the cards are copied before the user's flags are set
+    private BoardViewResponse personalize(BoardViewResponse view, User user) {
+        BoardResponse board = copyBoard(view.getBoard());
+        Long boardId = board.getId();
+        if (board.getVoteBudget() != null) {
+            board.setRemainingVotes(voteBudgetService.getRemainingVotes(boardId, user.getId()));
+        }
+
+        List<CardResponse> cards = new ArrayList<>(view.getCards().size());
+        for (CardResponse card : view.getCards()) {
+            cards.add(copyCard(card));
+        }
+        // Hidden cards only exist while the board hides new cards
+        if (Boolean.TRUE.equals(board.getHideCards())) {
+            List<CardResponse> ownHidden = cardRepository.findHiddenResponsesByBoardIdAndUserId(boardId, user.getId());
+            if (!ownHidden.isEmpty()) {
+                cards.addAll(ownHidden);
+                sortByColumn(cards, view.getColumns());
+            }
+        }
+
+        if (!cards.isEmpty()) {
+            List<Long> cardIds = cards.stream().map(CardResponse::getId).toList();
+            Set<Long> votedCardIds = cardVoteRepository.findVotedCardIds(user.getId(), cardIds);
+            for (CardResponse card : cards) {
+                card.setVotedByCurrentUser(votedCardIds.contains(card.getId()));
+            }
+            boardActorService.overlayVotes(boardId, cards);
+        }
+        return new BoardViewResponse(board, view.getColumns(), cards);
+    }
+
+    private BoardResponse copyBoard(BoardResponse board) {
+        BoardPhaseResponse phase = board.getPhase();
+        if (phase != null && phase.getEndsAt() != null) {
+            // The countdown is recomputed, the cached one is as old as the view
+            long remainingMs = Math.max(0, Duration.between(LocalDateTime.now(), phase.getEndsAt()).toMillis());
+            phase = new BoardPhaseResponse(phase.getBoardId(), phase.getPhase(), phase.getEndsAt(), remainingMs);
+        }
+        return new BoardResponse(board.getId(), board.getName(), board.getDescription(), board.getCreatedAt(),
+            board.getUpdatedAt(), board.getTeam(), board.getVoteBudget(), null, phase, board.getHideCards());
+    }
+
+    private CardResponse copyCard(CardResponse card) {
+        return new CardResponse(card.getId(), card.getDescription(), card.getPosition(), card.getCreatedAt(),
+            card.getUpdatedAt(), card.getVotes(), null, card.getColumn(), card.getVersion(), card.getReactions(),
+            null, card.getHidden());
+    }
+
+    private void sortByColumn(List<CardResponse> cards, List<ColumnResponse> columns) {
+        Map<Long, Integer> columnPositions = new HashMap<>();
+        for (ColumnResponse column : columns) {
+            columnPositions.put(column.getId(), column.getPosition());
+        }
+        cards.sort(Comparator.comparing((CardResponse card) -> columnPositions.getOrDefault(card.getColumn().getId(), Integer.MAX_VALUE))
+            .thenComparing(CardResponse::getPosition, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(CardResponse::getId));
+    }
+
+    private String getCurrentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated() || "anonymousUser".equals(authentication.getPrincipal())) {
+            throw new RuntimeException("User not authenticated");
+        }
+        Object principal = authentication.getPrincipal();
+        if (principal instanceof UserDetails) {
+            return ((UserDetails) principal).getUsername();
+        }
+        return principal.toString();
+    }
+}
@@ -0,0 +1,280 @@
+package com.retroboard.service;
+
+import com.retroboard.dto.CardEditMessage;
+import com.retroboard.dto.CardTextOperation;
+import com.retroboard.dto.CardTextSnapshot;
+import com.retroboard.entity.Card;
+import com.retroboard.exception.VersionConflictException;
+import com.retroboard.repository.CardRepository;
+import com.retroboard.util.TextOperation;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Server side of collaborative description editing. Each card being edited has an in-memory document;
+// clients send ot.js operations against a revision, the server transforms them over everything applied
+// since, applies them and broadcasts the transformed op on the board topic. The text is written back
+// to cards.description periodically rather than per keystroke.
+@Service
+public class CardCollaborationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CardCollaborationService.class);
+
+    // Seeded from the clock so epochs from before a restart are never reused
+    private static final AtomicLong EPOCHS = new AtomicLong(System.currentTimeMillis());
+
+    @Value("${retroboard.collab.history-size:500}")
+    private int historySize;
+
+    @Value("${retroboard.collab.max-length:10000}")
+    private int maxLength;
+
+    @Value("${retroboard.collab.idle-eviction-ms:600000}")
+    private long idleEvictionMs;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private BoardColumnService columnService;
+
+    @Autowired
+    private WebSocketService webSocketService;
+
+    @Autowired
+    private TeamThemeService teamThemeService;
+
+    private final Map<Long, Document> documents = new ConcurrentHashMap<>();
+
+    // Current text and revision for a client joining the edit session; checks access via the security context
+    public CardTextSnapshot getSnapshot(Long cardId, String username) {
+        while (true) {
+            Document document = getDocument(cardId);
+            checkAccess(document, username);
+            synchronized (document) {
+                if (!document.evicted) {
+                    return document.snapshot();
+                }
+            }
+        }
+    }
+
+    // Apply one client edit; throws VersionConflictException with a fresh snapshot when the client must resync
+    public CardTextOperation applyEdit(Long cardId, CardEditMessage message, String username) {
+        TextOperation operation;
+        try {
+            operation = TextOperation.fromJson(message.getOps() == null ? List.of() : message.getOps());
+        } catch (IllegalArgumentException | ClassCastException e) {
+            throw new RuntimeException("Invalid operation: " + e.getMessage());
+        }
+
+        while (true) {
+            Document document = getDocument(cardId);
+            checkAccess(document, username);
+            synchronized (document) {
+                if (document.evicted) {
+                    continue;
+                }
+                return document.apply(operation, message);
+            }
+        }
+    }
+
+    // Drop the live document after a PUT replaced the description; editors resync on their next op
+    public void discardAfterCommit(Long cardId) {
+        if (!documents.containsKey(cardId)) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    discard(cardId);
+                }
+            });
+        } else {
+            discard(cardId);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${retroboard.collab.flush-interval-ms:2000}")
+    public void flushSnapshots() {
+        for (Document document : documents.values()) {
+            String text;
+            String persistedText;
+            long descriptionVersion;
+            synchronized (document) {
+                if (!document.dirty || document.evicted) {
+                    continue;
+                }
+                text = document.text;
+                persistedText = document.persistedText;
+                descriptionVersion = document.descriptionVersion;
+                document.dirty = false;
+            }
+
+            try {
+                // Written outside the document lock, so a PUT may have replaced the description since the text was
+                // taken; the write only goes through if the description is still the one this document started from
+                Long written = cardRepository.updateDescriptionSnapshot(document.cardId, text, descriptionVersion,
+                    LocalDateTime.now());
+                if (written == null) {
+                    // The card was deleted, or its description replaced, while being edited
+                    discard(document.cardId);
+                    continue;
+                }
+                // Only the flushed text counts toward the team themes, not every keystroke
+                teamThemeService.cardTextChanged(document.boardId, persistedText, text);
+                synchronized (document) {
+                    document.persistedText = text;
+                    document.descriptionVersion = written;
+                }
+            } catch (RuntimeException e) {
+                logger.warn("Could not persist description of card {}: {}", document.cardId, e.getMessage());
+                synchronized (document) {
+                    document.dirty = true;
+                }
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${retroboard.collab.eviction-interval-ms:60000}")
+    public void evictIdleDocuments() {
+        long cutoff = System.currentTimeMillis() - idleEvictionMs;
+        for (Document document : documents.values()) {
+            synchronized (document) {
+                if (!document.dirty && document.lastActivity < cutoff) {
+                    document.evicted = true;
+                    documents.remove(document.cardId, document);
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flushSnapshots();
+    }
+
+    public int getDocumentCount() {
+        return documents.size();
+    }
+
+    private Document getDocument(Long cardId) {
+        Document document = documents.get(cardId);
+        if (document != null) {
+            return document;
+        }
+        Card card = cardRepository.findWithColumnById(cardId)
+            .orElseThrow(() -> new RuntimeException("Card not found"));
+        // Ops are broadcast to the whole board; the author edits a hidden card with a plain update
+        CardService.checkRevealed(card);
+        Document loaded = new Document(cardId, card.getColumn().getId(), card.getColumn().getBoard().getId(),
+            card.getDescription() == null ? "" : card.getDescription(), card.getDescriptionVersion());
+        Document existing = documents.putIfAbsent(cardId, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    // The column access check costs a few queries, so it runs once per user per loaded document
+    private void checkAccess(Document document, String username) {
+        if (username == null) {
+            throw new RuntimeException("User not authenticated");
+        }
+        if (!document.authorizedUsers.contains(username)) {
+            columnService.getColumnById(document.columnId);
+            document.authorizedUsers.add(username);
+        }
+    }
+
+    private void discard(Long cardId) {
+        Document document = documents.remove(cardId);
+        if (document != null) {
+            synchronized (document) {
+                document.evicted = true;
+            }
+        }
+    }
+
+    private class Document {
+        private final Long cardId;
+        private final Long columnId;
+        private final Long boardId;
+        private final long epoch = EPOCHS.incrementAndGet();
+        private final Set<String> authorizedUsers = ConcurrentHashMap.newKeySet();
+
+        // Applied operations; history.get(i) took the document from revision historyStart + i to the next
+        private final List<TextOperation> history = new ArrayList<>();
+        private long historyStart = 0;
+
+        private String text;
+        // Last text written to cards.description, and the description version it was written at
+        private String persistedText;
+        private long descriptionVersion;
+        private long revision = 0;
+        private boolean dirty;
+        private boolean evicted;
+        private long lastActivity = System.currentTimeMillis();
+
+        Document(Long cardId, Long columnId, Long boardId, String text, long descriptionVersion) {
+            this.cardId = cardId;
+            this.columnId = columnId;
+            this.boardId = boardId;
+            this.text = text;
+            this.persistedText = text;
+            this.descriptionVersion = descriptionVersion;
+        }
+
+        CardTextSnapshot snapshot() {
+            return new CardTextSnapshot(cardId, epoch, revision, text);
+        }
+
+        CardTextOperation apply(TextOperation operation, CardEditMessage message) {
+            Long base = message.getRevision();
+            if (message.getEpoch() == null || message.getEpoch() != epoch
+                    || base == null || base < historyStart || base > revision) {
+                throw new VersionConflictException("Document changed, resync required", snapshot());
+            }
+
+            // Bring the op up to date with everything applied since the client's revision
+            TextOperation transformed = operation;
+            try {
+                for (TextOperation concurrent : history.subList((int) (base - historyStart), history.size())) {
+                    transformed = TextOperation.transform(transformed, concurrent)[0];
+                }
+                if (transformed.getTargetLength() > maxLength) {
+                    throw new RuntimeException("Description too long");
+                }
+                text = transformed.apply(text);
+            } catch (IllegalArgumentException e) {
+                throw new VersionConflictException("Operation does not match the document, resync required", snapshot());
+            }
+
+            history.add(transformed);
+            if (history.size() > historySize) {
+                history.remove(0);
+                historyStart++;
+            }
+            revision++;
+            dirty = true;
+            lastActivity = System.currentTimeMillis();
+
+            CardTextOperation broadcast = new CardTextOperation(cardId, epoch, revision, transformed.toJson(), message.getClientId());
+            // Broadcast while holding the document lock so subscribers see ops in revision order
+            webSocketService.broadcastLiveUpdate("card_text_op", boardId, broadcast);
+            return broadcast;
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.retroboard.service;
+
+import com.retroboard.dto.CardGroupResponse;
+import com.retroboard.dto.CardResponse;
+import com.retroboard.dto.MergeCardsRequest;
+import com.retroboard.entity.Card;
+import com.retroboard.repository.CardRepository;
+import com.retroboard.repository.CardVoteRepository;
+import com.retroboard.util.MinHashLsh;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Suggests groups of near-duplicate cards and merges them. Grouping runs in memory with MinHash/LSH over the
+// board's card texts, one column at a time, so "CI is slow" under "Went well" is never grouped with the same text
+// under "To improve". Merging keeps the target card, moves one vote per voter onto it and deletes the rest.
+@Service
+public class CardGroupingService {
+
+    // 40 bands of 3 rows: pairs around 0.4 similarity share a band most of the time, pairs under 0.15 rarely do
+    static final int BANDS = 40;
+    static final int ROWS = 3;
+    private static final long SEED = 0x5EED;
+
+    @Value("${retroboard.card-groups.threshold:0.4}")
+    private double defaultThreshold;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private CardVoteRepository cardVoteRepository;
+
+    @Autowired
+    private CardService cardService;
+
+    @Autowired
+    private BoardService boardService;
+
+    @Autowired
+    private BoardColumnService columnService;
+
+    @Autowired
+    private BoardActorService boardActorService;
+
+    @Autowired
+    private VoteBudgetService voteBudgetService;
+
+    @Autowired
+    private RateLimitService rateLimitService;
+
+    @Autowired
+    private WebSocketService webSocketService;
+
+    @Autowired
+    private TeamThemeService teamThemeService;
+
+    private final MinHashLsh minHash = new MinHashLsh(BANDS, ROWS, SEED);
+
+    @Transactional(readOnly = true)
+    public List<CardGroupResponse> suggestGroups(Long boardId, Double threshold) {
+        double minSimilarity = threshold == null ? defaultThreshold : threshold;
+        if (minSimilarity <= 0 || minSimilarity > 1) {
+            throw new RuntimeException("Threshold must be greater than 0 and at most 1");
+        }
+
+        // Check board access (via BoardService)
+        boardService.getBoardById(boardId);
+
+        List<CardResponse> boardCards = cardRepository.findResponsesByBoardId(boardId);
+        boardActorService.overlayVotes(boardId, boardCards);
+        Map<Long, List<CardResponse>> cardsByColumn = new LinkedHashMap<>();
+        for (CardResponse card : boardCards) {
+            cardsByColumn.computeIfAbsent(card.getColumn().getId(), id -> new ArrayList<>()).add(card);
+        }
+
+        List<CardGroupResponse> groups = new ArrayList<>();
+        for (List<CardResponse> cards : cardsByColumn.values()) {
+            List<String> texts = cards.stream().map(CardResponse::getDescription).toList();
+            for (List<Integer> cluster : minHash.cluster(texts, minSimilarity)) {
+                groups.add(toGroup(cards, cluster));
+            }
+        }
+        groups.sort(Comparator.comparingInt((CardGroupResponse group) -> group.getCards().size()).reversed());
+        return groups;
+    }
+
+    @Transactional
+    public CardResponse mergeCards(Long targetCardId, MergeCardsRequest request) {
+        Card target = cardRepository.findById(targetCardId)
+            .orElseThrow(() -> new RuntimeException("Card not found"));
+        Long boardId = target.getColumn().getBoard().getId();
+
+        // Throttle before the access checks and writes
+        rateLimitService.checkCardMutation(boardId, "card_merge");
+
+        // Check column access (via BoardColumnService)
+        columnService.getColumnById(target.getColumn().getId());
+
+        Set<Long> sourceIds = new LinkedHashSet<>(request.getCardIds() == null ? List.of() : request.getCardIds());
+        sourceIds.remove(targetCardId);
+        if (sourceIds.isEmpty()) {
+            throw new RuntimeException("No cards to merge");
+        }
+        List<Card> sources = cardRepository.findAllById(sourceIds);
+        if (sources.size() != sourceIds.size()) {
+            throw new RuntimeException("Card not found");
+        }
+        CardService.checkRevealed(target);
+        for (Card source : sources) {
+            if (!source.getColumn().getBoard().getId().equals(boardId)) {
+                throw new RuntimeException("Cards can only be merged within one board");
+            }
+            CardService.checkRevealed(source);
+        }
+
+        int votes = cardVoteRepository.mergeVotes(targetCardId, sourceIds);
+        cardRepository.deleteAll(sources);
+        cardRepository.flush();
+        for (Card source : sources) {
+            teamThemeService.cardTextChanged(boardId, source.getDescription(), null);
+        }
+
+        Set<Long> mergedIds = new HashSet<>(sourceIds);
+        mergedIds.add(targetCardId);
+        boardActorService.cardsMergedAfterCommit(boardId, mergedIds);
+        // Duplicate votes went with the deleted cards and were given back to their voters
+        voteBudgetService.usageChangedAfterCommit(boardId);
+
+        CardResponse response = cardService.convertCardToResponse(target);
+        response.setVotes(votes);
+        for (Long sourceId : sourceIds) {
+            webSocketService.broadcastBoardUpdate("card_deleted", boardId, sourceId);
+        }
+        webSocketService.broadcastBoardUpdate("card_updated", boardId, response);
+
+        // The broadcast response is queued for the event log, so the caller gets its own copy
+        CardResponse reply = cardService.convertCardToResponse(target);
+        reply.setVotes(votes);
+        return reply;
+    }
+
+    private CardGroupResponse toGroup(List<CardResponse> cards, List<Integer> cluster) {
+        List<CardResponse> members = new ArrayList<>();
+        for (int index : cluster) {
+            members.add(cards.get(index));
+        }
+        members.sort(Comparator.comparing(CardResponse::getVotes, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(CardResponse::getId));
+
+        int[] first = minHash.signature(members.get(0).getDescription());
+        double similarity = 0;
+        for (int i = 1; i < members.size(); i++) {
+            similarity += MinHashLsh.similarity(first, minHash.signature(members.get(i).getDescription()));
+        }
+        int totalVotes = members.stream().mapToInt(card -> card.getVotes() == null ? 0 : card.getVotes()).sum();
+        CardResponse column = members.get(0);
+        return new CardGroupResponse(column.getColumn().getId(), column.getColumn().getName(),
+            Math.round(similarity / (members.size() - 1) * 100) / 100.0, totalVotes, members);
+    }
+}
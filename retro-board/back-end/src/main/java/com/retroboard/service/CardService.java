@@ -5,22 +5,31 @@ import com.retroboard.entity.BoardColumn;
 import com.retroboard.entity.CardVote;
 import com.retroboard.entity.User;
 import com.retroboard.repository.CardRepository;
+import com.retroboard.repository.CardRepositoryCustom.ReactionToggle;
 import com.retroboard.repository.BoardColumnRepository;
+import com.retroboard.repository.BoardRepository;
 import com.retroboard.repository.CardVoteRepository;
 import com.retroboard.repository.UserRepository;
 import com.retroboard.dto.CreateCardRequest;
 import com.retroboard.dto.UpdateCardRequest;
+import com.retroboard.dto.CardReactionResponse;
+import com.retroboard.dto.CardReactionsPayload;
 import com.retroboard.dto.CardResponse;
 import com.retroboard.dto.ColumnSimpleResponse;
+import com.retroboard.exception.VersionConflictException;
+import com.retroboard.exception.VoteBudgetExceededException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 @Service
@@ -28,7 +37,10 @@ public class CardService {
     
     private static final Logger logger = LoggerFactory.getLogger(CardService.class);
     
-    private CardResponse convertCardToResponse(Card card) {
+    // Reactions are stored by name, so clients are free to render them with any emoji set
+    public static final Set<String> REACTIONS = Set.of("thumbs_up", "heart", "laugh", "tada", "thinking", "eyes");
+    
+    public CardResponse convertCardToResponse(Card card) {
         CardResponse response = new CardResponse();
         response.setId(card.getId());
         response.setDescription(card.getDescription());
@@ -37,6 +49,9 @@ public class CardService {
         response.setUpdatedAt(card.getUpdatedAt());
         response.setVotes(card.getVotes());
         response.setVotedByCurrentUser(card.getVotedByCurrentUser());
+        response.setVersion(card.getVersion());
+        response.setReactions(card.getReactions() == null ? Map.of() : card.getReactions());
+        response.setHidden(Boolean.TRUE.equals(card.getHidden()) ? true : null);
         
         ColumnSimpleResponse columnSimple = new ColumnSimpleResponse();
         columnSimple.setId(card.getColumn().getId());
@@ -55,6 +70,12 @@ public class CardService {
     @Autowired
     private BoardColumnService columnService;
     
+    @Autowired
+    private BoardRepository boardRepository;
+    
+    @Autowired
+    private BoardService boardService;
+    
     @Autowired
     private CardVoteRepository cardVoteRepository;
     
@@ -64,6 +85,24 @@ public class CardService {
     @Autowired
     private WebSocketService webSocketService;
     
+    @Autowired
+    private MetricsService metricsService;
+    
+    @Autowired
+    private VoteBudgetService voteBudgetService;
+    
+    @Autowired
+    private RateLimitService rateLimitService;
+    
+    @Autowired
+    private CardCollaborationService collaborationService;
+    
+    @Autowired
+    private BoardActorService boardActorService;
+    
+    @Autowired
+    private TeamThemeService teamThemeService;
+    
     // Get current authenticated user
     private User getCurrentUser() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
@@ -87,10 +126,28 @@ public class CardService {
             .orElseThrow(() -> new RuntimeException("User not found: " + username));
     }
     
-    // Populate votedByCurrentUser for a list of cards
-    private void populateVotedByCurrentUser(List<Card> cards, User user) {
-        Set<Long> votedCardIds = cardVoteRepository.findCardIdsByUser(user);
-        for (Card card : cards) {
+    // A hidden card only exists for its author until the board's cards are revealed
+    private void checkVisible(Card card) {
+        if (Boolean.TRUE.equals(card.getHidden()) && !getCurrentUser().getId().equals(card.getUserId())) {
+            throw new RuntimeException("Card not found");
+        }
+    }
+    
+    // Votes, reactions, live edits and merges would show a hidden card to everyone, so they wait for the reveal
+    public static void checkRevealed(Card card) {
+        if (Boolean.TRUE.equals(card.getHidden())) {
+            throw new RuntimeException("Card is hidden until the cards are revealed");
+        }
+    }
+    
+    // Populate votedByCurrentUser for a list of cards, looking up only the user's votes on those cards
+    private void populateVotedByCurrentUser(List<CardResponse> cards, User user) {
+        if (cards.isEmpty()) {
+            return;
+        }
+        List<Long> cardIds = cards.stream().map(CardResponse::getId).toList();
+        Set<Long> votedCardIds = cardVoteRepository.findVotedCardIds(user.getId(), cardIds);
+        for (CardResponse card : cards) {
             card.setVotedByCurrentUser(votedCardIds.contains(card.getId()));
         }
     }
@@ -107,9 +164,18 @@ public class CardService {
         BoardColumn column = columnRepository.findById(request.getColumnId())
             .orElseThrow(() -> new RuntimeException("Column not found"));
         
+        // Throttle before the access checks and writes
+        rateLimitService.checkCardMutation(column.getBoard().getId(), "card_create");
+        
         // Check column access (via BoardColumnService)
         columnService.getColumnById(column.getId());
         
+        // While the board hides cards, the new card is only shown to its author; the flag is re-read under
+        // the board lock so a reveal committing right now is not missed
+        Long boardId = column.getBoard().getId();
+        User author = Boolean.TRUE.equals(column.getBoard().getHideCards()) && boardRepository.lockHideCards(boardId)
+            ? getCurrentUser() : null;
+        
         // Create the card
         Card card = new Card();
         card.setTitle("");
@@ -117,13 +183,21 @@ public class CardService {
         card.setColumn(column);
         card.setPosition(request.getPosition());
         card.setVotedByCurrentUser(false);
+        if (author != null) {
+            card.setUserId(author.getId());
+            card.setHidden(true);
+        }
         
         Card savedCard = cardRepository.save(card);
         
-        // Broadcast event
-        Long boardId = column.getBoard().getId();
+        // Broadcast event; a hidden card is published to the board by the reveal
+        teamThemeService.cardTextChanged(boardId, null, savedCard.getDescription());
         CardResponse cardResponse = convertCardToResponse(savedCard);
-        webSocketService.broadcastBoardUpdate("card_created", boardId, cardResponse);
+        if (author != null) {
+            webSocketService.sendBoardUpdateToUser(author.getUsername(), "card_created", boardId, cardResponse);
+        } else {
+            webSocketService.broadcastBoardUpdate("card_created", boardId, cardResponse);
+        }
         
         return savedCard;
     }
@@ -134,37 +208,56 @@ public class CardService {
         Card card = cardRepository.findById(cardId)
             .orElseThrow(() -> new RuntimeException("Card not found"));
         
+        // Throttle before the access checks and writes
+        rateLimitService.checkCardMutation(card.getColumn().getBoard().getId(), "card_delete");
+        
         // Check column access (via BoardColumnService)
         columnService.getColumnById(card.getColumn().getId());
+        checkVisible(card);
         
         // Get board ID before deleting
         Long boardId = card.getColumn().getBoard().getId();
         
         // Delete the card
         cardRepository.delete(card);
-        
-        // Broadcast event
-        webSocketService.broadcastBoardUpdate("card_deleted", boardId, cardId);
+        teamThemeService.cardTextChanged(boardId, card.getDescription(), null);
+        boardActorService.cardDeletedAfterCommit(boardId, cardId);
+        // The card's votes were given back to their voters
+        voteBudgetService.usageChangedAfterCommit(boardId);
+        
+        // Broadcast event; nobody else knows about a hidden card
+        if (Boolean.TRUE.equals(card.getHidden())) {
+            webSocketService.sendBoardUpdateToUser(getCurrentUser().getUsername(), "card_deleted", boardId, cardId);
+        } else {
+            webSocketService.broadcastBoardUpdate("card_deleted", boardId, cardId);
+        }
     }
     
-    public List<Card> getAllCards(Long columnId) {
+    @Transactional(readOnly = true)
+    public List<CardResponse> getAllCards(Long columnId) {
         // Check column access (via BoardColumnService)
         columnService.getColumnById(columnId);
         
-        // Get the column
-        BoardColumn column = columnRepository.findById(columnId)
-            .orElseThrow(() -> new RuntimeException("Column not found"));
-        
-        List<Card> cards = cardRepository.findByColumnOrderByPositionAsc(column);
-        
-        // Populate votedByCurrentUser for each card
+        // The user decides which hidden cards are listed and which cards carry a vote flag
+        User currentUser = null;
         try {
-            User currentUser = getCurrentUser();
-            populateVotedByCurrentUser(cards, currentUser);
+            currentUser = getCurrentUser();
         } catch (RuntimeException e) {
             logger.debug("Could not populate user flags on cards: {}", e.getMessage());
         }
         
+        // Select only the returned columns instead of loading the card/column/board graph
+        List<CardResponse> cards = cardRepository.findResponsesByColumnId(columnId, currentUser == null ? null : currentUser.getId());
+        
+        // Populate votedByCurrentUser for each card
+        if (currentUser != null) {
+            try {
+                populateVotedByCurrentUser(cards, currentUser);
+            } catch (RuntimeException e) {
+                logger.debug("Could not populate user flags on cards: {}", e.getMessage());
+            }
+        }
+        
         return cards;
     }
     
@@ -177,29 +270,68 @@ public class CardService {
         Card card = cardRepository.findById(cardId)
             .orElseThrow(() -> new RuntimeException("Card not found"));
         
+        // Get board ID
+        Long boardId = card.getColumn().getBoard().getId();
+        
+        // Throttle before the access checks and writes
+        rateLimitService.checkCardMutation(boardId, "card_update");
+        
         // Check column access (via BoardColumnService)
         columnService.getColumnById(card.getColumn().getId());
+        checkVisible(card);
         
-        // Get board ID
-        Long boardId = card.getColumn().getBoard().getId();
+        // Work out which field groups this request actually changes
+        boolean descriptionChanged = request.getDescription() != null && !request.getDescription().equals(card.getDescription());
+        boolean columnChanged = request.getColumnId() != null && !request.getColumnId().equals(card.getColumn().getId());
+        boolean positionChanged = request.getPosition() != null && !request.getPosition().equals(card.getPosition());
+        
+        // Reject only if someone else changed the same field group since the client's version
+        checkCardVersion(card, request.getExpectedVersion(), descriptionChanged, columnChanged || positionChanged);
+        
+        // Term counts of the boards the card leaves and joins are adjusted below
+        String oldDescription = card.getDescription();
+        Long newBoardId = boardId;
         
         // If column is being changed, check access to the new column
-        if (request.getColumnId() != null && !request.getColumnId().equals(card.getColumn().getId())) {
+        if (columnChanged) {
             columnService.getColumnById(request.getColumnId());
             BoardColumn newColumn = columnRepository.findById(request.getColumnId())
                 .orElseThrow(() -> new RuntimeException("New column not found"));
+            // Votes move with the card when it goes to another board
+            newBoardId = newColumn.getBoard().getId();
+            if (!newBoardId.equals(boardId)) {
+                voteBudgetService.usageChangedAfterCommit(boardId);
+                voteBudgetService.usageChangedAfterCommit(newBoardId);
+            }
             card.setColumn(newColumn);
         }
         
-        // Update card fields if provided
-        if (request.getDescription() != null) {
+        // Update card fields if provided, stamping each group with the version this save will produce
+        long nextVersion = card.getVersion() + 1;
+        if (descriptionChanged) {
             card.setDescription(request.getDescription());
+            card.setDescriptionVersion(nextVersion);
         }
-        if (request.getPosition() != null) {
+        if (positionChanged) {
             card.setPosition(request.getPosition());
         }
+        if (columnChanged || positionChanged) {
+            card.setPlacementVersion(nextVersion);
+        }
+        // A wholesale replace ends any live collaborative session on this card, and so does a move: the session
+        // would keep sending ops and checking access against the card's old board and column
+        if (descriptionChanged || columnChanged) {
+            collaborationService.discardAfterCommit(cardId);
+        }
         
-        Card updatedCard = cardRepository.save(card);
+        // Flush here so a concurrent commit fails this update before anything is broadcast
+        Card updatedCard = cardRepository.saveAndFlush(card);
+        if (!newBoardId.equals(boardId)) {
+            teamThemeService.cardTextChanged(boardId, oldDescription, null);
+            teamThemeService.cardTextChanged(newBoardId, null, updatedCard.getDescription());
+        } else if (descriptionChanged) {
+            teamThemeService.cardTextChanged(boardId, oldDescription, updatedCard.getDescription());
+        }
         
         // Populate votedByCurrentUser before returning
         try {
@@ -208,13 +340,42 @@ public class CardService {
             logger.debug("Could not populate user flags on card: {}", e.getMessage());
         }
         
-        // Broadcast event
+        if (newBoardId.equals(boardId)) {
+            boardActorService.cardChangedAfterCommit(boardId, cardId);
+        } else {
+            // The card's votes went with it, so the old board's actor drops it as if deleted
+            boardActorService.cardDeletedAfterCommit(boardId, cardId);
+        }
+        
+        // Broadcast event; in live board mode the count may include votes not yet flushed
         CardResponse cardResponse = convertCardToResponse(updatedCard);
-        webSocketService.broadcastBoardUpdate("card_updated", boardId, cardResponse);
+        boardActorService.overlayVotes(boardId, cardResponse);
+        if (Boolean.TRUE.equals(updatedCard.getHidden())) {
+            webSocketService.sendBoardUpdateToUser(currentUser.getUsername(), "card_updated", boardId, cardResponse);
+        } else {
+            webSocketService.broadcastBoardUpdate("card_updated", boardId, cardResponse);
+        }
         
         return updatedCard;
     }
     
+    // Edits based on an older version are merged unless they touch a field group changed after that version
+    private void checkCardVersion(Card card, Long expectedVersion, boolean descriptionChanged, boolean placementChanged) {
+        if (expectedVersion == null || expectedVersion.equals(card.getVersion())) {
+            return;
+        }
+        
+        boolean conflict = expectedVersion > card.getVersion()
+            || (descriptionChanged && card.getDescriptionVersion() > expectedVersion)
+            || (placementChanged && card.getPlacementVersion() > expectedVersion);
+        if (conflict) {
+            throw new VersionConflictException("Card was modified by someone else", convertCardToResponse(card));
+        }
+        
+        logger.debug("Merging update of card {} from version {} onto version {}", card.getId(), expectedVersion, card.getVersion());
+    }
+    
+    @Transactional(readOnly = true)
     public Card getCardById(Long cardId) {
         // Get the card
         Card card = cardRepository.findById(cardId)
@@ -222,6 +383,7 @@ public class CardService {
         
         // Check column access (via BoardColumnService)
         columnService.getColumnById(card.getColumn().getId());
+        checkVisible(card);
         
         // Populate votedByCurrentUser before returning
         try {
@@ -240,12 +402,16 @@ public class CardService {
         Card card = cardRepository.findById(cardId)
             .orElseThrow(() -> new RuntimeException("Card not found"));
         
-        // Check column access (via BoardColumnService)
-        columnService.getColumnById(card.getColumn().getId());
-        
         // Get board ID
         Long boardId = card.getColumn().getBoard().getId();
         
+        // Throttle before the access checks and writes
+        rateLimitService.checkCardMutation(boardId, "card_vote");
+        
+        // Check column access (via BoardColumnService)
+        columnService.getColumnById(card.getColumn().getId());
+        checkRevealed(card);
+        
         // Get current user
         User currentUser = getCurrentUser();
         
@@ -254,22 +420,31 @@ public class CardService {
         if (cardVoteRepository.existsByUserAndCard(currentUser, card)) {
             // User already voted - remove the vote
             cardVoteRepository.deleteByUserAndCard(currentUser, card);
-            card.setVotes(Math.max(0, card.getVotes() - 1));
+            voteBudgetService.releaseVote(boardId, currentUser.getId());
             isVoted = false;
             logger.debug("User {} removed vote from card {}", currentUser.getUsername(), cardId);
         } else {
-            // User hasn't voted - add the vote
+            // User hasn't voted - add the vote if the budget allows it
+            voteBudgetService.reserveVote(boardId, currentUser.getId());
             CardVote cardVote = new CardVote();
             cardVote.setUser(currentUser);
             cardVote.setCard(card);
-            cardVoteRepository.save(cardVote);
-            card.setVotes(card.getVotes() + 1);
+            try {
+                cardVoteRepository.save(cardVote);
+            } catch (DataIntegrityViolationException e) {
+                throw budgetExceeded(e, card.getColumn().getBoard().getVoteBudget(), boardId);
+            }
             isVoted = true;
             logger.debug("User {} voted for card {}", currentUser.getUsername(), cardId);
         }
         
-        Card updatedCard = cardRepository.save(card);
+        // Count the vote in place and reload; the bulk update cleared the persistence context
+        cardRepository.incrementVotes(cardId, isVoted ? 1 : -1);
+        Card updatedCard = cardRepository.findById(cardId)
+            .orElseThrow(() -> new RuntimeException("Card not found"));
         updatedCard.setVotedByCurrentUser(isVoted);
+        updatedCard.setRemainingVotes(voteBudgetService.getRemainingVotes(boardId, currentUser.getId()));
+        metricsService.recordVote(isVoted);
         
         logger.info("Vote updated for card {}, broadcasting update...", cardId);
         
@@ -279,4 +454,76 @@ public class CardService {
         
         return updatedCard;
     }
+    
+    // The card_votes trigger refuses votes over the budget even when this node's counts allowed them
+    private RuntimeException budgetExceeded(DataIntegrityViolationException e, Integer voteBudget, Long boardId) {
+        String message = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+        if (voteBudget == null || message == null || !message.contains("Vote budget")) {
+            return e;
+        }
+        voteBudgetService.reload(boardId);
+        return new VoteBudgetExceededException(voteBudget);
+    }
+    
+    // Toggle the current user's reaction on a card. The marker row and the count change in one statement
+    // outside a JPA transaction, so a hot card costs one row lock per reaction and no entity loading.
+    public CardReactionResponse reactToCard(Long cardId, String emoji) {
+        if (!REACTIONS.contains(emoji)) {
+            throw new RuntimeException("Unknown reaction: " + emoji);
+        }
+        
+        // Get the card with its column for the board id
+        Card card = cardRepository.findWithColumnById(cardId)
+            .orElseThrow(() -> new RuntimeException("Card not found"));
+        Long boardId = card.getColumn().getBoard().getId();
+        
+        // Throttle before the access checks and writes
+        rateLimitService.checkCardMutation(boardId, "card_react");
+        
+        // Check column access (via BoardColumnService)
+        columnService.getColumnById(card.getColumn().getId());
+        checkRevealed(card);
+        
+        // Get current user
+        User currentUser = getCurrentUser();
+        
+        ReactionToggle toggle = cardRepository.toggleReaction(cardId, currentUser.getId(), emoji);
+        if (toggle == null) {
+            throw new RuntimeException("Card not found");
+        }
+        logger.debug("User {} {} reaction {} on card {}", currentUser.getUsername(),
+            toggle.reacted() ? "added" : "removed", emoji, cardId);
+        
+        // Live board mode keeps card snapshots; make the next vote broadcast carry the new counts
+        boardActorService.cardChangedAfterCommit(boardId, cardId);
+        webSocketService.broadcastBoardUpdate("card_reacted", boardId, new CardReactionsPayload(cardId, toggle.reactions()));
+        
+        return new CardReactionResponse(cardId, emoji, toggle.reacted(), toggle.reactions());
+    }
+    
+    // From now on new cards of the board are only shown to their authors, e.g. for a silent writing phase
+    @Transactional
+    public void hideCards(Long boardId) {
+        // Check board access (via BoardService)
+        boardService.getBoardById(boardId);
+        
+        boardRepository.updateHideCards(boardId, true);
+        webSocketService.broadcastBoardUpdate("cards_hidden", boardId, null);
+    }
+    
+    // Show every hidden card of the board: one statement reveals them and returns their state, and one
+    // cards_revealed event publishes them all instead of a card_created per card
+    @Transactional
+    public List<CardResponse> revealCards(Long boardId) {
+        // Check board access (via BoardService)
+        boardService.getBoardById(boardId);
+        
+        // Clearing the flag first takes the board row lock, so creates that already read it commit before the reveal
+        boardRepository.updateHideCards(boardId, false);
+        List<CardResponse> cards = cardRepository.revealHiddenCards(boardId);
+        logger.debug("Revealed {} cards on board {}", cards.size(), boardId);
+        
+        webSocketService.broadcastBoardUpdate("cards_revealed", boardId, cards);
+        return cards;
+    }
 }
@@ -0,0 +1,179 @@
+package com.retroboard.service;
+
+import com.retroboard.dto.EphemeralBatch;
+import com.retroboard.dto.EphemeralEvent;
+import com.retroboard.dto.EphemeralMessage;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Throwaway board state such as drag positions and typing indicators. Nothing here is stored, logged or counted
+// as a board event: updates only live in memory until they are fanned out on /topic/board/{id}/ephemeral.
+// Each sender (STOMP session) gets at most max-rate batches a second; updates arriving in between replace
+// older ones of the same kind and card, and the newest of each goes out with the sender's next batch.
+@Service
+public class EphemeralChannelService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EphemeralChannelService.class);
+
+    public static final Set<String> KINDS = Set.of("drag", "typing");
+
+    private static final int MAX_STATE_ENTRIES = 8;
+
+    @Value("${retroboard.ephemeral.max-rate:20}")
+    private int maxRate;
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired
+    private BoardSubscriptionTracker subscriptionTracker;
+
+    @Autowired
+    private BoardService boardService;
+
+    @Autowired
+    private MetricsService metricsService;
+
+    private final Map<String, Sender> senders = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService scheduler;
+
+    @PostConstruct
+    void init() {
+        // Fan-out runs here rather than on the inbound STOMP threads shared with card edits
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ephemeral-fanout");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    public static String destination(Long boardId) {
+        return "/topic/board/" + boardId + "/ephemeral";
+    }
+
+    // Accepts one update from a session and schedules the sender's next batch if none is pending
+    public void submit(String sessionId, Authentication authentication, Long boardId, EphemeralMessage message) {
+        if (message.getKind() == null || !KINDS.contains(message.getKind())) {
+            metricsService.recordEphemeralMessages("rejected", 1);
+            throw new RuntimeException("Unknown ephemeral kind: " + message.getKind());
+        }
+        if (message.getState() != null && message.getState().size() > MAX_STATE_ENTRIES) {
+            metricsService.recordEphemeralMessages("rejected", 1);
+            throw new RuntimeException("Ephemeral state is limited to " + MAX_STATE_ENTRIES + " entries");
+        }
+
+        Sender sender = senders.computeIfAbsent(sessionId, id -> new Sender(authentication.getName()));
+        authorize(sender, boardId, authentication);
+
+        EphemeralEvent event = new EphemeralEvent(message.getKind(), message.getCardId(),
+            message.getState() == null ? Map.of() : message.getState(), System.currentTimeMillis());
+        boolean merged;
+        long delayMs = -1;
+        synchronized (sender) {
+            Map<String, EphemeralEvent> updates = sender.pending.computeIfAbsent(boardId, id -> new LinkedHashMap<>());
+            merged = updates.put(event.getKind() + ":" + event.getCardId(), event) != null;
+            if (!sender.scheduled) {
+                sender.scheduled = true;
+                delayMs = Math.max(0, sender.nextSendAt - System.currentTimeMillis());
+            }
+        }
+
+        if (merged) {
+            metricsService.recordEphemeralMessages("merged", 1);
+        }
+        if (delayMs >= 0) {
+            scheduler.schedule(() -> flush(sessionId, sender), delayMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        senders.remove(event.getSessionId());
+    }
+
+    public int getSenderCount() {
+        return senders.size();
+    }
+
+    private void flush(String sessionId, Sender sender) {
+        Map<Long, Map<String, EphemeralEvent>> batch;
+        synchronized (sender) {
+            batch = new LinkedHashMap<>(sender.pending);
+            sender.pending.clear();
+            sender.scheduled = false;
+            sender.nextSendAt = System.currentTimeMillis() + 1000L / Math.max(maxRate, 1);
+        }
+
+        batch.forEach((boardId, updates) -> {
+            String destination = destination(boardId);
+            if (subscriptionTracker.getSubscriptionCount(destination) == 0) {
+                return;
+            }
+            try {
+                // One waiting batch per sender and subscriber is enough; a newer one replaces it
+                messagingTemplate.convertAndSend(destination, new EphemeralBatch(boardId, sender.username, new ArrayList<>(updates.values())),
+                    Map.<String, Object>of(SlowConsumerSessionDecorator.COALESCE_KEY_HEADER,
+                        SlowConsumerSessionDecorator.EPHEMERAL_KEY_PREFIX + sessionId));
+                metricsService.recordEphemeralMessages("sent", updates.size());
+            } catch (RuntimeException e) {
+                logger.debug("Could not send ephemeral updates to {}: {}", destination, e.getMessage());
+            }
+        });
+    }
+
+    // Board access costs a few queries, so it is checked once per session and board; later updates skip it
+    private void authorize(Sender sender, Long boardId, Authentication authentication) {
+        if (sender.authorizedBoards.contains(boardId)) {
+            return;
+        }
+        // Services check access through the security context, which is not populated on STOMP threads
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+        try {
+            boardService.getBoardById(boardId);
+        } catch (RuntimeException e) {
+            metricsService.recordEphemeralMessages("rejected", 1);
+            throw e;
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+        sender.authorizedBoards.add(boardId);
+    }
+
+    private static class Sender {
+        private final String username;
+        private final Set<Long> authorizedBoards = ConcurrentHashMap.newKeySet();
+
+        // Guarded by the sender
+        private final Map<Long, Map<String, EphemeralEvent>> pending = new LinkedHashMap<>();
+        private boolean scheduled;
+        private long nextSendAt;
+
+        Sender(String username) {
+            this.username = username;
+        }
+    }
+}
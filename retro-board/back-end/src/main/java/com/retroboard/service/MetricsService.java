@@ -0,0 +1,208 @@
+package com.retroboard.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+// Central place for retro-board specific meters; names and tags are documented in README.md
+@Service
+public class MetricsService {
+
+    public static final String BROADCAST_DURATION = "retroboard.broadcast.duration";
+    public static final String BROADCAST_FANOUT = "retroboard.broadcast.fanout";
+    public static final String STOMP_SESSIONS = "retroboard.stomp.sessions";
+    public static final String STOMP_SUBSCRIPTIONS = "retroboard.stomp.subscriptions";
+    public static final String STOMP_BOARD_SUBSCRIPTIONS = "retroboard.stomp.board.subscriptions";
+    public static final String VOTES = "retroboard.votes";
+    public static final String JWT_VALIDATION = "retroboard.jwt.validation";
+    public static final String DATASOURCE_ROUTING = "retroboard.datasource.routing";
+    public static final String REPLICA_LAG = "retroboard.datasource.replica.lag";
+    public static final String RATE_LIMIT_THROTTLED = "retroboard.ratelimit.throttled";
+    public static final String RATE_LIMIT_BUCKETS = "retroboard.ratelimit.buckets";
+    public static final String BOARD_ACTORS = "retroboard.board.actors";
+    public static final String BOARD_ACTOR_PENDING_VOTES = "retroboard.board.actors.pending_votes";
+    public static final String BOARD_ACTOR_DROPPED_VOTES = "retroboard.board.actors.dropped_votes";
+    public static final String BOARD_EVENTS_QUEUED = "retroboard.board_events.queued";
+    public static final String BOARD_EVENTS_DROPPED = "retroboard.board_events.dropped";
+    public static final String BOARD_TIMERS = "retroboard.board.timers";
+    public static final String WEBSOCKET_LAGGING_SESSIONS = "retroboard.websocket.sessions.lagging";
+    public static final String WEBSOCKET_LAGGING_DISCONNECTS = "retroboard.websocket.sessions.disconnected";
+    public static final String WEBSOCKET_FRAMES_DROPPED = "retroboard.websocket.frames.dropped";
+    public static final String EPHEMERAL_MESSAGES = "retroboard.ephemeral.messages";
+    public static final String BOARD_VIEWS = "retroboard.board_views.requests";
+    public static final String BOARD_VIEWS_CACHED = "retroboard.board_views.cached";
+    public static final String LOGIN_QUEUE = "retroboard.login.queue";
+    public static final String LOGIN_VERIFICATION_DURATION = "retroboard.login.verification.duration";
+    public static final String LOGIN_REJECTED = "retroboard.login.rejected";
+    public static final String LOGIN_TOKEN_WRITE_BATCH = "retroboard.login.token_writes.batch";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private MultiGauge boardSubscriptions;
+
+    @PostConstruct
+    void init() {
+        boardSubscriptions = MultiGauge.builder(STOMP_BOARD_SUBSCRIPTIONS)
+            .description("Active STOMP subscriptions per board topic")
+            .register(meterRegistry);
+    }
+
+    // Record one broadcastBoardUpdate call: how long it took and how many subscriptions it reached
+    public void recordBroadcast(String eventType, long durationNanos, int fanout) {
+        Timer.builder(BROADCAST_DURATION)
+            .description("Time spent serializing and handing a board event to the broker")
+            .tag("type", eventType)
+            .register(meterRegistry)
+            .record(durationNanos, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder(BROADCAST_FANOUT)
+            .description("Number of subscriptions a board event was delivered to")
+            .tag("type", eventType)
+            .register(meterRegistry)
+            .record(fanout);
+    }
+
+    // Record a vote toggle; action is "added" or "removed"
+    public void recordVote(boolean added) {
+        Counter.builder(VOTES)
+            .description("Card vote toggles")
+            .tag("action", added ? "added" : "removed")
+            .register(meterRegistry)
+            .increment();
+    }
+
+    // Record a JWT validation; result is "cache_hit", "cache_miss" or "rejected"
+    public void recordTokenValidation(String result) {
+        Counter.builder(JWT_VALIDATION)
+            .description("JWT validations by outcome of the validation cache")
+            .tag("result", result)
+            .register(meterRegistry)
+            .increment();
+    }
+
+    // Record a request rejected by the rate limiter; operation is "card_create", "card_update", "card_delete", "card_vote" or "card_react"
+    public void recordThrottled(String operation) {
+        Counter.builder(RATE_LIMIT_THROTTLED)
+            .description("Card mutations rejected with 429 by the rate limiter")
+            .tag("operation", operation)
+            .register(meterRegistry)
+            .increment();
+    }
+
+    // Record which pool a connection was routed to; reason is "write", "read", "sticky", "lag" or "no_transaction"
+    public void recordDataSourceRoute(String target, String reason) {
+        Counter.builder(DATASOURCE_ROUTING)
+            .description("Connections routed by the read-replica DataSource")
+            .tag("target", target)
+            .tag("reason", reason)
+            .register(meterRegistry)
+            .increment();
+    }
+
+    // Record a live mode vote taken back because it could not be persisted; reason is "rejected" or "retries_exhausted"
+    public void recordVoteDropped(String reason) {
+        Counter.builder(BOARD_ACTOR_DROPPED_VOTES)
+            .description("Votes applied in memory and then taken back because they could not be persisted")
+            .tag("reason", reason)
+            .register(meterRegistry)
+            .increment();
+    }
+
+    // Record activity log events that were not written; reason is "queue_full" or "write_failed"
+    public void recordBoardEventsDropped(String reason, int count) {
+        Counter.builder(BOARD_EVENTS_DROPPED)
+            .description("Board events dropped from the activity log")
+            .tag("reason", reason)
+            .register(meterRegistry)
+            .increment(count);
+    }
+
+    // Record a session closed for lagging; reason is "buffer_limit", "time_limit" or "send_failed"
+    public void recordLaggingDisconnect(String reason) {
+        Counter.builder(WEBSOCKET_LAGGING_DISCONNECTS)
+            .description("WebSocket sessions closed because they could not keep up")
+            .tag("reason", reason)
+            .register(meterRegistry)
+            .increment();
+    }
+
+    // Record outbound frames that were not sent; reason is "merged", "ephemeral_overflow", "disconnected" or "send_failed"
+    public void recordWebSocketFramesDropped(String reason, int count) {
+        Counter.builder(WEBSOCKET_FRAMES_DROPPED)
+            .description("Outbound WebSocket frames dropped for lagging sessions")
+            .tag("reason", reason)
+            .register(meterRegistry)
+            .increment(count);
+    }
+
+    // Record inbound drag or typing updates; outcome is "sent", "merged" (replaced by a newer one) or "rejected"
+    public void recordEphemeralMessages(String outcome, int count) {
+        Counter.builder(EPHEMERAL_MESSAGES)
+            .description("Drag and typing updates received on the ephemeral channel")
+            .tag("outcome", outcome)
+            .register(meterRegistry)
+            .increment(count);
+    }
+
+    // Record one board view request; result is "hit", "miss" (this request loaded the view) or "coalesced"
+    // (it waited for a load already running for the same board)
+    public void recordBoardView(String result) {
+        Counter.builder(BOARD_VIEWS)
+            .description("Board view requests by how the assembled view was obtained")
+            .tag("result", result)
+            .register(meterRegistry)
+            .increment();
+    }
+
+    // Record one password verification; result is "success" or "failure"
+    public void recordLoginVerification(String result, long durationNanos) {
+        Timer.builder(LOGIN_VERIFICATION_DURATION)
+            .description("Time spent verifying a login password on the verification pool")
+            .tag("result", result)
+            .register(meterRegistry)
+            .record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    // Record a login turned away with 503; reason is "queue_full", "timeout" or "token_write_timeout"
+    public void recordLoginRejected(String reason) {
+        Counter.builder(LOGIN_REJECTED)
+            .description("Logins rejected because password verification or the token write was saturated")
+            .tag("reason", reason)
+            .register(meterRegistry)
+            .increment();
+    }
+
+    // Record how many login token hashes were written in one batch
+    public void recordTokenWriteBatch(int size) {
+        DistributionSummary.builder(LOGIN_TOKEN_WRITE_BATCH)
+            .description("Token hashes written per batch after logins")
+            .register(meterRegistry)
+            .record(size);
+    }
+
+    public <T> void gauge(String name, String description, T stateObject, ToDoubleFunction<T> valueFunction) {
+        Gauge.builder(name, stateObject, valueFunction)
+            .description(description)
+            .register(meterRegistry);
+    }
+
+    // Replace the per-board subscription rows; boards without subscribers drop out of the gauge
+    public void updateBoardSubscriptions(Map<Long, Integer> subscriptionsByBoard) {
+        List<MultiGauge.Row<?>> rows = new ArrayList<>();
+        subscriptionsByBoard.forEach((boardId, count) ->
+            rows.add(MultiGauge.Row.of(Tags.of("board", String.valueOf(boardId)), count)));
+        boardSubscriptions.register(rows, true);
+    }
+}
@@ -0,0 +1,113 @@
+package com.retroboard.service;
+
+import com.retroboard.exception.ServiceOverloadedException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// Password checks (BCrypt) run on a small fixed pool instead of the request threads, so a burst of logins uses
+// at most that many cores and other requests keep being served. Logins queue for a thread up to queue-capacity
+// and queue-timeout-ms; past either they are turned away with 503 and a Retry-After hint.
+@Service
+public class PasswordVerificationService {
+
+    @Value("${retroboard.login.threads:2}")
+    private int threads;
+
+    @Value("${retroboard.login.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Value("${retroboard.login.queue-timeout-ms:3000}")
+    private long queueTimeoutMs;
+
+    @Autowired
+    private MetricsService metricsService;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    void init() {
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                Thread thread = new Thread(runnable, "password-verify-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        metricsService.gauge(MetricsService.LOGIN_QUEUE, "Logins waiting for a password verification thread",
+            executor, pool -> pool.getQueue().size());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // Runs the verification on the pool and waits for it. Only the time spent queued is limited:
+    // a verification that has started is always waited for.
+    public <T> T verify(Supplier<T> verification) {
+        FutureTask<T> task = new FutureTask<>(() -> timed(verification));
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            throw overloaded("queue_full");
+        }
+
+        try {
+            try {
+                return task.get(queueTimeoutMs, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                if (executor.remove(task)) {
+                    throw overloaded("timeout");
+                }
+                return task.get();
+            }
+        } catch (InterruptedException e) {
+            task.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Login interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new RuntimeException("Password verification failed", e.getCause());
+        }
+    }
+
+    public int getQueuedCount() {
+        return executor.getQueue().size();
+    }
+
+    private <T> T timed(Supplier<T> verification) {
+        long start = System.nanoTime();
+        try {
+            T result = verification.get();
+            metricsService.recordLoginVerification("success", System.nanoTime() - start);
+            return result;
+        } catch (RuntimeException e) {
+            metricsService.recordLoginVerification("failure", System.nanoTime() - start);
+            throw e;
+        }
+    }
+
+    private ServiceOverloadedException overloaded(String reason) {
+        metricsService.recordLoginRejected(reason);
+        long retryAfterSeconds = Math.max(1, TimeUnit.MILLISECONDS.toSeconds(queueTimeoutMs + 999));
+        return new ServiceOverloadedException("Too many logins, retry after " + retryAfterSeconds + " seconds",
+            retryAfterSeconds);
+    }
+}
@@ -0,0 +1,81 @@
+package com.retroboard.service;
+
+import com.retroboard.exception.RateLimitExceededException;
+import com.retroboard.util.TokenBucket;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// In-memory per-user, per-board token buckets for card mutations. Limits are per node.
+@Service
+public class RateLimitService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitService.class);
+
+    @Value("${retroboard.rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${retroboard.rate-limit.capacity:20}")
+    private int capacity;
+
+    @Value("${retroboard.rate-limit.refill-per-second:5}")
+    private double refillPerSecond;
+
+    @Autowired
+    private MetricsService metricsService;
+
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void registerGauges() {
+        metricsService.gauge(MetricsService.RATE_LIMIT_BUCKETS, "Token buckets currently held by the rate limiter",
+            buckets, Map::size);
+    }
+
+    // Take one token from the current user's bucket for this board, or throw with a Retry-After hint
+    public void checkCardMutation(Long boardId, String operation) {
+        if (!enabled) {
+            return;
+        }
+        String username = currentUsername();
+        if (username == null) {
+            // Unauthenticated calls are rejected by the access checks that follow
+            return;
+        }
+
+        long now = System.nanoTime();
+        TokenBucket bucket = buckets.computeIfAbsent(username + ":" + boardId,
+            key -> new TokenBucket(capacity, refillPerSecond, now));
+        long waitNanos = bucket.tryConsume(now);
+        if (waitNanos > 0) {
+            long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999));
+            metricsService.recordThrottled(operation);
+            logger.debug("Throttled {} by {} on board {}", operation, username, boardId);
+            throw new RateLimitExceededException(retryAfterSeconds);
+        }
+    }
+
+    // Full buckets behave exactly like missing ones, so dropping them keeps the map small
+    @Scheduled(fixedDelayString = "${retroboard.rate-limit.cleanup-interval-ms:60000}")
+    public void evictFullBuckets() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(bucket -> bucket.isFull(now));
+    }
+
+    private String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated() || "anonymousUser".equals(authentication.getPrincipal())) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
@@ -0,0 +1,101 @@
+package com.retroboard.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.WebSocketSession;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Gives every WebSocket session its own outbound queue and writer so one slow client cannot hold up fan-out
+@Service
+public class SlowConsumerService {
+
+    @Autowired
+    private MetricsService metricsService;
+
+    // "coalesce" merges waiting card_voted/card_updated frames per card before the limits disconnect a session;
+    // "disconnect" sends every frame and only disconnects
+    @Value("${retroboard.websocket.slow-consumer.policy:coalesce}")
+    private String policy;
+
+    @Value("${retroboard.websocket.send-time-limit-ms:10000}")
+    private int sendTimeLimitMs;
+
+    @Value("${retroboard.websocket.send-buffer-size-limit:524288}")
+    private int sendBufferSizeLimit;
+
+    @Value("${retroboard.websocket.send-threads:16}")
+    private int sendThreads;
+
+    @Value("${retroboard.websocket.send-queue-capacity:1000}")
+    private int sendQueueCapacity;
+
+    private final Map<String, SlowConsumerSessionDecorator> sessions = new ConcurrentHashMap<>();
+
+    private final SlowConsumerSessionDecorator.Listener listener = new SlowConsumerSessionDecorator.Listener() {
+        @Override
+        public void framesDropped(String reason, int count) {
+            metricsService.recordWebSocketFramesDropped(reason, count);
+        }
+
+        @Override
+        public void disconnected(String reason) {
+            metricsService.recordLaggingDisconnect(reason);
+        }
+    };
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    void init() {
+        // A session with frames to write takes a thread until its queue is empty, so a blocked client holds at most
+        // one. Sessions beyond the threads wait in a bounded queue, and that wait counts against the send time limit.
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(sendThreads, sendThreads, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(sendQueueCapacity), runnable -> {
+                Thread thread = new Thread(runnable, "ws-send-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        // Idle writer threads are not kept around between bursts
+        executor.allowCoreThreadTimeOut(true);
+        metricsService.gauge(MetricsService.WEBSOCKET_LAGGING_SESSIONS, "WebSocket sessions with frames waiting behind a slow write",
+            this, SlowConsumerService::getLaggingSessionCount);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public WebSocketSession decorate(WebSocketSession session) {
+        SlowConsumerSessionDecorator decorator = new SlowConsumerSessionDecorator(session, executor,
+            sendTimeLimitMs, sendBufferSizeLimit, "coalesce".equalsIgnoreCase(policy), listener);
+        sessions.put(session.getId(), decorator);
+        return decorator;
+    }
+
+    public void closed(String sessionId) {
+        SlowConsumerSessionDecorator decorator = sessions.remove(sessionId);
+        if (decorator != null) {
+            decorator.discard();
+        }
+    }
+
+    public int getLaggingSessionCount() {
+        int lagging = 0;
+        for (SlowConsumerSessionDecorator session : sessions.values()) {
+            if (session.isLagging()) {
+                lagging++;
+            }
+        }
+        return lagging;
+    }
+}
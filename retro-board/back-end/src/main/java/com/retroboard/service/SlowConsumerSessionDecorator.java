@@ -0,0 +1,228 @@
+package com.retroboard.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+// Queues outbound frames of one session and writes them on a separate thread, so a slow client never blocks
+// the broker's outbound threads. Frames waiting behind a slow write that carry a coalesce-key header are replaced
+// by newer frames with the same key; once the queue or a single write exceeds its limit the session is closed
+// with RESYNC and the client is expected to reconnect and reload the board. Ephemeral frames (drag and typing
+// updates) are always merged and are dropped rather than counted against the limits.
+public class SlowConsumerSessionDecorator extends WebSocketSessionDecorator {
+
+    private static final Logger logger = LoggerFactory.getLogger(SlowConsumerSessionDecorator.class);
+
+    public static final String COALESCE_KEY_HEADER = "coalesce-key";
+    public static final String EPHEMERAL_KEY_PREFIX = "ephemeral.";
+    public static final CloseStatus RESYNC = new CloseStatus(4000, "resync");
+
+    public interface Listener {
+        void framesDropped(String reason, int count);
+
+        void disconnected(String reason);
+    }
+
+    private final Executor executor;
+    private final int sendTimeLimitMs;
+    private final int bufferSizeLimit;
+    private final boolean coalesce;
+    private final Listener listener;
+
+    // Coalesce key or sequence number -> frame, in send order; guarded by itself
+    private final Map<Object, WebSocketMessage<?>> pending = new LinkedHashMap<>();
+    private long sequence;
+    private int pendingBytes;
+    private boolean writing;
+    private boolean closing;
+    private volatile long sendStartedAt;
+
+    public SlowConsumerSessionDecorator(WebSocketSession session, Executor executor, int sendTimeLimitMs,
+                                        int bufferSizeLimit, boolean coalesce, Listener listener) {
+        super(session);
+        this.executor = executor;
+        this.sendTimeLimitMs = sendTimeLimitMs;
+        this.bufferSizeLimit = bufferSizeLimit;
+        this.coalesce = coalesce;
+        this.listener = listener;
+    }
+
+    @Override
+    public void sendMessage(WebSocketMessage<?> message) throws IOException {
+        boolean merged = false;
+        boolean overflow = false;
+        String limit = null;
+        int dropped = 0;
+        synchronized (pending) {
+            if (closing) {
+                return;
+            }
+            // Only frames that have to wait can be merged, so the header is only parsed for those
+            String coalesceKey = writing ? coalesceKey(message) : null;
+            boolean ephemeral = coalesceKey != null && isEphemeral(coalesceKey);
+            Object key = coalesce || ephemeral ? coalesceKey : null;
+            if (key == null) {
+                key = sequence++;
+            }
+            WebSocketMessage<?> replaced = pending.remove(key);
+            if (replaced != null) {
+                pendingBytes -= replaced.getPayloadLength();
+                merged = true;
+            }
+            if (ephemeral && pendingBytes + message.getPayloadLength() > bufferSizeLimit) {
+                // Not worth disconnecting for; the sender repeats its state
+                overflow = true;
+            } else {
+                pending.put(key, message);
+                pendingBytes += message.getPayloadLength();
+            }
+
+            // Ephemeral frames never trip the limits; the next regular frame checks them
+            if (!writing) {
+                writing = true;
+                // Time spent waiting for a writer thread counts against the send time limit
+                sendStartedAt = System.currentTimeMillis();
+                try {
+                    executor.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    // Every writer thread is busy and the queue is full; the session resyncs once it reconnects
+                    writing = false;
+                    limit = "send_queue_full";
+                }
+            } else if (!ephemeral && pendingBytes > bufferSizeLimit) {
+                limit = "buffer_limit";
+            } else if (!ephemeral && System.currentTimeMillis() - sendStartedAt > sendTimeLimitMs) {
+                limit = "time_limit";
+            }
+            if (limit != null) {
+                dropped = pending.size();
+                discardPending();
+            }
+        }
+
+        if (merged) {
+            listener.framesDropped("merged", 1);
+        }
+        if (overflow) {
+            listener.framesDropped("ephemeral_overflow", 1);
+        }
+        if (limit != null) {
+            logger.warn("Closing lagging WebSocket session {}: {} exceeded", getId(), limit);
+            listener.framesDropped("disconnected", dropped);
+            listener.disconnected(limit);
+            closeQuietly(RESYNC);
+        }
+    }
+
+    // Frames waiting behind a write in progress
+    public boolean isLagging() {
+        synchronized (pending) {
+            return !pending.isEmpty();
+        }
+    }
+
+    // The session closed; frames still queued are not sent
+    public void discard() {
+        synchronized (pending) {
+            discardPending();
+        }
+    }
+
+    private void drain() {
+        while (true) {
+            WebSocketMessage<?> message;
+            synchronized (pending) {
+                Iterator<WebSocketMessage<?>> iterator = pending.values().iterator();
+                if (closing || !iterator.hasNext()) {
+                    writing = false;
+                    return;
+                }
+                message = iterator.next();
+                iterator.remove();
+                pendingBytes -= message.getPayloadLength();
+                sendStartedAt = System.currentTimeMillis();
+            }
+
+            try {
+                getDelegate().sendMessage(message);
+            } catch (IOException | RuntimeException e) {
+                logger.debug("Failed to send to WebSocket session {}: {}", getId(), e.getMessage());
+                int dropped;
+                synchronized (pending) {
+                    dropped = pending.size();
+                    discardPending();
+                    writing = false;
+                }
+                listener.framesDropped("send_failed", dropped);
+                listener.disconnected("send_failed");
+                closeQuietly(CloseStatus.SESSION_NOT_RELIABLE);
+                return;
+            }
+        }
+    }
+
+    private void discardPending() {
+        closing = true;
+        pending.clear();
+        pendingBytes = 0;
+    }
+
+    private void closeQuietly(CloseStatus status) {
+        try {
+            getDelegate().close(status);
+        } catch (IOException | RuntimeException e) {
+            logger.debug("Failed to close WebSocket session {}: {}", getId(), e.getMessage());
+        }
+    }
+
+    // Ephemeral keys are merged whatever the policy; their frames only carry state the sender repeats anyway
+    static boolean isEphemeral(String coalesceKey) {
+        return coalesceKey.contains(" " + EPHEMERAL_KEY_PREFIX);
+    }
+
+    // Subscription plus coalesce-key header of a STOMP MESSAGE frame, or null if the frame must not be merged
+    static String coalesceKey(WebSocketMessage<?> message) {
+        String headers;
+        if (message instanceof TextMessage text) {
+            String frame = text.getPayload();
+            int end = frame.indexOf("\n\n");
+            headers = end < 0 ? frame : frame.substring(0, end);
+        } else if (message instanceof BinaryMessage binary) {
+            ByteBuffer frame = binary.getPayload().duplicate();
+            int start = frame.position();
+            int end = start;
+            while (end + 1 < frame.limit() && !(frame.get(end) == '\n' && frame.get(end + 1) == '\n')) {
+                end++;
+            }
+            byte[] bytes = new byte[end - start];
+            frame.get(bytes);
+            headers = new String(bytes, StandardCharsets.UTF_8);
+        } else {
+            return null;
+        }
+
+        String subscription = null;
+        String key = null;
+        for (String line : headers.split("\n")) {
+            if (line.startsWith("subscription:")) {
+                subscription = line.substring("subscription:".length());
+            } else if (line.startsWith(COALESCE_KEY_HEADER + ":")) {
+                key = line.substring(COALESCE_KEY_HEADER.length() + 1);
+            }
+        }
+        return subscription == null || key == null ? null : subscription + " " + key;
+    }
+}
@@ -33,6 +33,9 @@ public class TeamService {
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private BoardActorService boardActorService;
+    
     // Get current authenticated user
     private User getCurrentUser() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
@@ -97,8 +100,10 @@ public class TeamService {
         
         // Delete the team (cascades to team members due to foreign key constraint)
         teamRepository.delete(team);
+        boardActorService.teamAccessChangedAfterCommit();
     }
     
+    @Transactional(readOnly = true)
     public List<Team> getAllTeams() {
         User currentUser = getCurrentUser();
         return teamRepository.findByOwnerOrMember(currentUser);
@@ -176,9 +181,15 @@ public class TeamService {
             }
         }
         
+        // Removed members and a replaced owner lose access to the team's boards
+        if (request.getOwnerId() != null || request.getMembers() != null) {
+            boardActorService.teamAccessChangedAfterCommit();
+        }
+        
         return teamRepository.save(team);
     }
     
+    @Transactional(readOnly = true)
     public Team getTeamById(Long teamId) {
         // Check team access
         checkTeamAccess(teamId);
@@ -187,6 +198,7 @@ public class TeamService {
             .orElseThrow(() -> new RuntimeException("Team not found"));
     }
     
+    @Transactional(readOnly = true)
     public List<TeamMember> getTeamMembers(Long teamId) {
         // Check team access
         checkTeamAccess(teamId);
@@ -0,0 +1,116 @@
+package com.retroboard.service;
+
+import com.retroboard.dto.TeamThemesResponse;
+import com.retroboard.dto.TermTrendResponse;
+import com.retroboard.repository.BoardTermRepository;
+import com.retroboard.repository.BoardTermRepository.TeamBoard;
+import com.retroboard.repository.BoardTermRepository.TermCount;
+import com.retroboard.util.TermExtractor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Themes that keep coming back across a team's retros. Each board keeps the number of cards using each word
+// and word pair in board_terms; card changes apply the difference in the same transaction, so a report only
+// sums a few thousand rows for the team's recent boards. Boards indexed before are never read again.
+@Service
+public class TeamThemeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TeamThemeService.class);
+
+    private static final int MAX_BOARDS = 200;
+    private static final int MAX_TERMS = 100;
+
+    @Autowired
+    private BoardTermRepository boardTermRepository;
+
+    @Autowired
+    private TeamService teamService;
+
+    // A card's text changed on a board; null stands for no card, so creates and deletes pass one side as null
+    public void cardTextChanged(Long boardId, String oldText, String newText) {
+        Map<String, Integer> deltas = new HashMap<>();
+        for (String term : TermExtractor.terms(oldText)) {
+            deltas.merge(term, -1, Integer::sum);
+        }
+        for (String term : TermExtractor.terms(newText)) {
+            deltas.merge(term, 1, Integer::sum);
+        }
+        boardTermRepository.applyDeltas(boardId, deltas);
+    }
+
+    // Cards of a board were removed in bulk (e.g. with their column); the board is indexed again on the next report
+    public void boardCardsChanged(Long boardId) {
+        boardTermRepository.invalidate(boardId);
+    }
+
+    // Recurring and trending terms over the team's newest boards. The newest third of them (at least one board)
+    // counts as recent; a term trends when it is on more cards per board there than on the boards before.
+    @Transactional
+    public TeamThemesResponse getTeamThemes(Long teamId, int boards, int limit) {
+        // Check team access (via TeamService)
+        teamService.getTeamById(teamId);
+
+        int boardLimit = Math.max(1, Math.min(boards, MAX_BOARDS));
+        int termLimit = Math.max(1, Math.min(limit, MAX_TERMS));
+        List<TeamBoard> teamBoards = boardTermRepository.findRecentBoards(teamId, boardLimit);
+
+        List<Long> boardIds = new ArrayList<>();
+        for (TeamBoard board : teamBoards) {
+            if (!board.indexed()) {
+                indexBoard(board.id());
+            }
+            boardIds.add(board.id());
+        }
+        int recentBoards = boardIds.isEmpty() ? 0 : Math.max(1, boardIds.size() / 3);
+        int olderBoards = boardIds.size() - recentBoards;
+        List<TermCount> counts = boardTermRepository.countTerms(boardIds, boardIds.subList(0, recentBoards));
+
+        List<TermTrendResponse> terms = new ArrayList<>(counts.size());
+        for (TermCount count : counts) {
+            double recentRate = (double) count.recentCards() / recentBoards;
+            double olderRate = olderBoards == 0 ? 0 : (double) (count.cards() - count.recentCards()) / olderBoards;
+            terms.add(new TermTrendResponse(count.term(), count.boards(), count.cards(), count.recentCards(),
+                Math.round((recentRate - olderRate) * 100) / 100.0));
+        }
+
+        List<TermTrendResponse> recurring = terms.stream()
+            .filter(term -> term.getBoards() > 1)
+            .sorted(Comparator.comparing(TermTrendResponse::getBoards).reversed()
+                .thenComparing(Comparator.comparing(TermTrendResponse::getCards).reversed())
+                .thenComparing(TermTrendResponse::getTerm))
+            .limit(termLimit)
+            .toList();
+        List<TermTrendResponse> trending = terms.stream()
+            .filter(term -> term.getTrend() > 0)
+            .sorted(Comparator.comparing(TermTrendResponse::getTrend).reversed()
+                .thenComparing(Comparator.comparing(TermTrendResponse::getCards).reversed())
+                .thenComparing(TermTrendResponse::getTerm))
+            .limit(termLimit)
+            .toList();
+        return new TeamThemesResponse(boardIds.size(), recentBoards, recurring, trending);
+    }
+
+    // One pass over a board's cards; each board is only indexed like this once. The board stays locked until the
+    // index row is committed: card changes committed before the lock are in the scan, and later ones wait for the
+    // index row and apply their deltas to it.
+    private void indexBoard(Long boardId) {
+        boardTermRepository.lockBoard(boardId);
+        Map<String, Integer> cardsByTerm = new HashMap<>();
+        List<String> texts = boardTermRepository.findCardTexts(boardId);
+        for (String text : texts) {
+            for (String term : TermExtractor.terms(text)) {
+                cardsByTerm.merge(term, 1, Integer::sum);
+            }
+        }
+        boardTermRepository.replaceTerms(boardId, cardsByTerm);
+        logger.debug("Indexed {} terms of {} cards on board {}", cardsByTerm.size(), texts.size(), boardId);
+    }
+}
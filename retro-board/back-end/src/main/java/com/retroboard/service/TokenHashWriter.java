@@ -0,0 +1,136 @@
+package com.retroboard.service;
+
+import com.retroboard.exception.ServiceOverloadedException;
+import com.retroboard.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// Stores the active token hash of users who just logged in. Logins hand their hash to one writer thread and wait
+// until it is stored, so the new token works as soon as login returns; hashes queued while a batch is being
+// written go out together in the next one, so a login storm costs a few batches instead of one update per login.
+@Service
+public class TokenHashWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenHashWriter.class);
+
+    @Value("${retroboard.login.token-batch-size:100}")
+    private int batchSize;
+
+    @Value("${retroboard.login.token-write-timeout-ms:5000}")
+    private long writeTimeoutMs;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MetricsService metricsService;
+
+    private final BlockingQueue<PendingHash> queue = new LinkedBlockingQueue<>();
+
+    private Thread writer;
+
+    private volatile boolean stopped;
+
+    private record PendingHash(Long userId, String tokenHash, CompletableFuture<Void> written) {}
+
+    @PostConstruct
+    void init() {
+        writer = new Thread(this::writeBatches, "token-hash-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        stopped = true;
+        writer.interrupt();
+    }
+
+    // Blocks until the hash is stored, together with the hashes of whoever logged in meanwhile. A login that waits
+    // longer than token-write-timeout-ms is answered with 503; its hash may still be stored later, unused.
+    public void write(Long userId, String tokenHash) {
+        if (stopped) {
+            throw overloaded("Shutting down, retry on another instance");
+        }
+        PendingHash pending = new PendingHash(userId, tokenHash, new CompletableFuture<>());
+        queue.add(pending);
+        try {
+            pending.written().get(writeTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            metricsService.recordLoginRejected("token_write_timeout");
+            throw overloaded("Too many logins, retry shortly");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Login interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new RuntimeException("Could not store token", e.getCause());
+        }
+    }
+
+    public int getQueuedCount() {
+        return queue.size();
+    }
+
+    private void writeBatches() {
+        while (!Thread.currentThread().isInterrupted()) {
+            List<PendingHash> batch = new ArrayList<>();
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                break;
+            }
+            queue.drainTo(batch, batchSize - 1);
+            try {
+                write(batch);
+            } catch (Throwable e) {
+                // Whatever went wrong, the waiting logins are answered and the thread keeps writing
+                logger.error("Token hash writer failed on a batch of {}", batch.size(), e);
+                batch.forEach(pending -> pending.written().completeExceptionally(e));
+            }
+        }
+
+        // Nothing writes the hashes left over after shutdown
+        stopped = true;
+        List<PendingHash> left = new ArrayList<>();
+        queue.drainTo(left);
+        left.forEach(pending -> pending.written().completeExceptionally(overloaded("Shutting down, retry on another instance")));
+    }
+
+    private ServiceOverloadedException overloaded(String message) {
+        return new ServiceOverloadedException(message, Math.max(1, TimeUnit.MILLISECONDS.toSeconds(writeTimeoutMs + 999)));
+    }
+
+    private void write(List<PendingHash> batch) {
+        // A later login of the same user in the batch wins
+        Map<Long, String> hashesByUser = new LinkedHashMap<>();
+        for (PendingHash pending : batch) {
+            hashesByUser.put(pending.userId(), pending.tokenHash());
+        }
+        try {
+            userRepository.updateActiveTokenHashes(hashesByUser);
+            metricsService.recordTokenWriteBatch(hashesByUser.size());
+            batch.forEach(pending -> pending.written().complete(null));
+        } catch (RuntimeException e) {
+            logger.warn("Could not store {} token hashes: {}", batch.size(), e.getMessage());
+            batch.forEach(pending -> pending.written().completeExceptionally(e));
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.retroboard.service;
+
+import com.retroboard.exception.VoteBudgetExceededException;
+import com.retroboard.repository.BoardVoteUsageRepository;
+import com.retroboard.repository.BoardVoteUsageRepository.BoardVoteUsage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Per-board vote budgets. Each node keeps the votes every user has on a board in memory, loaded with one
+// query the first time the board is voted on, so voting never counts card_votes. The database stays the
+// authority: a trigger on card_votes (V15) fails any vote that would go over the budget, whichever node
+// cast it, and a node whose counts are behind reloads them before refusing a vote.
+@Service
+public class VoteBudgetService {
+    
+    @Value("${retroboard.vote-budget.idle-eviction-ms:600000}")
+    private long idleEvictionMs;
+    
+    // In live board mode votes reach the database only at the next flush, so counts are never reloaded
+    // while a board may have unflushed votes; the actor's counts are the newer ones
+    @Value("${retroboard.board-actors.enabled:false}")
+    private boolean liveBoardMode;
+    
+    @Autowired
+    private BoardVoteUsageRepository boardVoteUsageRepository;
+    
+    private final Map<Long, BoardBudget> boards = new ConcurrentHashMap<>();
+    
+    // Votes the user has left on the board, or null when the board has no budget
+    public Integer getRemainingVotes(Long boardId, Long userId) {
+        BoardBudget board = getBoard(boardId);
+        return board.voteBudget == null ? null : Math.max(0, board.voteBudget - board.used(userId).get());
+    }
+    
+    // Count a new vote against the user's budget, or throw when none is left; undone if the transaction rolls back
+    public void reserveVote(Long boardId, Long userId) {
+        BoardBudget board = getBoard(boardId);
+        if (board.voteBudget == null) {
+            return;
+        }
+        if (!board.tryReserve(userId)) {
+            if (liveBoardMode) {
+                throw new VoteBudgetExceededException(board.voteBudget);
+            }
+            // Another node may have had votes removed since the counts were loaded
+            boards.remove(boardId, board);
+            board = getBoard(boardId);
+            if (board.voteBudget == null) {
+                return;
+            }
+            if (!board.tryReserve(userId)) {
+                throw new VoteBudgetExceededException(board.voteBudget);
+            }
+        }
+        BoardBudget reserved = board;
+        onRollback(() -> reserved.used(userId).decrementAndGet());
+    }
+    
+    // Give a removed vote back to the user; undone if the transaction rolls back
+    public void releaseVote(Long boardId, Long userId) {
+        BoardBudget board = getBoard(boardId);
+        if (board.voteBudget == null) {
+            return;
+        }
+        AtomicInteger used = board.used(userId);
+        used.updateAndGet(n -> Math.max(0, n - 1));
+        onRollback(used::incrementAndGet);
+    }
+    
+    // The database refused a vote the in-memory counts allowed; they are behind, so load them again
+    public void reload(Long boardId) {
+        boards.remove(boardId);
+    }
+    
+    // The board's budget was changed
+    public void budgetChangedAfterCommit(Long boardId, Integer voteBudget) {
+        afterCommit(() -> {
+            BoardBudget board = boards.get(boardId);
+            if (board != null && board.voteBudget != null && voteBudget != null) {
+                // Counts are kept, only the limit moves
+                boards.replace(boardId, board, new BoardBudget(voteBudget, board.votesByUser));
+            } else {
+                // Counts are only kept for boards with a budget
+                boards.remove(boardId);
+            }
+        });
+    }
+    
+    // Votes left the board with a deleted or moved card or column; the triggers have given them back in the database
+    public void usageChangedAfterCommit(Long boardId) {
+        if (liveBoardMode) {
+            // Reloading could miss unflushed votes; the board actor gives back the votes of the cards it drops
+            return;
+        }
+        afterCommit(() -> boards.remove(boardId));
+    }
+    
+    @Scheduled(fixedDelayString = "${retroboard.vote-budget.eviction-interval-ms:60000}")
+    public void evictIdleBoards() {
+        long cutoff = System.currentTimeMillis() - idleEvictionMs;
+        boards.values().removeIf(board -> board.lastAccess < cutoff);
+    }
+    
+    public int getBoardCount() {
+        return boards.size();
+    }
+    
+    private BoardBudget getBoard(Long boardId) {
+        BoardBudget board = boards.get(boardId);
+        if (board == null) {
+            BoardVoteUsage usage = boardVoteUsageRepository.findByBoardId(boardId);
+            if (usage == null) {
+                throw new RuntimeException("Board not found");
+            }
+            BoardBudget loaded = new BoardBudget(usage.voteBudget(), new ConcurrentHashMap<>());
+            if (usage.voteBudget() != null) {
+                usage.votesByUser().forEach((userId, votes) -> loaded.votesByUser.put(userId, new AtomicInteger(votes)));
+            }
+            BoardBudget existing = boards.putIfAbsent(boardId, loaded);
+            board = existing != null ? existing : loaded;
+        }
+        board.lastAccess = System.currentTimeMillis();
+        return board;
+    }
+    
+    private void onRollback(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        action.run();
+                    }
+                }
+            });
+        }
+    }
+    
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+    
+    private static class BoardBudget {
+        private final Integer voteBudget;
+        private final Map<Long, AtomicInteger> votesByUser;
+        private volatile long lastAccess = System.currentTimeMillis();
+        
+        BoardBudget(Integer voteBudget, Map<Long, AtomicInteger> votesByUser) {
+            this.voteBudget = voteBudget;
+            this.votesByUser = votesByUser;
+        }
+        
+        AtomicInteger used(Long userId) {
+            return votesByUser.computeIfAbsent(userId, id -> new AtomicInteger());
+        }
+        
+        boolean tryReserve(Long userId) {
+            AtomicInteger used = used(userId);
+            while (true) {
+                int current = used.get();
+                if (current >= voteBudget) {
+                    return false;
+                }
+                if (used.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+            }
+        }
+    }
+}
@@ -1,21 +1,62 @@
 package com.retroboard.service;
 
+import com.retroboard.dto.BoardEventV2;
 import com.retroboard.dto.BoardUpdateEvent;
+import com.retroboard.dto.CardResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.MimeTypeUtils;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 public class WebSocketService {
     
     private static final Logger logger = LoggerFactory.getLogger(WebSocketService.class);
     
+    // Events that carry a card's latest state, so a lagging session only needs the newest one per card
+    private static final Set<String> COALESCED_EVENTS = Set.of("card_voted", "card_updated");
+    
     @Autowired
     private SimpMessagingTemplate messagingTemplate;
     
+    @Autowired
+    private BoardSubscriptionTracker subscriptionTracker;
+    
+    @Autowired
+    private MetricsService metricsService;
+    
+    @Autowired
+    private BoardEventEncoder boardEventEncoder;
+    
+    @Autowired
+    private BoardEventLogService boardEventLogService;
+    
+    @Autowired
+    private BoardViewCache boardViewCache;
+    
     public void broadcastBoardUpdate(String eventType, Long boardId, Object data) {
+        // Whatever changed the board, the next board view is assembled again
+        boardViewCache.invalidate(boardId);
+        publish(eventType, boardId, data);
+    }
+    
+    // For changes held in memory until a later write, such as collaborative text ops. Cached board views hold what
+    // the database has, so they stay valid; the later write moves the board revision and replaces them then.
+    public void broadcastLiveUpdate(String eventType, Long boardId, Object data) {
+        publish(eventType, boardId, data);
+    }
+    
+    private void publish(String eventType, Long boardId, Object data) {
+        long start = System.nanoTime();
+        
         BoardUpdateEvent event = new BoardUpdateEvent();
         event.setType(eventType);
         event.setBoardId(boardId);
@@ -25,6 +66,79 @@ public class WebSocketService {
         String destination = "/topic/board/" + boardId;
         logger.info("Broadcasting event {} to {}", eventType, destination);
         logger.info("Event data: {}", data);
-        messagingTemplate.convertAndSend(destination, event);
+        String coalesceKey = coalesceKey(eventType, data);
+        if (coalesceKey == null) {
+            messagingTemplate.convertAndSend(destination, event);
+        } else {
+            messagingTemplate.convertAndSend(destination, event,
+                Map.<String, Object>of(SlowConsumerSessionDecorator.COALESCE_KEY_HEADER, coalesceKey));
+        }
+        
+        int fanout = subscriptionTracker.getSubscriptionCount(destination)
+            + broadcastCompact(destination + "/v2", event, coalesceKey);
+        metricsService.recordBroadcast(eventType, System.nanoTime() - start, fanout);
+        
+        // Only queued here; the activity log is written in batches off the request thread. Changes made in a
+        // transaction are logged once it commits, so a rolled back change leaves no entry.
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    boardEventLogService.record(event);
+                }
+            });
+        } else {
+            boardEventLogService.record(event);
+        }
+    }
+    
+    // Deliver an event to one user's sessions only, on /user/queue/board/{id}. Used for hidden cards, so it is
+    // neither logged nor published on the board topics.
+    public void sendBoardUpdateToUser(String username, String eventType, Long boardId, Object data) {
+        BoardUpdateEvent event = new BoardUpdateEvent();
+        event.setType(eventType);
+        event.setBoardId(boardId);
+        event.setData(data);
+        event.setTimestamp(System.currentTimeMillis());
+        
+        messagingTemplate.convertAndSendToUser(username, "/queue/board/" + boardId, event);
+    }
+    
+    // Publish the v2 event on each encoding variant that has subscribers; nothing is encoded for the others
+    private int broadcastCompact(String destination, BoardUpdateEvent event, String coalesceKey) {
+        int fanout = 0;
+        BoardEventV2 compact = null;
+        for (BoardEventEncoder.Encoding encoding : BoardEventEncoder.Encoding.values()) {
+            String variant = destination + encoding.getDestinationSuffix();
+            int subscriptions = subscriptionTracker.getSubscriptionCount(variant);
+            if (subscriptions == 0) {
+                continue;
+            }
+            if (compact == null) {
+                compact = new BoardEventV2(BoardEventV2.VERSION, event.getType(), event.getBoardId(),
+                    event.getTimestamp(), boardEventEncoder.toPayload(event.getType(), event.getData()));
+            }
+            
+            // Binary encodings go out as application/octet-stream so native WebSocket sessions get binary frames
+            SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create();
+            accessor.setContentType(encoding == BoardEventEncoder.Encoding.JSON
+                ? MimeTypeUtils.APPLICATION_JSON : MimeTypeUtils.APPLICATION_OCTET_STREAM);
+            accessor.setNativeHeader("encoding", encoding.getHeaderValue());
+            if (coalesceKey != null) {
+                accessor.setNativeHeader(SlowConsumerSessionDecorator.COALESCE_KEY_HEADER, coalesceKey);
+            }
+            accessor.setLeaveMutable(true);
+            byte[] body = boardEventEncoder.encode(compact, encoding);
+            messagingTemplate.send(variant, MessageBuilder.createMessage(body, accessor.getMessageHeaders()));
+            fanout += subscriptions;
+        }
+        return fanout;
+    }
+    
+    private String coalesceKey(String eventType, Object data) {
+        if (COALESCED_EVENTS.contains(eventType) && data instanceof CardResponse card) {
+            return eventType + "." + card.getId();
+        }
+        return null;
     }
 }
@@ -0,0 +1,150 @@
+package com.retroboard.util;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Hashed timing wheel: one worker thread advances a ring of buckets every tick and only looks at the bucket
+// under the hand, so scheduling and cancelling are O(1) and thousands of pending timeouts cost one thread.
+// Timeouts fire up to one tick late; tasks run on the given executor so a slow task never stalls the wheel.
+public class HashedWheelTimer {
+
+    public interface Timeout {
+        // Returns false when the timeout already fired or was cancelled
+        boolean cancel();
+    }
+
+    private static final int PENDING = 0;
+    private static final int CANCELLED = 1;
+    private static final int EXPIRED = 2;
+
+    private final long tickNanos;
+    private final List<List<Entry>> wheel;
+    private final int mask;
+    private final Executor taskExecutor;
+    private final Queue<Entry> scheduled = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Thread worker;
+    private final long startNanos;
+    private volatile boolean running = true;
+    // Only touched by the worker
+    private long tick;
+
+    public HashedWheelTimer(String name, long tickDuration, TimeUnit unit, int wheelSize, Executor taskExecutor) {
+        if (tickDuration <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("Tick duration and wheel size must be positive");
+        }
+        // A power of two lets the bucket be picked with a mask
+        int size = Math.max(Integer.highestOneBit(wheelSize - 1) << 1, 1);
+        this.wheel = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            wheel.add(new ArrayList<>());
+        }
+        this.mask = wheel.size() - 1;
+        this.tickNanos = unit.toNanos(tickDuration);
+        this.taskExecutor = taskExecutor;
+        this.startNanos = System.nanoTime();
+        this.worker = new Thread(this::run, name);
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        if (!running) {
+            throw new IllegalStateException("Timer is stopped");
+        }
+        long deadline = System.nanoTime() - startNanos + Math.max(unit.toNanos(delay), 0);
+        Entry entry = new Entry(task, deadline);
+        pending.incrementAndGet();
+        // Handed to the worker, which places it on the wheel at its next tick
+        scheduled.add(entry);
+        return entry;
+    }
+
+    public int getPendingCount() {
+        return pending.get();
+    }
+
+    public void stop() {
+        running = false;
+        worker.interrupt();
+    }
+
+    private void run() {
+        while (running) {
+            long deadline = tickNanos * (tick + 1);
+            long sleepNanos = deadline - (System.nanoTime() - startNanos);
+            if (sleepNanos > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(sleepNanos);
+                } catch (InterruptedException e) {
+                    if (!running) {
+                        return;
+                    }
+                }
+                continue;
+            }
+            transferScheduled();
+            expire(wheel.get((int) (tick & mask)));
+            tick++;
+        }
+    }
+
+    private void transferScheduled() {
+        Entry entry;
+        while ((entry = scheduled.poll()) != null) {
+            if (entry.state.get() == CANCELLED) {
+                continue;
+            }
+            long ticks = entry.deadline / tickNanos;
+            entry.remainingRounds = (ticks - tick) / wheel.size();
+            // Deadlines already passed go into the bucket under the hand
+            wheel.get((int) (Math.max(ticks, tick) & mask)).add(entry);
+        }
+    }
+
+    private void expire(List<Entry> bucket) {
+        Iterator<Entry> iterator = bucket.iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (entry.state.get() == CANCELLED) {
+                iterator.remove();
+            } else if (entry.remainingRounds <= 0) {
+                iterator.remove();
+                if (entry.state.compareAndSet(PENDING, EXPIRED)) {
+                    pending.decrementAndGet();
+                    taskExecutor.execute(entry.task);
+                }
+            } else {
+                entry.remainingRounds--;
+            }
+        }
+    }
+
+    private class Entry implements Timeout {
+        private final Runnable task;
+        private final long deadline;
+        private final AtomicInteger state = new AtomicInteger(PENDING);
+        private long remainingRounds;
+
+        Entry(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public boolean cancel() {
+            if (state.compareAndSet(PENDING, CANCELLED)) {
+                // Dropped from its bucket the next time the hand passes
+                pending.decrementAndGet();
+                return true;
+            }
+            return false;
+        }
+    }
+}
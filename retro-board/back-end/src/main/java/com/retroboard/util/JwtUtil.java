@@ -45,6 +45,16 @@ public class JwtUtil {
         return claims.getSubject();
     }
     
+    public Date getExpirationFromToken(String token) {
+        Claims claims = Jwts.parserBuilder()
+            .setSigningKey(getSigningKey())
+            .build()
+            .parseClaimsJws(token)
+            .getBody();
+        
+        return claims.getExpiration();
+    }
+    
     public boolean validateToken(String token) {
         try {
             Jwts.parserBuilder().setSigningKey(getSigningKey()).build().parseClaimsJws(token);
@@ -0,0 +1,147 @@
+package com.retroboard.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Groups near-duplicate short texts. Each text becomes a set of character trigrams, summarized by a MinHash
+// signature whose agreeing positions estimate the Jaccard similarity of two sets. Signatures are cut into bands
+// and only texts sharing a whole band are compared (locality-sensitive hashing), so the cost grows with the
+// number of texts rather than the number of pairs. Matches above the threshold are joined transitively.
+public class MinHashLsh {
+
+    private final int bands;
+    private final int rows;
+    private final long[] seeds;
+
+    public MinHashLsh(int bands, int rows, long seed) {
+        if (bands <= 0 || rows <= 0) {
+            throw new IllegalArgumentException("Bands and rows must be positive");
+        }
+        this.bands = bands;
+        this.rows = rows;
+        this.seeds = new long[bands * rows];
+        long state = seed;
+        for (int i = 0; i < seeds.length; i++) {
+            state += 0x9E3779B97F4A7C15L;
+            seeds[i] = mix(state);
+        }
+    }
+
+    // Indexes of texts grouped together, largest groups first; texts without a near duplicate are left out
+    public List<List<Integer>> cluster(List<String> texts, double threshold) {
+        int[][] signatures = new int[texts.size()][];
+        for (int i = 0; i < texts.size(); i++) {
+            signatures[i] = signature(texts.get(i));
+        }
+
+        int[] parent = new int[texts.size()];
+        for (int i = 0; i < parent.length; i++) {
+            parent[i] = i;
+        }
+        Map<Long, List<Integer>> buckets = new HashMap<>();
+        for (int band = 0; band < bands; band++) {
+            buckets.clear();
+            for (int i = 0; i < signatures.length; i++) {
+                if (signatures[i] == null) {
+                    continue;
+                }
+                List<Integer> bucket = buckets.computeIfAbsent(bandKey(signatures[i], band), key -> new ArrayList<>());
+                // One match joins the groups; texts already in the same group are not compared again
+                for (int other : bucket) {
+                    if (find(parent, other) != find(parent, i) && similarity(signatures[other], signatures[i]) >= threshold) {
+                        parent[find(parent, i)] = find(parent, other);
+                        break;
+                    }
+                }
+                bucket.add(i);
+            }
+        }
+
+        Map<Integer, List<Integer>> groups = new HashMap<>();
+        for (int i = 0; i < parent.length; i++) {
+            groups.computeIfAbsent(find(parent, i), root -> new ArrayList<>()).add(i);
+        }
+        List<List<Integer>> clusters = new ArrayList<>();
+        for (List<Integer> group : groups.values()) {
+            if (group.size() > 1) {
+                clusters.add(group);
+            }
+        }
+        clusters.sort((a, b) -> a.size() != b.size() ? b.size() - a.size() : a.get(0) - b.get(0));
+        return clusters;
+    }
+
+    // MinHash signature of the text's trigrams, or null when the text has no words
+    public int[] signature(String text) {
+        Set<Integer> shingles = shingles(text);
+        if (shingles.isEmpty()) {
+            return null;
+        }
+        int[] signature = new int[seeds.length];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        for (int shingle : shingles) {
+            for (int i = 0; i < seeds.length; i++) {
+                int hash = (int) mix(shingle ^ seeds[i]);
+                if (hash < signature[i]) {
+                    signature[i] = hash;
+                }
+            }
+        }
+        return signature;
+    }
+
+    // Share of signature positions that agree: an estimate of the Jaccard similarity of the trigram sets
+    public static double similarity(int[] a, int[] b) {
+        int same = 0;
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == b[i]) {
+                same++;
+            }
+        }
+        return (double) same / a.length;
+    }
+
+    // Trigram hashes of the lower-cased words without stop words, e.g. " ci slow " for "CI is slow!"
+    static Set<Integer> shingles(String text) {
+        StringBuilder normalized = new StringBuilder(" ");
+        for (String word : TermExtractor.words(text)) {
+            normalized.append(word).append(' ');
+        }
+        Set<Integer> shingles = new LinkedHashSet<>();
+        if (normalized.length() == 1) {
+            return shingles;
+        }
+        for (int i = 0; i + 3 <= normalized.length(); i++) {
+            shingles.add(normalized.substring(i, i + 3).hashCode());
+        }
+        return shingles;
+    }
+
+    private long bandKey(int[] signature, int band) {
+        long key = band;
+        for (int i = band * rows; i < (band + 1) * rows; i++) {
+            key = key * 0x100000001B3L + signature[i];
+        }
+        return mix(key);
+    }
+
+    private static int find(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
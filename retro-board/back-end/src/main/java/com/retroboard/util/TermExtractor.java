@@ -0,0 +1,55 @@
+package com.retroboard.util;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+// Splits card text into the words that carry its topic, shared by duplicate detection and the team themes
+public final class TermExtractor {
+
+    // Words that make two texts look alike without saying anything about the topic
+    private static final Set<String> STOP_WORDS = Set.of("a", "an", "the", "is", "are", "was", "were", "be", "been",
+        "to", "of", "in", "on", "for", "and", "or", "it", "its", "we", "our", "us", "i", "my", "so", "too", "very",
+        "really", "that", "this", "with", "at", "as", "by", "just", "again", "still");
+
+    // Longest term stored in board_terms
+    public static final int MAX_TERM_LENGTH = 100;
+
+    private TermExtractor() {
+    }
+
+    // Lower-cased words without punctuation and stop words, e.g. [ci, slow] for "CI is slow!"
+    public static List<String> words(String text) {
+        List<String> words = new ArrayList<>();
+        if (text == null) {
+            return words;
+        }
+        for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty() && !STOP_WORDS.contains(word)) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    // Distinct words and pairs of neighbouring words, e.g. [ci, slow, ci slow]; single letters are left out
+    public static Set<String> terms(String text) {
+        List<String> words = words(text);
+        Set<String> terms = new LinkedHashSet<>();
+        for (int i = 0; i < words.size(); i++) {
+            String word = words.get(i);
+            if (word.length() > 1 && word.length() <= MAX_TERM_LENGTH) {
+                terms.add(word);
+            }
+            if (i > 0) {
+                String bigram = words.get(i - 1) + " " + word;
+                if (bigram.length() <= MAX_TERM_LENGTH) {
+                    terms.add(bigram);
+                }
+            }
+        }
+        return terms;
+    }
+}
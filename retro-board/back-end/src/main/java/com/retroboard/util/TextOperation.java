@@ -0,0 +1,240 @@
+package com.retroboard.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Operational transformation for plain text, wire-compatible with ot.js: an operation is a list of
+// components where a positive integer retains characters, a negative integer deletes them and a
+// string inserts it. Lengths are counted in UTF-16 code units, like JavaScript strings.
+public class TextOperation {
+
+    private final List<Object> ops = new ArrayList<>();
+
+    // Length of the text the operation applies to
+    private int baseLength;
+
+    // Length of the text after applying the operation
+    private int targetLength;
+
+    public static TextOperation fromJson(List<?> components) {
+        TextOperation operation = new TextOperation();
+        for (Object component : components) {
+            if (component instanceof String text) {
+                operation.insert(text);
+            } else if (component instanceof Number number && number.intValue() == number.doubleValue()) {
+                int n = number.intValue();
+                if (n > 0) {
+                    operation.retain(n);
+                } else if (n < 0) {
+                    operation.delete(-n);
+                } else {
+                    throw new IllegalArgumentException("Zero-length component");
+                }
+            } else {
+                throw new IllegalArgumentException("Unknown operation component: " + component);
+            }
+        }
+        return operation;
+    }
+
+    public List<Object> toJson() {
+        return Collections.unmodifiableList(ops);
+    }
+
+    public TextOperation retain(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("Retain expects a positive length");
+        }
+        if (n == 0) {
+            return this;
+        }
+        baseLength += n;
+        targetLength += n;
+        Object last = last(1);
+        if (isRetain(last)) {
+            ops.set(ops.size() - 1, (Integer) last + n);
+        } else {
+            ops.add(n);
+        }
+        return this;
+    }
+
+    public TextOperation insert(String text) {
+        if (text.isEmpty()) {
+            return this;
+        }
+        targetLength += text.length();
+        Object last = last(1);
+        if (isInsert(last)) {
+            ops.set(ops.size() - 1, last + text);
+        } else if (isDelete(last)) {
+            // Keep inserts before deletes so equivalent operations have the same representation
+            Object beforeLast = last(2);
+            if (isInsert(beforeLast)) {
+                ops.set(ops.size() - 2, beforeLast + text);
+            } else {
+                ops.add(ops.size() - 1, text);
+            }
+        } else {
+            ops.add(text);
+        }
+        return this;
+    }
+
+    public TextOperation delete(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("Delete expects a positive length");
+        }
+        if (n == 0) {
+            return this;
+        }
+        baseLength += n;
+        Object last = last(1);
+        if (isDelete(last)) {
+            ops.set(ops.size() - 1, (Integer) last - n);
+        } else {
+            ops.add(-n);
+        }
+        return this;
+    }
+
+    public boolean isNoop() {
+        return ops.isEmpty() || (ops.size() == 1 && isRetain(ops.get(0)));
+    }
+
+    public int getBaseLength() {
+        return baseLength;
+    }
+
+    public int getTargetLength() {
+        return targetLength;
+    }
+
+    public String apply(String text) {
+        if (text.length() != baseLength) {
+            throw new IllegalArgumentException("Operation expects text of length " + baseLength + " but got " + text.length());
+        }
+        StringBuilder result = new StringBuilder(targetLength);
+        int index = 0;
+        for (Object op : ops) {
+            if (isRetain(op)) {
+                int n = (Integer) op;
+                result.append(text, index, index + n);
+                index += n;
+            } else if (isInsert(op)) {
+                result.append((String) op);
+            } else {
+                index -= (Integer) op;
+            }
+        }
+        return result.toString();
+    }
+
+    // Given a and b applied concurrently to the same text, returns [a', b'] such that
+    // apply(apply(text, a), b') equals apply(apply(text, b), a'). Inserts of a win ties.
+    public static TextOperation[] transform(TextOperation a, TextOperation b) {
+        if (a.baseLength != b.baseLength) {
+            throw new IllegalArgumentException("Both operations have to have the same base length");
+        }
+        TextOperation aPrime = new TextOperation();
+        TextOperation bPrime = new TextOperation();
+        Cursor cursorA = new Cursor(a.ops);
+        Cursor cursorB = new Cursor(b.ops);
+
+        while (cursorA.current != null || cursorB.current != null) {
+            if (isInsert(cursorA.current)) {
+                String text = (String) cursorA.current;
+                aPrime.insert(text);
+                bPrime.retain(text.length());
+                cursorA.advance();
+                continue;
+            }
+            if (isInsert(cursorB.current)) {
+                String text = (String) cursorB.current;
+                aPrime.retain(text.length());
+                bPrime.insert(text);
+                cursorB.advance();
+                continue;
+            }
+            if (cursorA.current == null) {
+                throw new IllegalArgumentException("First operation is too short");
+            }
+            if (cursorB.current == null) {
+                throw new IllegalArgumentException("First operation is too long");
+            }
+
+            int opA = (Integer) cursorA.current;
+            int opB = (Integer) cursorB.current;
+            int length = Math.min(Math.abs(opA), Math.abs(opB));
+            if (opA > 0 && opB > 0) {
+                aPrime.retain(length);
+                bPrime.retain(length);
+            } else if (opA < 0 && opB > 0) {
+                aPrime.delete(length);
+            } else if (opA > 0) {
+                bPrime.delete(length);
+            }
+            // When both delete the same characters there is nothing left to carry over
+            cursorA.take(length);
+            cursorB.take(length);
+        }
+        return new TextOperation[] { aPrime, bPrime };
+    }
+
+    // Walks the components of an operation, allowing retains and deletes to be consumed partially
+    private static class Cursor {
+        private final List<Object> ops;
+        private int index;
+        private Object current;
+
+        Cursor(List<Object> ops) {
+            this.ops = ops;
+            advance();
+        }
+
+        void advance() {
+            current = index < ops.size() ? ops.get(index++) : null;
+        }
+
+        void take(int length) {
+            int op = (Integer) current;
+            if (Math.abs(op) > length) {
+                current = op > 0 ? op - length : op + length;
+            } else {
+                advance();
+            }
+        }
+    }
+
+    private Object last(int fromEnd) {
+        return ops.size() >= fromEnd ? ops.get(ops.size() - fromEnd) : null;
+    }
+
+    private static boolean isRetain(Object op) {
+        return op instanceof Integer n && n > 0;
+    }
+
+    private static boolean isInsert(Object op) {
+        return op instanceof String;
+    }
+
+    private static boolean isDelete(Object op) {
+        return op instanceof Integer n && n < 0;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof TextOperation operation && ops.equals(operation.ops);
+    }
+
+    @Override
+    public int hashCode() {
+        return ops.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return ops.toString();
+    }
+}
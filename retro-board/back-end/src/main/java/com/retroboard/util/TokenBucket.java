@@ -0,0 +1,45 @@
+package com.retroboard.util;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+// Lock-free token bucket: the state is an immutable snapshot swapped with compare-and-set,
+// so concurrent requests for the same key never block each other
+public class TokenBucket {
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private final AtomicReference<State> state;
+
+    public TokenBucket(int capacity, double refillPerSecond, long nowNanos) {
+        this.capacity = capacity;
+        this.tokensPerNano = refillPerSecond / 1_000_000_000d;
+        this.state = new AtomicReference<>(new State(capacity, nowNanos));
+    }
+
+    // Take one token; returns 0 when allowed, otherwise the nanos until a token becomes available
+    public long tryConsume(long nowNanos) {
+        while (true) {
+            State current = state.get();
+            double tokens = refill(current, nowNanos);
+            if (tokens < 1) {
+                return (long) Math.ceil((1 - tokens) / tokensPerNano);
+            }
+            if (state.compareAndSet(current, new State(tokens - 1, Math.max(current.lastRefillNanos(), nowNanos)))) {
+                return 0;
+            }
+        }
+    }
+
+    // A bucket that has refilled completely holds no information and can be dropped
+    public boolean isFull(long nowNanos) {
+        return refill(state.get(), nowNanos) >= capacity;
+    }
+
+    private double refill(State current, long nowNanos) {
+        long elapsed = Math.max(0, nowNanos - current.lastRefillNanos());
+        return Math.min(capacity, current.tokens() + elapsed * tokensPerNano);
+    }
+
+    private record State(double tokens, long lastRefillNanos) {
+    }
+}
@@ -0,0 +1,72 @@
+package com.retroboard.util;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Opt-in, short-lived cache of validated token hashes so the JWT filter does not hit the users table on every
+// request. Entries expire after the configured TTL (or with the token, whichever is first) and are dropped for a
+// user on login/logout on this node; other nodes keep accepting a revoked token for up to one TTL. Off (TTL 0) by
+// default, so a revoked token is refused on its next request.
+@Component
+public class TokenValidationCache {
+
+    @Value("${jwt.validation-cache.ttl-ms:0}")
+    private long ttlMs;
+
+    @Value("${jwt.validation-cache.max-size:10000}")
+    private int maxSize;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    public boolean isEnabled() {
+        return ttlMs > 0;
+    }
+
+    public UserDetails get(String tokenHash) {
+        if (!isEnabled()) {
+            return null;
+        }
+        Entry entry = entries.get(tokenHash);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt() <= System.currentTimeMillis()) {
+            entries.remove(tokenHash, entry);
+            return null;
+        }
+        return entry.userDetails();
+    }
+
+    public void put(String tokenHash, UserDetails userDetails, long tokenExpiresAt) {
+        if (!isEnabled()) {
+            return;
+        }
+        if (entries.size() >= maxSize) {
+            evictExpired();
+            if (entries.size() >= maxSize) {
+                entries.clear();
+            }
+        }
+        long expiresAt = Math.min(System.currentTimeMillis() + ttlMs, tokenExpiresAt);
+        entries.put(tokenHash, new Entry(userDetails, expiresAt));
+    }
+
+    public void invalidateUser(String username) {
+        entries.values().removeIf(entry -> entry.userDetails().getUsername().equals(username));
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void evictExpired() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(entry -> entry.expiresAt() <= now);
+    }
+
+    private record Entry(UserDetails userDetails, long expiresAt) {
+    }
+}
@@ -0,0 +1,13 @@
+-- Optimistic locking version for cards and columns
+ALTER TABLE IF EXISTS cards
+ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+-- Card version at which each field group was last changed, used to merge non-overlapping concurrent edits
+ALTER TABLE IF EXISTS cards
+ADD COLUMN IF NOT EXISTS description_version BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE IF EXISTS cards
+ADD COLUMN IF NOT EXISTS placement_version BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE IF EXISTS columns
+ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,61 @@
+-- Per-board revision used as the ETag of a board and its column and card lists.
+-- Triggers bump it in the same transaction as any change to the board, its columns or its cards.
+ALTER TABLE boards ADD COLUMN revision BIGINT NOT NULL DEFAULT 0;
+
+-- Direct edits of a board bump its revision and updated_at; revision bumps from child rows leave updated_at alone
+CREATE OR REPLACE FUNCTION update_board_timestamp_and_revision()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF NEW.revision = OLD.revision THEN
+        NEW.revision = OLD.revision + 1;
+        NEW.updated_at = CURRENT_TIMESTAMP;
+    END IF;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS update_boards_timestamp ON boards;
+
+CREATE TRIGGER update_boards_timestamp
+BEFORE UPDATE ON boards
+FOR EACH ROW EXECUTE FUNCTION update_board_timestamp_and_revision();
+
+CREATE OR REPLACE FUNCTION bump_board_revision_for_column()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        UPDATE boards SET revision = revision + 1 WHERE id = OLD.board_id;
+        RETURN OLD;
+    END IF;
+    UPDATE boards SET revision = revision + 1 WHERE id = NEW.board_id;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER bump_board_revision_on_column_change
+AFTER INSERT OR UPDATE OR DELETE ON columns
+FOR EACH ROW EXECUTE FUNCTION bump_board_revision_for_column();
+
+-- A card moving between columns of the same board bumps the board once
+CREATE OR REPLACE FUNCTION bump_board_revision_for_card()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        UPDATE boards SET revision = revision + 1
+        WHERE id = (SELECT board_id FROM columns WHERE id = OLD.column_id);
+        RETURN OLD;
+    END IF;
+    IF TG_OP = 'UPDATE' AND OLD.column_id <> NEW.column_id THEN
+        UPDATE boards SET revision = revision + 1
+        WHERE id IN (SELECT board_id FROM columns WHERE id IN (OLD.column_id, NEW.column_id));
+    ELSE
+        UPDATE boards SET revision = revision + 1
+        WHERE id = (SELECT board_id FROM columns WHERE id = NEW.column_id);
+    END IF;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER bump_board_revision_on_card_change
+AFTER INSERT OR UPDATE OR DELETE ON cards
+FOR EACH ROW EXECUTE FUNCTION bump_board_revision_for_card();
@@ -0,0 +1,25 @@
+-- Last time anything on a board changed, for the team's board list. Set by the same triggers that bump
+-- the revision (V11), so edits to columns and cards count as activity on their board.
+ALTER TABLE boards ADD COLUMN last_activity_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP;
+
+UPDATE boards b SET last_activity_at = GREATEST(
+    b.updated_at,
+    COALESCE((SELECT MAX(c.updated_at) FROM columns c WHERE c.board_id = b.id), b.updated_at),
+    COALESCE((SELECT MAX(k.updated_at) FROM cards k JOIN columns c ON c.id = k.column_id WHERE c.board_id = b.id), b.updated_at)
+);
+
+-- Keyset pagination of a team's boards by last activity
+CREATE INDEX idx_boards_team_last_activity ON boards(team_id, last_activity_at DESC, id DESC);
+
+-- Every update of a board row is either a direct edit or a revision bump from a child row
+CREATE OR REPLACE FUNCTION update_board_timestamp_and_revision()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF NEW.revision = OLD.revision THEN
+        NEW.revision = OLD.revision + 1;
+        NEW.updated_at = CURRENT_TIMESTAMP;
+    END IF;
+    NEW.last_activity_at = CURRENT_TIMESTAMP;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
@@ -0,0 +1,15 @@
+-- Append-only log of board events for the team activity feed. Rows are written in batches by
+-- BoardEventLogService and only ever deleted by the retention job.
+CREATE TABLE IF NOT EXISTS board_events (
+    id BIGSERIAL PRIMARY KEY,
+    team_id INTEGER NOT NULL REFERENCES teams(id) ON DELETE CASCADE,
+    -- No foreign key: the history of a deleted board stays in the team's feed
+    board_id BIGINT NOT NULL,
+    type VARCHAR(50) NOT NULL,
+    actor VARCHAR(50),
+    payload JSONB,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Feed pages are read newest first per team, keyed by id
+CREATE INDEX IF NOT EXISTS idx_board_events_team_id ON board_events(team_id, id);
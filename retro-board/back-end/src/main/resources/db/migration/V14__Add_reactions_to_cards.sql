@@ -0,0 +1,11 @@
+-- Emoji reaction counts per card, e.g. {"heart": 3, "tada": 1}. Keys are removed when their count drops to zero.
+ALTER TABLE cards ADD COLUMN reactions JSONB NOT NULL DEFAULT '{}'::jsonb;
+
+-- Who reacted with what, only to make toggles idempotent; counts are read from cards.reactions
+CREATE TABLE card_reactions (
+    card_id INTEGER NOT NULL REFERENCES cards(id) ON DELETE CASCADE,
+    user_id INTEGER NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    emoji VARCHAR(32) NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (card_id, user_id, emoji)
+);
@@ -0,0 +1,110 @@
+-- Optional number of votes each participant can cast on a board; NULL means unlimited
+ALTER TABLE boards ADD COLUMN vote_budget INTEGER CHECK (vote_budget > 0);
+
+-- Votes each user has on each board, maintained by the triggers below so the budget check never counts card_votes
+CREATE TABLE board_vote_usage (
+    board_id INTEGER NOT NULL REFERENCES boards(id) ON DELETE CASCADE,
+    user_id INTEGER NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    votes_used INTEGER NOT NULL DEFAULT 0 CHECK (votes_used >= 0),
+    PRIMARY KEY (board_id, user_id)
+);
+
+INSERT INTO board_vote_usage (board_id, user_id, votes_used)
+SELECT col.board_id, cv.user_id, COUNT(*)
+FROM card_votes cv
+JOIN cards c ON c.id = cv.card_id
+JOIN columns col ON col.id = c.column_id
+GROUP BY col.board_id, cv.user_id;
+
+-- A vote counts against the board's budget in the voting transaction; going over the budget fails the insert,
+-- whichever node wrote it. Deleting a vote gives it back.
+CREATE OR REPLACE FUNCTION track_board_vote_usage()
+RETURNS TRIGGER AS $$
+DECLARE
+    v_board_id INTEGER;
+    v_budget INTEGER;
+    v_used INTEGER;
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        SELECT b.id, b.vote_budget INTO v_board_id, v_budget
+        FROM cards c JOIN columns col ON col.id = c.column_id JOIN boards b ON b.id = col.board_id
+        WHERE c.id = NEW.card_id;
+
+        INSERT INTO board_vote_usage (board_id, user_id, votes_used) VALUES (v_board_id, NEW.user_id, 1)
+        ON CONFLICT (board_id, user_id) DO UPDATE SET votes_used = board_vote_usage.votes_used + 1
+        RETURNING votes_used INTO v_used;
+
+        IF v_budget IS NOT NULL AND v_used > v_budget THEN
+            RAISE EXCEPTION 'Vote budget of % used up on board %', v_budget, v_board_id USING ERRCODE = 'check_violation';
+        END IF;
+        RETURN NEW;
+    END IF;
+
+    -- Votes removed together with their card or column were already given back by the triggers below
+    UPDATE board_vote_usage SET votes_used = votes_used - 1
+    WHERE user_id = OLD.user_id
+      AND board_id = (SELECT col.board_id FROM cards c JOIN columns col ON col.id = c.column_id WHERE c.id = OLD.card_id);
+    RETURN OLD;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER track_board_vote_usage
+AFTER INSERT OR DELETE ON card_votes
+FOR EACH ROW EXECUTE FUNCTION track_board_vote_usage();
+
+-- Give back the votes on a card before it is deleted, while its column still leads to the board
+CREATE OR REPLACE FUNCTION release_card_vote_usage()
+RETURNS TRIGGER AS $$
+BEGIN
+    UPDATE board_vote_usage u SET votes_used = u.votes_used - v.n
+    FROM (SELECT user_id, COUNT(*) AS n FROM card_votes WHERE card_id = OLD.id GROUP BY user_id) v
+    WHERE u.user_id = v.user_id
+      AND u.board_id = (SELECT board_id FROM columns WHERE id = OLD.column_id);
+    RETURN OLD;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER release_card_vote_usage
+BEFORE DELETE ON cards
+FOR EACH ROW EXECUTE FUNCTION release_card_vote_usage();
+
+CREATE OR REPLACE FUNCTION release_column_vote_usage()
+RETURNS TRIGGER AS $$
+BEGIN
+    UPDATE board_vote_usage u SET votes_used = u.votes_used - v.n
+    FROM (SELECT cv.user_id, COUNT(*) AS n FROM card_votes cv JOIN cards c ON c.id = cv.card_id
+          WHERE c.column_id = OLD.id GROUP BY cv.user_id) v
+    WHERE u.user_id = v.user_id AND u.board_id = OLD.board_id;
+    RETURN OLD;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER release_column_vote_usage
+BEFORE DELETE ON columns
+FOR EACH ROW EXECUTE FUNCTION release_column_vote_usage();
+
+-- A card moved to a column of another board takes its votes along; moving is not voting, so no budget check
+CREATE OR REPLACE FUNCTION move_card_vote_usage()
+RETURNS TRIGGER AS $$
+DECLARE
+    v_old_board INTEGER;
+    v_new_board INTEGER;
+BEGIN
+    SELECT board_id INTO v_old_board FROM columns WHERE id = OLD.column_id;
+    SELECT board_id INTO v_new_board FROM columns WHERE id = NEW.column_id;
+    IF v_old_board IS DISTINCT FROM v_new_board THEN
+        UPDATE board_vote_usage u SET votes_used = u.votes_used - 1
+        FROM card_votes cv WHERE cv.card_id = NEW.id AND u.user_id = cv.user_id AND u.board_id = v_old_board;
+
+        INSERT INTO board_vote_usage (board_id, user_id, votes_used)
+        SELECT v_new_board, user_id, 1 FROM card_votes WHERE card_id = NEW.id
+        ON CONFLICT (board_id, user_id) DO UPDATE SET votes_used = board_vote_usage.votes_used + 1;
+    END IF;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER move_card_vote_usage
+AFTER UPDATE OF column_id ON cards
+FOR EACH ROW WHEN (OLD.column_id IS DISTINCT FROM NEW.column_id)
+EXECUTE FUNCTION move_card_vote_usage();
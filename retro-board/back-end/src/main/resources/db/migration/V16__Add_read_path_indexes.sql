@@ -0,0 +1,17 @@
+-- Indexes the repository queries need once tables grow; QueryPlanTest fails on sequential scans of large tables.
+-- boards(team_id) lookups already use idx_boards_team_last_activity (V12), which leads with team_id.
+
+-- Cards of a column in display order, and the cards joined per column by board summaries and vote triggers
+CREATE INDEX IF NOT EXISTS idx_cards_column_position ON cards(column_id, position);
+
+-- Columns of a board in display order
+CREATE INDEX IF NOT EXISTS idx_columns_board_position ON columns(board_id, position);
+
+-- Voters of a card; uc_user_card (user_id, card_id) only serves lookups by user
+CREATE INDEX IF NOT EXISTS idx_card_votes_card_id ON card_votes(card_id);
+
+-- Teams a user owns
+CREATE INDEX IF NOT EXISTS idx_teams_owner_id ON teams(owner_id);
+
+-- Retention trims events by age without walking the whole log
+CREATE INDEX IF NOT EXISTS idx_board_events_created_at ON board_events(created_at);
@@ -0,0 +1,6 @@
+-- Timeboxed retro phases owned by the server: the running phase and when its timer runs out
+ALTER TABLE boards ADD COLUMN phase VARCHAR(20);
+ALTER TABLE boards ADD COLUMN phase_ends_at TIMESTAMP;
+
+-- Timers are re-armed at startup from the few boards that have one running
+CREATE INDEX IF NOT EXISTS idx_boards_phase_ends_at ON boards(phase_ends_at) WHERE phase_ends_at IS NOT NULL;
@@ -0,0 +1,18 @@
+-- Term index for the team themes: per board, how many cards use each word or word pair.
+-- CardService keeps it up to date as cards change, so reports never rescan card text.
+CREATE TABLE IF NOT EXISTS board_terms (
+    board_id BIGINT NOT NULL REFERENCES boards(id) ON DELETE CASCADE,
+    term VARCHAR(100) NOT NULL,
+    cards INTEGER NOT NULL,
+    PRIMARY KEY (board_id, term)
+);
+
+-- Boards whose terms are complete. Boards without a row (created before this migration, or whose cards were
+-- removed in bulk) are indexed from their cards the next time a report needs them.
+CREATE TABLE IF NOT EXISTS board_term_index (
+    board_id BIGINT PRIMARY KEY REFERENCES boards(id) ON DELETE CASCADE,
+    indexed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- The last N boards of a team, newest first
+CREATE INDEX IF NOT EXISTS idx_boards_team_created_at ON boards(team_id, created_at DESC, id DESC);
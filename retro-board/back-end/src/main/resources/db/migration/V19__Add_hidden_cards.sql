@@ -0,0 +1,7 @@
+-- Hidden writing: while a board hides cards, new cards are only shown to their author (cards.user_id, V9)
+-- until the facilitator reveals them all at once
+ALTER TABLE boards ADD COLUMN hide_cards BOOLEAN NOT NULL DEFAULT FALSE;
+ALTER TABLE cards ADD COLUMN hidden BOOLEAN NOT NULL DEFAULT FALSE;
+
+-- A reveal only visits the hidden cards of the board's columns
+CREATE INDEX IF NOT EXISTS idx_cards_hidden_column_id ON cards(column_id) WHERE hidden;
@@ -0,0 +1,63 @@
+package com.retroboard.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReplicaLagMonitorTest {
+
+    @Mock
+    private JdbcTemplate replicaJdbcTemplate;
+
+    private ReplicaLagMonitor monitor;
+
+    @BeforeEach
+    void setUp() {
+        monitor = new ReplicaLagMonitor(replicaJdbcTemplate, 2000, 1000);
+    }
+
+    @Test
+    void testNotUsableBeforeFirstCheck() {
+        assertFalse(monitor.isReplicaUsable());
+    }
+
+    @Test
+    void testUsableWhenLagBelowLimit() {
+        when(replicaJdbcTemplate.queryForObject(ReplicaLagMonitor.LAG_QUERY, Double.class)).thenReturn(150.0);
+
+        monitor.checkLag();
+
+        assertTrue(monitor.isReplicaUsable());
+        assertEquals(150, monitor.getLagMs());
+    }
+
+    @Test
+    void testNotUsableWhenLagAboveLimit() {
+        when(replicaJdbcTemplate.queryForObject(ReplicaLagMonitor.LAG_QUERY, Double.class)).thenReturn(5000.0);
+
+        monitor.checkLag();
+
+        assertFalse(monitor.isReplicaUsable());
+    }
+
+    @Test
+    void testNotUsableWhenProbeFails() {
+        when(replicaJdbcTemplate.queryForObject(ReplicaLagMonitor.LAG_QUERY, Double.class))
+            .thenReturn(10.0)
+            .thenThrow(new DataAccessResourceFailureException("Connection refused"));
+
+        monitor.checkLag();
+        assertTrue(monitor.isReplicaUsable());
+
+        monitor.checkLag();
+        assertFalse(monitor.isReplicaUsable());
+        assertEquals(-1, monitor.getLagMs());
+    }
+}
@@ -0,0 +1,160 @@
+package com.retroboard.config;
+
+import com.retroboard.service.MetricsService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+import javax.sql.DataSource;
+import java.util.Collections;
+import java.util.Map;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ReplicaRoutingDataSourceTest {
+
+    @Mock
+    private ReplicaLagMonitor lagMonitor;
+
+    @Mock
+    private MetricsService metricsService;
+
+    private ReadYourWritesTracker readYourWritesTracker;
+    private DataSource primary;
+    private DataSource replica;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        // Two separate in-memory databases stand in for the primary and the replica
+        primary = database("routing_primary", "primary");
+        replica = database("routing_replica", "replica");
+
+        readYourWritesTracker = new ReadYourWritesTracker(5000);
+        ReplicaRoutingDataSource routingDataSource =
+            new ReplicaRoutingDataSource(lagMonitor, readYourWritesTracker, metricsService);
+        routingDataSource.setTargetDataSources(Map.of(
+            ReplicaRoutingDataSource.Target.PRIMARY, primary,
+            ReplicaRoutingDataSource.Target.REPLICA, replica));
+        routingDataSource.setDefaultTargetDataSource(primary);
+        routingDataSource.afterPropertiesSet();
+
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+
+        when(lagMonitor.isReplicaUsable()).thenReturn(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        new JdbcTemplate(primary).execute("DROP TABLE node");
+        new JdbcTemplate(replica).execute("DROP TABLE node");
+    }
+
+    @Test
+    void testReadOnlyTransaction_GoesToReplica() {
+        assertEquals("replica", readNode());
+        verify(metricsService).recordDataSourceRoute("replica", "read");
+    }
+
+    @Test
+    void testReadWriteTransaction_GoesToPrimary() {
+        transactionTemplate.setReadOnly(false);
+
+        String node = transactionTemplate.execute(status ->
+            jdbcTemplate.queryForObject("SELECT name FROM node", String.class));
+
+        assertEquals("primary", node);
+        verify(metricsService).recordDataSourceRoute("primary", "write");
+    }
+
+    @Test
+    void testNoTransaction_GoesToPrimary() {
+        assertEquals("primary", jdbcTemplate.queryForObject("SELECT name FROM node", String.class));
+        // The lazy proxy also borrows a connection once to read the connection defaults
+        verify(metricsService, atLeastOnce()).recordDataSourceRoute("primary", "no_transaction");
+    }
+
+    @Test
+    void testReplicaLagging_FallsBackToPrimary() {
+        when(lagMonitor.isReplicaUsable()).thenReturn(false);
+
+        assertEquals("primary", readNode());
+        verify(metricsService).recordDataSourceRoute("primary", "lag");
+    }
+
+    @Test
+    void testReadAfterWrite_StaysOnPrimaryForSameUser() {
+        authenticate("alice");
+        transactionTemplate.executeWithoutResult(status ->
+            jdbcTemplate.update("UPDATE node SET name = name"));
+
+        assertEquals("primary", readNode());
+        verify(metricsService).recordDataSourceRoute("primary", "sticky");
+
+        // Other users are not affected by alice's write
+        authenticate("bob");
+        assertEquals("replica", readNode());
+    }
+
+    @Test
+    void testReadAfterWrite_ReturnsToReplicaAfterWindow() {
+        readYourWritesTracker = new ReadYourWritesTracker(0);
+        ReplicaRoutingDataSource routingDataSource =
+            new ReplicaRoutingDataSource(lagMonitor, readYourWritesTracker, metricsService);
+        routingDataSource.setTargetDataSources(Map.of(
+            ReplicaRoutingDataSource.Target.PRIMARY, primary,
+            ReplicaRoutingDataSource.Target.REPLICA, replica));
+        routingDataSource.afterPropertiesSet();
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+
+        authenticate("alice");
+        transactionTemplate.executeWithoutResult(status ->
+            jdbcTemplate.update("UPDATE node SET name = name"));
+
+        assertEquals("replica", readNode());
+        assertEquals(0, readYourWritesTracker.size());
+    }
+
+    private String readNode() {
+        transactionTemplate.setReadOnly(true);
+        try {
+            return transactionTemplate.execute(status ->
+                jdbcTemplate.queryForObject("SELECT name FROM node", String.class));
+        } finally {
+            transactionTemplate.setReadOnly(false);
+        }
+    }
+
+    private void authenticate(String username) {
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken(username, null, Collections.emptyList()));
+    }
+
+    private DataSource database(String name, String node) {
+        DriverManagerDataSource dataSource =
+            new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.execute("CREATE TABLE node (name VARCHAR(20))");
+        template.update("INSERT INTO node (name) VALUES (?)", node);
+        return dataSource;
+    }
+}
@@ -0,0 +1,116 @@
+package com.retroboard.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.retroboard.dto.BoardUpdateEvent;
+import com.retroboard.dto.CardResponse;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompEncoder;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.socket.sockjs.frame.Jackson2SockJsMessageCodec;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.Deflater;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Bytes on the wire and server CPU per broadcast of full board events for a 500-card board,
+// over /ws (SockJS framing) and /ws-native with and without permessage-deflate.
+// Run with ./gradlew benchmark; excluded from ./gradlew test.
+@Tag("benchmark")
+public class WebSocketTransportBenchmarkTest {
+
+    private static final int CARDS = 500;
+    private static final int BROADCASTS = 100_000;
+    private static final int WARMUP = 20_000;
+    // Tomcat compresses once per session, so a broadcast costs one deflate per subscriber
+    private static final int SUBSCRIBERS = 50;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final StompEncoder stompEncoder = new StompEncoder();
+    private final Jackson2SockJsMessageCodec sockJsCodec = new Jackson2SockJsMessageCodec();
+
+    @Test
+    void benchmarkBroadcasts() throws Exception {
+        List<byte[]> frames = stompFrames();
+
+        long nativeBytes = run("native", frames, frame -> frame);
+        long sockJsBytes = run("sockjs", frames,
+            frame -> sockJsCodec.encode(new String(frame, StandardCharsets.UTF_8)).getBytes(StandardCharsets.UTF_8));
+        // Same settings as Tomcat's permessage-deflate: raw deflate, sync flush, window kept between messages
+        Deflater session = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        long deflateBytes = run("deflate", frames, frame -> deflate(session, frame));
+        Deflater perMessage = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        long noContextBytes = run("deflate-nct", frames, frame -> {
+            perMessage.reset();
+            return deflate(perMessage, frame);
+        });
+
+        assertTrue(sockJsBytes > nativeBytes);
+        assertTrue(deflateBytes < nativeBytes);
+        assertTrue(deflateBytes < noContextBytes);
+    }
+
+    private List<byte[]> stompFrames() throws Exception {
+        List<CardResponse> cards = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < CARDS; i++) {
+            cards.add(new CardResponse((long) i + 1, "Card " + i + ": we should talk about the deployment pipeline more often",
+                i % 50, now, now, 0, 1L, (long) (i % 4) + 1, "Column " + (i % 4)));
+        }
+
+        Random random = new Random(42);
+        List<byte[]> frames = new ArrayList<>();
+        for (int i = 0; i < BROADCASTS; i++) {
+            CardResponse card = cards.get(random.nextInt(CARDS));
+            card.setVotes(card.getVotes() + 1);
+            byte[] payload = objectMapper.writeValueAsBytes(
+                new BoardUpdateEvent("card_voted", 1L, card, System.currentTimeMillis()));
+
+            StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.MESSAGE);
+            accessor.setDestination("/topic/board/1");
+            accessor.setSubscriptionId("sub-0");
+            accessor.setMessageId("s1-" + i);
+            accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+            frames.add(stompEncoder.encode(MessageBuilder.createMessage(payload, accessor.getMessageHeaders())));
+        }
+        return frames;
+    }
+
+    private byte[] deflate(Deflater deflater, byte[] frame) {
+        deflater.setInput(frame);
+        byte[] buffer = new byte[frame.length + 64];
+        int length = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+        // The trailing 00 00 ff ff of the sync flush is not sent
+        byte[] compressed = new byte[length - 4];
+        System.arraycopy(buffer, 0, compressed, 0, compressed.length);
+        return compressed;
+    }
+
+    private long run(String name, List<byte[]> frames, Transport transport) throws Exception {
+        for (int i = 0; i < WARMUP; i++) {
+            transport.encode(frames.get(i % frames.size()));
+        }
+        long bytes = 0;
+        long start = System.nanoTime();
+        for (byte[] frame : frames) {
+            bytes += transport.encode(frame).length;
+        }
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("%-12s %6.1f bytes/subscriber %8.0f ns/subscriber %10.0f ns/broadcast (%d subscribers)%n",
+            name, (double) bytes / frames.size(), (double) elapsed / frames.size(),
+            (double) elapsed * SUBSCRIBERS / frames.size(), SUBSCRIBERS);
+        return bytes;
+    }
+
+    private interface Transport {
+        byte[] encode(byte[] frame) throws Exception;
+    }
+}
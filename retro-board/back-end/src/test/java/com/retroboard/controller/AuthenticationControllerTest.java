@@ -3,12 +3,14 @@ package com.retroboard.controller;
 import com.retroboard.dto.LoginRequest;
 import com.retroboard.dto.RegisterRequest;
 import com.retroboard.dto.TokenResponse;
+import com.retroboard.exception.ServiceOverloadedException;
 import com.retroboard.service.AuthenticationService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
@@ -64,6 +66,24 @@ class AuthenticationControllerTest {
         assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
     }
 
+    @Test
+    void testLogin_Overloaded() {
+        // Arrange
+        LoginRequest loginRequest = new LoginRequest();
+        loginRequest.setUsername("testuser");
+        loginRequest.setPassword("password123");
+
+        when(authenticationService.login(loginRequest))
+            .thenThrow(new ServiceOverloadedException("Too many logins, retry after 3 seconds", 3));
+
+        // Act
+        ResponseEntity<?> response = authenticationController.login(loginRequest);
+
+        // Assert
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("3", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    }
+
     @Test
     void testRegister_Success() {
         // Arrange
@@ -0,0 +1,461 @@
+package com.retroboard.controller;
+
+import com.retroboard.dto.BoardResponse;
+import com.retroboard.dto.BoardSummaryPage;
+import com.retroboard.dto.BoardSummaryResponse;
+import com.retroboard.dto.BoardViewResponse;
+import com.retroboard.dto.CardResponse;
+import com.retroboard.dto.ColumnResponse;
+import com.retroboard.entity.Board;
+import com.retroboard.entity.BoardColumn;
+import com.retroboard.entity.Card;
+import com.retroboard.entity.CardVote;
+import com.retroboard.entity.Team;
+import com.retroboard.entity.User;
+import com.retroboard.service.BoardActorService;
+import com.retroboard.service.BoardColumnService;
+import com.retroboard.service.BoardService;
+import com.retroboard.service.BoardTimerService;
+import com.retroboard.service.BoardViewCache;
+import com.retroboard.service.BoardViewService;
+import com.retroboard.service.CardService;
+import com.retroboard.service.CardCollaborationService;
+import com.retroboard.service.CardGroupingService;
+import com.retroboard.service.MetricsService;
+import com.retroboard.service.RateLimitService;
+import com.retroboard.service.TeamThemeService;
+import com.retroboard.service.VoteBudgetService;
+import com.retroboard.service.WebSocketService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.ServletWebRequest;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Pins the number of SQL statements each read endpoint issues, so a change that
+// reintroduces entity-graph loading or N+1 queries fails here.
+@DataJpaTest(properties = {
+    "spring.flyway.enabled=false",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "spring.datasource.url=jdbc:h2:mem:querycount;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+    "spring.datasource.username=sa",
+    "spring.datasource.password="
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({BoardController.class, BoardColumnController.class, CardController.class,
+         BoardService.class, BoardColumnService.class, CardService.class, BoardViewService.class, BoardViewCache.class})
+public class ReadPathQueryCountTest {
+    
+    @Autowired
+    private TestEntityManager entityManager;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Autowired
+    private BoardController boardController;
+    
+    @Autowired
+    private BoardColumnController columnController;
+    
+    @Autowired
+    private CardController cardController;
+    
+    @MockBean
+    private WebSocketService webSocketService;
+    
+    @MockBean
+    private MetricsService metricsService;
+    
+    @MockBean
+    private RateLimitService rateLimitService;
+    
+    @MockBean
+    private CardCollaborationService collaborationService;
+    
+    @MockBean
+    private BoardActorService boardActorService;
+
+    @MockBean
+    private VoteBudgetService voteBudgetService;
+    
+    @MockBean
+    private BoardTimerService boardTimerService;
+    
+    @MockBean
+    private CardGroupingService cardGroupingService;
+    
+    @MockBean
+    private TeamThemeService teamThemeService;
+    
+    private Statistics statistics;
+    private User owner;
+    private Team team;
+    private Board board;
+    private BoardColumn column;
+    
+    @BeforeEach
+    void setUp() {
+        owner = new User();
+        owner.setUsername("owner");
+        owner.setPassword("password");
+        owner.setEmail("owner@example.com");
+        entityManager.persist(owner);
+        
+        team = new Team();
+        team.setName("Team");
+        team.setOwner(owner);
+        entityManager.persist(team);
+        
+        board = persistBoard("Retro 1");
+        persistBoard("Retro 2");
+        column = persistColumn(board, "What Went Well", 0);
+        persistColumn(board, "Action Items", 1);
+        persistCards(column, 3);
+        
+        entityManager.flush();
+        entityManager.clear();
+        
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken("owner", null, Collections.emptyList()));
+        
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+    
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+    
+    private Board persistBoard(String name) {
+        Board newBoard = new Board();
+        newBoard.setName(name);
+        newBoard.setTeam(team);
+        return entityManager.persist(newBoard);
+    }
+    
+    private BoardColumn persistColumn(Board parent, String name, int position) {
+        BoardColumn newColumn = new BoardColumn();
+        newColumn.setName(name);
+        newColumn.setBoard(parent);
+        newColumn.setPosition(position);
+        return entityManager.persist(newColumn);
+    }
+    
+    private void persistCards(BoardColumn parent, int count) {
+        for (int i = 0; i < count; i++) {
+            Card card = new Card();
+            card.setDescription("Card " + i);
+            card.setColumn(parent);
+            card.setPosition(i);
+            entityManager.persist(card);
+        }
+    }
+    
+    private ServletWebRequest newRequest() {
+        return new ServletWebRequest(new MockHttpServletRequest("GET", "/"), new MockHttpServletResponse());
+    }
+    
+    private ServletWebRequest newRequest(String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        return new ServletWebRequest(request, new MockHttpServletResponse());
+    }
+    
+    // Run a request in its own persistence context, like a fresh HTTP request, and count statements
+    private long countStatements(Runnable request) {
+        entityManager.clear();
+        statistics.clear();
+        request.run();
+        return statistics.getPrepareStatementCount();
+    }
+    
+    @Test
+    void testGetAllBoards_StatementCount() {
+        ResponseEntity<List<BoardResponse>> response = boardController.getAllBoards(team.getId());
+        long statements = countStatements(() -> boardController.getAllBoards(team.getId()));
+        
+        assertEquals(2, response.getBody().size());
+        // user lookup, team access check, board projection
+        assertEquals(3, statements);
+    }
+    
+    @Test
+    void testGetBoardSummaries_CountsInOneStatement() {
+        Card voted = new Card();
+        voted.setDescription("Voted");
+        voted.setColumn(entityManager.find(BoardColumn.class, column.getId()));
+        voted.setPosition(3);
+        voted.setVotes(4);
+        entityManager.persist(voted);
+        entityManager.flush();
+        
+        BoardSummaryPage page = boardController.getBoardSummaries(team.getId(), null, 20).getBody();
+        long statements = countStatements(() -> boardController.getBoardSummaries(team.getId(), null, 20));
+        
+        assertEquals(2, page.getBoards().size());
+        assertNull(page.getNextCursor());
+        BoardSummaryResponse summary = page.getBoards().stream()
+            .filter(b -> b.getId().equals(board.getId())).findFirst().orElseThrow();
+        assertEquals(2, summary.getColumnCount());
+        assertEquals(4, summary.getCardCount());
+        assertEquals(4, summary.getTotalVotes());
+        assertNotNull(summary.getLastActivityAt());
+        // user lookup, team access check, grouped summary query
+        assertEquals(3, statements);
+    }
+    
+    @Test
+    void testGetBoardSummaries_LeavesOutHiddenCards() {
+        Card hidden = new Card();
+        hidden.setDescription("Not revealed yet");
+        hidden.setColumn(entityManager.find(BoardColumn.class, column.getId()));
+        hidden.setPosition(3);
+        hidden.setHidden(true);
+        entityManager.persist(hidden);
+        entityManager.flush();
+        
+        BoardSummaryResponse summary = boardController.getBoardSummaries(team.getId(), null, 20).getBody()
+            .getBoards().stream().filter(b -> b.getId().equals(board.getId())).findFirst().orElseThrow();
+        
+        assertEquals(2, summary.getColumnCount());
+        assertEquals(3, summary.getCardCount());
+    }
+    
+    @Test
+    void testGetBoardSummaries_KeysetPages() {
+        BoardSummaryPage first = boardController.getBoardSummaries(team.getId(), null, 1).getBody();
+        BoardSummaryPage second = boardController.getBoardSummaries(team.getId(), first.getNextCursor(), 1).getBody();
+        
+        assertEquals(1, first.getBoards().size());
+        assertNotNull(first.getNextCursor());
+        assertEquals(1, second.getBoards().size());
+        assertNull(second.getNextCursor());
+        assertNotEquals(first.getBoards().get(0).getId(), second.getBoards().get(0).getId());
+        // Most recently active first
+        assertFalse(first.getBoards().get(0).getLastActivityAt().isBefore(second.getBoards().get(0).getLastActivityAt()));
+    }
+    
+    @Test
+    void testGetAllColumns_StatementCount() {
+        ResponseEntity<List<ColumnResponse>> response = columnController.getAllColumns(board.getId(), newRequest());
+        long statements = countStatements(() -> columnController.getAllColumns(board.getId(), newRequest()));
+        
+        assertEquals(2, response.getBody().size());
+        // board revision, board lookup, user lookup, team access check, column projection
+        assertEquals(5, statements);
+    }
+    
+    @Test
+    void testGetAllCards_StatementCount() {
+        ResponseEntity<List<CardResponse>> response = cardController.getAllCards(column.getId(), newRequest());
+        long statements = countStatements(() -> cardController.getAllCards(column.getId(), newRequest()));
+        
+        assertEquals(3, response.getBody().size());
+        assertEquals(Map.of(), response.getBody().get(0).getReactions());
+        // board revision, column lookup, board lookup, user lookup, team access check,
+        // user lookup for hidden cards and vote flags, card projection, voted card ids
+        assertEquals(8, statements);
+    }
+    
+    @Test
+    void testGetAllCards_VoteFlagsOnlyForListedCards() {
+        BoardColumn otherColumn = persistColumn(persistBoard("Retro 3"), "Elsewhere", 0);
+        persistCards(otherColumn, 1);
+        entityManager.flush();
+        List<Card> cards = entityManager.getEntityManager()
+            .createQuery("SELECT c FROM Card c ORDER BY c.id", Card.class).getResultList();
+        Card votedHere = cards.get(1);
+        Card votedElsewhere = cards.get(cards.size() - 1);
+        for (Card card : List.of(votedHere, votedElsewhere)) {
+            CardVote vote = new CardVote();
+            vote.setUser(entityManager.find(User.class, owner.getId()));
+            vote.setCard(card);
+            entityManager.persist(vote);
+        }
+        entityManager.flush();
+        
+        List<CardResponse> listed = cardController.getAllCards(column.getId(), newRequest()).getBody();
+        
+        assertEquals(3, listed.size());
+        for (CardResponse card : listed) {
+            assertEquals(card.getId().equals(votedHere.getId()), card.getVotedByCurrentUser());
+        }
+    }
+    
+    @Test
+    void testGetAllCards_HiddenCardsOnlyListedForAuthor() {
+        User other = new User();
+        other.setUsername("other");
+        other.setPassword("password");
+        other.setEmail("other@example.com");
+        entityManager.persist(other);
+        for (User author : List.of(owner, other)) {
+            Card hidden = new Card();
+            hidden.setDescription("Hidden by " + author.getUsername());
+            hidden.setColumn(entityManager.find(BoardColumn.class, column.getId()));
+            hidden.setPosition(10);
+            hidden.setUserId(author.getId());
+            hidden.setHidden(true);
+            entityManager.persist(hidden);
+        }
+        entityManager.flush();
+        
+        List<CardResponse> listed = cardController.getAllCards(column.getId(), newRequest()).getBody();
+        
+        assertEquals(4, listed.size());
+        CardResponse own = listed.stream().filter(card -> Boolean.TRUE.equals(card.getHidden())).findFirst().orElseThrow();
+        assertEquals("Hidden by owner", own.getDescription());
+    }
+    
+    @Test
+    void testGetAllCards_StatementCountIndependentOfCardCount() {
+        long before = countStatements(() -> cardController.getAllCards(column.getId(), newRequest()));
+        
+        persistCards(entityManager.find(BoardColumn.class, column.getId()), 20);
+        entityManager.flush();
+        
+        long after = countStatements(() -> cardController.getAllCards(column.getId(), newRequest()));
+        
+        assertEquals(before, after);
+    }
+    
+    @Test
+    void testGetBoardView_CachedViewOnlyLoadsUserFlags() {
+        BoardViewResponse first = boardController.getBoardView(board.getId()).getBody();
+        long statements = countStatements(() -> boardController.getBoardView(board.getId()));
+        
+        assertEquals(2, first.getColumns().size());
+        assertEquals(3, first.getCards().size());
+        assertEquals(false, first.getCards().get(0).getVotedByCurrentUser());
+        // board revision, user lookup, voted card ids
+        assertEquals(3, statements);
+    }
+    
+    @Test
+    void testGetBoardView_StatementCountIndependentOfCardCount() {
+        Board other = persistBoard("Retro 3");
+        persistCards(persistColumn(other, "Went well", 0), 1);
+        entityManager.flush();
+        long before = countStatements(() -> boardController.getBoardView(other.getId()));
+        
+        Board larger = persistBoard("Retro 4");
+        persistCards(persistColumn(larger, "Went well", 0), 20);
+        entityManager.flush();
+        long after = countStatements(() -> boardController.getBoardView(larger.getId()));
+        
+        assertEquals(before, after);
+    }
+    
+    @Test
+    void testGetBoardView_OwnHiddenCardsLaidOver() {
+        Board hiding = new Board();
+        hiding.setName("Hidden retro");
+        hiding.setTeam(team);
+        hiding.setHideCards(true);
+        entityManager.persist(hiding);
+        BoardColumn hidingColumn = persistColumn(hiding, "Went well", 0);
+        persistCards(hidingColumn, 1);
+        persistCards(persistColumn(hiding, "To improve", 1), 1);
+        User other = new User();
+        other.setUsername("other");
+        other.setPassword("password");
+        other.setEmail("other@example.com");
+        entityManager.persist(other);
+        for (User author : List.of(owner, other)) {
+            Card hidden = new Card();
+            hidden.setDescription("Hidden by " + author.getUsername());
+            hidden.setColumn(hidingColumn);
+            hidden.setPosition(1);
+            hidden.setUserId(author.getId());
+            hidden.setHidden(true);
+            entityManager.persist(hidden);
+        }
+        entityManager.flush();
+        
+        List<CardResponse> cards = boardController.getBoardView(hiding.getId()).getBody().getCards();
+        
+        // The author's hidden card is listed in its column, before the next column's cards
+        assertEquals(List.of("Card 0", "Hidden by owner", "Card 0"), cards.stream().map(CardResponse::getDescription).toList());
+        assertEquals(true, cards.get(1).getHidden());
+    }
+    
+    @Test
+    void testGetBoardView_NoAccess() {
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken("stranger", null, Collections.emptyList()));
+        
+        assertThrows(RuntimeException.class, () -> boardController.getBoardView(board.getId()));
+    }
+    
+    @Test
+    void testGetBoardById_NotModifiedIsOneStatement() {
+        String etag = boardController.getBoardById(board.getId(), newRequest()).getHeaders().getETag();
+        assertNotNull(etag);
+        
+        long statements = countStatements(() -> assertEquals(HttpStatus.NOT_MODIFIED,
+            boardController.getBoardById(board.getId(), newRequest(etag)).getStatusCode()));
+        
+        assertEquals(1, statements);
+    }
+    
+    @Test
+    void testGetAllColumns_NotModifiedIsOneStatement() {
+        String etag = columnController.getAllColumns(board.getId(), newRequest()).getHeaders().getETag();
+        
+        long statements = countStatements(() -> assertEquals(HttpStatus.NOT_MODIFIED,
+            columnController.getAllColumns(board.getId(), newRequest(etag)).getStatusCode()));
+        
+        assertEquals(1, statements);
+    }
+    
+    @Test
+    void testGetAllCards_NotModifiedIsOneStatement() {
+        String etag = cardController.getAllCards(column.getId(), newRequest()).getHeaders().getETag();
+        
+        long statements = countStatements(() -> assertEquals(HttpStatus.NOT_MODIFIED,
+            cardController.getAllCards(column.getId(), newRequest(etag)).getStatusCode()));
+        
+        assertEquals(1, statements);
+    }
+    
+    @Test
+    void testGetAllCards_StaleETagLoadsCards() {
+        ResponseEntity<List<CardResponse>> response = cardController.getAllCards(column.getId(), newRequest("\"0-stale\""));
+        
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(3, response.getBody().size());
+        assertNotNull(response.getHeaders().getETag());
+    }
+    
+    @Test
+    void testGetAllCards_NoETagWithoutAccess() {
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken("stranger", null, Collections.emptyList()));
+        
+        assertThrows(RuntimeException.class, () -> cardController.getAllCards(column.getId(), newRequest("*")));
+    }
+}
@@ -0,0 +1,141 @@
+package com.retroboard.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// Wraps a DataSource so that, while recording, every statement is first run as
+// EXPLAIN (ANALYZE, BUFFERS, FORMAT JSON) with the same parameters on the same connection. The explain runs
+// inside a savepoint that is rolled back, so statements that write are not applied twice.
+class ExplainingDataSource {
+
+    record ExplainedStatement(String sql, JsonNode plan) {
+    }
+
+    // A parameter setter call on a prepared statement, replayed on the EXPLAIN statement
+    private record Setter(Method method, Object[] args) {
+    }
+
+    private static final Set<String> EXECUTE_METHODS = Set.of("execute", "executeQuery", "executeUpdate",
+        "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<ExplainedStatement> explained = new CopyOnWriteArrayList<>();
+    private volatile boolean recording;
+
+    DataSource wrap(DataSource target) {
+        return proxy(DataSource.class, (proxy, method, args) -> {
+            Object result = invoke(target, method, args);
+            return result instanceof Connection connection ? wrap(connection) : result;
+        });
+    }
+
+    void startRecording() {
+        explained.clear();
+        recording = true;
+    }
+
+    List<ExplainedStatement> stopRecording() {
+        recording = false;
+        return List.copyOf(explained);
+    }
+
+    private Connection wrap(Connection connection) {
+        return proxy(Connection.class, (proxy, method, args) -> {
+            if (method.getName().equals("equals")) {
+                return proxy == args[0];
+            }
+            if (method.getName().equals("hashCode")) {
+                return System.identityHashCode(proxy);
+            }
+            Object result = invoke(connection, method, args);
+            if (result instanceof PreparedStatement statement && method.getName().equals("prepareStatement")) {
+                return wrap(connection, statement, (String) args[0]);
+            }
+            if (result instanceof Statement statement && method.getName().equals("createStatement")) {
+                return wrap(connection, statement);
+            }
+            return result;
+        });
+    }
+
+    private PreparedStatement wrap(Connection connection, PreparedStatement statement, String sql) {
+        List<Setter> setters = new ArrayList<>();
+        List<List<Setter>> batches = new ArrayList<>();
+        return proxy(PreparedStatement.class, (proxy, method, args) -> {
+            String name = method.getName();
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                setters.add(new Setter(method, args));
+            } else if (name.equals("clearParameters")) {
+                setters.clear();
+            } else if (name.equals("addBatch") && args == null) {
+                batches.add(List.copyOf(setters));
+            } else if (name.equals("clearBatch")) {
+                batches.clear();
+            } else if (recording && EXECUTE_METHODS.contains(name) && args == null) {
+                // A batch runs one statement shape, so its first parameter set stands for all of them
+                explain(connection, sql, batches.isEmpty() ? setters : batches.get(0));
+                batches.clear();
+            }
+            return invoke(statement, method, args);
+        });
+    }
+
+    private Statement wrap(Connection connection, Statement statement) {
+        return proxy(Statement.class, (proxy, method, args) -> {
+            if (recording && EXECUTE_METHODS.contains(method.getName()) && args != null && args[0] instanceof String sql) {
+                explain(connection, sql, List.of());
+            }
+            return invoke(statement, method, args);
+        });
+    }
+
+    private void explain(Connection connection, String sql, List<Setter> setters) throws Throwable {
+        boolean autoCommit = connection.getAutoCommit();
+        if (autoCommit) {
+            connection.setAutoCommit(false);
+        }
+        Savepoint savepoint = connection.setSavepoint();
+        try (PreparedStatement statement = connection.prepareStatement("EXPLAIN (ANALYZE, BUFFERS, FORMAT JSON) " + sql)) {
+            for (Setter setter : setters) {
+                invoke(statement, setter.method(), setter.args());
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                explained.add(new ExplainedStatement(sql, objectMapper.readTree(resultSet.getString(1)).get(0)));
+            }
+        } finally {
+            connection.rollback(savepoint);
+            if (autoCommit) {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+        }
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(ExplainingDataSource.class.getClassLoader(), new Class<?>[] { type }, handler);
+    }
+}
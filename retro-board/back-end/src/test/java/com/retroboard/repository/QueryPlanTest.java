@@ -0,0 +1,381 @@
+package com.retroboard.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.retroboard.entity.Board;
+import com.retroboard.entity.BoardColumn;
+import com.retroboard.entity.Card;
+import com.retroboard.entity.Team;
+import com.retroboard.entity.User;
+import com.retroboard.repository.BoardEventRepository.NewBoardEvent;
+import com.retroboard.repository.CardVoteRepositoryCustom.VoteChange;
+import com.retroboard.repository.ExplainingDataSource.ExplainedStatement;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Runs every repository query against a PostgreSQL database seeded with a few hundred thousand rows and
+// checks its EXPLAIN (ANALYZE, BUFFERS) plan: no sequential scan of a large table and a total cost within
+// budget. Needs a throwaway database, see "Query Plan Checks" in README.md; run with ./gradlew queryPlanTest.
+@Tag("queryplan")
+@DataJpaTest(properties = {
+    "spring.datasource.url=${queryplan.url:jdbc:postgresql://localhost:5432/retroboard_queryplan}",
+    "spring.datasource.username=${queryplan.username:postgres}",
+    "spring.datasource.password=${queryplan.password:123456}",
+    "spring.jpa.show-sql=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({BoardEventRepository.class, BoardVoteUsageRepository.class, BoardTermRepository.class, QueryPlanTest.ExplainConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class QueryPlanTest {
+
+    private static final int USERS = 5000;
+    private static final int TEAMS = 500;
+    private static final int MEMBERS_PER_TEAM = 20;
+    private static final int BOARDS_PER_TEAM = 10;
+    private static final int COLUMNS_PER_BOARD = 4;
+    private static final int CARDS_PER_COLUMN = 10;
+    private static final int VOTES_PER_CARD = 2;
+    private static final int EVENTS = 200000;
+    private static final int TERMS_PER_BOARD = 100;
+
+    // Tables with at least this many rows must not be read with a sequential scan
+    private static final long LARGE_TABLE_ROWS = 1000;
+
+    private static final double MAX_COST = Double.parseDouble(System.getProperty("queryplan.max-cost", "5000"));
+
+    private static final LocalDateTime FIRST_PAGE_ACTIVITY = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+    private static final ExplainingDataSource EXPLAINING = new ExplainingDataSource();
+
+    private static Set<String> largeTables;
+
+    @TestConfiguration
+    static class ExplainConfig {
+        @Bean
+        static BeanPostProcessor explainingDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? EXPLAINING.wrap(dataSource) : bean;
+                }
+            };
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private TeamMemberRepository teamMemberRepository;
+
+    @Autowired
+    private BoardRepository boardRepository;
+
+    @Autowired
+    private BoardColumnRepository columnRepository;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private CardVoteRepository cardVoteRepository;
+
+    @Autowired
+    private BoardEventRepository boardEventRepository;
+
+    @Autowired
+    private BoardVoteUsageRepository boardVoteUsageRepository;
+
+    @Autowired
+    private BoardTermRepository boardTermRepository;
+
+    private User member;
+    private User voter;
+    private Team team;
+    private Board board;
+    private BoardColumn column;
+    private Card card;
+
+    @BeforeEach
+    void setUp() {
+        if (largeTables == null) {
+            Integer seeded = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users WHERE username = 'plan-user-1'", Integer.class);
+            if (seeded == 0) {
+                seed();
+            }
+            jdbcTemplate.execute("ANALYZE");
+            largeTables = new HashSet<>(jdbcTemplate.queryForList("SELECT relname FROM pg_class " +
+                "WHERE relkind = 'r' AND relnamespace = 'public'::regnamespace AND reltuples >= ?", String.class, LARGE_TABLE_ROWS));
+        }
+
+        member = userRepository.findByUsername("plan-user-42").orElseThrow();
+        team = teamRepository.findById(jdbcTemplate.queryForObject(
+            "SELECT MIN(team_id) FROM team_members WHERE user_id = ?", Long.class, member.getId())).orElseThrow();
+        board = boardRepository.findById(jdbcTemplate.queryForObject(
+            "SELECT MIN(id) FROM boards WHERE team_id = ?", Long.class, team.getId())).orElseThrow();
+        column = columnRepository.findById(jdbcTemplate.queryForObject(
+            "SELECT MIN(id) FROM columns WHERE board_id = ?", Long.class, board.getId())).orElseThrow();
+        card = cardRepository.findById(jdbcTemplate.queryForObject(
+            "SELECT MIN(id) FROM cards WHERE column_id = ?", Long.class, column.getId())).orElseThrow();
+        voter = userRepository.findById(jdbcTemplate.queryForObject(
+            "SELECT MIN(user_id) FROM card_votes WHERE card_id = ?", Long.class, card.getId())).orElseThrow();
+    }
+
+    // Bulk inserts with generate_series; ids are offsets from the first row of each table. The per-row triggers
+    // are off while seeding and vote usage is backfilled in one statement, as in V15.
+    private void seed() {
+        jdbcTemplate.update("INSERT INTO users (username, password, email) " +
+            "SELECT 'plan-user-' || g, 'password', 'plan-user-' || g || '@example.com' FROM generate_series(1, ?) g", USERS);
+        long firstUser = jdbcTemplate.queryForObject("SELECT id FROM users WHERE username = 'plan-user-1'", Long.class);
+
+        jdbcTemplate.update("INSERT INTO teams (name, owner_id) " +
+            "SELECT 'Plan team ' || g, ? + (g - 1) % ? FROM generate_series(1, ?) g", firstUser, USERS, TEAMS);
+        long firstTeam = jdbcTemplate.queryForObject("SELECT MIN(id) FROM teams WHERE name LIKE 'Plan team %'", Long.class);
+
+        jdbcTemplate.update("INSERT INTO team_members (team_id, user_id, role) " +
+            "SELECT ? + (g - 1) / ?, ? + (g - 1) % ?, 'member' FROM generate_series(1, ?) g",
+            firstTeam, MEMBERS_PER_TEAM, firstUser, USERS, TEAMS * MEMBERS_PER_TEAM);
+
+        int boards = TEAMS * BOARDS_PER_TEAM;
+        jdbcTemplate.update("INSERT INTO boards (name, team_id, created_at, updated_at, last_activity_at) " +
+            "SELECT 'Plan board ' || g, ? + (g - 1) / ?, now() - g * interval '1 hour', " +
+            "now() - g * interval '1 hour', now() - (g % 1000) * interval '1 minute' FROM generate_series(1, ?) g",
+            firstTeam, BOARDS_PER_TEAM, boards);
+        long firstBoard = jdbcTemplate.queryForObject("SELECT MIN(id) FROM boards WHERE name LIKE 'Plan board %'", Long.class);
+
+        List<String> triggered = List.of("columns", "cards", "card_votes");
+        triggered.forEach(table -> jdbcTemplate.execute("ALTER TABLE " + table + " DISABLE TRIGGER USER"));
+        try {
+            int columns = boards * COLUMNS_PER_BOARD;
+            jdbcTemplate.update("INSERT INTO columns (board_id, name, position) " +
+                "SELECT ? + (g - 1) / ?, 'Column ' || (g - 1) % ?, (g - 1) % ? FROM generate_series(1, ?) g",
+                firstBoard, COLUMNS_PER_BOARD, COLUMNS_PER_BOARD, COLUMNS_PER_BOARD, columns);
+            long firstColumn = jdbcTemplate.queryForObject("SELECT MIN(id) FROM columns WHERE board_id = ?", Long.class, firstBoard);
+
+            int cards = columns * CARDS_PER_COLUMN;
+            jdbcTemplate.update("INSERT INTO cards (column_id, title, description, position, votes) " +
+                "SELECT ? + (g - 1) / ?, '', 'Plan card ' || g, (g - 1) % ?, ? FROM generate_series(1, ?) g",
+                firstColumn, CARDS_PER_COLUMN, CARDS_PER_COLUMN, VOTES_PER_CARD, cards);
+            long firstCard = jdbcTemplate.queryForObject("SELECT MIN(id) FROM cards WHERE column_id = ?", Long.class, firstColumn);
+
+            // Distinct voters per card as long as VOTES_PER_CARD <= USERS
+            jdbcTemplate.update("INSERT INTO card_votes (card_id, user_id) " +
+                "SELECT ? + (g - 1) / ?, ? + ((g - 1) / ? * 31 + (g - 1) % ?) % ? FROM generate_series(1, ?) g",
+                firstCard, VOTES_PER_CARD, firstUser, VOTES_PER_CARD, VOTES_PER_CARD, USERS, cards * VOTES_PER_CARD);
+            jdbcTemplate.update("INSERT INTO card_reactions (card_id, user_id, emoji) " +
+                "SELECT ? + (g - 1) * 4, ? + g % ?, 'heart' FROM generate_series(1, ?) g",
+                firstCard, firstUser, USERS, cards / 4);
+        } finally {
+            triggered.forEach(table -> jdbcTemplate.execute("ALTER TABLE " + table + " ENABLE TRIGGER USER"));
+        }
+
+        jdbcTemplate.update("INSERT INTO board_vote_usage (board_id, user_id, votes_used) " +
+            "SELECT col.board_id, cv.user_id, COUNT(*) FROM card_votes cv JOIN cards c ON c.id = cv.card_id " +
+            "JOIN columns col ON col.id = c.column_id GROUP BY col.board_id, cv.user_id " +
+            "ON CONFLICT (board_id, user_id) DO NOTHING");
+
+        // One event a minute, so about a third of the log is past the 90 day retention
+        jdbcTemplate.update("INSERT INTO board_events (team_id, board_id, type, actor, payload, created_at) " +
+            "SELECT ? + (g - 1) % ?, ? + (g - 1) % ?, 'card_created', 'plan-user-1', '{}', " +
+            "now() - (? - g) * interval '1 minute' FROM generate_series(1, ?) g",
+            firstTeam, TEAMS, firstBoard, boards, EVENTS, EVENTS);
+
+        jdbcTemplate.update("INSERT INTO board_terms (board_id, term, cards) " +
+            "SELECT ? + (g - 1) / ?, 'term ' || (g - 1) % ?, 1 + g % 5 FROM generate_series(1, ?) g",
+            firstBoard, TERMS_PER_BOARD, TERMS_PER_BOARD, boards * TERMS_PER_BOARD);
+        jdbcTemplate.update("INSERT INTO board_term_index (board_id) SELECT id FROM boards WHERE name LIKE 'Plan board %'");
+    }
+
+    @Test
+    void testUserRepository() {
+        assertPlans("UserRepository.findByUsername", () -> userRepository.findByUsername("plan-user-4242"));
+        assertPlans("UserRepository.findByEmail", () -> userRepository.findByEmail("plan-user-4242@example.com"));
+        assertPlans("UserRepository.existsByUsername", () -> userRepository.existsByUsername("plan-user-4242"));
+        assertPlans("UserRepository.existsByEmail", () -> userRepository.existsByEmail("plan-user-4242@example.com"));
+        assertPlans("UserRepository.updateActiveTokenHashes",
+            () -> userRepository.updateActiveTokenHashes(Map.of(member.getId(), "plan-token-hash")));
+        // A substring match cannot use a b-tree index; the user search scans users by design
+        assertPlans("UserRepository.findByUsernameContainingOrEmailContaining", Set.of("users"), MAX_COST,
+            () -> userRepository.findByUsernameContainingOrEmailContaining("user-424", "user-424"));
+    }
+
+    @Test
+    void testTeamRepositories() {
+        assertPlans("TeamRepository.findByOwner", () -> teamRepository.findByOwner(member));
+        assertPlans("TeamRepository.findByOwnerOrMember", () -> teamRepository.findByOwnerOrMember(member));
+        assertPlans("TeamRepository.existsByTeamIdAndOwnerOrMember",
+            () -> teamRepository.existsByTeamIdAndOwnerOrMember(team.getId(), member));
+        assertPlans("TeamMemberRepository.findByTeam", () -> teamMemberRepository.findByTeam(team));
+        assertPlans("TeamMemberRepository.findByUser", () -> teamMemberRepository.findByUser(member));
+        assertPlans("TeamMemberRepository.findByTeamAndUser", () -> teamMemberRepository.findByTeamAndUser(team, member));
+    }
+
+    @Test
+    void testBoardRepositories() {
+        assertPlans("BoardRepository.findByTeam", () -> boardRepository.findByTeam(team));
+        assertPlans("BoardRepository.findResponsesByTeamId", () -> boardRepository.findResponsesByTeamId(team.getId()));
+        assertPlans("BoardRepository.findRevisionByIdForUser",
+            () -> boardRepository.findRevisionByIdForUser(board.getId(), member.getUsername()));
+        assertPlans("BoardRepository.findRevisionByColumnIdForUser",
+            () -> boardRepository.findRevisionByColumnIdForUser(column.getId(), member.getUsername()));
+        assertPlans("BoardRepository.findSummariesByTeamId",
+            () -> boardRepository.findSummariesByTeamId(team.getId(), FIRST_PAGE_ACTIVITY, Long.MAX_VALUE, 21));
+        assertPlans("BoardRepository.findSummariesByTeamId (next page)",
+            () -> boardRepository.findSummariesByTeamId(team.getId(), board.getLastActivityAt(), board.getId(), 21));
+        assertPlans("BoardRepository.findWithRunningPhaseTimer", () -> boardRepository.findWithRunningPhaseTimer());
+        assertPlans("BoardRepository.advanceExpiredPhase",
+            () -> boardRepository.advanceExpiredPhase(board.getId(), FIRST_PAGE_ACTIVITY, "vote"));
+        assertPlans("BoardRepository.lockHideCards", () -> boardRepository.lockHideCards(board.getId()));
+        assertPlans("BoardRepository.updateHideCards", () -> boardRepository.updateHideCards(board.getId(), false));
+        assertPlans("BoardColumnRepository.findByBoardOrderByPositionAsc",
+            () -> columnRepository.findByBoardOrderByPositionAsc(board));
+        assertPlans("BoardColumnRepository.findResponsesByBoardId",
+            () -> columnRepository.findResponsesByBoardId(board.getId()));
+        assertPlans("BoardVoteUsageRepository.findByBoardId", () -> boardVoteUsageRepository.findByBoardId(board.getId()));
+    }
+
+    @Test
+    void testCardRepository() {
+        assertPlans("CardRepository.findByColumnOrderByPositionAsc", () -> cardRepository.findByColumnOrderByPositionAsc(column));
+        assertPlans("CardRepository.findResponsesByColumnId", () -> cardRepository.findResponsesByColumnId(column.getId(), member.getId()));
+        assertPlans("CardRepository.findResponsesByBoardId", () -> cardRepository.findResponsesByBoardId(board.getId()));
+        assertPlans("CardRepository.findHiddenResponsesByBoardIdAndUserId",
+            () -> cardRepository.findHiddenResponsesByBoardIdAndUserId(board.getId(), member.getId()));
+        assertPlans("CardRepository.findIdsByColumnId", () -> cardRepository.findIdsByColumnId(column.getId()));
+        assertPlans("CardRepository.findWithColumnById", () -> cardRepository.findWithColumnById(card.getId()));
+        assertPlans("CardRepository.incrementVotes", () -> cardRepository.incrementVotes(card.getId(), 1));
+        assertPlans("CardRepository.updateDescriptionSnapshot",
+            () -> cardRepository.updateDescriptionSnapshot(card.getId(), "Edited", card.getDescriptionVersion(), LocalDateTime.now()));
+        assertPlans("CardRepository.toggleReaction", () -> cardRepository.toggleReaction(card.getId(), member.getId(), "tada"));
+        assertPlans("CardRepository.revealHiddenCards", () -> cardRepository.revealHiddenCards(board.getId()));
+    }
+
+    @Test
+    void testCardVoteRepository() {
+        List<Long> cardIds = jdbcTemplate.queryForList("SELECT id FROM cards WHERE column_id = ?", Long.class, column.getId());
+
+        assertPlans("CardVoteRepository.findByUserAndCard", () -> cardVoteRepository.findByUserAndCard(voter, card));
+        assertPlans("CardVoteRepository.existsByUserAndCard", () -> cardVoteRepository.existsByUserAndCard(voter, card));
+        assertPlans("CardVoteRepository.deleteByUserAndCard", () -> cardVoteRepository.deleteByUserAndCard(voter, card));
+        assertPlans("CardVoteRepository.findVotedCardIds", () -> cardVoteRepository.findVotedCardIds(voter.getId(), cardIds));
+        assertPlans("CardVoteRepository.findUserIdsByCardId", () -> cardVoteRepository.findUserIdsByCardId(card.getId()));
+        assertPlans("CardVoteRepository.applyVoteBatch", () -> cardVoteRepository.applyVoteBatch(
+            List.of(new VoteChange(card.getId(), member.getId(), true), new VoteChange(card.getId(), voter.getId(), false)),
+            Map.of(card.getId(), 2)));
+        assertPlans("CardVoteRepository.applyVote",
+            () -> cardVoteRepository.applyVote(new VoteChange(card.getId(), member.getId(), false)));
+        assertPlans("CardVoteRepository.mergeVotes", () -> cardVoteRepository.mergeVotes(card.getId(),
+            cardIds.stream().filter(id -> !id.equals(card.getId())).limit(5).toList()));
+    }
+
+    @Test
+    void testBoardEventRepository() {
+        assertPlans("BoardEventRepository.insertBatch", () -> boardEventRepository.insertBatch(List.of(
+            new NewBoardEvent(board.getId(), "card_created", member.getUsername(), "{}", LocalDateTime.now()))));
+        assertPlans("BoardEventRepository.findByTeamId",
+            () -> boardEventRepository.findByTeamId(team.getId(), Long.MAX_VALUE, List.of(), 50));
+        assertPlans("BoardEventRepository.findByTeamId (types)",
+            () -> boardEventRepository.findByTeamId(team.getId(), Long.MAX_VALUE, List.of("card_voted", "card_created"), 50));
+        // Deletes a full retention chunk by design, so it gets a bulk budget
+        assertPlans("BoardEventRepository.deleteExpired", Set.of(), MAX_COST * 20,
+            () -> boardEventRepository.deleteExpired(LocalDateTime.now().minusDays(90), 5000));
+    }
+
+    @Test
+    void testBoardTermRepository() {
+        List<Long> boardIds = jdbcTemplate.queryForList(
+            "SELECT id FROM boards WHERE team_id = ? ORDER BY created_at DESC, id DESC", Long.class, team.getId());
+
+        assertPlans("BoardTermRepository.applyDeltas",
+            () -> boardTermRepository.applyDeltas(board.getId(), Map.of("term 1", 1, "term 2", -1, "new term", 1)));
+        assertPlans("BoardTermRepository.invalidate", () -> boardTermRepository.invalidate(board.getId()));
+        assertPlans("BoardTermRepository.findRecentBoards", () -> boardTermRepository.findRecentBoards(team.getId(), 10));
+        assertPlans("BoardTermRepository.lockBoard", () -> boardTermRepository.lockBoard(board.getId()));
+        assertPlans("BoardTermRepository.findCardTexts", () -> boardTermRepository.findCardTexts(board.getId()));
+        assertPlans("BoardTermRepository.replaceTerms",
+            () -> boardTermRepository.replaceTerms(board.getId(), Map.of("term 1", 3, "term 2", 1)));
+        assertPlans("BoardTermRepository.countTerms",
+            () -> boardTermRepository.countTerms(boardIds, boardIds.subList(0, boardIds.size() / 3)));
+    }
+
+    private void assertPlans(String name, Runnable query) {
+        assertPlans(name, Set.of(), MAX_COST, query);
+    }
+
+    // Runs the query in a transaction that is rolled back and checks the plan of every statement it issued
+    private void assertPlans(String name, Set<String> allowedSeqScans, double maxCost, Runnable query) {
+        List<ExplainedStatement> statements;
+        EXPLAINING.startRecording();
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                query.run();
+                entityManager.flush();
+                status.setRollbackOnly();
+            });
+        } finally {
+            statements = EXPLAINING.stopRecording();
+        }
+
+        assertFalse(statements.isEmpty(), name + " issued no statements");
+        for (ExplainedStatement statement : statements) {
+            JsonNode plan = statement.plan().get("Plan");
+            double cost = plan.get("Total Cost").asDouble();
+            System.out.printf("%-60s cost %9.1f  %8.3f ms  shared hit %6d read %6d%n", name, cost,
+                statement.plan().get("Execution Time").asDouble(),
+                plan.path("Shared Hit Blocks").asLong(), plan.path("Shared Read Blocks").asLong());
+
+            List<String> seqScans = new ArrayList<>();
+            collectSeqScans(plan, seqScans);
+            for (String table : seqScans) {
+                if (largeTables.contains(table) && !allowedSeqScans.contains(table)) {
+                    fail(name + " scans all of " + table + "\n" + statement.sql() + "\n" + statement.plan().toPrettyString());
+                }
+            }
+            assertTrue(cost <= maxCost, name + " costs " + cost + ", budget is " + maxCost + "\n"
+                + statement.sql() + "\n" + statement.plan().toPrettyString());
+        }
+    }
+
+    private void collectSeqScans(JsonNode node, List<String> tables) {
+        if ("Seq Scan".equals(node.path("Node Type").asText())) {
+            tables.add(node.path("Relation Name").asText());
+        }
+        for (JsonNode child : node.path("Plans")) {
+            collectSeqScans(child, tables);
+        }
+    }
+}
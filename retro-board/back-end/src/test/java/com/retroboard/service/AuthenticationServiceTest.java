@@ -4,8 +4,10 @@ import com.retroboard.dto.LoginRequest;
 import com.retroboard.dto.RegisterRequest;
 import com.retroboard.dto.TokenResponse;
 import com.retroboard.entity.User;
+import com.retroboard.exception.ServiceOverloadedException;
 import com.retroboard.repository.UserRepository;
 import com.retroboard.util.JwtUtil;
+import com.retroboard.util.TokenValidationCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -17,6 +19,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -35,12 +38,23 @@ class AuthenticationServiceTest {
     @Mock
     private JwtUtil jwtUtil;
 
+    @Mock
+    private TokenValidationCache tokenValidationCache;
+
+    @Mock
+    private PasswordVerificationService passwordVerificationService;
+
+    @Mock
+    private TokenHashWriter tokenHashWriter;
+
     @InjectMocks
     private AuthenticationService authenticationService;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        // Run verifications inline instead of on the pool
+        when(passwordVerificationService.verify(any())).thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(0)).get());
     }
 
     @Test
@@ -128,6 +142,25 @@ class AuthenticationServiceTest {
         assertEquals("testToken", tokenResponse.getToken());
         assertEquals("testuser", tokenResponse.getUsername());
         assertEquals(1L, tokenResponse.getUserId());
+        verify(tokenHashWriter, times(1)).write(1L, authenticationService.hashToken("testToken"));
+        verify(userRepository, never()).save(any(User.class));
+    }
+
+    @Test
+    void testLogin_VerificationPoolFull() {
+        LoginRequest loginRequest = new LoginRequest();
+        loginRequest.setUsername("testuser");
+        loginRequest.setPassword("password123");
+
+        doThrow(new ServiceOverloadedException("Too many logins, retry after 3 seconds", 3))
+                .when(passwordVerificationService).verify(any());
+
+        ServiceOverloadedException exception = assertThrows(ServiceOverloadedException.class, () -> {
+            authenticationService.login(loginRequest);
+        });
+        assertEquals(3, exception.getRetryAfterSeconds());
+        verify(authenticationManager, never()).authenticate(any());
+        verify(tokenHashWriter, never()).write(any(), any());
     }
 
     @Test
@@ -221,6 +254,7 @@ class AuthenticationServiceTest {
         // Assert
         assertNull(user.getActiveTokenHash());
         verify(userRepository, times(1)).save(user);
+        verify(tokenValidationCache, times(1)).invalidateUser(username);
     }
 
     @Test
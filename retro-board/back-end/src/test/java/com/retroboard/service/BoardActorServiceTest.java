@@ -0,0 +1,468 @@
+package com.retroboard.service;
+
+import com.retroboard.dto.CardResponse;
+import com.retroboard.entity.Board;
+import com.retroboard.entity.BoardColumn;
+import com.retroboard.entity.Card;
+import com.retroboard.entity.User;
+import com.retroboard.exception.VoteBudgetExceededException;
+import com.retroboard.repository.BoardVoteUsageRepository;
+import com.retroboard.repository.BoardVoteUsageRepository.BoardVoteUsage;
+import com.retroboard.repository.CardRepository;
+import com.retroboard.repository.CardVoteRepository;
+import com.retroboard.repository.CardVoteRepositoryCustom.VoteChange;
+import com.retroboard.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class BoardActorServiceTest {
+
+    @Mock
+    private CardRepository cardRepository;
+
+    @Mock
+    private CardVoteRepository cardVoteRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private BoardService boardService;
+
+    @Mock
+    private WebSocketService webSocketService;
+
+    @Mock
+    private MetricsService metricsService;
+
+    @Mock
+    private RateLimitService rateLimitService;
+
+    @Mock
+    private VoteBudgetService voteBudgetService;
+
+    private final List<BoardActorService> services = new ArrayList<>();
+    private BoardActorService boardActorService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Board board = new Board();
+        board.setId(7L);
+
+        BoardColumn column = new BoardColumn();
+        column.setId(3L);
+        column.setName("Went well");
+        column.setBoard(board);
+
+        Card card = new Card();
+        card.setId(1L);
+        card.setColumn(column);
+        card.setDescription("Ship it");
+        card.setPosition(0);
+        // Stale count: the actor derives counts from card_votes
+        card.setVotes(5);
+
+        Card other = new Card();
+        other.setId(2L);
+        other.setColumn(column);
+        other.setDescription("Fewer meetings");
+        other.setPosition(1);
+        other.setVotes(0);
+
+        User alice = new User();
+        alice.setId(10L);
+        alice.setUsername("alice");
+
+        lenient().when(cardRepository.findWithColumnById(1L)).thenReturn(Optional.of(card));
+        lenient().when(userRepository.findByUsername("alice")).thenReturn(Optional.of(alice));
+        lenient().when(cardVoteRepository.findUserIdsByCardId(1L)).thenReturn(Set.of(20L));
+        lenient().when(cardRepository.findWithColumnById(2L)).thenReturn(Optional.of(other));
+        lenient().when(cardVoteRepository.findUserIdsByCardId(2L)).thenReturn(Set.of());
+        // No vote budget on the board
+        lenient().when(voteBudgetService.getRemainingVotes(7L, 10L)).thenReturn(null);
+
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken("alice", null, Collections.emptyList()));
+
+        boardActorService = createService(60000L);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        SecurityContextHolder.clearContext();
+        for (BoardActorService service : services) {
+            ((ExecutorService) getField(service, "executor")).shutdownNow();
+        }
+    }
+
+    @Test
+    void testVote_AppliedAndBroadcastBeforePersisted() {
+        CardResponse response = boardActorService.voteCard(1L);
+
+        assertEquals(2, response.getVotes());
+        assertTrue(response.getVotedByCurrentUser());
+        assertEquals("Ship it", response.getDescription());
+        verify(webSocketService, times(1)).broadcastBoardUpdate("card_voted", 7L, response);
+        verify(cardVoteRepository, never()).applyVoteBatch(anyList(), anyMap());
+        assertEquals(1, boardActorService.getPendingVoteCount());
+    }
+
+    @Test
+    void testVote_ChecksAccessOncePerUser() {
+        boardActorService.voteCard(1L);
+        boardActorService.voteCard(1L);
+        CardResponse response = boardActorService.voteCard(1L);
+
+        assertEquals(2, response.getVotes());
+        verify(boardService, times(1)).getBoardById(7L);
+        verify(cardRepository, times(1)).findWithColumnById(1L);
+        verify(rateLimitService, times(3)).checkCardMutation(7L, "card_vote");
+    }
+
+    @Test
+    void testVote_AccessCheckedAgainAfterTeamChange() {
+        boardActorService.voteCard(1L);
+
+        // Alice was removed from the team
+        boardActorService.teamAccessChangedAfterCommit();
+        when(boardService.getBoardById(7L)).thenThrow(new RuntimeException("Access denied"));
+
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> boardActorService.voteCard(1L));
+        assertEquals("Access denied", exception.getMessage());
+        assertEquals(1, boardActorService.getPendingVoteCount());
+    }
+
+    @Test
+    void testVote_BudgetUsedUpLeavesStateUnchanged() {
+        boardActorService.voteCard(1L);
+        boardActorService.voteCard(1L);
+        doThrow(new VoteBudgetExceededException(1)).when(voteBudgetService).reserveVote(7L, 10L);
+
+        assertThrows(VoteBudgetExceededException.class, () -> boardActorService.voteCard(1L));
+
+        verify(voteBudgetService, times(1)).releaseVote(7L, 10L);
+        verify(webSocketService, times(2)).broadcastBoardUpdate(eq("card_voted"), eq(7L), any());
+        assertEquals(1, boardActorService.getPendingVoteCount());
+    }
+
+    @Test
+    void testVote_RemainingVotesOnlyInReply() {
+        when(voteBudgetService.getRemainingVotes(7L, 10L)).thenReturn(2);
+
+        CardResponse response = boardActorService.voteCard(1L);
+
+        assertEquals(2, response.getRemainingVotes());
+        verify(webSocketService).broadcastBoardUpdate(eq("card_voted"), eq(7L), argThat(broadcast ->
+            ((CardResponse) broadcast).getRemainingVotes() == null));
+    }
+
+    @Test
+    void testVote_AccessDenied() {
+        when(boardService.getBoardById(7L)).thenThrow(new RuntimeException("Access denied"));
+
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> boardActorService.voteCard(1L));
+
+        assertEquals("Access denied", exception.getMessage());
+        assertEquals(0, boardActorService.getPendingVoteCount());
+        verify(webSocketService, never()).broadcastBoardUpdate(any(), any(), any());
+    }
+
+    @Test
+    void testFlush_WritesFinalStateOnceInOneBatch() {
+        boardActorService.voteCard(1L);
+        boardActorService.voteCard(1L);
+        boardActorService.voteCard(1L);
+        when(cardVoteRepository.applyVoteBatch(anyList(), anyMap())).thenReturn(Set.of());
+
+        boardActorService.flushPendingVotes();
+
+        verify(cardVoteRepository, times(1)).applyVoteBatch(List.of(new VoteChange(1L, 10L, true)), Map.of(1L, 2));
+        assertEquals(0, boardActorService.getPendingVoteCount());
+    }
+
+    @Test
+    void testFlush_FailureKeepsVotesAndNewerChangeWins() {
+        boardActorService.voteCard(1L);
+        when(cardVoteRepository.applyVoteBatch(anyList(), anyMap()))
+            .thenThrow(new RuntimeException("Connection refused"))
+            .thenReturn(Set.of());
+        when(cardVoteRepository.applyVote(any())).thenThrow(new RuntimeException("Connection refused"));
+
+        boardActorService.flushPendingVotes();
+        waitFor(() -> boardActorService.getPendingVoteCount() == 1);
+
+        // Alice takes the vote back before the retry
+        CardResponse response = boardActorService.voteCard(1L);
+        boardActorService.flushPendingVotes();
+
+        assertEquals(1, response.getVotes());
+        verify(cardVoteRepository).applyVoteBatch(List.of(new VoteChange(1L, 10L, false)), Map.of(1L, 1));
+        assertEquals(0, boardActorService.getPendingVoteCount());
+    }
+
+    @Test
+    void testFlush_RefusedVoteDroppedAndRestOfBatchPersisted() {
+        boardActorService.voteCard(1L);
+        boardActorService.voteCard(2L);
+        when(cardVoteRepository.applyVoteBatch(anyList(), anyMap()))
+            .thenThrow(new DataIntegrityViolationException("Vote budget of 1 used up on board 7"));
+        when(cardVoteRepository.applyVote(new VoteChange(1L, 10L, true))).thenReturn(true);
+        when(cardVoteRepository.applyVote(new VoteChange(2L, 10L, true)))
+            .thenThrow(new DataIntegrityViolationException("Vote budget of 1 used up on board 7"));
+
+        boardActorService.flushPendingVotes();
+
+        verify(metricsService, timeout(2000)).recordVoteDropped("rejected");
+        verify(voteBudgetService, timeout(2000)).releaseVote(7L, 10L);
+        // Clients get the card's count without the refused vote
+        verify(webSocketService, timeout(2000)).broadcastBoardUpdate(eq("card_voted"), eq(7L), argThat(card ->
+            ((CardResponse) card).getId().equals(2L) && ((CardResponse) card).getVotes() == 0));
+        assertEquals(0, boardActorService.getPendingVoteCount());
+
+        // Nothing is left to retry
+        boardActorService.flushPendingVotes();
+        verify(cardVoteRepository, times(1)).applyVoteBatch(anyList(), anyMap());
+        verify(cardVoteRepository, times(2)).applyVote(any());
+    }
+
+    @Test
+    void testFlush_VoteDroppedAfterMaxAttempts() throws Exception {
+        setField(boardActorService, "maxFlushAttempts", 2);
+        boardActorService.voteCard(1L);
+        when(cardVoteRepository.applyVoteBatch(anyList(), anyMap())).thenThrow(new RuntimeException("Connection refused"));
+        when(cardVoteRepository.applyVote(any())).thenThrow(new RuntimeException("Connection refused"));
+
+        boardActorService.flushPendingVotes();
+        waitFor(() -> boardActorService.getPendingVoteCount() == 1);
+        boardActorService.flushPendingVotes();
+
+        verify(metricsService, timeout(2000)).recordVoteDropped("retries_exhausted");
+        verify(voteBudgetService, timeout(2000)).releaseVote(7L, 10L);
+        assertEquals(0, boardActorService.getPendingVoteCount());
+        // The vote was taken back, so voting again adds it
+        assertEquals(2, boardActorService.voteCard(1L).getVotes());
+    }
+
+    @Test
+    void testCrashRecovery_UnflushedVotesLostAndStateRebuiltFromCardVotes() throws Exception {
+        boardActorService.voteCard(1L);
+
+        // A crash before the flush: a new process starts from what card_votes holds
+        BoardActorService restarted = createService(60000L);
+        CardResponse response = restarted.voteCard(1L);
+
+        assertEquals(2, response.getVotes());
+        assertTrue(response.getVotedByCurrentUser());
+        verify(cardVoteRepository, never()).applyVoteBatch(anyList(), anyMap());
+    }
+
+    @Test
+    void testShutdown_FlushesPendingVotes() {
+        boardActorService.voteCard(1L);
+        when(cardVoteRepository.applyVoteBatch(anyList(), anyMap())).thenReturn(Set.of());
+
+        boardActorService.shutdown();
+
+        verify(cardVoteRepository, times(1)).applyVoteBatch(List.of(new VoteChange(1L, 10L, true)), Map.of(1L, 2));
+    }
+
+    @Test
+    void testFlush_EvictsIdleBoardOnlyOncePersisted() throws Exception {
+        BoardActorService service = createService(0L);
+        service.voteCard(1L);
+        when(cardVoteRepository.applyVoteBatch(anyList(), anyMap()))
+            .thenThrow(new RuntimeException("Connection refused"))
+            .thenReturn(Set.of());
+        when(cardVoteRepository.applyVote(any())).thenThrow(new RuntimeException("Connection refused"));
+
+        service.flushPendingVotes();
+        waitFor(() -> service.getPendingVoteCount() == 1);
+        assertEquals(1, service.getActorCount());
+
+        service.flushPendingVotes();
+        waitFor(() -> service.getActorCount() == 0);
+
+        // The next vote starts a new actor from the database
+        service.voteCard(1L);
+        verify(cardVoteRepository, times(2)).findUserIdsByCardId(1L);
+    }
+
+    @Test
+    void testCardDeleted_DropsPendingVotes() {
+        boardActorService.voteCard(1L);
+
+        boardActorService.cardDeletedAfterCommit(7L, 1L);
+        boardActorService.flushPendingVotes();
+
+        verify(cardVoteRepository, never()).applyVoteBatch(anyList(), anyMap());
+        assertEquals(0, boardActorService.getPendingVoteCount());
+    }
+
+    @Test
+    void testCardDeleted_GivesVotesBackToBudget() throws Exception {
+        // A real budget, so the counts the actor releases can be seen
+        BoardVoteUsageRepository usageRepository = mock(BoardVoteUsageRepository.class);
+        when(usageRepository.findByBoardId(7L)).thenReturn(new BoardVoteUsage(3, Map.of(10L, 1)));
+        VoteBudgetService budget = new VoteBudgetService();
+        Field live = VoteBudgetService.class.getDeclaredField("liveBoardMode");
+        live.setAccessible(true);
+        live.set(budget, true);
+        Field repository = VoteBudgetService.class.getDeclaredField("boardVoteUsageRepository");
+        repository.setAccessible(true);
+        repository.set(budget, usageRepository);
+        setField(boardActorService, "voteBudgetService", budget);
+
+        assertEquals(1, boardActorService.voteCard(1L).getRemainingVotes());
+
+        boardActorService.cardDeletedAfterCommit(7L, 1L);
+
+        waitFor(() -> budget.getRemainingVotes(7L, 10L) == 2);
+    }
+
+    @Test
+    void testFlush_DropsCardsDeletedMeanwhile() {
+        boardActorService.voteCard(1L);
+        when(cardVoteRepository.applyVoteBatch(anyList(), anyMap())).thenReturn(Set.of(1L));
+
+        boardActorService.flushPendingVotes();
+        boardActorService.voteCard(1L);
+
+        // The card was forgotten, so the vote looked it up again
+        verify(cardRepository, times(2)).findWithColumnById(1L);
+    }
+
+    @Test
+    void testHoldVotes_PersistsBoardFirstAndRefusesVotesUntilDone() {
+        boardActorService.voteCard(1L);
+        when(cardVoteRepository.applyVoteBatch(anyList(), anyMap())).thenReturn(Set.of());
+
+        String result = boardActorService.holdVotes(1L, () -> {
+            verify(cardVoteRepository, times(1)).applyVoteBatch(anyList(), anyMap());
+            RuntimeException exception = assertThrows(RuntimeException.class, () -> boardActorService.voteCard(2L));
+            assertEquals("Cards on this board are being merged, try again shortly", exception.getMessage());
+            boardActorService.cardsMergedAfterCommit(7L, Set.of(1L, 2L));
+            return "merged";
+        });
+
+        assertEquals("merged", result);
+        assertEquals(0, boardActorService.getPendingVoteCount());
+        // Voting resumes once the merge is done, and merged cards are loaded again
+        assertEquals(1, boardActorService.voteCard(2L).getVotes());
+        verify(voteBudgetService, times(1)).reload(7L);
+        verify(cardRepository, times(2)).findWithColumnById(2L);
+    }
+
+    @Test
+    void testHoldVotes_UnsavedVotesRefuseTheWrite() {
+        boardActorService.voteCard(1L);
+        when(cardVoteRepository.applyVoteBatch(anyList(), anyMap())).thenThrow(new RuntimeException("Connection refused"));
+        when(cardVoteRepository.applyVote(any())).thenThrow(new RuntimeException("Connection refused"));
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+            () -> boardActorService.holdVotes(1L, () -> fail("The merge would miss the unsaved vote")));
+
+        assertEquals("Votes on this board could not be saved, try again shortly", exception.getMessage());
+        assertEquals(1, boardActorService.getPendingVoteCount());
+        // The board is not left held
+        boardActorService.voteCard(2L);
+    }
+
+    @Test
+    void testOverlayVotes_UsesLiveCount() {
+        boardActorService.voteCard(1L);
+        CardResponse stale = new CardResponse(1L, "Ship it, now", 0, null, null, 1, 2L, 3L, "Went well");
+
+        boardActorService.overlayVotes(7L, stale);
+
+        assertEquals(2, stale.getVotes());
+    }
+
+    @Test
+    void testOverlayVotes_WholeListInOneAsk() {
+        boardActorService.voteCard(1L);
+        CardResponse voted = new CardResponse(1L, "Ship it", 0, null, null, 1, 2L, 3L, "Went well");
+        CardResponse notHeld = new CardResponse(4L, "Pair more", 1, null, null, 3, 2L, 3L, "Went well");
+
+        boardActorService.overlayVotes(7L, List.of(voted, notHeld));
+
+        assertEquals(2, voted.getVotes());
+        // Cards the actor does not hold keep the database count
+        assertEquals(3, notHeld.getVotes());
+    }
+
+    @Test
+    void testOverlayVotes_NoActor() {
+        CardResponse response = new CardResponse(1L, "Ship it", 0, null, null, 1, 2L, 3L, "Went well");
+
+        boardActorService.overlayVotes(7L, response);
+
+        assertEquals(1, response.getVotes());
+        verify(cardRepository, never()).findWithColumnById(1L);
+    }
+
+    private BoardActorService createService(long idleEvictionMs) throws Exception {
+        BoardActorService service = new BoardActorService();
+        setField(service, "enabled", true);
+        setField(service, "threads", 2);
+        setField(service, "idleEvictionMs", idleEvictionMs);
+        setField(service, "maxPendingVotes", 100);
+        setField(service, "askTimeoutMs", 5000L);
+        setField(service, "maxFlushAttempts", 20);
+        setField(service, "cardRepository", cardRepository);
+        setField(service, "cardVoteRepository", cardVoteRepository);
+        setField(service, "userRepository", userRepository);
+        setField(service, "boardService", boardService);
+        setField(service, "webSocketService", webSocketService);
+        setField(service, "metricsService", metricsService);
+        setField(service, "rateLimitService", rateLimitService);
+        setField(service, "voteBudgetService", voteBudgetService);
+        service.init();
+        services.add(service);
+        return service;
+    }
+
+    private void waitFor(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 2000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Condition not met in time");
+            Thread.onSpinWait();
+        }
+    }
+
+    private void setField(BoardActorService service, String name, Object value) throws Exception {
+        Field field = BoardActorService.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(service, value);
+    }
+
+    private Object getField(BoardActorService service, String name) throws Exception {
+        Field field = BoardActorService.class.getDeclaredField(name);
+        field.setAccessible(true);
+        return field.get(service);
+    }
+}
@@ -4,8 +4,11 @@ import com.retroboard.entity.BoardColumn;
 import com.retroboard.entity.Board;
 import com.retroboard.repository.BoardColumnRepository;
 import com.retroboard.repository.BoardRepository;
+import com.retroboard.repository.CardRepository;
+import com.retroboard.dto.ColumnResponse;
 import com.retroboard.dto.CreateColumnRequest;
 import com.retroboard.dto.UpdateColumnRequest;
+import com.retroboard.exception.VersionConflictException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -14,6 +17,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -27,12 +31,24 @@ public class BoardColumnServiceTest {
     @Mock
     private BoardRepository boardRepository;
     
+    @Mock
+    private CardRepository cardRepository;
+    
     @Mock
     private BoardService boardService;
     
     @Mock
     private WebSocketService webSocketService;
     
+    @Mock
+    private BoardActorService boardActorService;
+
+    @Mock
+    private VoteBudgetService voteBudgetService;
+    
+    @Mock
+    private TeamThemeService teamThemeService;
+    
     @InjectMocks
     private BoardColumnService boardColumnService;
     
@@ -52,6 +68,7 @@ public class BoardColumnServiceTest {
         column.setName("Test Column");
         column.setBoard(board);
         column.setPosition(0);
+        column.setVersion(3L);
         
         createColumnRequest = new CreateColumnRequest();
         createColumnRequest.setName("Test Column");
@@ -97,9 +114,22 @@ public class BoardColumnServiceTest {
         boardColumnService.deleteColumn(1L);
         
         verify(columnRepository, times(1)).delete(column);
+        verify(teamThemeService, times(1)).boardCardsChanged(board.getId());
         verify(webSocketService, times(1)).broadcastBoardUpdate("column_deleted", board.getId(), column.getId());
     }
     
+    @Test
+    void testDeleteColumn_LiveModeDropsTheColumnsCards() {
+        when(columnRepository.findById(1L)).thenReturn(Optional.of(column));
+        when(boardService.getBoardById(1L)).thenReturn(board);
+        when(boardActorService.isEnabled()).thenReturn(true);
+        when(cardRepository.findIdsByColumnId(1L)).thenReturn(List.of(5L, 6L));
+        
+        boardColumnService.deleteColumn(1L);
+        
+        verify(boardActorService, times(1)).cardsDeletedAfterCommit(board.getId(), Set.of(5L, 6L));
+    }
+    
     @Test
     void testDeleteColumn_ColumnNotFound() {
         when(columnRepository.findById(1L)).thenReturn(Optional.empty());
@@ -114,30 +144,61 @@ public class BoardColumnServiceTest {
     @Test
     void testGetAllColumns() {
         when(boardService.getBoardById(1L)).thenReturn(board);
-        when(boardRepository.findById(1L)).thenReturn(Optional.of(board));
-        when(columnRepository.findByBoardOrderByPositionAsc(board)).thenReturn(List.of(column));
+        ColumnResponse columnResponse = new ColumnResponse(1L, "Test Column", 0, null, null, 0L, 1L, "Test Board");
+        when(columnRepository.findResponsesByBoardId(1L)).thenReturn(List.of(columnResponse));
         
-        List<BoardColumn> columns = boardColumnService.getAllColumns(1L);
+        List<ColumnResponse> columns = boardColumnService.getAllColumns(1L);
         
         assertNotNull(columns);
         assertEquals(1, columns.size());
-        assertEquals(column, columns.get(0));
+        assertEquals(columnResponse, columns.get(0));
+        assertEquals("Test Board", columns.get(0).getBoard().getName());
     }
     
     @Test
     void testUpdateColumn() {
         when(columnRepository.findById(1L)).thenReturn(Optional.of(column));
         when(boardService.getBoardById(1L)).thenReturn(board);
-        when(columnRepository.save(any(BoardColumn.class))).thenReturn(column);
+        when(columnRepository.saveAndFlush(any(BoardColumn.class))).thenReturn(column);
         
         BoardColumn updatedColumn = boardColumnService.updateColumn(1L, updateColumnRequest);
         
         assertNotNull(updatedColumn);
         assertEquals("Updated Column", updatedColumn.getName());
-        verify(columnRepository, times(1)).save(any(BoardColumn.class));
+        verify(columnRepository, times(1)).saveAndFlush(any(BoardColumn.class));
         verify(webSocketService, times(1)).broadcastBoardUpdate(eq("column_updated"), eq(board.getId()), any());
     }
     
+    @Test
+    void testUpdateColumn_MatchingVersion() {
+        updateColumnRequest.setExpectedVersion(3L);
+        when(columnRepository.findById(1L)).thenReturn(Optional.of(column));
+        when(boardService.getBoardById(1L)).thenReturn(board);
+        when(columnRepository.saveAndFlush(any(BoardColumn.class))).thenReturn(column);
+        
+        BoardColumn updatedColumn = boardColumnService.updateColumn(1L, updateColumnRequest);
+        
+        assertEquals("Updated Column", updatedColumn.getName());
+    }
+    
+    @Test
+    void testUpdateColumn_StaleVersion() {
+        updateColumnRequest.setExpectedVersion(2L);
+        when(columnRepository.findById(1L)).thenReturn(Optional.of(column));
+        when(boardService.getBoardById(1L)).thenReturn(board);
+        
+        VersionConflictException exception = assertThrows(VersionConflictException.class, () -> {
+            boardColumnService.updateColumn(1L, updateColumnRequest);
+        });
+        
+        // The current state is returned untouched
+        ColumnResponse current = (ColumnResponse) exception.getCurrent();
+        assertEquals("Test Column", current.getName());
+        assertEquals(3L, current.getVersion());
+        verify(columnRepository, never()).saveAndFlush(any(BoardColumn.class));
+        verify(webSocketService, never()).broadcastBoardUpdate(any(), any(), any());
+    }
+    
     @Test
     void testUpdateColumn_ColumnNotFound() {
         when(columnRepository.findById(1L)).thenReturn(Optional.empty());
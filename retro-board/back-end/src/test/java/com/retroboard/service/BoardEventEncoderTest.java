@@ -0,0 +1,85 @@
+package com.retroboard.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.retroboard.dto.BoardEventV2;
+import com.retroboard.dto.BoardPhaseResponse;
+import com.retroboard.dto.CardPayload;
+import com.retroboard.dto.CardResponse;
+import com.retroboard.dto.CardTextOperation;
+import com.retroboard.dto.CardVotesPayload;
+import com.retroboard.dto.ColumnPayload;
+import com.retroboard.dto.ColumnResponse;
+import com.retroboard.dto.DeletedPayload;
+import com.retroboard.dto.PhasePayload;
+import org.junit.jupiter.api.Test;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoardEventEncoderTest {
+    
+    private final BoardEventEncoder encoder = new BoardEventEncoder();
+    
+    private final CardResponse card = new CardResponse(5L, "Retro notes", 2, null, null, 3, 7L, 9L, "Went well");
+    
+    @Test
+    void testToPayload_CardVoted() {
+        assertEquals(new CardVotesPayload(5L, 3), encoder.toPayload("card_voted", card));
+    }
+    
+    @Test
+    void testToPayload_CardUpdated() {
+        assertEquals(new CardPayload(5L, 9L, 2, "Retro notes", 3, 7L), encoder.toPayload("card_updated", card));
+    }
+    
+    @Test
+    void testToPayload_CardsRevealedBatch() {
+        CardResponse other = new CardResponse(6L, "Action item", 0, null, null, 0, 1L, 9L, "Went well");
+        
+        assertEquals(List.of(new CardPayload(5L, 9L, 2, "Retro notes", 3, 7L), new CardPayload(6L, 9L, 0, "Action item", 0, 1L)),
+            encoder.toPayload("cards_revealed", List.of(card, other)));
+    }
+    
+    @Test
+    void testToPayload_Column() {
+        ColumnResponse column = new ColumnResponse(9L, "Went well", 0, null, null, 1L, 4L, "Sprint 12");
+        
+        assertEquals(new ColumnPayload(9L, "Went well", 0, 1L), encoder.toPayload("column_updated", column));
+    }
+    
+    @Test
+    void testToPayload_Deleted() {
+        assertEquals(new DeletedPayload(5L), encoder.toPayload("card_deleted", 5L));
+    }
+    
+    @Test
+    void testToPayload_PhaseChanged() {
+        BoardPhaseResponse phase = new BoardPhaseResponse(1L, "vote", LocalDateTime.now(), 30000L);
+        
+        assertEquals(new PhasePayload("vote", 30000L), encoder.toPayload("phase_changed", phase));
+    }
+    
+    @Test
+    void testToPayload_PassesThroughCompactData() {
+        CardTextOperation op = new CardTextOperation(5L, 1L, 2L, List.of(3, "x"), "c1");
+        
+        assertSame(op, encoder.toPayload("card_text_op", op));
+    }
+    
+    @Test
+    void testEncode_AllEncodingsRoundTrip() throws Exception {
+        BoardEventV2 event = new BoardEventV2(BoardEventV2.VERSION, "card_voted", 4L, 1000L, new CardVotesPayload(5L, 3));
+        
+        JsonNode json = new ObjectMapper().readTree(encoder.encode(event, BoardEventEncoder.Encoding.JSON));
+        JsonNode cbor = new CBORMapper().readTree(encoder.encode(event, BoardEventEncoder.Encoding.CBOR));
+        JsonNode smile = new SmileMapper().readTree(encoder.encode(event, BoardEventEncoder.Encoding.SMILE));
+        
+        assertEquals(json, cbor);
+        assertEquals(json, smile);
+        assertEquals(3, json.get("data").get("votes").asInt());
+    }
+}
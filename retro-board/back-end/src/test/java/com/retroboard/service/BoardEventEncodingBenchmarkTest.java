@@ -0,0 +1,85 @@
+package com.retroboard.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.retroboard.dto.BoardEventV2;
+import com.retroboard.dto.BoardUpdateEvent;
+import com.retroboard.dto.CardResponse;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Bytes on the wire and serialization cost per event for a 500-card board under vote load.
+// Run with ./gradlew benchmark; excluded from ./gradlew test.
+@Tag("benchmark")
+public class BoardEventEncodingBenchmarkTest {
+    
+    private static final int CARDS = 500;
+    private static final int VOTES = 200_000;
+    private static final int WARMUP = 50_000;
+    
+    // Same setup as the broker's message converter
+    private final ObjectMapper legacyMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final BoardEventEncoder encoder = new BoardEventEncoder();
+    
+    @Test
+    void benchmarkVoteEvents() throws Exception {
+        List<CardResponse> cards = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < CARDS; i++) {
+            cards.add(new CardResponse((long) i + 1, "Card " + i + ": we should talk about the deployment pipeline more often",
+                i % 50, now, now, 0, 1L, (long) (i % 4) + 1, "Column " + (i % 4)));
+        }
+        
+        Random random = new Random(42);
+        List<BoardUpdateEvent> events = new ArrayList<>();
+        for (int i = 0; i < VOTES; i++) {
+            CardResponse card = cards.get(random.nextInt(CARDS));
+            card.setVotes(card.getVotes() + 1);
+            events.add(new BoardUpdateEvent("card_voted", 1L, copy(card), System.currentTimeMillis()));
+        }
+        
+        long legacyBytes = run("legacy json", events, event -> legacyMapper.writeValueAsBytes(event));
+        long jsonBytes = run("v2 json", events, event -> encoder.encode(compact(event), BoardEventEncoder.Encoding.JSON));
+        long cborBytes = run("v2 cbor", events, event -> encoder.encode(compact(event), BoardEventEncoder.Encoding.CBOR));
+        long smileBytes = run("v2 smile", events, event -> encoder.encode(compact(event), BoardEventEncoder.Encoding.SMILE));
+        
+        assertTrue(jsonBytes < legacyBytes);
+        assertTrue(cborBytes < jsonBytes);
+        assertTrue(smileBytes < jsonBytes);
+    }
+    
+    private BoardEventV2 compact(BoardUpdateEvent event) {
+        return new BoardEventV2(BoardEventV2.VERSION, event.getType(), event.getBoardId(), event.getTimestamp(),
+            encoder.toPayload(event.getType(), event.getData()));
+    }
+    
+    private long run(String name, List<BoardUpdateEvent> events, Serializer serializer) throws Exception {
+        for (int i = 0; i < WARMUP; i++) {
+            serializer.serialize(events.get(i % events.size()));
+        }
+        long bytes = 0;
+        long start = System.nanoTime();
+        for (BoardUpdateEvent event : events) {
+            bytes += serializer.serialize(event).length;
+        }
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("%-12s %6.1f bytes/event %8.0f ns/event%n",
+            name, (double) bytes / events.size(), (double) elapsed / events.size());
+        return bytes;
+    }
+    
+    private CardResponse copy(CardResponse card) {
+        return new CardResponse(card.getId(), card.getDescription(), card.getPosition(), card.getCreatedAt(),
+            card.getUpdatedAt(), card.getVotes(), card.getVersion(), card.getColumn().getId(), card.getColumn().getName());
+    }
+    
+    private interface Serializer {
+        byte[] serialize(BoardUpdateEvent event) throws Exception;
+    }
+}
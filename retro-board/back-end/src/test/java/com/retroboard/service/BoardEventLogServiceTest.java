@@ -0,0 +1,188 @@
+package com.retroboard.service;
+
+import com.retroboard.dto.BoardEventPage;
+import com.retroboard.dto.BoardEventResponse;
+import com.retroboard.dto.BoardUpdateEvent;
+import com.retroboard.dto.CardResponse;
+import com.retroboard.entity.User;
+import com.retroboard.repository.BoardEventRepository;
+import com.retroboard.repository.BoardEventRepository.NewBoardEvent;
+import com.retroboard.repository.TeamRepository;
+import com.retroboard.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class BoardEventLogServiceTest {
+    
+    @Mock
+    private BoardEventRepository boardEventRepository;
+    
+    @Spy
+    private BoardEventEncoder boardEventEncoder = new BoardEventEncoder();
+    
+    @Mock
+    private TeamRepository teamRepository;
+    
+    @Mock
+    private UserRepository userRepository;
+    
+    @Mock
+    private MetricsService metricsService;
+    
+    @InjectMocks
+    private BoardEventLogService boardEventLogService;
+    
+    private User user;
+    
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(boardEventLogService, "enabled", true);
+        ReflectionTestUtils.setField(boardEventLogService, "maxQueued", 3);
+        ReflectionTestUtils.setField(boardEventLogService, "batchSize", 2);
+        ReflectionTestUtils.setField(boardEventLogService, "retentionDays", 90);
+        ReflectionTestUtils.setField(boardEventLogService, "retentionChunkSize", 100);
+        
+        user = new User();
+        user.setId(1L);
+        user.setUsername("alice");
+        
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken("alice", null, Collections.emptyList()));
+    }
+    
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+    
+    private BoardUpdateEvent event(String type, Object data) {
+        return new BoardUpdateEvent(type, 7L, data, 1700000000000L);
+    }
+    
+    @Test
+    void testRecord_OnlyQueuesUntilFlush() {
+        boardEventLogService.record(event("card_deleted", 5L));
+        
+        assertEquals(1, boardEventLogService.getQueuedCount());
+        verifyNoInteractions(boardEventRepository);
+    }
+    
+    @Test
+    void testFlush_WritesCompactPayloadsInBatches() {
+        CardResponse card = new CardResponse(5L, "Ship it", 0, null, null, 3, 2L, 3L, "Went well");
+        boardEventLogService.record(event("card_voted", card));
+        boardEventLogService.record(event("card_deleted", 5L));
+        boardEventLogService.record(event("column_deleted", 3L));
+        
+        boardEventLogService.flushEvents();
+        
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<NewBoardEvent>> batches = ArgumentCaptor.forClass(List.class);
+        verify(boardEventRepository, times(2)).insertBatch(batches.capture());
+        assertEquals(2, batches.getAllValues().get(0).size());
+        assertEquals(1, batches.getAllValues().get(1).size());
+        
+        NewBoardEvent voted = batches.getAllValues().get(0).get(0);
+        assertEquals(7L, voted.boardId());
+        assertEquals("card_voted", voted.type());
+        assertEquals("alice", voted.actor());
+        assertEquals("{\"id\":5,\"votes\":3}", voted.payload());
+        assertEquals(0, boardEventLogService.getQueuedCount());
+    }
+    
+    @Test
+    void testRecord_SkipsTextOps() {
+        boardEventLogService.record(event("card_text_op", Collections.emptyMap()));
+        
+        assertEquals(0, boardEventLogService.getQueuedCount());
+    }
+    
+    @Test
+    void testRecord_DropsWhenQueueFull() {
+        for (int i = 0; i < 5; i++) {
+            boardEventLogService.record(event("card_deleted", (long) i));
+        }
+        
+        assertEquals(3, boardEventLogService.getQueuedCount());
+        verify(metricsService, times(2)).recordBoardEventsDropped("queue_full", 1);
+    }
+    
+    @Test
+    void testFlush_WriteFailureDropsBatch() {
+        boardEventLogService.record(event("card_deleted", 5L));
+        doThrow(new RuntimeException("Connection refused")).when(boardEventRepository).insertBatch(anyList());
+        
+        boardEventLogService.flushEvents();
+        
+        verify(metricsService).recordBoardEventsDropped("write_failed", 1);
+        assertEquals(0, boardEventLogService.getQueuedCount());
+    }
+    
+    @Test
+    void testTrimExpiredEvents_DeletesInChunks() {
+        when(boardEventRepository.deleteExpired(any(LocalDateTime.class), eq(100))).thenReturn(100, 100, 40);
+        
+        boardEventLogService.trimExpiredEvents();
+        
+        verify(boardEventRepository, times(3)).deleteExpired(any(LocalDateTime.class), eq(100));
+    }
+    
+    @Test
+    void testGetTeamActivity_PagesWithCursor() {
+        when(userRepository.findByUsername("alice")).thenReturn(Optional.of(user));
+        when(teamRepository.existsByTeamIdAndOwnerOrMember(1L, user)).thenReturn(true);
+        BoardEventResponse newest = new BoardEventResponse(12L, 7L, "Retro", "card_created", "alice", "{}", LocalDateTime.now());
+        BoardEventResponse older = new BoardEventResponse(9L, 7L, "Retro", "card_created", "bob", "{}", LocalDateTime.now());
+        when(boardEventRepository.findByTeamId(1L, 20L, List.of("card_created"), 2)).thenReturn(List.of(newest, older));
+        
+        BoardEventPage page = boardEventLogService.getTeamActivity(1L, "20", 1, List.of("card_created"));
+        
+        assertEquals(List.of(newest), page.getEvents());
+        assertEquals("12", page.getNextCursor());
+    }
+    
+    @Test
+    void testGetTeamActivity_UnknownType() {
+        when(userRepository.findByUsername("alice")).thenReturn(Optional.of(user));
+        when(teamRepository.existsByTeamIdAndOwnerOrMember(1L, user)).thenReturn(true);
+        
+        RuntimeException exception = assertThrows(RuntimeException.class,
+            () -> boardEventLogService.getTeamActivity(1L, null, 50, List.of("card_text_op")));
+        
+        assertEquals("Unknown event type: card_text_op", exception.getMessage());
+        verify(boardEventRepository, never()).findByTeamId(any(), anyLong(), anyList(), anyInt());
+    }
+    
+    @Test
+    void testGetTeamActivity_AccessDenied() {
+        when(userRepository.findByUsername("alice")).thenReturn(Optional.of(user));
+        when(teamRepository.existsByTeamIdAndOwnerOrMember(1L, user)).thenReturn(false);
+        
+        RuntimeException exception = assertThrows(RuntimeException.class,
+            () -> boardEventLogService.getTeamActivity(1L, null, 50, null));
+        
+        assertTrue(exception.getMessage().startsWith("Access denied"));
+    }
+}
@@ -8,6 +8,8 @@ import com.retroboard.repository.BoardColumnRepository;
 import com.retroboard.repository.BoardRepository;
 import com.retroboard.repository.TeamRepository;
 import com.retroboard.repository.UserRepository;
+import com.retroboard.dto.BoardResponse;
+import com.retroboard.dto.BoardSummaryPage;
 import com.retroboard.dto.CreateBoardRequest;
 import com.retroboard.dto.UpdateBoardRequest;
 import org.junit.jupiter.api.BeforeEach;
@@ -41,6 +43,9 @@ public class BoardServiceTest {
     
     @Mock
     private UserRepository userRepository;
+
+    @Mock
+    private VoteBudgetService voteBudgetService;
     
     @Mock
     private Authentication authentication;
@@ -160,14 +165,42 @@ public class BoardServiceTest {
         setupSecurityContext();
         when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
         when(teamRepository.existsByTeamIdAndOwnerOrMember(1L, user)).thenReturn(true);
-        when(teamRepository.findById(1L)).thenReturn(Optional.of(team));
-        when(boardRepository.findByTeam(team)).thenReturn(List.of(board));
+        BoardResponse boardResponse = new BoardResponse(1L, "Test Board", null, null, null, 1L, "Test Team");
+        when(boardRepository.findResponsesByTeamId(1L)).thenReturn(List.of(boardResponse));
         
-        List<Board> boards = boardService.getAllBoards(1L);
+        List<BoardResponse> boards = boardService.getAllBoards(1L);
         
         assertNotNull(boards);
         assertEquals(1, boards.size());
-        assertEquals(board, boards.get(0));
+        assertEquals(boardResponse, boards.get(0));
+        assertEquals(1L, boards.get(0).getTeam().getId());
+        verify(boardRepository, never()).findByTeam(any());
+    }
+    
+    @Test
+    void testGetBoardSummaries_CursorAndLimit() {
+        setupSecurityContext();
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
+        when(teamRepository.existsByTeamIdAndOwnerOrMember(1L, user)).thenReturn(true);
+        LocalDateTime activity = LocalDateTime.of(2024, 5, 1, 10, 30, 15, 123456000);
+        when(boardRepository.findSummariesByTeamId(1L, activity, 42L, 101)).thenReturn(List.of());
+        
+        BoardSummaryPage page = boardService.getBoardSummaries(1L, "2024-05-01T10:30:15.123456_42", 500);
+        
+        assertTrue(page.getBoards().isEmpty());
+        assertNull(page.getNextCursor());
+    }
+    
+    @Test
+    void testGetBoardSummaries_InvalidCursor() {
+        setupSecurityContext();
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
+        when(teamRepository.existsByTeamIdAndOwnerOrMember(1L, user)).thenReturn(true);
+        
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> boardService.getBoardSummaries(1L, "yesterday", 20));
+        
+        assertEquals("Invalid cursor", exception.getMessage());
+        verify(boardRepository, never()).findSummariesByTeamId(any(), any(), any(), anyInt());
     }
     
     @Test
@@ -219,4 +252,32 @@ public class BoardServiceTest {
         
         assertEquals("Board not found", exception.getMessage());
     }
+    
+    @Test
+    void testGetBoardETag_ChangesWithRevision() {
+        setupSecurityContext();
+        when(boardRepository.findRevisionByIdForUser(1L, "testuser")).thenReturn(Optional.of(4L)).thenReturn(Optional.of(5L));
+        
+        String etag = boardService.getBoardETag(1L);
+        
+        assertTrue(etag.startsWith("\"4-"));
+        assertNotEquals(etag, boardService.getBoardETag(1L));
+    }
+    
+    @Test
+    void testGetBoardETag_NoAccess() {
+        setupSecurityContext();
+        when(boardRepository.findRevisionByIdForUser(1L, "testuser")).thenReturn(Optional.empty());
+        
+        assertNull(boardService.getBoardETag(1L));
+    }
+    
+    @Test
+    void testGetBoardETag_NotAuthenticated() {
+        when(securityContext.getAuthentication()).thenReturn(null);
+        SecurityContextHolder.setContext(securityContext);
+        
+        assertNull(boardService.getBoardETag(1L));
+        verifyNoInteractions(boardRepository);
+    }
 }
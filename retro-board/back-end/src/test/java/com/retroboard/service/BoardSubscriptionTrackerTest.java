@@ -0,0 +1,87 @@
+package com.retroboard.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class BoardSubscriptionTrackerTest {
+    
+    @Mock
+    private MetricsService metricsService;
+    
+    @InjectMocks
+    private BoardSubscriptionTracker tracker;
+    
+    private Message<byte[]> stompMessage(StompCommand command, String sessionId, String subscriptionId, String destination) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(command);
+        accessor.setSessionId(sessionId);
+        accessor.setSubscriptionId(subscriptionId);
+        if (destination != null) {
+            accessor.setDestination(destination);
+        }
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+    
+    private void subscribe(String sessionId, String subscriptionId, String destination) {
+        tracker.onSubscribe(new SessionSubscribeEvent(this, stompMessage(StompCommand.SUBSCRIBE, sessionId, subscriptionId, destination)));
+    }
+    
+    @Test
+    void testSubscribe_CountsPerDestinationAndBoard() {
+        subscribe("s1", "sub-0", "/topic/board/1");
+        subscribe("s2", "sub-0", "/topic/board/1");
+        subscribe("s2", "sub-1", "/topic/board/2");
+        
+        assertEquals(2, tracker.getSubscriptionCount("/topic/board/1"));
+        assertEquals(2, tracker.getBoardSubscriptionCount(1L));
+        assertEquals(1, tracker.getBoardSubscriptionCount(2L));
+        assertEquals(2, tracker.getSessionCount());
+        assertEquals(3, tracker.getTotalSubscriptionCount());
+        verify(metricsService, times(3)).updateBoardSubscriptions(anyMap());
+    }
+    
+    @Test
+    void testUnsubscribe() {
+        subscribe("s1", "sub-0", "/topic/board/1");
+        
+        tracker.onUnsubscribe(new SessionUnsubscribeEvent(this, stompMessage(StompCommand.UNSUBSCRIBE, "s1", "sub-0", null)));
+        
+        assertEquals(0, tracker.getSubscriptionCount("/topic/board/1"));
+        assertEquals(0, tracker.getBoardSubscriptionCount(1L));
+        verify(metricsService).updateBoardSubscriptions(Map.of());
+    }
+    
+    @Test
+    void testDisconnect_ReleasesAllSubscriptions() {
+        subscribe("s1", "sub-0", "/topic/board/1");
+        subscribe("s1", "sub-1", "/topic/board/2");
+        
+        tracker.onDisconnect(new SessionDisconnectEvent(this, stompMessage(StompCommand.DISCONNECT, "s1", null, null), "s1", CloseStatus.NORMAL));
+        
+        assertEquals(0, tracker.getSessionCount());
+        assertEquals(0, tracker.getTotalSubscriptionCount());
+    }
+    
+    @Test
+    void testParseBoardId() {
+        assertEquals(42L, BoardSubscriptionTracker.parseBoardId("/topic/board/42"));
+        assertEquals(42L, BoardSubscriptionTracker.parseBoardId("/topic/board/42/ephemeral"));
+        assertNull(BoardSubscriptionTracker.parseBoardId("/topic/other/42"));
+    }
+}
@@ -0,0 +1,183 @@
+package com.retroboard.service;
+
+import com.retroboard.dto.BoardPhaseResponse;
+import com.retroboard.dto.StartPhaseRequest;
+import com.retroboard.entity.Board;
+import com.retroboard.repository.BoardRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class BoardTimerServiceTest {
+
+    @Mock
+    private BoardRepository boardRepository;
+
+    @Mock
+    private BoardService boardService;
+
+    @Mock
+    private WebSocketService webSocketService;
+
+    @Mock
+    private MetricsService metricsService;
+
+    @InjectMocks
+    private BoardTimerService boardTimerService;
+
+    private Board board;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(boardTimerService, "tickMs", 10L);
+        ReflectionTestUtils.setField(boardTimerService, "wheelSize", 64);
+        ReflectionTestUtils.setField(boardTimerService, "retryDelayMs", 50L);
+        boardTimerService.init();
+
+        board = new Board();
+        board.setId(1L);
+        lenient().when(boardService.getBoardById(1L)).thenReturn(board);
+        lenient().when(boardRepository.save(any(Board.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        lenient().when(boardService.convertPhaseToResponse(any(Board.class))).thenAnswer(invocation -> {
+            Board saved = invocation.getArgument(0);
+            return new BoardPhaseResponse(saved.getId(), saved.getPhase(), saved.getPhaseEndsAt(), null);
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        boardTimerService.shutdown();
+    }
+
+    @Test
+    void testStartPhase_StoresDeadlineAndBroadcasts() {
+        BoardPhaseResponse response = boardTimerService.startPhase(1L, request("write", 300));
+
+        assertEquals("write", board.getPhase());
+        assertNotNull(board.getPhaseEndsAt());
+        assertTrue(board.getPhaseEndsAt().isAfter(LocalDateTime.now().plusSeconds(290)));
+        assertEquals("write", response.getPhase());
+        verify(webSocketService, times(1)).broadcastBoardUpdate("phase_changed", 1L, response);
+        assertEquals(1, boardTimerService.getTimerCount());
+    }
+
+    @Test
+    void testStartPhase_Untimed() {
+        boardTimerService.startPhase(1L, request("discuss", null));
+
+        assertEquals("discuss", board.getPhase());
+        assertNull(board.getPhaseEndsAt());
+        assertEquals(0, boardTimerService.getTimerCount());
+    }
+
+    @Test
+    void testStartPhase_InvalidPhase() {
+        RuntimeException exception = assertThrows(RuntimeException.class,
+            () -> boardTimerService.startPhase(1L, request("lunch", 60)));
+
+        assertEquals("Invalid phase: lunch", exception.getMessage());
+        verify(boardRepository, never()).save(any());
+    }
+
+    @Test
+    void testStartPhase_AccessDenied() {
+        when(boardService.getBoardById(1L)).thenThrow(new RuntimeException("Access denied"));
+
+        assertThrows(RuntimeException.class, () -> boardTimerService.startPhase(1L, request("write", 60)));
+
+        verify(boardRepository, never()).save(any());
+        verify(webSocketService, never()).broadcastBoardUpdate(any(), any(), any());
+    }
+
+    @Test
+    void testExpiry_MovesToNextPhase() {
+        when(boardRepository.advanceExpiredPhase(eq(1L), any(LocalDateTime.class), eq("vote"))).thenReturn(1);
+
+        boardTimerService.startPhase(1L, request("write", 1));
+
+        verify(webSocketService, timeout(3000)).broadcastBoardUpdate("phase_changed", 1L,
+            new BoardPhaseResponse(1L, "vote", null, null));
+        verify(boardRepository).advanceExpiredPhase(1L, board.getPhaseEndsAt(), "vote");
+        assertEquals(0, boardTimerService.getTimerCount());
+    }
+
+    @Test
+    void testRestart_CancelsRunningTimer() throws Exception {
+        boardTimerService.startPhase(1L, request("write", 1));
+        boardTimerService.startPhase(1L, request("vote", null));
+
+        Thread.sleep(1300);
+
+        verify(boardRepository, never()).advanceExpiredPhase(any(), any(), any());
+        assertEquals(0, boardTimerService.getTimerCount());
+    }
+
+    @Test
+    void testRearm_PassedDeadlineFiresRightAway() {
+        Board running = new Board();
+        running.setId(2L);
+        running.setPhase("discuss");
+        running.setPhaseEndsAt(LocalDateTime.now().minusMinutes(5));
+        when(boardRepository.findWithRunningPhaseTimer()).thenReturn(List.of(running));
+        when(boardRepository.advanceExpiredPhase(2L, running.getPhaseEndsAt(), null)).thenReturn(1);
+
+        boardTimerService.rearmTimers();
+
+        // The retro ends after the last phase
+        verify(webSocketService, timeout(1000)).broadcastBoardUpdate("phase_changed", 2L,
+            new BoardPhaseResponse(2L, null, null, null));
+    }
+
+    @Test
+    void testExpiry_HandledElsewhereNotBroadcast() {
+        Board running = new Board();
+        running.setId(2L);
+        running.setPhase("write");
+        running.setPhaseEndsAt(LocalDateTime.now().minusSeconds(1));
+        when(boardRepository.findWithRunningPhaseTimer()).thenReturn(List.of(running));
+        when(boardRepository.advanceExpiredPhase(2L, running.getPhaseEndsAt(), "vote")).thenReturn(0);
+
+        boardTimerService.rearmTimers();
+
+        verify(boardRepository, timeout(1000)).advanceExpiredPhase(2L, running.getPhaseEndsAt(), "vote");
+        verify(webSocketService, after(100).never()).broadcastBoardUpdate(any(), any(), any());
+    }
+
+    @Test
+    void testExpiry_DatabaseFailureRetried() {
+        Board running = new Board();
+        running.setId(2L);
+        running.setPhase("vote");
+        running.setPhaseEndsAt(LocalDateTime.now().minusSeconds(1));
+        when(boardRepository.findWithRunningPhaseTimer()).thenReturn(List.of(running));
+        when(boardRepository.advanceExpiredPhase(2L, running.getPhaseEndsAt(), "discuss"))
+            .thenThrow(new RuntimeException("Connection refused"))
+            .thenReturn(1);
+
+        boardTimerService.rearmTimers();
+
+        verify(webSocketService, timeout(1000)).broadcastBoardUpdate("phase_changed", 2L,
+            new BoardPhaseResponse(2L, "discuss", null, null));
+        verify(boardRepository, times(2)).advanceExpiredPhase(2L, running.getPhaseEndsAt(), "discuss");
+    }
+
+    private StartPhaseRequest request(String phase, Integer durationSeconds) {
+        StartPhaseRequest request = new StartPhaseRequest();
+        request.setPhase(phase);
+        request.setDurationSeconds(durationSeconds);
+        return request;
+    }
+}
@@ -0,0 +1,162 @@
+package com.retroboard.service;
+
+import com.retroboard.dto.BoardResponse;
+import com.retroboard.dto.BoardViewResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class BoardViewCacheTest {
+
+    @Mock
+    private MetricsService metricsService;
+
+    @InjectMocks
+    private BoardViewCache boardViewCache;
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    // Revision the loader reads along with the view
+    private long loadedRevision = 5;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(boardViewCache, "maxSize", 2);
+    }
+
+    @Test
+    void testGet_LoadsOnceThenHits() {
+        BoardViewResponse first = boardViewCache.get(1L, 5L, this::load);
+        BoardViewResponse second = boardViewCache.get(1L, 5L, this::load);
+
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+        verify(metricsService, times(1)).recordBoardView("miss");
+        verify(metricsService, times(1)).recordBoardView("hit");
+    }
+
+    @Test
+    void testGet_NewerRevisionReloads() {
+        BoardViewResponse old = boardViewCache.get(1L, 5L, this::load);
+
+        loadedRevision = 6;
+        BoardViewResponse current = boardViewCache.get(1L, 6L, this::load);
+
+        assertNotSame(old, current);
+        assertEquals(2, loads.get());
+        // A request that read an older revision may still use the newer view
+        assertSame(current, boardViewCache.get(1L, 5L, this::load));
+    }
+
+    @Test
+    void testGet_ViewIsCachedUnderTheRevisionItWasLoadedAt() {
+        // The load went to a replica that has not caught up with revision 6 yet
+        BoardViewResponse lagging = boardViewCache.get(1L, 6L, this::load);
+
+        loadedRevision = 6;
+        BoardViewResponse current = boardViewCache.get(1L, 6L, this::load);
+
+        assertNotSame(lagging, current);
+        assertEquals(2, loads.get());
+        verify(metricsService, never()).recordBoardView("hit");
+        assertSame(current, boardViewCache.get(1L, 6L, this::load));
+    }
+
+    @Test
+    void testGet_ConcurrentMissesShareOneLoad() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Function<Long, BoardViewCache.LoadedView> slowLoader = boardId -> {
+            loading.countDown();
+            await(release);
+            return load(boardId);
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<BoardViewResponse>> results = new ArrayList<>();
+            results.add(executor.submit(() -> boardViewCache.get(1L, 5L, slowLoader)));
+            assertTrue(loading.await(2, TimeUnit.SECONDS));
+            for (int i = 0; i < 7; i++) {
+                results.add(executor.submit(() -> boardViewCache.get(1L, 5L, slowLoader)));
+            }
+            verify(metricsService, timeout(2000).times(7)).recordBoardView("coalesced");
+            release.countDown();
+
+            BoardViewResponse view = results.get(0).get(2, TimeUnit.SECONDS);
+            for (Future<BoardViewResponse> result : results) {
+                assertSame(view, result.get(2, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, loads.get());
+        verify(metricsService, times(1)).recordBoardView("miss");
+    }
+
+    @Test
+    void testGet_FailedLoadIsNotCached() {
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> boardViewCache.get(1L, 5L, boardId -> {
+            throw new RuntimeException("Board not found");
+        }));
+
+        assertEquals("Board not found", exception.getMessage());
+        assertEquals(0, boardViewCache.size());
+        assertNotNull(boardViewCache.get(1L, 5L, this::load));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testInvalidate_DropsView() {
+        boardViewCache.get(1L, 5L, this::load);
+
+        boardViewCache.invalidate(1L);
+        boardViewCache.get(1L, 5L, this::load);
+
+        assertEquals(2, loads.get());
+        verify(metricsService, never()).recordBoardView("hit");
+    }
+
+    @Test
+    void testGet_FullCacheDropsLoadedViews() {
+        boardViewCache.get(1L, 1L, this::load);
+        boardViewCache.get(2L, 1L, this::load);
+
+        boardViewCache.get(3L, 1L, this::load);
+
+        // Only the view being loaded when the cache overflowed is left
+        assertEquals(1, boardViewCache.size());
+    }
+
+    private BoardViewCache.LoadedView load(Long boardId) {
+        loads.incrementAndGet();
+        BoardResponse board = new BoardResponse();
+        board.setId(boardId);
+        return new BoardViewCache.LoadedView(loadedRevision, new BoardViewResponse(board, List.of(), List.of()));
+    }
+
+    private void await(CountDownLatch latch) {
+        try {
+            latch.await(2, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.retroboard.service;
+
+import com.retroboard.config.DataSourceConfig;
+import com.retroboard.config.ReplicaLagMonitor;
+import com.retroboard.entity.Board;
+import com.retroboard.entity.BoardColumn;
+import com.retroboard.entity.Team;
+import com.retroboard.entity.User;
+import com.retroboard.repository.BoardColumnRepository;
+import com.retroboard.repository.BoardRepository;
+import com.retroboard.repository.TeamRepository;
+import com.retroboard.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import javax.sql.DataSource;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+// Board views with the replica routing in place: the revision a request checks comes from the primary while
+// the view is loaded from a replica that may not have caught up yet.
+@DataJpaTest(properties = {
+    "spring.flyway.enabled=false",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.datasource.url=jdbc:h2:mem:viewprimary;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "retroboard.datasource.replica.url=jdbc:h2:mem:viewreplica;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({DataSourceConfig.class, BoardService.class, BoardViewService.class, BoardViewCache.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class BoardViewReplicaTest {
+
+    @Autowired
+    private BoardViewService boardViewService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private BoardRepository boardRepository;
+
+    @Autowired
+    private BoardColumnRepository columnRepository;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    @MockBean
+    private ReplicaLagMonitor replicaLagMonitor;
+
+    @MockBean
+    private MetricsService metricsService;
+
+    @MockBean
+    private BoardActorService boardActorService;
+
+    @MockBean
+    private VoteBudgetService voteBudgetService;
+
+    private Board board;
+
+    @BeforeEach
+    void setUp() {
+        SecurityContextHolder.clearContext();
+        when(replicaLagMonitor.isReplicaUsable()).thenReturn(true);
+
+        User owner = new User();
+        owner.setUsername("owner");
+        owner.setPassword("password");
+        owner.setEmail("owner@example.com");
+        owner = userRepository.save(owner);
+
+        Team team = new Team();
+        team.setName("Team");
+        team.setOwner(owner);
+        team = teamRepository.save(team);
+
+        board = new Board();
+        board.setName("Retro");
+        board.setTeam(team);
+        board = boardRepository.save(board);
+
+        BoardColumn column = new BoardColumn();
+        column.setName("What Went Well");
+        column.setBoard(board);
+        column.setPosition(0);
+        columnRepository.save(column);
+
+        // The replica starts out as a copy of the primary
+        JdbcTemplate primary = new JdbcTemplate(primaryDataSource);
+        JdbcTemplate replica = new JdbcTemplate(replicaDataSource);
+        for (String statement : primary.queryForList("SCRIPT NOPASSWORDS NOSETTINGS", String.class)) {
+            if (!statement.startsWith("CREATE USER")) {
+                replica.execute(statement);
+            }
+        }
+
+        // Authenticated only now, so the setup writes do not keep the owner's reads on the primary
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken("owner", null, Collections.emptyList()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        new JdbcTemplate(replicaDataSource).execute("DROP ALL OBJECTS");
+        JdbcTemplate primary = new JdbcTemplate(primaryDataSource);
+        primary.update("DELETE FROM columns");
+        primary.update("DELETE FROM boards");
+        primary.update("DELETE FROM teams");
+        primary.update("DELETE FROM users");
+    }
+
+    @Test
+    void testGetBoardView_LaggingReplicaIsNotCachedUnderNewerRevision() {
+        rename(primaryDataSource, "Renamed", 1);
+
+        // The primary already has revision 1, the replica still serves revision 0
+        assertEquals("Retro", boardViewService.getBoardView(board.getId()).getBoard().getName());
+        assertEquals("Retro", boardViewService.getBoardView(board.getId()).getBoard().getName());
+        verify(metricsService, times(2)).recordBoardView("miss");
+        verify(metricsService, never()).recordBoardView("hit");
+        verify(metricsService, atLeastOnce()).recordDataSourceRoute("replica", "read");
+
+        rename(replicaDataSource, "Renamed", 1);
+
+        assertEquals("Renamed", boardViewService.getBoardView(board.getId()).getBoard().getName());
+        assertEquals("Renamed", boardViewService.getBoardView(board.getId()).getBoard().getName());
+        verify(metricsService, times(3)).recordBoardView("miss");
+        verify(metricsService, times(1)).recordBoardView("hit");
+    }
+
+    // Stands in for the V11 trigger, which H2 does not have
+    private void rename(DataSource dataSource, String name, long revision) {
+        new JdbcTemplate(dataSource).update("UPDATE boards SET name = ?, revision = ? WHERE id = ?",
+            name, revision, board.getId());
+    }
+}
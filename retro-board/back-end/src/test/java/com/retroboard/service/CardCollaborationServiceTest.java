@@ -0,0 +1,252 @@
+package com.retroboard.service;
+
+import com.retroboard.dto.CardEditMessage;
+import com.retroboard.dto.CardTextOperation;
+import com.retroboard.dto.CardTextSnapshot;
+import com.retroboard.entity.Board;
+import com.retroboard.entity.BoardColumn;
+import com.retroboard.entity.Card;
+import com.retroboard.exception.VersionConflictException;
+import com.retroboard.repository.CardRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CardCollaborationServiceTest {
+    
+    @Mock
+    private CardRepository cardRepository;
+    
+    @Mock
+    private BoardColumnService columnService;
+    
+    @Mock
+    private WebSocketService webSocketService;
+
+    @Mock
+    private TeamThemeService teamThemeService;
+    
+    @InjectMocks
+    private CardCollaborationService collaborationService;
+    
+    private Card card;
+    
+    @BeforeEach
+    void setUp() throws Exception {
+        setField("historySize", 500);
+        setField("maxLength", 100);
+        setField("idleEvictionMs", 600000L);
+        
+        Board board = new Board();
+        board.setId(7L);
+        
+        BoardColumn column = new BoardColumn();
+        column.setId(3L);
+        column.setBoard(board);
+        
+        card = new Card();
+        card.setId(1L);
+        card.setColumn(column);
+        card.setDescription("Ship it");
+        card.setDescriptionVersion(4L);
+        
+        when(cardRepository.findWithColumnById(1L)).thenReturn(Optional.of(card));
+    }
+    
+    @Test
+    void testGetSnapshot() {
+        CardTextSnapshot snapshot = collaborationService.getSnapshot(1L, "alice");
+        
+        assertEquals("Ship it", snapshot.getText());
+        assertEquals(0L, snapshot.getRevision());
+        verify(columnService, times(1)).getColumnById(3L);
+    }
+    
+    @Test
+    void testApplyEdit_BroadcastsOpOnBoardTopic() {
+        CardTextSnapshot snapshot = collaborationService.getSnapshot(1L, "alice");
+        
+        CardTextOperation result = collaborationService.applyEdit(1L, edit(snapshot, 0L, List.of(7, "!"), "c1"), "alice");
+        
+        assertEquals(1L, result.getRevision());
+        assertEquals(List.of(7, "!"), result.getOps());
+        assertEquals("Ship it!", collaborationService.getSnapshot(1L, "alice").getText());
+        verify(webSocketService, times(1)).broadcastLiveUpdate("card_text_op", 7L, result);
+        // Access is checked once per user, not per keystroke
+        verify(columnService, times(1)).getColumnById(3L);
+    }
+    
+    @Test
+    void testApplyEdit_TransformsConcurrentOps() {
+        CardTextSnapshot snapshot = collaborationService.getSnapshot(1L, "alice");
+        collaborationService.getSnapshot(1L, "bob");
+        
+        // Both clients edit revision 0: alice appends, bob prefixes
+        collaborationService.applyEdit(1L, edit(snapshot, 0L, List.of(7, " now"), "alice-1"), "alice");
+        CardTextOperation bobs = collaborationService.applyEdit(1L, edit(snapshot, 0L, List.of("Please ", 7), "bob-1"), "bob");
+        
+        // Bob's op was rebased over alice's before being applied and broadcast
+        assertEquals(2L, bobs.getRevision());
+        assertEquals(List.of("Please ", 11), bobs.getOps());
+        assertEquals("Please Ship it now", collaborationService.getSnapshot(1L, "alice").getText());
+    }
+    
+    @Test
+    void testApplyEdit_WrongEpochRequiresResync() {
+        CardTextSnapshot snapshot = collaborationService.getSnapshot(1L, "alice");
+        CardEditMessage message = edit(snapshot, 0L, List.of(7, "!"), "c1");
+        message.setEpoch(snapshot.getEpoch() - 1);
+        
+        VersionConflictException exception = assertThrows(VersionConflictException.class, () -> {
+            collaborationService.applyEdit(1L, message, "alice");
+        });
+        
+        assertEquals(snapshot, exception.getCurrent());
+        verify(webSocketService, never()).broadcastLiveUpdate(any(), any(), any());
+    }
+    
+    @Test
+    void testApplyEdit_FutureRevisionRequiresResync() {
+        CardTextSnapshot snapshot = collaborationService.getSnapshot(1L, "alice");
+        
+        assertThrows(VersionConflictException.class, () -> {
+            collaborationService.applyEdit(1L, edit(snapshot, 5L, List.of(7, "!"), "c1"), "alice");
+        });
+    }
+    
+    @Test
+    void testApplyEdit_LengthMismatchRequiresResync() {
+        CardTextSnapshot snapshot = collaborationService.getSnapshot(1L, "alice");
+        
+        assertThrows(VersionConflictException.class, () -> {
+            collaborationService.applyEdit(1L, edit(snapshot, 0L, List.of(3, "!"), "c1"), "alice");
+        });
+    }
+    
+    @Test
+    void testApplyEdit_RequiresUser() {
+        CardTextSnapshot snapshot = collaborationService.getSnapshot(1L, "alice");
+        
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> {
+            collaborationService.applyEdit(1L, edit(snapshot, 0L, List.of(7, "!"), "c1"), null);
+        });
+        
+        assertEquals("User not authenticated", exception.getMessage());
+    }
+    
+    @Test
+    void testApplyEdit_AccessDenied() {
+        when(columnService.getColumnById(3L)).thenThrow(new RuntimeException("Access denied: You are not a member of this team"));
+        CardEditMessage message = new CardEditMessage();
+        message.setOps(List.of(7, "!"));
+        
+        assertThrows(RuntimeException.class, () -> {
+            collaborationService.applyEdit(1L, message, "mallory");
+        });
+        verify(webSocketService, never()).broadcastLiveUpdate(any(), any(), any());
+    }
+    
+    @Test
+    void testFlushSnapshots_WritesOnlyDirtyDocuments() {
+        CardTextSnapshot snapshot = collaborationService.getSnapshot(1L, "alice");
+        collaborationService.applyEdit(1L, edit(snapshot, 0L, List.of(7, "!"), "c1"), "alice");
+        collaborationService.applyEdit(1L, edit(snapshot, 1L, List.of(8, "!"), "c1"), "alice");
+        when(cardRepository.updateDescriptionSnapshot(eq(1L), eq("Ship it!!"), eq(4L), any())).thenReturn(6L);
+        
+        collaborationService.flushSnapshots();
+        collaborationService.flushSnapshots();
+        
+        // Two keystrokes, one write
+        verify(cardRepository, times(1)).updateDescriptionSnapshot(eq(1L), any(), anyLong(), any());
+        verify(teamThemeService, times(1)).cardTextChanged(7L, "Ship it", "Ship it!!");
+    }
+    
+    @Test
+    void testFlushSnapshots_NextWriteExpectsVersionOfLastWrite() {
+        CardTextSnapshot snapshot = collaborationService.getSnapshot(1L, "alice");
+        collaborationService.applyEdit(1L, edit(snapshot, 0L, List.of(7, "!"), "c1"), "alice");
+        when(cardRepository.updateDescriptionSnapshot(eq(1L), eq("Ship it!"), eq(4L), any())).thenReturn(6L);
+        collaborationService.flushSnapshots();
+        
+        collaborationService.applyEdit(1L, edit(snapshot, 1L, List.of(8, "?"), "c1"), "alice");
+        when(cardRepository.updateDescriptionSnapshot(eq(1L), eq("Ship it!?"), eq(6L), any())).thenReturn(8L);
+        collaborationService.flushSnapshots();
+        
+        verify(teamThemeService, times(1)).cardTextChanged(7L, "Ship it!", "Ship it!?");
+    }
+    
+    @Test
+    void testFlushSnapshots_DescriptionReplacedMeanwhileIsKept() {
+        CardTextSnapshot snapshot = collaborationService.getSnapshot(1L, "alice");
+        collaborationService.applyEdit(1L, edit(snapshot, 0L, List.of(7, "!"), "c1"), "alice");
+        // A PUT replaced the description after the text was taken and before it was written
+        when(cardRepository.updateDescriptionSnapshot(eq(1L), eq("Ship it!"), eq(4L), any())).thenReturn(null);
+        
+        collaborationService.flushSnapshots();
+        
+        // The stale text is not written over the PUT, and editors resync from the new description
+        assertEquals(0, collaborationService.getDocumentCount());
+        verifyNoInteractions(teamThemeService);
+        collaborationService.flushSnapshots();
+        verify(cardRepository, times(1)).updateDescriptionSnapshot(eq(1L), any(), anyLong(), any());
+    }
+    
+    @Test
+    void testFlushSnapshots_DropsDeletedCard() {
+        CardTextSnapshot snapshot = collaborationService.getSnapshot(1L, "alice");
+        collaborationService.applyEdit(1L, edit(snapshot, 0L, List.of(7, "!"), "c1"), "alice");
+        when(cardRepository.updateDescriptionSnapshot(eq(1L), any(), anyLong(), any())).thenReturn(null);
+        
+        collaborationService.flushSnapshots();
+        
+        assertEquals(0, collaborationService.getDocumentCount());
+        verifyNoInteractions(teamThemeService);
+    }
+    
+    @Test
+    void testDiscardAfterCommit_ReloadsWithNewEpoch() {
+        CardTextSnapshot before = collaborationService.getSnapshot(1L, "alice");
+        
+        collaborationService.discardAfterCommit(1L);
+        card.setDescription("Replaced");
+        CardTextSnapshot after = collaborationService.getSnapshot(1L, "alice");
+        
+        assertNotEquals(before.getEpoch(), after.getEpoch());
+        assertEquals("Replaced", after.getText());
+    }
+    
+    @Test
+    void testEvictIdleDocuments() throws Exception {
+        setField("idleEvictionMs", -1L);
+        collaborationService.getSnapshot(1L, "alice");
+        
+        collaborationService.evictIdleDocuments();
+        
+        assertEquals(0, collaborationService.getDocumentCount());
+    }
+    
+    private CardEditMessage edit(CardTextSnapshot snapshot, Long revision, List<Object> ops, String clientId) {
+        CardEditMessage message = new CardEditMessage();
+        message.setEpoch(snapshot.getEpoch());
+        message.setRevision(revision);
+        message.setOps(ops);
+        message.setClientId(clientId);
+        return message;
+    }
+    
+    private void setField(String name, Object value) throws Exception {
+        Field field = CardCollaborationService.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(collaborationService, value);
+    }
+}
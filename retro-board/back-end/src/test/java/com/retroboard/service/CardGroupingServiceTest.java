@@ -0,0 +1,209 @@
+package com.retroboard.service;
+
+import com.retroboard.dto.CardGroupResponse;
+import com.retroboard.dto.CardResponse;
+import com.retroboard.dto.MergeCardsRequest;
+import com.retroboard.entity.Board;
+import com.retroboard.entity.BoardColumn;
+import com.retroboard.entity.Card;
+import com.retroboard.repository.CardRepository;
+import com.retroboard.repository.CardVoteRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CardGroupingServiceTest {
+
+    @Mock
+    private CardRepository cardRepository;
+
+    @Mock
+    private CardVoteRepository cardVoteRepository;
+
+    @Spy
+    private CardService cardService;
+
+    @Mock
+    private BoardService boardService;
+
+    @Mock
+    private BoardColumnService columnService;
+
+    @Mock
+    private BoardActorService boardActorService;
+
+    @Mock
+    private VoteBudgetService voteBudgetService;
+
+    @Mock
+    private RateLimitService rateLimitService;
+
+    @Mock
+    private WebSocketService webSocketService;
+
+    @Mock
+    private TeamThemeService teamThemeService;
+
+    @InjectMocks
+    private CardGroupingService cardGroupingService;
+
+    private Board board;
+    private BoardColumn column;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(cardGroupingService, "defaultThreshold", 0.4);
+
+        board = new Board();
+        board.setId(1L);
+        column = new BoardColumn();
+        column.setId(10L);
+        column.setName("To improve");
+        column.setBoard(board);
+    }
+
+    @Test
+    void testSuggestGroups_GroupsPerColumnMostVotedFirst() {
+        when(cardRepository.findResponsesByBoardId(1L)).thenReturn(List.of(
+            response(1L, "CI is slow", 1, 10L),
+            response(2L, "Team lunch was fun", 0, 10L),
+            response(3L, "The CI is really slow", 4, 10L),
+            response(4L, "CI is slow", 2, 20L)));
+
+        List<CardGroupResponse> groups = cardGroupingService.suggestGroups(1L, null);
+
+        assertEquals(1, groups.size());
+        CardGroupResponse group = groups.get(0);
+        assertEquals(10L, group.getColumnId());
+        assertEquals(List.of(3L, 1L), group.getCards().stream().map(CardResponse::getId).toList());
+        assertEquals(5, group.getTotalVotes());
+        assertEquals(1.0, group.getSimilarity());
+        verify(boardService, times(1)).getBoardById(1L);
+    }
+
+    @Test
+    void testSuggestGroups_UsesLiveVotes() {
+        when(cardRepository.findResponsesByBoardId(1L)).thenReturn(List.of(
+            response(1L, "Deploys take forever", 1, 10L),
+            response(2L, "deploy takes forever", 0, 10L)));
+        doAnswer(invocation -> {
+            List<CardResponse> cards = invocation.getArgument(1);
+            cards.stream().filter(card -> card.getId().equals(2L)).forEach(card -> card.setVotes(7));
+            return null;
+        }).when(boardActorService).overlayVotes(eq(1L), anyList());
+
+        List<CardGroupResponse> groups = cardGroupingService.suggestGroups(1L, 0.4);
+
+        assertEquals(List.of(2L, 1L), groups.get(0).getCards().stream().map(CardResponse::getId).toList());
+        assertEquals(8, groups.get(0).getTotalVotes());
+    }
+
+    @Test
+    void testSuggestGroups_InvalidThreshold() {
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> cardGroupingService.suggestGroups(1L, 1.5));
+
+        assertEquals("Threshold must be greater than 0 and at most 1", exception.getMessage());
+        verify(cardRepository, never()).findResponsesByBoardId(anyLong());
+    }
+
+    @Test
+    void testMergeCards_MovesVotesAndDeletesSources() {
+        Card target = card(1L, column);
+        Card source = card(2L, column);
+        when(cardRepository.findById(1L)).thenReturn(Optional.of(target));
+        when(cardRepository.findAllById(Set.of(2L))).thenReturn(List.of(source));
+        when(cardVoteRepository.mergeVotes(1L, Set.of(2L))).thenReturn(5);
+
+        CardResponse response = cardGroupingService.mergeCards(1L, request(1L, 2L));
+
+        assertEquals(1L, response.getId());
+        assertEquals(5, response.getVotes());
+        InOrder inOrder = inOrder(rateLimitService, columnService, cardVoteRepository, cardRepository);
+        inOrder.verify(rateLimitService).checkCardMutation(1L, "card_merge");
+        inOrder.verify(columnService).getColumnById(10L);
+        inOrder.verify(cardVoteRepository).mergeVotes(1L, Set.of(2L));
+        inOrder.verify(cardRepository).deleteAll(List.of(source));
+        verify(teamThemeService, times(1)).cardTextChanged(1L, "Card 2", null);
+        verify(boardActorService, times(1)).cardsMergedAfterCommit(1L, Set.of(1L, 2L));
+        verify(voteBudgetService, times(1)).usageChangedAfterCommit(1L);
+        verify(webSocketService, times(1)).broadcastBoardUpdate("card_deleted", 1L, 2L);
+        verify(webSocketService, times(1)).broadcastBoardUpdate(eq("card_updated"), eq(1L), any(CardResponse.class));
+    }
+
+    @Test
+    void testMergeCards_RejectsOtherBoard() {
+        Board otherBoard = new Board();
+        otherBoard.setId(2L);
+        BoardColumn otherColumn = new BoardColumn();
+        otherColumn.setId(30L);
+        otherColumn.setBoard(otherBoard);
+        when(cardRepository.findById(1L)).thenReturn(Optional.of(card(1L, column)));
+        when(cardRepository.findAllById(Set.of(3L))).thenReturn(List.of(card(3L, otherColumn)));
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+            () -> cardGroupingService.mergeCards(1L, request(3L)));
+
+        assertEquals("Cards can only be merged within one board", exception.getMessage());
+        verify(cardVoteRepository, never()).mergeVotes(anyLong(), any());
+        verify(cardRepository, never()).deleteAll(any());
+    }
+
+    @Test
+    void testMergeCards_NothingToMerge() {
+        when(cardRepository.findById(1L)).thenReturn(Optional.of(card(1L, column)));
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+            () -> cardGroupingService.mergeCards(1L, request(1L)));
+
+        assertEquals("No cards to merge", exception.getMessage());
+    }
+
+    @Test
+    void testMergeCards_MissingSource() {
+        when(cardRepository.findById(1L)).thenReturn(Optional.of(card(1L, column)));
+        when(cardRepository.findAllById(Set.of(2L, 99L))).thenReturn(List.of(card(2L, column)));
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+            () -> cardGroupingService.mergeCards(1L, request(2L, 99L)));
+
+        assertEquals("Card not found", exception.getMessage());
+        verify(cardVoteRepository, never()).mergeVotes(anyLong(), any());
+    }
+
+    private CardResponse response(Long id, String description, int votes, Long columnId) {
+        LocalDateTime now = LocalDateTime.now();
+        return new CardResponse(id, description, id.intValue(), now, now, votes, 0L, columnId, "Column " + columnId);
+    }
+
+    private Card card(Long id, BoardColumn cardColumn) {
+        Card card = new Card();
+        card.setId(id);
+        card.setDescription("Card " + id);
+        card.setVotes(0);
+        card.setColumn(cardColumn);
+        return card;
+    }
+
+    private MergeCardsRequest request(Long... cardIds) {
+        MergeCardsRequest request = new MergeCardsRequest();
+        request.setCardIds(List.of(cardIds));
+        return request;
+    }
+}
@@ -1,27 +1,40 @@
 package com.retroboard.service;
 
 import com.retroboard.entity.Card;
+import com.retroboard.entity.CardVote;
 import com.retroboard.entity.BoardColumn;
 import com.retroboard.entity.Board;
 import com.retroboard.entity.User;
 import com.retroboard.repository.CardRepository;
+import com.retroboard.repository.CardRepositoryCustom.ReactionToggle;
 import com.retroboard.repository.BoardColumnRepository;
+import com.retroboard.repository.BoardRepository;
 import com.retroboard.repository.CardVoteRepository;
 import com.retroboard.repository.UserRepository;
+import com.retroboard.dto.CardReactionResponse;
+import com.retroboard.dto.CardReactionsPayload;
+import com.retroboard.dto.CardResponse;
 import com.retroboard.dto.CreateCardRequest;
 import com.retroboard.dto.UpdateCardRequest;
+import com.retroboard.exception.RateLimitExceededException;
+import com.retroboard.exception.VersionConflictException;
+import com.retroboard.exception.VoteBudgetExceededException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -38,6 +51,12 @@ public class CardServiceTest {
     @Mock
     private BoardColumnService columnService;
     
+    @Mock
+    private BoardRepository boardRepository;
+    
+    @Mock
+    private BoardService boardService;
+    
     @Mock
     private CardVoteRepository cardVoteRepository;
     
@@ -47,6 +66,24 @@ public class CardServiceTest {
     @Mock
     private WebSocketService webSocketService;
     
+    @Mock
+    private MetricsService metricsService;
+    
+    @Mock
+    private RateLimitService rateLimitService;
+    
+    @Mock
+    private CardCollaborationService collaborationService;
+    
+    @Mock
+    private BoardActorService boardActorService;
+
+    @Mock
+    private VoteBudgetService voteBudgetService;
+    
+    @Mock
+    private TeamThemeService teamThemeService;
+    
     @Mock
     private SecurityContext securityContext;
     
@@ -95,6 +132,7 @@ public class CardServiceTest {
         card.setColumn(column);
         card.setPosition(0);
         card.setVotes(0);
+        card.setVersion(5L);
         
         createCardRequest = new CreateCardRequest();
         createCardRequest.setDescription("Test Description");
@@ -127,9 +165,45 @@ public class CardServiceTest {
         assertNotNull(createdCard);
         assertEquals("Test Description", createdCard.getDescription());
         verify(cardRepository, times(1)).save(any(Card.class));
+        verify(boardRepository, never()).lockHideCards(any());
+        verify(teamThemeService, times(1)).cardTextChanged(board.getId(), null, "Test Description");
         verify(webSocketService, times(1)).broadcastBoardUpdate(eq("card_created"), eq(board.getId()), any());
     }
     
+    @Test
+    void testCreateCard_HiddenOnlySentToAuthor() {
+        setupSecurityContext();
+        board.setHideCards(true);
+        when(columnRepository.findById(1L)).thenReturn(Optional.of(column));
+        when(columnService.getColumnById(1L)).thenReturn(column);
+        when(boardRepository.lockHideCards(1L)).thenReturn(true);
+        when(cardRepository.save(any(Card.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        
+        Card createdCard = cardService.createCard(createCardRequest);
+        
+        assertTrue(createdCard.getHidden());
+        assertEquals(user.getId(), createdCard.getUserId());
+        verify(webSocketService, times(1)).sendBoardUpdateToUser(eq("testuser"), eq("card_created"), eq(board.getId()),
+            argThat(response -> Boolean.TRUE.equals(((CardResponse) response).getHidden())));
+        verify(webSocketService, never()).broadcastBoardUpdate(any(), any(), any());
+    }
+    
+    @Test
+    void testCreateCard_RevealedMeanwhileIsBroadcast() {
+        board.setHideCards(true);
+        when(columnRepository.findById(1L)).thenReturn(Optional.of(column));
+        when(columnService.getColumnById(1L)).thenReturn(column);
+        when(boardRepository.lockHideCards(1L)).thenReturn(false);
+        when(cardRepository.save(any(Card.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        
+        Card createdCard = cardService.createCard(createCardRequest);
+        
+        assertFalse(createdCard.getHidden());
+        assertNull(createdCard.getUserId());
+        verify(webSocketService, times(1)).broadcastBoardUpdate(eq("card_created"), eq(board.getId()), any());
+        verify(webSocketService, never()).sendBoardUpdateToUser(any(), any(), any(), any());
+    }
+    
     @Test
     void testCreateCard_ColumnNotFound() {
         when(columnRepository.findById(1L)).thenReturn(Optional.empty());
@@ -150,6 +224,7 @@ public class CardServiceTest {
         cardService.deleteCard(1L);
         
         verify(cardRepository, times(1)).delete(card);
+        verify(teamThemeService, times(1)).cardTextChanged(board.getId(), "Test Description", null);
         verify(webSocketService, times(1)).broadcastBoardUpdate("card_deleted", board.getId(), card.getId());
     }
     
@@ -167,14 +242,40 @@ public class CardServiceTest {
     @Test
     void testGetAllCards() {
         when(columnService.getColumnById(1L)).thenReturn(column);
-        when(columnRepository.findById(1L)).thenReturn(Optional.of(column));
-        when(cardRepository.findByColumnOrderByPositionAsc(column)).thenReturn(List.of(card));
+        CardResponse cardResponse = new CardResponse(1L, "Test Description", 0, null, null, 0, 5L, 1L, "Test Column");
+        when(cardRepository.findResponsesByColumnId(1L, null)).thenReturn(List.of(cardResponse));
         
-        List<Card> cards = cardService.getAllCards(1L);
+        List<CardResponse> cards = cardService.getAllCards(1L);
         
         assertNotNull(cards);
         assertEquals(1, cards.size());
-        assertEquals(card, cards.get(0));
+        assertEquals(cardResponse, cards.get(0));
+        assertEquals(1L, cards.get(0).getColumn().getId());
+    }
+    
+    @Test
+    void testGetAllCards_VoteFlagsScopedToReturnedCards() {
+        setupSecurityContext();
+        when(columnService.getColumnById(1L)).thenReturn(column);
+        CardResponse voted = new CardResponse(1L, "Voted", 0, null, null, 1, 5L, 1L, "Test Column");
+        CardResponse notVoted = new CardResponse(2L, "Not voted", 1, null, null, 0, 5L, 1L, "Test Column");
+        when(cardRepository.findResponsesByColumnId(1L, 1L)).thenReturn(List.of(voted, notVoted));
+        when(cardVoteRepository.findVotedCardIds(1L, List.of(1L, 2L))).thenReturn(Set.of(1L));
+        
+        List<CardResponse> cards = cardService.getAllCards(1L);
+        
+        assertTrue(cards.get(0).getVotedByCurrentUser());
+        assertFalse(cards.get(1).getVotedByCurrentUser());
+    }
+    
+    @Test
+    void testGetAllCards_EmptyColumnSkipsVoteLookup() {
+        setupSecurityContext();
+        when(columnService.getColumnById(1L)).thenReturn(column);
+        when(cardRepository.findResponsesByColumnId(1L, 1L)).thenReturn(List.of());
+        
+        assertTrue(cardService.getAllCards(1L).isEmpty());
+        verify(cardVoteRepository, never()).findVotedCardIds(any(), any());
     }
     
     @Test
@@ -183,14 +284,18 @@ public class CardServiceTest {
         
         when(cardRepository.findById(1L)).thenReturn(Optional.of(card));
         when(columnService.getColumnById(1L)).thenReturn(column);
-        when(cardRepository.save(any(Card.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(cardRepository.saveAndFlush(any(Card.class))).thenAnswer(invocation -> invocation.getArgument(0));
         
         Card updatedCard = cardService.updateCard(1L, updateCardRequest);
         
         assertNotNull(updatedCard);
         assertEquals("Updated Description", updatedCard.getDescription());
         assertEquals(1, updatedCard.getPosition());
-        verify(cardRepository, times(1)).save(any(Card.class));
+        assertEquals(6L, updatedCard.getDescriptionVersion());
+        assertEquals(6L, updatedCard.getPlacementVersion());
+        verify(cardRepository, times(1)).saveAndFlush(any(Card.class));
+        verify(collaborationService, times(1)).discardAfterCommit(1L);
+        verify(teamThemeService, times(1)).cardTextChanged(board.getId(), "Test Description", "Updated Description");
         verify(webSocketService, times(1)).broadcastBoardUpdate(eq("card_updated"), eq(board.getId()), any());
     }
     
@@ -204,16 +309,146 @@ public class CardServiceTest {
         when(columnService.getColumnById(1L)).thenReturn(column);
         when(columnService.getColumnById(2L)).thenReturn(newColumn);
         when(columnRepository.findById(2L)).thenReturn(Optional.of(newColumn));
-        when(cardRepository.save(any(Card.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(cardRepository.saveAndFlush(any(Card.class))).thenAnswer(invocation -> invocation.getArgument(0));
         
         Card updatedCard = cardService.updateCard(1L, updateCardRequest);
         
         assertNotNull(updatedCard);
         assertEquals(newColumn, updatedCard.getColumn());
-        verify(cardRepository, times(1)).save(any(Card.class));
+        verify(cardRepository, times(1)).saveAndFlush(any(Card.class));
+        verify(webSocketService, times(1)).broadcastBoardUpdate(eq("card_updated"), eq(board.getId()), any());
+    }
+    
+    @Test
+    void testUpdateCard_MoveEndsCollaborativeSession() {
+        setupSecurityContext();
+        
+        updateCardRequest.setDescription(null);
+        updateCardRequest.setPosition(null);
+        updateCardRequest.setColumnId(2L);
+        
+        when(cardRepository.findById(1L)).thenReturn(Optional.of(card));
+        when(columnService.getColumnById(1L)).thenReturn(column);
+        when(columnService.getColumnById(2L)).thenReturn(newColumn);
+        when(columnRepository.findById(2L)).thenReturn(Optional.of(newColumn));
+        when(cardRepository.saveAndFlush(any(Card.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        
+        cardService.updateCard(1L, updateCardRequest);
+        
+        verify(collaborationService, times(1)).discardAfterCommit(1L);
+    }
+    
+    @Test
+    void testUpdateCard_MoveToOtherBoardMovesTerms() {
+        setupSecurityContext();
+        
+        Board otherBoard = new Board();
+        otherBoard.setId(2L);
+        newColumn.setBoard(otherBoard);
+        updateCardRequest.setColumnId(2L);
+        
+        when(cardRepository.findById(1L)).thenReturn(Optional.of(card));
+        when(columnService.getColumnById(1L)).thenReturn(column);
+        when(columnService.getColumnById(2L)).thenReturn(newColumn);
+        when(columnRepository.findById(2L)).thenReturn(Optional.of(newColumn));
+        when(cardRepository.saveAndFlush(any(Card.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        
+        cardService.updateCard(1L, updateCardRequest);
+        
+        verify(teamThemeService, times(1)).cardTextChanged(1L, "Test Description", null);
+        verify(teamThemeService, times(1)).cardTextChanged(2L, null, "Updated Description");
+        verify(boardActorService, times(1)).cardDeletedAfterCommit(1L, 1L);
+        verify(boardActorService, never()).cardChangedAfterCommit(anyLong(), anyLong());
+    }
+    
+    @Test
+    void testUpdateCard_StaleVersionMergesDisjointFields() {
+        setupSecurityContext();
+        
+        // Someone moved the card at version 5; this client edits the description it read at version 4
+        card.setPlacementVersion(5L);
+        card.setDescriptionVersion(2L);
+        UpdateCardRequest request = new UpdateCardRequest();
+        request.setDescription("Edited text");
+        request.setExpectedVersion(4L);
+        
+        when(cardRepository.findById(1L)).thenReturn(Optional.of(card));
+        when(columnService.getColumnById(1L)).thenReturn(column);
+        when(cardRepository.saveAndFlush(any(Card.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        
+        Card updatedCard = cardService.updateCard(1L, request);
+        
+        assertEquals("Edited text", updatedCard.getDescription());
+        assertEquals(0, updatedCard.getPosition());
+        assertEquals(6L, updatedCard.getDescriptionVersion());
+        assertEquals(5L, updatedCard.getPlacementVersion());
         verify(webSocketService, times(1)).broadcastBoardUpdate(eq("card_updated"), eq(board.getId()), any());
     }
     
+    @Test
+    void testUpdateCard_StaleVersionConflictsOnSameField() {
+        setupSecurityContext();
+        
+        // Someone else edited the description after this client read version 4
+        card.setDescriptionVersion(5L);
+        UpdateCardRequest request = new UpdateCardRequest();
+        request.setDescription("Edited text");
+        request.setExpectedVersion(4L);
+        
+        when(cardRepository.findById(1L)).thenReturn(Optional.of(card));
+        when(columnService.getColumnById(1L)).thenReturn(column);
+        
+        VersionConflictException exception = assertThrows(VersionConflictException.class, () -> {
+            cardService.updateCard(1L, request);
+        });
+        
+        CardResponse current = (CardResponse) exception.getCurrent();
+        assertEquals("Test Description", current.getDescription());
+        assertEquals(5L, current.getVersion());
+        verify(cardRepository, never()).saveAndFlush(any(Card.class));
+        verify(webSocketService, never()).broadcastBoardUpdate(any(), any(), any());
+    }
+    
+    @Test
+    void testUpdateCard_StaleVersionConflictsOnMove() {
+        setupSecurityContext();
+        
+        // Someone else moved the card after this client read version 4
+        card.setPlacementVersion(5L);
+        UpdateCardRequest request = new UpdateCardRequest();
+        request.setColumnId(2L);
+        request.setExpectedVersion(4L);
+        
+        when(cardRepository.findById(1L)).thenReturn(Optional.of(card));
+        when(columnService.getColumnById(1L)).thenReturn(column);
+        
+        assertThrows(VersionConflictException.class, () -> {
+            cardService.updateCard(1L, request);
+        });
+        verify(columnRepository, never()).findById(2L);
+    }
+    
+    @Test
+    void testUpdateCard_UnchangedFieldDoesNotConflict() {
+        setupSecurityContext();
+        
+        // Re-sending the current description is not an edit, so the newer description version is irrelevant
+        card.setDescriptionVersion(5L);
+        UpdateCardRequest request = new UpdateCardRequest();
+        request.setDescription("Test Description");
+        request.setPosition(3);
+        request.setExpectedVersion(4L);
+        
+        when(cardRepository.findById(1L)).thenReturn(Optional.of(card));
+        when(columnService.getColumnById(1L)).thenReturn(column);
+        when(cardRepository.saveAndFlush(any(Card.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        
+        Card updatedCard = cardService.updateCard(1L, request);
+        
+        assertEquals(3, updatedCard.getPosition());
+        assertEquals(5L, updatedCard.getDescriptionVersion());
+    }
+    
     @Test
     void testUpdateCard_CardNotFound() {
         setupSecurityContext();
@@ -237,6 +472,34 @@ public class CardServiceTest {
         assertEquals(card, foundCard);
     }
     
+    @Test
+    void testGetCardById_HiddenFromOthers() {
+        setupSecurityContext();
+        card.setHidden(true);
+        card.setUserId(2L);
+        when(cardRepository.findById(1L)).thenReturn(Optional.of(card));
+        when(columnService.getColumnById(1L)).thenReturn(column);
+        
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> cardService.getCardById(1L));
+        
+        assertEquals("Card not found", exception.getMessage());
+    }
+    
+    @Test
+    void testUpdateCard_HiddenOnlySentToAuthor() {
+        setupSecurityContext();
+        card.setHidden(true);
+        card.setUserId(user.getId());
+        when(cardRepository.findById(1L)).thenReturn(Optional.of(card));
+        when(columnService.getColumnById(1L)).thenReturn(column);
+        when(cardRepository.saveAndFlush(any(Card.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        
+        cardService.updateCard(1L, updateCardRequest);
+        
+        verify(webSocketService, times(1)).sendBoardUpdateToUser(eq("testuser"), eq("card_updated"), eq(board.getId()), any());
+        verify(webSocketService, never()).broadcastBoardUpdate(any(), any(), any());
+    }
+    
     @Test
     void testGetCardById_CardNotFound() {
         when(cardRepository.findById(1L)).thenReturn(Optional.empty());
@@ -255,13 +518,19 @@ public class CardServiceTest {
         when(cardRepository.findById(1L)).thenReturn(Optional.of(card));
         when(columnService.getColumnById(1L)).thenReturn(column);
         when(cardVoteRepository.existsByUserAndCard(user, card)).thenReturn(false);
-        when(cardRepository.save(any(Card.class))).thenReturn(card);
+        when(cardRepository.incrementVotes(1L, 1)).thenAnswer(invocation -> {
+            card.setVotes(card.getVotes() + 1);
+            return 1;
+        });
         
         Card updatedCard = cardService.voteCard(1L);
         
         assertNotNull(updatedCard);
         assertEquals(1, updatedCard.getVotes());
-        verify(cardRepository, times(1)).save(any(Card.class));
+        assertTrue(updatedCard.getVotedByCurrentUser());
+        verify(cardRepository, times(1)).incrementVotes(1L, 1);
+        verify(cardRepository, never()).save(any(Card.class));
+        verify(metricsService, times(1)).recordVote(true);
         verify(webSocketService, times(1)).broadcastBoardUpdate(eq("card_voted"), eq(board.getId()), any());
     }
     
@@ -275,16 +544,77 @@ public class CardServiceTest {
         when(columnService.getColumnById(1L)).thenReturn(column);
         when(cardVoteRepository.existsByUserAndCard(user, card)).thenReturn(true);
         doNothing().when(cardVoteRepository).deleteByUserAndCard(user, card);
-        when(cardRepository.save(any(Card.class))).thenReturn(card);
+        when(cardRepository.incrementVotes(1L, -1)).thenAnswer(invocation -> {
+            card.setVotes(card.getVotes() - 1);
+            return 1;
+        });
         
         Card updatedCard = cardService.voteCard(1L);
         
         assertNotNull(updatedCard);
         assertEquals(0, updatedCard.getVotes());
-        verify(cardRepository, times(1)).save(any(Card.class));
+        assertFalse(updatedCard.getVotedByCurrentUser());
+        verify(cardRepository, times(1)).incrementVotes(1L, -1);
         verify(webSocketService, times(1)).broadcastBoardUpdate(eq("card_voted"), eq(board.getId()), any());
     }
     
+    @Test
+    void testVoteCard_BudgetUsedUp() {
+        setupSecurityContext();
+        board.setVoteBudget(3);
+        
+        when(cardRepository.findById(1L)).thenReturn(Optional.of(card));
+        when(columnService.getColumnById(1L)).thenReturn(column);
+        when(cardVoteRepository.existsByUserAndCard(user, card)).thenReturn(false);
+        doThrow(new VoteBudgetExceededException(3)).when(voteBudgetService).reserveVote(1L, 1L);
+        
+        VoteBudgetExceededException exception = assertThrows(VoteBudgetExceededException.class, () -> {
+            cardService.voteCard(1L);
+        });
+        
+        assertEquals(3, exception.getVoteBudget());
+        verify(cardVoteRepository, never()).save(any(CardVote.class));
+        verify(cardRepository, never()).incrementVotes(any(), anyInt());
+        verify(webSocketService, never()).broadcastBoardUpdate(any(), any(), any());
+    }
+    
+    @Test
+    void testVoteCard_BudgetRefusedByDatabase() {
+        setupSecurityContext();
+        board.setVoteBudget(3);
+        
+        when(cardRepository.findById(1L)).thenReturn(Optional.of(card));
+        when(columnService.getColumnById(1L)).thenReturn(column);
+        when(cardVoteRepository.existsByUserAndCard(user, card)).thenReturn(false);
+        // Another node used the last vote after this node's counts were loaded
+        when(cardVoteRepository.save(any(CardVote.class))).thenThrow(new DataIntegrityViolationException("insert failed",
+            new RuntimeException("ERROR: Vote budget of 3 used up on board 1")));
+        
+        assertThrows(VoteBudgetExceededException.class, () -> {
+            cardService.voteCard(1L);
+        });
+        
+        verify(voteBudgetService, times(1)).reload(1L);
+        verify(cardRepository, never()).incrementVotes(any(), anyInt());
+    }
+    
+    @Test
+    void testVoteCard_RemoveVoteReleasesBudget() {
+        setupSecurityContext();
+        card.setVotes(1);
+        
+        when(cardRepository.findById(1L)).thenReturn(Optional.of(card));
+        when(columnService.getColumnById(1L)).thenReturn(column);
+        when(cardVoteRepository.existsByUserAndCard(user, card)).thenReturn(true);
+        when(voteBudgetService.getRemainingVotes(1L, 1L)).thenReturn(2);
+        
+        Card updatedCard = cardService.voteCard(1L);
+        
+        assertEquals(2, updatedCard.getRemainingVotes());
+        verify(voteBudgetService, times(1)).releaseVote(1L, 1L);
+        verify(voteBudgetService, never()).reserveVote(any(), any());
+    }
+    
     @Test
     void testVoteCard_CardNotFound() {
         when(cardRepository.findById(1L)).thenReturn(Optional.empty());
@@ -295,4 +625,98 @@ public class CardServiceTest {
         
         assertEquals("Card not found", exception.getMessage());
     }
+    
+    @Test
+    void testVoteCard_RateLimited() {
+        when(cardRepository.findById(1L)).thenReturn(Optional.of(card));
+        doThrow(new RateLimitExceededException(1)).when(rateLimitService).checkCardMutation(board.getId(), "card_vote");
+        
+        assertThrows(RateLimitExceededException.class, () -> {
+            cardService.voteCard(1L);
+        });
+        
+        // Rejected before any access check, write or broadcast
+        verify(columnService, never()).getColumnById(any());
+        verify(cardRepository, never()).save(any(Card.class));
+        verify(webSocketService, never()).broadcastBoardUpdate(any(), any(), any());
+    }
+    
+    @Test
+    void testReactToCard_OneStatementAndBroadcast() {
+        setupSecurityContext();
+        
+        when(cardRepository.findWithColumnById(1L)).thenReturn(Optional.of(card));
+        when(columnService.getColumnById(1L)).thenReturn(column);
+        when(cardRepository.toggleReaction(1L, user.getId(), "tada")).thenReturn(new ReactionToggle(true, Map.of("tada", 3)));
+        
+        CardReactionResponse response = cardService.reactToCard(1L, "tada");
+        
+        assertTrue(response.getReacted());
+        assertEquals(Map.of("tada", 3), response.getReactions());
+        verify(cardRepository, never()).save(any(Card.class));
+        verify(boardActorService, times(1)).cardChangedAfterCommit(board.getId(), 1L);
+        verify(webSocketService, times(1)).broadcastBoardUpdate("card_reacted", board.getId(),
+            new CardReactionsPayload(1L, Map.of("tada", 3)));
+    }
+    
+    @Test
+    void testVoteCard_HiddenCardRejected() {
+        card.setHidden(true);
+        when(cardRepository.findById(1L)).thenReturn(Optional.of(card));
+        when(columnService.getColumnById(1L)).thenReturn(column);
+        
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> cardService.voteCard(1L));
+        
+        assertEquals("Card is hidden until the cards are revealed", exception.getMessage());
+        verify(cardVoteRepository, never()).save(any(CardVote.class));
+        verify(webSocketService, never()).broadcastBoardUpdate(any(), any(), any());
+    }
+    
+    @Test
+    void testReactToCard_UnknownReaction() {
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> cardService.reactToCard(1L, "rocket"));
+        
+        assertEquals("Unknown reaction: rocket", exception.getMessage());
+        verify(cardRepository, never()).toggleReaction(any(), any(), any());
+    }
+    
+    @Test
+    void testReactToCard_RateLimited() {
+        when(cardRepository.findWithColumnById(1L)).thenReturn(Optional.of(card));
+        doThrow(new RateLimitExceededException(1)).when(rateLimitService).checkCardMutation(board.getId(), "card_react");
+        
+        assertThrows(RateLimitExceededException.class, () -> cardService.reactToCard(1L, "heart"));
+        
+        verify(cardRepository, never()).toggleReaction(any(), any(), any());
+        verify(webSocketService, never()).broadcastBoardUpdate(any(), any(), any());
+    }
+    
+    @Test
+    void testHideCards() {
+        cardService.hideCards(1L);
+        
+        InOrder inOrder = inOrder(boardService, boardRepository);
+        inOrder.verify(boardService).getBoardById(1L);
+        inOrder.verify(boardRepository).updateHideCards(1L, true);
+        verify(webSocketService, times(1)).broadcastBoardUpdate("cards_hidden", 1L, null);
+    }
+    
+    @Test
+    void testRevealCards_OneBatchedBroadcast() {
+        List<CardResponse> revealed = List.of(
+            new CardResponse(1L, "First", 0, null, null, 0, 5L, 1L, "Test Column"),
+            new CardResponse(2L, "Second", 1, null, null, 0, 5L, 1L, "Test Column"));
+        when(cardRepository.revealHiddenCards(1L)).thenReturn(revealed);
+        
+        List<CardResponse> cards = cardService.revealCards(1L);
+        
+        assertEquals(revealed, cards);
+        // The flag is cleared under the board lock before the cards are revealed
+        InOrder inOrder = inOrder(boardService, boardRepository, cardRepository);
+        inOrder.verify(boardService).getBoardById(1L);
+        inOrder.verify(boardRepository).updateHideCards(1L, false);
+        inOrder.verify(cardRepository).revealHiddenCards(1L);
+        verify(webSocketService, times(1)).broadcastBoardUpdate("cards_revealed", 1L, revealed);
+        verify(webSocketService, never()).broadcastBoardUpdate(eq("card_created"), any(), any());
+    }
 }
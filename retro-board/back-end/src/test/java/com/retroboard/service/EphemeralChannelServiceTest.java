@@ -0,0 +1,157 @@
+package com.retroboard.service;
+
+import com.retroboard.dto.EphemeralBatch;
+import com.retroboard.dto.EphemeralEvent;
+import com.retroboard.dto.EphemeralMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class EphemeralChannelServiceTest {
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Mock
+    private BoardSubscriptionTracker subscriptionTracker;
+
+    @Mock
+    private BoardService boardService;
+
+    @Mock
+    private MetricsService metricsService;
+
+    @InjectMocks
+    private EphemeralChannelService ephemeralChannelService;
+
+    private final Authentication authentication = new UsernamePasswordAuthenticationToken("alice", null, List.of());
+
+    @BeforeEach
+    void setUp() {
+        // 500 ms between batches, so updates sent right after the first one are merged
+        ReflectionTestUtils.setField(ephemeralChannelService, "maxRate", 2);
+        ephemeralChannelService.init();
+        lenient().when(subscriptionTracker.getSubscriptionCount("/topic/board/1/ephemeral")).thenReturn(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ephemeralChannelService.shutdown();
+    }
+
+    @Test
+    void testSubmit_SendsBatchToBoardSubscribers() {
+        ephemeralChannelService.submit("s1", authentication, 1L, message("drag", 5L, Map.of("x", 120)));
+
+        ArgumentCaptor<EphemeralBatch> batch = ArgumentCaptor.forClass(EphemeralBatch.class);
+        verify(messagingTemplate, timeout(2000)).convertAndSend(eq("/topic/board/1/ephemeral"), batch.capture(),
+            eq(Map.<String, Object>of(SlowConsumerSessionDecorator.COALESCE_KEY_HEADER, "ephemeral.s1")));
+        assertEquals(1L, batch.getValue().getBoardId());
+        assertEquals("alice", batch.getValue().getUser());
+        assertEquals(1, batch.getValue().getEvents().size());
+        assertEquals(Map.of("x", 120), batch.getValue().getEvents().get(0).getState());
+        verify(metricsService, timeout(2000)).recordEphemeralMessages("sent", 1);
+    }
+
+    @Test
+    void testSubmit_ThrottlesAndKeepsLatestPerCard() {
+        ephemeralChannelService.submit("s1", authentication, 1L, message("drag", 5L, Map.of("x", 1)));
+        verify(messagingTemplate, timeout(2000)).convertAndSend(anyString(), any(Object.class), anyMap());
+
+        ephemeralChannelService.submit("s1", authentication, 1L, message("drag", 5L, Map.of("x", 2)));
+        ephemeralChannelService.submit("s1", authentication, 1L, message("typing", 6L, Map.of("typing", true)));
+        ephemeralChannelService.submit("s1", authentication, 1L, message("drag", 5L, Map.of("x", 3)));
+
+        // Nothing more goes out before the interval is over
+        verify(messagingTemplate, after(200).times(1)).convertAndSend(anyString(), any(Object.class), anyMap());
+
+        ArgumentCaptor<EphemeralBatch> batches = ArgumentCaptor.forClass(EphemeralBatch.class);
+        verify(messagingTemplate, timeout(2000).times(2)).convertAndSend(anyString(), batches.capture(), anyMap());
+        List<EphemeralEvent> events = batches.getAllValues().get(1).getEvents();
+        assertEquals(List.of("drag", "typing"), events.stream().map(EphemeralEvent::getKind).toList());
+        assertEquals(Map.of("x", 3), events.get(0).getState());
+        verify(metricsService, times(1)).recordEphemeralMessages("merged", 1);
+    }
+
+    @Test
+    void testSubmit_ChecksBoardAccessOncePerSession() {
+        ephemeralChannelService.submit("s1", authentication, 1L, message("typing", 5L, null));
+        ephemeralChannelService.submit("s1", authentication, 1L, message("typing", 5L, null));
+        ephemeralChannelService.submit("s2", authentication, 1L, message("typing", 5L, null));
+
+        verify(boardService, times(2)).getBoardById(1L);
+    }
+
+    @Test
+    void testSubmit_AccessDenied() {
+        when(boardService.getBoardById(2L)).thenThrow(new RuntimeException("Access denied"));
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+            () -> ephemeralChannelService.submit("s1", authentication, 2L, message("drag", 5L, null)));
+
+        assertEquals("Access denied", exception.getMessage());
+        verify(metricsService, times(1)).recordEphemeralMessages("rejected", 1);
+        verify(messagingTemplate, after(200).never()).convertAndSend(anyString(), any(Object.class), anyMap());
+    }
+
+    @Test
+    void testSubmit_RejectsUnknownKind() {
+        RuntimeException exception = assertThrows(RuntimeException.class,
+            () -> ephemeralChannelService.submit("s1", authentication, 1L, message("card_created", 5L, null)));
+
+        assertEquals("Unknown ephemeral kind: card_created", exception.getMessage());
+        verify(boardService, never()).getBoardById(anyLong());
+        verify(metricsService, times(1)).recordEphemeralMessages("rejected", 1);
+    }
+
+    @Test
+    void testSubmit_SkipsBoardWithoutSubscribers() {
+        when(subscriptionTracker.getSubscriptionCount("/topic/board/3/ephemeral")).thenReturn(0);
+
+        ephemeralChannelService.submit("s1", authentication, 3L, message("drag", 5L, null));
+
+        verify(subscriptionTracker, timeout(2000)).getSubscriptionCount("/topic/board/3/ephemeral");
+        verify(messagingTemplate, after(100).never()).convertAndSend(anyString(), any(Object.class), anyMap());
+    }
+
+    @Test
+    void testDisconnect_ForgetsSender() {
+        ephemeralChannelService.submit("s1", authentication, 1L, message("typing", 5L, null));
+        assertEquals(1, ephemeralChannelService.getSenderCount());
+
+        SessionDisconnectEvent event = mock(SessionDisconnectEvent.class);
+        when(event.getSessionId()).thenReturn("s1");
+        ephemeralChannelService.onDisconnect(event);
+
+        assertEquals(0, ephemeralChannelService.getSenderCount());
+    }
+
+    private EphemeralMessage message(String kind, Long cardId, Map<String, Object> state) {
+        EphemeralMessage message = new EphemeralMessage();
+        message.setKind(kind);
+        message.setCardId(cardId);
+        message.setState(state);
+        return message;
+    }
+}
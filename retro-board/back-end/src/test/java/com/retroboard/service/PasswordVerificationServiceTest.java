@@ -0,0 +1,139 @@
+package com.retroboard.service;
+
+import com.retroboard.exception.ServiceOverloadedException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class PasswordVerificationServiceTest {
+
+    @Mock
+    private MetricsService metricsService;
+
+    @InjectMocks
+    private PasswordVerificationService passwordVerificationService;
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        passwordVerificationService.shutdown();
+    }
+
+    @Test
+    void testVerify_RunsOnPool() {
+        start(1, 1, 1000);
+
+        String thread = passwordVerificationService.verify(() -> Thread.currentThread().getName());
+
+        assertEquals("password-verify-1", thread);
+        verify(metricsService, times(1)).recordLoginVerification(eq("success"), anyLong());
+    }
+
+    @Test
+    void testVerify_PropagatesFailure() {
+        start(1, 1, 1000);
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+            () -> passwordVerificationService.verify(() -> {
+                throw new RuntimeException("Bad credentials");
+            }));
+
+        assertEquals("Bad credentials", exception.getMessage());
+        verify(metricsService, times(1)).recordLoginVerification(eq("failure"), anyLong());
+    }
+
+    @Test
+    void testVerify_QueueFull() {
+        start(1, 1, 5000);
+        CountDownLatch running = new CountDownLatch(1);
+        CompletableFuture.runAsync(() -> passwordVerificationService.verify(() -> block(running)));
+        awaitQuietly(running);
+        CompletableFuture.runAsync(() -> passwordVerificationService.verify(() -> block(null)));
+        waitForQueued(1);
+
+        ServiceOverloadedException exception = assertThrows(ServiceOverloadedException.class,
+            () -> passwordVerificationService.verify(() -> "verified"));
+
+        assertEquals(5, exception.getRetryAfterSeconds());
+        verify(metricsService, times(1)).recordLoginRejected("queue_full");
+    }
+
+    @Test
+    void testVerify_QueueTimeout() {
+        start(1, 1, 100);
+        CountDownLatch running = new CountDownLatch(1);
+        CompletableFuture.runAsync(() -> passwordVerificationService.verify(() -> block(running)));
+        awaitQuietly(running);
+
+        ServiceOverloadedException exception = assertThrows(ServiceOverloadedException.class,
+            () -> passwordVerificationService.verify(() -> "verified"));
+
+        assertEquals(1, exception.getRetryAfterSeconds());
+        // The timed out login left the queue
+        assertEquals(0, passwordVerificationService.getQueuedCount());
+        verify(metricsService, times(1)).recordLoginRejected("timeout");
+    }
+
+    @Test
+    void testVerify_StartedVerificationIsWaitedFor() {
+        start(1, 1, 50);
+
+        String result = passwordVerificationService.verify(() -> {
+            awaitQuietly(new CountDownLatch(1), 200);
+            return "verified";
+        });
+
+        assertEquals("verified", result);
+        verify(metricsService, never()).recordLoginRejected(anyString());
+    }
+
+    private void start(int threads, int queueCapacity, long queueTimeoutMs) {
+        ReflectionTestUtils.setField(passwordVerificationService, "threads", threads);
+        ReflectionTestUtils.setField(passwordVerificationService, "queueCapacity", queueCapacity);
+        ReflectionTestUtils.setField(passwordVerificationService, "queueTimeoutMs", queueTimeoutMs);
+        passwordVerificationService.init();
+    }
+
+    private String block(CountDownLatch running) {
+        if (running != null) {
+            running.countDown();
+        }
+        awaitQuietly(release);
+        return "verified";
+    }
+
+    private void waitForQueued(int count) {
+        long deadline = System.currentTimeMillis() + 2000;
+        while (passwordVerificationService.getQueuedCount() < count && System.currentTimeMillis() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertEquals(count, passwordVerificationService.getQueuedCount());
+    }
+
+    private void awaitQuietly(CountDownLatch latch) {
+        awaitQuietly(latch, 2000);
+    }
+
+    private void awaitQuietly(CountDownLatch latch, long timeoutMs) {
+        try {
+            latch.await(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.retroboard.service;
+
+import com.retroboard.exception.RateLimitExceededException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import java.lang.reflect.Field;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class RateLimitServiceTest {
+    
+    @Mock
+    private MetricsService metricsService;
+    
+    @InjectMocks
+    private RateLimitService rateLimitService;
+    
+    @BeforeEach
+    void setUp() throws Exception {
+        setField("enabled", true);
+        setField("capacity", 3);
+        // Slow refill so the tests do not depend on timing
+        setField("refillPerSecond", 0.1);
+        authenticate("alice");
+    }
+    
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+    
+    @Test
+    void testAllowsBurstUpToCapacity() {
+        for (int i = 0; i < 3; i++) {
+            rateLimitService.checkCardMutation(1L, "card_vote");
+        }
+        
+        RateLimitExceededException exception = assertThrows(RateLimitExceededException.class, () -> {
+            rateLimitService.checkCardMutation(1L, "card_vote");
+        });
+        
+        // One token every 10 seconds
+        assertEquals(10, exception.getRetryAfterSeconds());
+        verify(metricsService, times(1)).recordThrottled("card_vote");
+    }
+    
+    @Test
+    void testBucketsAreIsolatedPerBoardAndUser() {
+        for (int i = 0; i < 3; i++) {
+            rateLimitService.checkCardMutation(1L, "card_vote");
+        }
+        
+        // Same user on another board
+        assertDoesNotThrow(() -> rateLimitService.checkCardMutation(2L, "card_vote"));
+        
+        // Another user on the same board
+        authenticate("bob");
+        assertDoesNotThrow(() -> rateLimitService.checkCardMutation(1L, "card_vote"));
+    }
+    
+    @Test
+    void testUnauthenticatedRequestsAreNotCounted() {
+        SecurityContextHolder.clearContext();
+        
+        for (int i = 0; i < 10; i++) {
+            rateLimitService.checkCardMutation(1L, "card_vote");
+        }
+        
+        verify(metricsService, never()).recordThrottled(any());
+    }
+    
+    @Test
+    void testDisabled() throws Exception {
+        setField("enabled", false);
+        
+        for (int i = 0; i < 10; i++) {
+            rateLimitService.checkCardMutation(1L, "card_vote");
+        }
+        
+        verify(metricsService, never()).recordThrottled(any());
+    }
+    
+    @Test
+    void testConcurrentRequestsNeverExceedCapacity() throws Exception {
+        setField("capacity", 50);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger allowed = new AtomicInteger();
+        AtomicInteger throttled = new AtomicInteger();
+        
+        for (int i = 0; i < 200; i++) {
+            executor.submit(() -> {
+                SecurityContextHolder.getContext().setAuthentication(
+                    new UsernamePasswordAuthenticationToken("alice", null, Collections.emptyList()));
+                start.await();
+                try {
+                    rateLimitService.checkCardMutation(1L, "card_vote");
+                    allowed.incrementAndGet();
+                } catch (RateLimitExceededException e) {
+                    throttled.incrementAndGet();
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        
+        assertEquals(50, allowed.get());
+        assertEquals(150, throttled.get());
+    }
+    
+    @Test
+    void testEvictFullBuckets() throws Exception {
+        setField("refillPerSecond", 1_000_000_000.0);
+        rateLimitService.checkCardMutation(1L, "card_vote");
+        
+        rateLimitService.evictFullBuckets();
+        
+        Field bucketsField = RateLimitService.class.getDeclaredField("buckets");
+        bucketsField.setAccessible(true);
+        assertTrue(((Map<?, ?>) bucketsField.get(rateLimitService)).isEmpty());
+    }
+    
+    private void authenticate(String username) {
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken(username, null, Collections.emptyList()));
+    }
+    
+    private void setField(String name, Object value) throws Exception {
+        Field field = RateLimitService.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(rateLimitService, value);
+    }
+}
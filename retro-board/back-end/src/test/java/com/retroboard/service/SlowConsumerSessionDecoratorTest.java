@@ -0,0 +1,216 @@
+package com.retroboard.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class SlowConsumerSessionDecoratorTest {
+
+    @Mock
+    private WebSocketSession session;
+
+    @Mock
+    private SlowConsumerSessionDecorator.Listener listener;
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final List<String> sent = new CopyOnWriteArrayList<>();
+    // Holds the first write, like a client on a bad connection
+    private final CountDownLatch stalled = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() throws Exception {
+        lenient().doAnswer(invocation -> {
+            TextMessage message = invocation.getArgument(0);
+            if (sent.isEmpty()) {
+                sent.add(message.getPayload());
+                stalled.await(5, TimeUnit.SECONDS);
+            } else {
+                sent.add(message.getPayload());
+            }
+            return null;
+        }).when(session).sendMessage(any());
+    }
+
+    @AfterEach
+    void tearDown() {
+        stalled.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testLagging_KeepsOnlyLatestStatePerCard() throws Exception {
+        SlowConsumerSessionDecorator decorator = decorator(true, 100000);
+
+        decorator.sendMessage(frame("card_created.1", "created 1"));
+        waitFor(() -> sent.size() == 1);
+        decorator.sendMessage(frame("card_voted.1", "votes 1"));
+        decorator.sendMessage(frame(null, "text op"));
+        decorator.sendMessage(frame("card_voted.1", "votes 2"));
+        decorator.sendMessage(frame("card_voted.2", "votes 7"));
+        decorator.sendMessage(frame("card_voted.1", "votes 3"));
+        assertTrue(decorator.isLagging());
+
+        stalled.countDown();
+        waitFor(() -> sent.size() == 4);
+
+        assertEquals(List.of("created 1", "text op", "votes 7", "votes 3"), sent.stream().map(this::body).toList());
+        verify(listener, times(2)).framesDropped("merged", 1);
+        verify(session, never()).close(any());
+        waitFor(() -> !decorator.isLagging());
+    }
+
+    @Test
+    void testLagging_DisconnectPolicySendsEveryFrame() throws Exception {
+        SlowConsumerSessionDecorator decorator = decorator(false, 100000);
+
+        decorator.sendMessage(frame("card_voted.1", "votes 1"));
+        waitFor(() -> sent.size() == 1);
+        decorator.sendMessage(frame("card_voted.1", "votes 2"));
+        decorator.sendMessage(frame("card_voted.1", "votes 3"));
+
+        stalled.countDown();
+        waitFor(() -> sent.size() == 3);
+
+        assertEquals(List.of("votes 1", "votes 2", "votes 3"), sent.stream().map(this::body).toList());
+        verify(listener, never()).framesDropped(any(), anyInt());
+    }
+
+    @Test
+    void testLagging_BufferLimitClosesWithResync() throws Exception {
+        SlowConsumerSessionDecorator decorator = decorator(true, 300);
+
+        decorator.sendMessage(frame(null, "first"));
+        waitFor(() -> sent.size() == 1);
+        for (int i = 0; i < 10; i++) {
+            decorator.sendMessage(frame(null, "op " + i));
+        }
+
+        verify(session, times(1)).close(SlowConsumerSessionDecorator.RESYNC);
+        verify(listener, times(1)).disconnected("buffer_limit");
+        verify(listener, times(1)).framesDropped(eq("disconnected"), anyInt());
+
+        // Nothing else is sent once the session is being closed
+        stalled.countDown();
+        decorator.sendMessage(frame(null, "late"));
+        waitFor(() -> !decorator.isLagging());
+        assertEquals(1, sent.size());
+    }
+
+    @Test
+    void testLagging_EphemeralFramesMergedUnderDisconnectPolicy() throws Exception {
+        SlowConsumerSessionDecorator decorator = decorator(false, 100000);
+
+        decorator.sendMessage(frame(null, "first"));
+        waitFor(() -> sent.size() == 1);
+        decorator.sendMessage(frame("ephemeral.s1", "drag 1"));
+        decorator.sendMessage(frame("card_voted.1", "votes 1"));
+        decorator.sendMessage(frame("ephemeral.s1", "drag 2"));
+        decorator.sendMessage(frame("ephemeral.s2", "typing"));
+
+        stalled.countDown();
+        waitFor(() -> sent.size() == 4);
+
+        assertEquals(List.of("first", "votes 1", "drag 2", "typing"), sent.stream().map(this::body).toList());
+        verify(listener, times(1)).framesDropped("merged", 1);
+    }
+
+    @Test
+    void testLagging_EphemeralOverflowIsDroppedWithoutDisconnect() throws Exception {
+        SlowConsumerSessionDecorator decorator = decorator(true, 300);
+
+        decorator.sendMessage(frame(null, "first"));
+        waitFor(() -> sent.size() == 1);
+        for (int i = 0; i < 10; i++) {
+            decorator.sendMessage(frame("ephemeral.s" + i, "drag " + i));
+        }
+
+        verify(session, never()).close(any());
+        verify(listener, never()).disconnected(any());
+        verify(listener, atLeastOnce()).framesDropped("ephemeral_overflow", 1);
+
+        stalled.countDown();
+        waitFor(() -> !decorator.isLagging());
+        assertTrue(sent.size() > 1 && sent.size() < 11);
+    }
+
+    @Test
+    void testCoalesceKey_FromStompHeaders() {
+        TextMessage text = frame("card_voted.5", "{}");
+        BinaryMessage binary = new BinaryMessage(text.getPayload().getBytes(StandardCharsets.UTF_8));
+
+        assertEquals("sub-0 card_voted.5", SlowConsumerSessionDecorator.coalesceKey(text));
+        assertEquals("sub-0 card_voted.5", SlowConsumerSessionDecorator.coalesceKey(binary));
+        assertNull(SlowConsumerSessionDecorator.coalesceKey(frame(null, "{}")));
+    }
+
+    @Test
+    void testSendFailure_ClosesSession() throws Exception {
+        doThrow(new IOException("Broken pipe")).when(session).sendMessage(any());
+        SlowConsumerSessionDecorator decorator = decorator(true, 100000);
+
+        decorator.sendMessage(frame(null, "first"));
+
+        verify(session, timeout(2000)).close(CloseStatus.SESSION_NOT_RELIABLE);
+        verify(listener).disconnected("send_failed");
+    }
+
+    @Test
+    void testSendQueueFull_ClosesSessionForResync() throws Exception {
+        // Every writer thread is busy and no more sessions can wait for one
+        SlowConsumerSessionDecorator decorator = new SlowConsumerSessionDecorator(session, runnable -> {
+            throw new RejectedExecutionException();
+        }, 60000, 100000, true, listener);
+
+        decorator.sendMessage(frame(null, "first"));
+        decorator.sendMessage(frame(null, "second"));
+
+        verify(session, times(1)).close(SlowConsumerSessionDecorator.RESYNC);
+        verify(listener, times(1)).disconnected("send_queue_full");
+        verify(session, never()).sendMessage(any());
+    }
+
+    private SlowConsumerSessionDecorator decorator(boolean coalesce, int bufferSizeLimit) {
+        return new SlowConsumerSessionDecorator(session, executor, 60000, bufferSizeLimit, coalesce, listener);
+    }
+
+    private TextMessage frame(String coalesceKey, String body) {
+        String headers = "MESSAGE\ndestination:/topic/board/1\nsubscription:sub-0\n"
+            + (coalesceKey != null ? "coalesce-key:" + coalesceKey + "\n" : "");
+        return new TextMessage(headers + "\n" + body + "\0");
+    }
+
+    private String body(String frame) {
+        return frame.substring(frame.indexOf("\n\n") + 2, frame.length() - 1);
+    }
+
+    private void waitFor(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 2000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Condition not met in time");
+            Thread.onSpinWait();
+        }
+    }
+}
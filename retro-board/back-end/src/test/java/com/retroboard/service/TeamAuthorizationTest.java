@@ -46,6 +46,9 @@ public class TeamAuthorizationTest {
     @Mock
     private UserDetails userDetails;
     
+    @Mock
+    private BoardActorService boardActorService;
+    
     @InjectMocks
     private TeamService teamService;
     
@@ -46,6 +46,9 @@ public class TeamServiceTest {
     @Mock
     private UserDetails userDetails;
     
+    @Mock
+    private BoardActorService boardActorService;
+    
     @InjectMocks
     private TeamService teamService;
     
@@ -149,6 +152,7 @@ public class TeamServiceTest {
         // Verify repository calls
         verify(teamRepository, times(1)).findById(1L);
         verify(teamRepository, times(1)).delete(team);
+        verify(boardActorService, times(1)).teamAccessChangedAfterCommit();
     }
     
     @Test
@@ -215,6 +219,7 @@ public class TeamServiceTest {
         // Verify repository calls
         verify(teamRepository, times(1)).findById(1L);
         verify(teamRepository, times(1)).save(any(Team.class));
+        verify(boardActorService, times(1)).teamAccessChangedAfterCommit();
     }
     
     @Test
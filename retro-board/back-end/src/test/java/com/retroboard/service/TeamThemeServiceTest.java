@@ -0,0 +1,116 @@
+package com.retroboard.service;
+
+import com.retroboard.dto.TeamThemesResponse;
+import com.retroboard.dto.TermTrendResponse;
+import com.retroboard.repository.BoardTermRepository;
+import com.retroboard.repository.BoardTermRepository.TeamBoard;
+import com.retroboard.repository.BoardTermRepository.TermCount;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TeamThemeServiceTest {
+
+    @Mock
+    private BoardTermRepository boardTermRepository;
+
+    @Mock
+    private TeamService teamService;
+
+    @InjectMocks
+    private TeamThemeService teamThemeService;
+
+    @Test
+    void testCardTextChanged_AppliesOnlyTheDifference() {
+        teamThemeService.cardTextChanged(1L, "CI is slow", "CI is very flaky");
+
+        verify(boardTermRepository, times(1)).applyDeltas(1L,
+            Map.of("slow", -1, "ci slow", -1, "flaky", 1, "ci flaky", 1, "ci", 0));
+    }
+
+    @Test
+    void testCardTextChanged_CreateAndDelete() {
+        teamThemeService.cardTextChanged(1L, null, "Deploys take forever");
+        teamThemeService.cardTextChanged(1L, "Deploys take forever", null);
+
+        verify(boardTermRepository, times(1)).applyDeltas(1L, Map.of("deploys", 1, "take", 1, "forever", 1,
+            "deploys take", 1, "take forever", 1));
+        verify(boardTermRepository, times(1)).applyDeltas(1L, Map.of("deploys", -1, "take", -1, "forever", -1,
+            "deploys take", -1, "take forever", -1));
+    }
+
+    @Test
+    void testGetTeamThemes_RecurringAndTrending() {
+        // Six boards, newest first: the newest two are recent
+        when(boardTermRepository.findRecentBoards(5L, 6)).thenReturn(List.of(
+            new TeamBoard(16L, true), new TeamBoard(15L, true), new TeamBoard(14L, true),
+            new TeamBoard(13L, true), new TeamBoard(12L, true), new TeamBoard(11L, true)));
+        when(boardTermRepository.countTerms(List.of(16L, 15L, 14L, 13L, 12L, 11L), List.of(16L, 15L))).thenReturn(List.of(
+            new TermCount("standup", 6, 8, 2),
+            new TermCount("flaky tests", 3, 7, 6),
+            new TermCount("coffee", 1, 1, 0)));
+
+        TeamThemesResponse themes = teamThemeService.getTeamThemes(5L, 6, 20);
+
+        verify(teamService, times(1)).getTeamById(5L);
+        assertEquals(6, themes.getBoardCount());
+        assertEquals(2, themes.getRecentBoardCount());
+        assertEquals(List.of("standup", "flaky tests"), themes.getRecurring().stream().map(TermTrendResponse::getTerm).toList());
+        // 6 cards on 2 recent boards against 1 card on 4 boards before
+        TermTrendResponse flaky = themes.getTrending().get(0);
+        assertEquals("flaky tests", flaky.getTerm());
+        assertEquals(2.75, flaky.getTrend());
+        assertEquals(1, themes.getTrending().size());
+        verify(boardTermRepository, never()).findCardTexts(anyLong());
+    }
+
+    @Test
+    void testGetTeamThemes_IndexesBoardsOnce() {
+        when(boardTermRepository.findRecentBoards(5L, 10)).thenReturn(List.of(new TeamBoard(2L, false), new TeamBoard(1L, true)));
+        when(boardTermRepository.findCardTexts(2L)).thenReturn(List.of("CI is slow", "The CI is slow again", "Retro food"));
+
+        teamThemeService.getTeamThemes(5L, 10, 20);
+
+        InOrder order = inOrder(boardTermRepository);
+        order.verify(boardTermRepository).lockBoard(2L);
+        order.verify(boardTermRepository).findCardTexts(2L);
+        verify(boardTermRepository, times(1)).replaceTerms(2L, Map.of("ci", 2, "slow", 2, "ci slow", 2,
+            "retro", 1, "food", 1, "retro food", 1));
+        verify(boardTermRepository, never()).findCardTexts(1L);
+        verify(boardTermRepository, never()).replaceTerms(eq(1L), anyMap());
+    }
+
+    @Test
+    void testGetTeamThemes_ClampsLimits() {
+        when(boardTermRepository.findRecentBoards(5L, 200)).thenReturn(List.of());
+
+        TeamThemesResponse themes = teamThemeService.getTeamThemes(5L, 100000, 0);
+
+        assertEquals(0, themes.getBoardCount());
+        assertTrue(themes.getRecurring().isEmpty());
+        verify(boardTermRepository, times(1)).countTerms(List.of(), List.of());
+    }
+
+    @Test
+    void testGetTeamThemes_AccessDenied() {
+        when(teamService.getTeamById(5L)).thenThrow(new RuntimeException("Access denied: You don't have permission to access this team"));
+
+        assertThrows(RuntimeException.class, () -> teamThemeService.getTeamThemes(5L, 10, 20));
+
+        verify(boardTermRepository, never()).findRecentBoards(anyLong(), anyInt());
+        verify(boardTermRepository, never()).countTerms(any(), any());
+    }
+}
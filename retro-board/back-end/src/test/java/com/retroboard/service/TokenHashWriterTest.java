@@ -0,0 +1,143 @@
+package com.retroboard.service;
+
+import com.retroboard.exception.ServiceOverloadedException;
+import com.retroboard.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TokenHashWriterTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private MetricsService metricsService;
+
+    @InjectMocks
+    private TokenHashWriter tokenHashWriter;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(tokenHashWriter, "batchSize", 100);
+        ReflectionTestUtils.setField(tokenHashWriter, "writeTimeoutMs", 2000L);
+        tokenHashWriter.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        tokenHashWriter.shutdown();
+    }
+
+    @Test
+    void testWrite_StoresBeforeReturning() {
+        tokenHashWriter.write(1L, "hash-1");
+
+        verify(userRepository, times(1)).updateActiveTokenHashes(Map.of(1L, "hash-1"));
+        verify(metricsService, times(1)).recordTokenWriteBatch(1);
+    }
+
+    @Test
+    void testWrite_BatchesLoginsQueuedDuringAWrite() throws Exception {
+        // Hold the first batch so the other logins queue up behind it
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Map<Long, String>> batches = new ArrayList<>();
+        doAnswer(invocation -> {
+            batches.add(new HashMap<>(invocation.getArgument(0)));
+            writing.countDown();
+            release.await(2, TimeUnit.SECONDS);
+            return null;
+        }).when(userRepository).updateActiveTokenHashes(anyMap());
+
+        ExecutorService logins = Executors.newFixedThreadPool(5);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            results.add(logins.submit(() -> tokenHashWriter.write(1L, "hash-1")));
+            assertTrue(writing.await(2, TimeUnit.SECONDS));
+            for (long userId = 2; userId <= 5; userId++) {
+                long id = userId;
+                results.add(logins.submit(() -> tokenHashWriter.write(id, "hash-" + id)));
+            }
+            long deadline = System.currentTimeMillis() + 2000;
+            while (tokenHashWriter.getQueuedCount() < 4 && System.currentTimeMillis() < deadline) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            for (Future<?> result : results) {
+                result.get(2, TimeUnit.SECONDS);
+            }
+        } finally {
+            logins.shutdownNow();
+        }
+        assertEquals(List.of(Map.of(1L, "hash-1"), Map.of(2L, "hash-2", 3L, "hash-3", 4L, "hash-4", 5L, "hash-5")), batches);
+        verify(metricsService, times(1)).recordTokenWriteBatch(4);
+    }
+
+    @Test
+    void testWrite_FailureReachesLogin() {
+        doThrow(new RuntimeException("Connection refused")).when(userRepository).updateActiveTokenHashes(anyMap());
+
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> tokenHashWriter.write(1L, "hash-1"));
+
+        assertEquals("Connection refused", exception.getMessage());
+        verify(metricsService, never()).recordTokenWriteBatch(anyInt());
+    }
+
+    @Test
+    void testWrite_SlowWriteAnsweredWithOverloaded() throws Exception {
+        ReflectionTestUtils.setField(tokenHashWriter, "writeTimeoutMs", 100L);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> release.await(2, TimeUnit.SECONDS)).when(userRepository).updateActiveTokenHashes(anyMap());
+
+        try {
+            ServiceOverloadedException exception = assertThrows(ServiceOverloadedException.class,
+                () -> tokenHashWriter.write(1L, "hash-1"));
+
+            assertEquals(1, exception.getRetryAfterSeconds());
+            verify(metricsService, times(1)).recordLoginRejected("token_write_timeout");
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void testWrite_RefusedAfterShutdown() {
+        tokenHashWriter.shutdown();
+
+        assertThrows(ServiceOverloadedException.class, () -> tokenHashWriter.write(1L, "hash-1"));
+        assertEquals(0, tokenHashWriter.getQueuedCount());
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void testWrite_WriterSurvivesError() {
+        doThrow(new OutOfMemoryError("Java heap space")).doNothing().when(userRepository).updateActiveTokenHashes(anyMap());
+
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> tokenHashWriter.write(1L, "hash-1"));
+        assertInstanceOf(OutOfMemoryError.class, exception.getCause());
+
+        // The next login is written by the same thread
+        tokenHashWriter.write(2L, "hash-2");
+        verify(userRepository, times(1)).updateActiveTokenHashes(Map.of(2L, "hash-2"));
+    }
+}
@@ -0,0 +1,138 @@
+package com.retroboard.service;
+
+import com.retroboard.exception.VoteBudgetExceededException;
+import com.retroboard.repository.BoardVoteUsageRepository;
+import com.retroboard.repository.BoardVoteUsageRepository.BoardVoteUsage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class VoteBudgetServiceTest {
+
+    @Mock
+    private BoardVoteUsageRepository boardVoteUsageRepository;
+
+    @InjectMocks
+    private VoteBudgetService voteBudgetService;
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testReserveVote_CountsLoadedOnceAndEnforced() {
+        when(boardVoteUsageRepository.findByBoardId(7L)).thenReturn(new BoardVoteUsage(3, Map.of(10L, 2)));
+        ReflectionTestUtils.setField(voteBudgetService, "liveBoardMode", true);
+
+        voteBudgetService.reserveVote(7L, 10L);
+
+        assertEquals(0, voteBudgetService.getRemainingVotes(7L, 10L));
+        assertEquals(3, voteBudgetService.getRemainingVotes(7L, 20L));
+        VoteBudgetExceededException exception = assertThrows(VoteBudgetExceededException.class,
+            () -> voteBudgetService.reserveVote(7L, 10L));
+        assertEquals(3, exception.getVoteBudget());
+        verify(boardVoteUsageRepository, times(1)).findByBoardId(7L);
+    }
+
+    @Test
+    void testReserveVote_ReloadsBeforeRefusing() {
+        // Another node removed one of the user's votes after the counts were loaded
+        when(boardVoteUsageRepository.findByBoardId(7L))
+            .thenReturn(new BoardVoteUsage(2, Map.of(10L, 2)))
+            .thenReturn(new BoardVoteUsage(2, Map.of(10L, 1)));
+
+        voteBudgetService.reserveVote(7L, 10L);
+
+        assertEquals(0, voteBudgetService.getRemainingVotes(7L, 10L));
+        verify(boardVoteUsageRepository, times(2)).findByBoardId(7L);
+    }
+
+    @Test
+    void testReserveVote_NoBudget() {
+        when(boardVoteUsageRepository.findByBoardId(7L)).thenReturn(new BoardVoteUsage(null, Map.of()));
+
+        for (int i = 0; i < 50; i++) {
+            voteBudgetService.reserveVote(7L, 10L);
+        }
+
+        assertNull(voteBudgetService.getRemainingVotes(7L, 10L));
+        verify(boardVoteUsageRepository, times(1)).findByBoardId(7L);
+    }
+
+    @Test
+    void testReserveVote_UndoneOnRollback() {
+        when(boardVoteUsageRepository.findByBoardId(7L)).thenReturn(new BoardVoteUsage(1, Map.of()));
+        TransactionSynchronizationManager.initSynchronization();
+
+        voteBudgetService.reserveVote(7L, 10L);
+        assertEquals(0, voteBudgetService.getRemainingVotes(7L, 10L));
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+
+        assertEquals(1, voteBudgetService.getRemainingVotes(7L, 10L));
+    }
+
+    @Test
+    void testReleaseVote_GivesVoteBack() {
+        when(boardVoteUsageRepository.findByBoardId(7L)).thenReturn(new BoardVoteUsage(2, Map.of(10L, 2)));
+
+        voteBudgetService.releaseVote(7L, 10L);
+
+        assertEquals(1, voteBudgetService.getRemainingVotes(7L, 10L));
+    }
+
+    @Test
+    void testBudgetChanged_KeepsCounts() {
+        when(boardVoteUsageRepository.findByBoardId(7L)).thenReturn(new BoardVoteUsage(2, Map.of(10L, 2)));
+        voteBudgetService.getRemainingVotes(7L, 10L);
+
+        voteBudgetService.budgetChangedAfterCommit(7L, 5);
+
+        assertEquals(3, voteBudgetService.getRemainingVotes(7L, 10L));
+        verify(boardVoteUsageRepository, times(1)).findByBoardId(7L);
+    }
+
+    @Test
+    void testUsageChanged_ReloadsUnlessLiveBoardMode() {
+        when(boardVoteUsageRepository.findByBoardId(7L)).thenReturn(new BoardVoteUsage(2, Map.of(10L, 2)));
+        voteBudgetService.getRemainingVotes(7L, 10L);
+
+        ReflectionTestUtils.setField(voteBudgetService, "liveBoardMode", true);
+        voteBudgetService.usageChangedAfterCommit(7L);
+        assertEquals(1, voteBudgetService.getBoardCount());
+
+        ReflectionTestUtils.setField(voteBudgetService, "liveBoardMode", false);
+        voteBudgetService.usageChangedAfterCommit(7L);
+        assertEquals(0, voteBudgetService.getBoardCount());
+    }
+
+    @Test
+    void testEvictIdleBoards() {
+        when(boardVoteUsageRepository.findByBoardId(7L)).thenReturn(new BoardVoteUsage(2, Map.of()));
+        voteBudgetService.getRemainingVotes(7L, 10L);
+
+        ReflectionTestUtils.setField(voteBudgetService, "idleEvictionMs", 60000L);
+        voteBudgetService.evictIdleBoards();
+        assertEquals(1, voteBudgetService.getBoardCount());
+
+        ReflectionTestUtils.setField(voteBudgetService, "idleEvictionMs", -1L);
+        voteBudgetService.evictIdleBoards();
+        assertEquals(0, voteBudgetService.getBoardCount());
+    }
+}
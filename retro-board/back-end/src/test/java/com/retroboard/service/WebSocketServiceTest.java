@@ -1,16 +1,28 @@
 package com.retroboard.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
 import com.retroboard.dto.BoardUpdateEvent;
+import com.retroboard.dto.CardResponse;
 import com.retroboard.entity.Card;
 import com.retroboard.entity.BoardColumn;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import java.util.Map;
 
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -19,6 +31,21 @@ public class WebSocketServiceTest {
     @Mock
     private SimpMessagingTemplate messagingTemplate;
     
+    @Mock
+    private BoardSubscriptionTracker subscriptionTracker;
+    
+    @Mock
+    private MetricsService metricsService;
+    
+    @Spy
+    private BoardEventEncoder boardEventEncoder = new BoardEventEncoder();
+    
+    @Mock
+    private BoardEventLogService boardEventLogService;
+    
+    @Mock
+    private BoardViewCache boardViewCache;
+    
     @InjectMocks
     private WebSocketService webSocketService;
     
@@ -48,6 +75,44 @@ public class WebSocketServiceTest {
         
         String expectedDestination = "/topic/board/" + boardId;
         verify(messagingTemplate, times(1)).convertAndSend(eq(expectedDestination), any(BoardUpdateEvent.class));
+        
+        ArgumentCaptor<BoardUpdateEvent> logged = ArgumentCaptor.forClass(BoardUpdateEvent.class);
+        verify(boardEventLogService, times(1)).record(logged.capture());
+        assertEquals(eventType, logged.getValue().getType());
+        assertEquals(boardId, logged.getValue().getBoardId());
+        verify(boardViewCache, times(1)).invalidate(boardId);
+    }
+    
+    @Test
+    void testBroadcastBoardUpdate_LoggedOnlyOnceCommitted() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            webSocketService.broadcastBoardUpdate("card_created", 1L, card);
+            verify(boardEventLogService, never()).record(any());
+            
+            TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        
+        verify(boardEventLogService, times(1)).record(any(BoardUpdateEvent.class));
+    }
+    
+    @Test
+    void testBroadcastBoardUpdate_RolledBackNotLogged() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            webSocketService.broadcastBoardUpdate("card_created", 1L, card);
+            
+            TransactionSynchronizationUtils.invokeAfterCompletion(TransactionSynchronizationManager.getSynchronizations(),
+                TransactionSynchronization.STATUS_ROLLED_BACK);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        
+        // Subscribers saw the broadcast, but the activity log only records what was committed
+        verify(messagingTemplate, times(1)).convertAndSend(eq("/topic/board/1"), any(BoardUpdateEvent.class));
+        verify(boardEventLogService, never()).record(any());
     }
     
     @Test
@@ -61,6 +126,16 @@ public class WebSocketServiceTest {
         verify(messagingTemplate, times(1)).convertAndSend(eq(expectedDestination), any(BoardUpdateEvent.class));
     }
     
+    @Test
+    void testBroadcastLiveUpdate_KeepsCachedBoardView() {
+        Long boardId = 1L;
+        
+        webSocketService.broadcastLiveUpdate("card_text_op", boardId, Map.of("cardId", 1L));
+        
+        verify(messagingTemplate, times(1)).convertAndSend(eq("/topic/board/" + boardId), any(BoardUpdateEvent.class));
+        verify(boardViewCache, never()).invalidate(any());
+    }
+    
     @Test
     void testBroadcastBoardUpdate_CardDeleted() {
         String eventType = "card_deleted";
@@ -117,4 +192,69 @@ public class WebSocketServiceTest {
         String expectedDestination = "/topic/board/" + boardId;
         verify(messagingTemplate, times(1)).convertAndSend(eq(expectedDestination), any(BoardUpdateEvent.class));
     }
-}
\ No newline at end of file
+    
+    @Test
+    void testBroadcastBoardUpdate_RecordsFanout() {
+        Long boardId = 1L;
+        when(subscriptionTracker.getSubscriptionCount("/topic/board/" + boardId)).thenReturn(3);
+        when(subscriptionTracker.getSubscriptionCount("/topic/board/" + boardId + "/v2")).thenReturn(0);
+        when(subscriptionTracker.getSubscriptionCount("/topic/board/" + boardId + "/v2.cbor")).thenReturn(0);
+        when(subscriptionTracker.getSubscriptionCount("/topic/board/" + boardId + "/v2.smile")).thenReturn(0);
+        
+        webSocketService.broadcastBoardUpdate("card_voted", boardId, card);
+        
+        verify(metricsService, times(1)).recordBroadcast(eq("card_voted"), anyLong(), eq(3));
+    }
+    
+    @Test
+    void testBroadcastBoardUpdate_CompactVariantsOnlyWhenSubscribed() throws Exception {
+        Long boardId = 1L;
+        when(subscriptionTracker.getSubscriptionCount("/topic/board/1")).thenReturn(2);
+        when(subscriptionTracker.getSubscriptionCount("/topic/board/1/v2")).thenReturn(0);
+        when(subscriptionTracker.getSubscriptionCount("/topic/board/1/v2.cbor")).thenReturn(1);
+        when(subscriptionTracker.getSubscriptionCount("/topic/board/1/v2.smile")).thenReturn(0);
+        CardResponse cardResponse = new CardResponse(1L, "Test Description", 0, null, null, 4, 2L, 1L, "Test Column");
+        
+        webSocketService.broadcastBoardUpdate("card_voted", boardId, cardResponse);
+        
+        ArgumentCaptor<Message<?>> captor = ArgumentCaptor.forClass(Message.class);
+        verify(messagingTemplate, times(1)).send(eq("/topic/board/1/v2.cbor"), captor.capture());
+        verify(messagingTemplate, never()).send(eq("/topic/board/1/v2"), any());
+        verify(messagingTemplate, never()).send(eq("/topic/board/1/v2.smile"), any());
+        verify(boardEventEncoder, times(1)).encode(any(), eq(BoardEventEncoder.Encoding.CBOR));
+        verify(metricsService, times(1)).recordBroadcast(eq("card_voted"), anyLong(), eq(3));
+        
+        // The vote event only carries the card id and count
+        JsonNode decoded = new CBORMapper().readTree((byte[]) captor.getValue().getPayload());
+        assertEquals(2, decoded.get("v").asInt());
+        assertEquals("card_voted", decoded.get("type").asText());
+        assertEquals(1L, decoded.get("data").get("id").asLong());
+        assertEquals(4, decoded.get("data").get("votes").asInt());
+        assertEquals(2, decoded.get("data").size());
+        assertEquals("cbor", SimpMessageHeaderAccessor.wrap(captor.getValue()).getFirstNativeHeader("encoding"));
+    }
+    
+    @Test
+    void testBroadcastBoardUpdate_CardStateEventsCarryCoalesceKey() {
+        when(subscriptionTracker.getSubscriptionCount(anyString())).thenReturn(0);
+        when(subscriptionTracker.getSubscriptionCount("/topic/board/1/v2")).thenReturn(1);
+        CardResponse cardResponse = new CardResponse(5L, "Test Description", 0, null, null, 4, 2L, 1L, "Test Column");
+        
+        webSocketService.broadcastBoardUpdate("card_voted", 1L, cardResponse);
+        
+        verify(messagingTemplate, times(1)).convertAndSend(eq("/topic/board/1"), any(BoardUpdateEvent.class),
+            eq(Map.<String, Object>of("coalesce-key", "card_voted.5")));
+        ArgumentCaptor<Message<?>> captor = ArgumentCaptor.forClass(Message.class);
+        verify(messagingTemplate, times(1)).send(eq("/topic/board/1/v2"), captor.capture());
+        assertEquals("card_voted.5", SimpMessageHeaderAccessor.wrap(captor.getValue()).getFirstNativeHeader("coalesce-key"));
+    }
+    
+    @Test
+    void testBroadcastBoardUpdate_OtherEventsWithoutCoalesceKey() {
+        CardResponse cardResponse = new CardResponse(5L, "Test Description", 0, null, null, 4, 2L, 1L, "Test Column");
+        
+        webSocketService.broadcastBoardUpdate("card_created", 1L, cardResponse);
+        
+        verify(messagingTemplate, times(1)).convertAndSend(eq("/topic/board/1"), any(BoardUpdateEvent.class));
+    }
+}
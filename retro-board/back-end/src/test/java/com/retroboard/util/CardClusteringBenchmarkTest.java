@@ -0,0 +1,63 @@
+package com.retroboard.util;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Time to suggest card groups for a 1,000-card column on the calling thread, with the grouping service's bands.
+// Run with ./gradlew benchmark; excluded from ./gradlew test.
+@Tag("benchmark")
+class CardClusteringBenchmarkTest {
+
+    private static final int CARDS = 1000;
+    private static final int RUNS = 20;
+
+    private static final String[] TOPICS = {
+        "deploys take forever", "the CI pipeline is slow", "standups run too long", "too many meetings on Monday",
+        "flaky integration tests", "unclear sprint goals", "great pairing sessions", "code reviews wait for days",
+        "on-call pages at night", "documentation is out of date", "new hires ramp up quickly", "release notes are late"
+    };
+    private static final String[] FILLER = {
+        "again", "this sprint", "for everyone", "honestly", "every week", "lately", "still", "in the backend team"
+    };
+
+    @Test
+    void benchmarkCluster() {
+        Random random = new Random(42);
+        List<String> texts = new ArrayList<>();
+        for (int i = 0; i < CARDS; i++) {
+            // Two thirds reword a common topic, the rest are one-off cards
+            if (i % 3 == 2) {
+                texts.add("card " + i + " about item " + Integer.toString(random.nextInt(1_000_000), 36));
+            } else {
+                texts.add(TOPICS[random.nextInt(TOPICS.length)] + " " + FILLER[random.nextInt(FILLER.length)]);
+            }
+        }
+        MinHashLsh minHash = new MinHashLsh(40, 3, 42);
+
+        // Warm up the JIT before timing
+        for (int i = 0; i < 5; i++) {
+            minHash.cluster(texts, 0.4);
+        }
+
+        long best = Long.MAX_VALUE;
+        long total = 0;
+        List<List<Integer>> clusters = List.of();
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            clusters = minHash.cluster(texts, 0.4);
+            long elapsed = System.nanoTime() - start;
+            best = Math.min(best, elapsed);
+            total += elapsed;
+        }
+
+        System.out.printf("%-22s %8.1f ms best %8.1f ms mean, %d groups%n", "cluster 1,000 cards",
+            best / 1e6, total / 1e6 / RUNS, clusters.size());
+        assertTrue(clusters.size() >= TOPICS.length / 2);
+        assertTrue(total / RUNS < 500_000_000L, "Clustering 1,000 cards should take well under a second");
+    }
+}
@@ -0,0 +1,84 @@
+package com.retroboard.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashedWheelTimerTest {
+
+    // 8 buckets of 10ms: anything past 80ms needs more than one turn of the wheel
+    private final HashedWheelTimer timer = new HashedWheelTimer("test-timer", 10, TimeUnit.MILLISECONDS, 8, Runnable::run);
+
+    @AfterEach
+    void tearDown() {
+        timer.stop();
+    }
+
+    @Test
+    void testSchedule_FiresNotBeforeDeadline() throws Exception {
+        CountDownLatch fired = new CountDownLatch(1);
+        long start = System.nanoTime();
+
+        timer.schedule(fired::countDown, 150, TimeUnit.MILLISECONDS);
+
+        assertTrue(fired.await(2, TimeUnit.SECONDS));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 150);
+        assertEquals(0, timer.getPendingCount());
+    }
+
+    @Test
+    void testSchedule_FiresInDeadlineOrderAcrossRounds() throws Exception {
+        List<Integer> order = new CopyOnWriteArrayList<>();
+        CountDownLatch fired = new CountDownLatch(4);
+
+        for (int delay : new int[] { 250, 30, 170, 90 }) {
+            timer.schedule(() -> {
+                order.add(delay);
+                fired.countDown();
+            }, delay, TimeUnit.MILLISECONDS);
+        }
+
+        assertTrue(fired.await(2, TimeUnit.SECONDS));
+        assertEquals(List.of(30, 90, 170, 250), order);
+    }
+
+    @Test
+    void testCancel_NeverFires() throws Exception {
+        AtomicInteger fired = new AtomicInteger();
+        CountDownLatch later = new CountDownLatch(1);
+
+        HashedWheelTimer.Timeout timeout = timer.schedule(fired::incrementAndGet, 50, TimeUnit.MILLISECONDS);
+        timer.schedule(later::countDown, 100, TimeUnit.MILLISECONDS);
+
+        assertTrue(timeout.cancel());
+        assertTrue(later.await(2, TimeUnit.SECONDS));
+        assertEquals(0, fired.get());
+        assertFalse(timeout.cancel());
+    }
+
+    @Test
+    void testSchedule_PastDeadlineFiresOnNextTick() throws Exception {
+        CountDownLatch fired = new CountDownLatch(1);
+
+        timer.schedule(fired::countDown, -1000, TimeUnit.MILLISECONDS);
+
+        assertTrue(fired.await(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void testSchedule_ManyTimeoutsOneThread() throws Exception {
+        CountDownLatch fired = new CountDownLatch(10000);
+
+        for (int i = 0; i < 10000; i++) {
+            timer.schedule(fired::countDown, i % 200, TimeUnit.MILLISECONDS);
+        }
+
+        assertTrue(fired.await(5, TimeUnit.SECONDS));
+        assertEquals(0, timer.getPendingCount());
+    }
+}
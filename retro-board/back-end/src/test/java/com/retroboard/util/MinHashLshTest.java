@@ -0,0 +1,69 @@
+package com.retroboard.util;
+
+import org.junit.jupiter.api.Test;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+class MinHashLshTest {
+
+    private final MinHashLsh minHash = new MinHashLsh(40, 3, 7);
+
+    @Test
+    void testCluster_GroupsRewordedCards() {
+        List<String> texts = List.of(
+            "CI is slow",
+            "Great pairing sessions this sprint",
+            "The CI is really slow",
+            "Deploys take forever",
+            "deploy takes forever!",
+            "Coffee machine broke");
+
+        List<List<Integer>> clusters = minHash.cluster(texts, 0.4);
+
+        assertEquals(List.of(List.of(0, 2), List.of(3, 4)), clusters);
+    }
+
+    @Test
+    void testCluster_DifferentTopicsStayApart() {
+        List<List<Integer>> clusters = minHash.cluster(List.of("CI is slow", "CI is fast", "Release notes are late"), 0.4);
+
+        assertTrue(clusters.isEmpty());
+    }
+
+    @Test
+    void testCluster_JoinsTransitively() {
+        List<List<Integer>> clusters = minHash.cluster(
+            List.of("standups run long", "standup runs too long", "standups run long every day"), 0.4);
+
+        assertEquals(List.of(List.of(0, 1, 2)), clusters);
+    }
+
+    @Test
+    void testCluster_IgnoresEmptyTexts() {
+        List<List<Integer>> clusters = minHash.cluster(List.of("", "  !! ", "the and", "CI is slow", "ci is slow"), 0.4);
+
+        assertEquals(List.of(List.of(3, 4)), clusters);
+    }
+
+    @Test
+    void testSignature_SameTextSameSignature() {
+        assertArrayEquals(minHash.signature("CI is slow"), minHash.signature("ci IS slow."));
+        assertEquals(1.0, MinHashLsh.similarity(minHash.signature("CI is slow"), minHash.signature("The CI is slow")));
+        assertNull(minHash.signature("the"));
+    }
+
+    @Test
+    void testSimilarity_EstimatesJaccard() {
+        // " deploys take forever " and " deploy takes forever " share 15 of 25 trigrams
+        double similarity = MinHashLsh.similarity(minHash.signature("Deploys take forever"), minHash.signature("deploy takes forever"));
+
+        assertEquals(15.0 / 25, similarity, 0.15);
+    }
+
+    @Test
+    void testShingles_DropStopWordsAndPunctuation() {
+        assertEquals(MinHashLsh.shingles(" ci slow "), MinHashLsh.shingles("CI is slow!"));
+        assertEquals(7, MinHashLsh.shingles("CI is slow!").size());
+        assertTrue(MinHashLsh.shingles("is the").isEmpty());
+    }
+}
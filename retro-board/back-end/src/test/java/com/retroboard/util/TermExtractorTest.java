@@ -0,0 +1,36 @@
+package com.retroboard.util;
+
+import org.junit.jupiter.api.Test;
+import java.util.List;
+import java.util.Set;
+import static org.junit.jupiter.api.Assertions.*;
+
+class TermExtractorTest {
+
+    @Test
+    void testWords_LowerCasesAndDropsStopWords() {
+        assertEquals(List.of("ci", "slow"), TermExtractor.words("The CI is slow!"));
+        assertEquals(List.of("déploiements", "lents"), TermExtractor.words("Déploiements lents"));
+        assertTrue(TermExtractor.words(null).isEmpty());
+    }
+
+    @Test
+    void testTerms_WordsAndNeighbouringPairs() {
+        assertEquals(Set.of("flaky", "tests", "flaky tests", "block", "tests block", "releases", "block releases"),
+            TermExtractor.terms("Flaky tests block releases"));
+    }
+
+    @Test
+    void testTerms_DistinctPerText() {
+        assertEquals(Set.of("slow", "slow slow"), TermExtractor.terms("slow, slow, slow"));
+    }
+
+    @Test
+    void testTerms_SkipsSingleLettersAndLongWords() {
+        String longWord = "x".repeat(TermExtractor.MAX_TERM_LENGTH + 1);
+
+        assertEquals(Set.of("plan", "plan b"), TermExtractor.terms("plan B"));
+        assertTrue(TermExtractor.terms(longWord).isEmpty());
+        assertTrue(TermExtractor.terms("").isEmpty());
+    }
+}
@@ -0,0 +1,117 @@
+package com.retroboard.util;
+
+import org.junit.jupiter.api.Test;
+import java.util.List;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+class TextOperationTest {
+
+    @Test
+    void testApply() {
+        TextOperation operation = new TextOperation().retain(6).delete(5).insert("team");
+
+        assertEquals("hello team", operation.apply("hello world"));
+        assertEquals(11, operation.getBaseLength());
+        assertEquals(10, operation.getTargetLength());
+    }
+
+    @Test
+    void testApply_WrongLength() {
+        TextOperation operation = new TextOperation().retain(3);
+
+        assertThrows(IllegalArgumentException.class, () -> operation.apply("hello"));
+    }
+
+    @Test
+    void testJsonRoundTrip() {
+        // ot.js wire format: retain n, delete -n, insert "text"
+        TextOperation operation = TextOperation.fromJson(List.of(2, "ab", -1, 3));
+
+        assertEquals(List.of(2, "ab", -1, 3), operation.toJson());
+        assertEquals(6, operation.getBaseLength());
+        assertEquals(7, operation.getTargetLength());
+    }
+
+    @Test
+    void testFromJson_RejectsUnknownComponents() {
+        assertThrows(IllegalArgumentException.class, () -> TextOperation.fromJson(List.of(1.5)));
+        assertThrows(IllegalArgumentException.class, () -> TextOperation.fromJson(List.of(0)));
+        assertThrows(IllegalArgumentException.class, () -> TextOperation.fromJson(List.of(true)));
+    }
+
+    @Test
+    void testInsertIsKeptBeforeDelete() {
+        TextOperation a = new TextOperation().delete(2).insert("x");
+        TextOperation b = new TextOperation().insert("x").delete(2);
+
+        assertEquals(a, b);
+    }
+
+    @Test
+    void testTransform_ConcurrentInsertsAtSamePosition() {
+        TextOperation a = new TextOperation().retain(3).insert("A");
+        TextOperation b = new TextOperation().retain(3).insert("B");
+
+        TextOperation[] primes = TextOperation.transform(a, b);
+
+        // The first argument's insert goes first on both sides
+        assertEquals("abcAB", primes[1].apply(a.apply("abc")));
+        assertEquals("abcAB", primes[0].apply(b.apply("abc")));
+    }
+
+    @Test
+    void testTransform_EditInsideDeletedRange() {
+        String text = "keep this text";
+        TextOperation delete = new TextOperation().retain(5).delete(5).retain(4);
+        TextOperation insert = new TextOperation().retain(7).insert("!").retain(7);
+
+        TextOperation[] primes = TextOperation.transform(delete, insert);
+
+        assertEquals(primes[1].apply(delete.apply(text)), primes[0].apply(insert.apply(text)));
+    }
+
+    @Test
+    void testTransform_Converges() {
+        Random random = new Random(42);
+        for (int i = 0; i < 500; i++) {
+            String text = randomText(random, random.nextInt(20));
+            TextOperation a = randomOperation(random, text);
+            TextOperation b = randomOperation(random, text);
+
+            TextOperation[] primes = TextOperation.transform(a, b);
+
+            assertEquals(primes[1].apply(a.apply(text)), primes[0].apply(b.apply(text)),
+                "Diverged for " + a + " and " + b + " on \"" + text + "\"");
+        }
+    }
+
+    private TextOperation randomOperation(Random random, String text) {
+        TextOperation operation = new TextOperation();
+        int remaining = text.length();
+        while (remaining > 0) {
+            int length = 1 + random.nextInt(remaining);
+            switch (random.nextInt(3)) {
+                case 0 -> operation.retain(length);
+                case 1 -> operation.delete(length);
+                default -> {
+                    operation.insert(randomText(random, 1 + random.nextInt(4)));
+                    continue;
+                }
+            }
+            remaining -= length;
+        }
+        if (random.nextBoolean()) {
+            operation.insert(randomText(random, 1 + random.nextInt(4)));
+        }
+        return operation;
+    }
+
+    private String randomText(Random random, int length) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            builder.append((char) ('a' + random.nextInt(26)));
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,87 @@
+package com.retroboard.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import java.lang.reflect.Field;
+import java.util.Collections;
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenValidationCacheTest {
+
+    private TokenValidationCache cache;
+    private UserDetails alice;
+    private UserDetails bob;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        cache = new TokenValidationCache();
+
+        Field ttlField = TokenValidationCache.class.getDeclaredField("ttlMs");
+        ttlField.setAccessible(true);
+        ttlField.set(cache, 30000L);
+
+        Field maxSizeField = TokenValidationCache.class.getDeclaredField("maxSize");
+        maxSizeField.setAccessible(true);
+        maxSizeField.set(cache, 2);
+
+        alice = new User("alice", "password", Collections.emptyList());
+        bob = new User("bob", "password", Collections.emptyList());
+    }
+
+    @Test
+    void testGet_Hit() {
+        cache.put("hash-a", alice, System.currentTimeMillis() + 60000);
+
+        assertEquals(alice, cache.get("hash-a"));
+    }
+
+    @Test
+    void testGet_Miss() {
+        assertNull(cache.get("unknown"));
+    }
+
+    @Test
+    void testGet_ExpiresWithToken() {
+        // Token expiry earlier than the TTL wins
+        cache.put("hash-a", alice, System.currentTimeMillis() - 1);
+
+        assertNull(cache.get("hash-a"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testInvalidateUser() {
+        cache.put("hash-a", alice, System.currentTimeMillis() + 60000);
+        cache.put("hash-b", bob, System.currentTimeMillis() + 60000);
+
+        cache.invalidateUser("alice");
+
+        assertNull(cache.get("hash-a"));
+        assertEquals(bob, cache.get("hash-b"));
+    }
+
+    @Test
+    void testPut_BoundedSize() {
+        cache.put("hash-a", alice, System.currentTimeMillis() + 60000);
+        cache.put("hash-b", bob, System.currentTimeMillis() + 60000);
+        cache.put("hash-c", alice, System.currentTimeMillis() + 60000);
+
+        assertTrue(cache.size() <= 2);
+        assertEquals(alice, cache.get("hash-c"));
+    }
+
+    @Test
+    void testDisabled_NothingCached() throws Exception {
+        Field ttlField = TokenValidationCache.class.getDeclaredField("ttlMs");
+        ttlField.setAccessible(true);
+        ttlField.set(cache, 0L);
+
+        cache.put("hash-a", alice, System.currentTimeMillis() + 60000);
+
+        assertFalse(cache.isEnabled());
+        assertNull(cache.get("hash-a"));
+        assertEquals(0, cache.size());
+    }
+}